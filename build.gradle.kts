@@ -589,6 +589,49 @@ tasks.register("genBuildInfo") {
   }
 }
 
+/**
+ * Task: createCdsArchive
+ *
+ * Simulates a sample circuit without a display and dumps the classes this loaded into a class data
+ * sharing archive next to the shadowJar, along with a launcher script that uses it. Short headless
+ * runs (i.e. `--tty`, `--test-vector`) spend most of their time loading classes, which the archive
+ * lets the JVM map instead.
+ */
+tasks.register("createCdsArchive") {
+  group = "build"
+  description = "Makes a class data sharing archive and a launcher for headless runs."
+  dependsOn("shadowJar")
+  val libsDir = ext.get(LIBS_DIR) as String
+  val shadowJarFilename = ext.get(SHADOW_JAR_FILE_NAME) as String
+  val archiveFilename = shadowJarFilename.replace(".jar", ".jsa")
+  val cdsDir = "${projectDir}/support/cds"
+  val launcher = "${libsDir}/${project.name}-headless"
+  inputs.file("${libsDir}/${shadowJarFilename}")
+  inputs.dir(cdsDir)
+  outputs.files("${libsDir}/${archiveFilename}", launcher)
+
+  doLast {
+    // The archive only fits the JVM that dumped it, which is the one the launcher should run with.
+    val javaHome = System.getProperty("java.home") ?: throw GradleException("java.home is not set")
+    val params = listOf(
+        "${javaHome}/bin/java",
+        "-XX:ArchiveClassesAtExit=${libsDir}/${archiveFilename}",
+        "-Xlog:disable", "-Xlog:all=warning:stderr",
+        "-Djava.awt.headless=true",
+        "-jar", "${libsDir}/${shadowJarFilename}",
+        "--tty", "table",
+        "${cdsDir}/training.circ"
+    )
+    runCommand(params, "Error while creating class data sharing archive.")
+
+    val script = file("${cdsDir}/launcher.sh").readText()
+        .replace("@ARCHIVE@", archiveFilename)
+        .replace("@JAR@", shadowJarFilename)
+    file(launcher).writeText(script)
+    file(launcher).setExecutable(true)
+  }
+}
+
 /**
  * Task genVhdlSyntax
  *
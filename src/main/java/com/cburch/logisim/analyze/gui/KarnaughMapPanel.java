@@ -25,7 +25,7 @@ import com.cburch.logisim.analyze.model.TruthTable;
 import com.cburch.logisim.analyze.model.TruthTableEvent;
 import com.cburch.logisim.analyze.model.TruthTableListener;
 import com.cburch.logisim.data.Bounds;
-import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.util.GraphicsUtil;
 import com.cburch.logisim.util.LineBuffer;
@@ -900,7 +900,7 @@ public class KarnaughMapPanel extends JPanel implements BaseMouseMotionListenerC
         if (provisionalValue != null && row == provisionalY && outputColumn == provisionalX)
           entry = provisionalValue;
         if (entry.isError()) {
-          gfx.setColor(Value.errorColor);
+          gfx.setColor(ValueColors.errorColor);
           gfx.fillRect(x + j * cellWidth, y + i * cellHeight, cellWidth, cellHeight);
           gfx.setColor(Color.BLACK);
         } else if (hover.x == j && hover.y == i) {
@@ -16,7 +16,7 @@ import com.cburch.logisim.analyze.model.TruthTable;
 import com.cburch.logisim.analyze.model.TruthTableEvent;
 import com.cburch.logisim.analyze.model.TruthTableListener;
 import com.cburch.logisim.analyze.model.Var;
-import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.gui.menu.EditHandler;
 import com.cburch.logisim.gui.menu.LogisimMenuBar;
 import com.cburch.logisim.gui.menu.PrintHandler;
@@ -229,11 +229,11 @@ class TableTab extends AnalyzerTab implements Entry.EntryChangedListener {
                   ? table.getVisibleInputEntry(row, col++)
                   : table.getVisibleOutputEntry(row, col++);
           if (entry.isError()) {
-            g.setColor(Value.errorColor);
+            g.setColor(ValueColors.errorColor);
             g.fillRect(x, y, cellWidth, cellHeight);
             g.setColor(Color.BLACK);
           }
-          g.setColor(entry == Entry.BUS_ERROR ? Value.errorColor : Color.BLACK);
+          g.setColor(entry == Entry.BUS_ERROR ? ValueColors.errorColor : Color.BLACK);
           final var label = entry.getDescription();
           final var width = fm.stringWidth(label);
           g.drawString(label, x + (cellWidth - width) / 2, cy);
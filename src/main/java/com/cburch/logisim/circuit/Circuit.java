@@ -111,7 +111,6 @@ public class Circuit {
     public void endChanged(ComponentEvent e) {
       locker.checkForWritePermission("ends changed", Circuit.this);
       isAnnotated = false;
-      myNetList.clear();
       final var comp = e.getSource();
       final var toRemove = toMap(e.getOldData());
       final var toAdd = toMap(e.getData());
@@ -240,6 +239,7 @@ public class Circuit {
   private final SocSimulationManager socSim = new SocSimulationManager();
 
   private final LogisimFile logiFile;
+  private final OutputCache outputCache = new OutputCache(this);
 
   public Circuit(String name, LogisimFile file, Project proj) {
     staticAttrs = CircuitAttributes.createBaseAttrs(this, name);
@@ -466,7 +466,11 @@ public class Circuit {
    * Code taken from Cornell's version of Logisim: http://www.cs.cornell.edu/courses/cs3410/2015sp/
    */
   public void doTestVector(Project project, Instance[] pin, Value[] val) throws TestException {
-    final var state = project.getCircuitState();
+    doTestVector(project.getCircuitState(), pin, val);
+  }
+
+  /** Applies one line of a test vector to the given state of this circuit and checks the outputs. */
+  public void doTestVector(CircuitState state, Instance[] pin, Value[] val) throws TestException {
     state.reset();
 
     for (var i = 0; i < pin.length; ++i) {
@@ -547,6 +551,7 @@ public class Circuit {
   }
 
   private void fireEvent(CircuitEvent event) {
+    if (event.getAction() != CircuitEvent.ACTION_DISPLAY_CHANGE) outputCache.invalidate();
     for (final var l : listeners) {
       l.circuitChanged(event);
     }
@@ -653,6 +658,23 @@ public class Circuit {
     return Bounds.create(xMin, yMin, xMax - xMin, yMax - yMin);
   }
 
+  /** Tells whether the user declared this circuit combinational, letting its outputs be cached. */
+  public boolean isCombinational() {
+    return staticAttrs.getValue(CircuitAttributes.COMBINATIONAL_ATTR);
+  }
+
+  OutputCache getOutputCache() {
+    return outputCache;
+  }
+
+  /**
+   * Tells whether the given log model records signals inside instances of this circuit, which
+   * then never take their outputs from the cache.
+   */
+  public void setLogged(Object logger, boolean logged) {
+    outputCache.setLogged(logger, logged);
+  }
+
   public Collection<Circuit> getCircuitsUsingThis() {
     return circuitsUsingThis.values();
   }
@@ -817,7 +839,6 @@ public class Circuit {
     locker.checkForWritePermission("add", this);
 
     isAnnotated = false;
-    myNetList.clear();
     if (c instanceof Wire wire) {
       if (wire.getEnd0().equals(wire.getEnd1())) return;
       var added = wires.add(wire);
@@ -872,7 +893,6 @@ public class Circuit {
     comps = new LinkedHashSet<>();
     wires = new CircuitWires();
     clocks.clear();
-    myNetList.clear();
     isAnnotated = false;
     for (final var comp : oldComps) {
       socSim.removeComponent(comp);
@@ -886,7 +906,6 @@ public class Circuit {
     locker.checkForWritePermission("remove", this);
 
     isAnnotated = false;
-    myNetList.clear();
     if (c instanceof Wire) {
       wires.remove(c);
     } else {
@@ -142,6 +142,7 @@ public class CircuitAttributes extends AbstractAttributeSet {
     destination.setValue(APPEARANCE_ATTR, source.getValue(APPEARANCE_ATTR));
     destination.setValue(
         NAMED_CIRCUIT_BOX_FIXED_SIZE, source.getValue(NAMED_CIRCUIT_BOX_FIXED_SIZE));
+    destination.setValue(COMBINATIONAL_ATTR, source.getValue(COMBINATIONAL_ATTR));
     destination.setValue(SIMULATION_FREQUENCY, source.getValue(SIMULATION_FREQUENCY));
     destination.setValue(DOWNLOAD_FREQUENCY, source.getValue(DOWNLOAD_FREQUENCY));
     destination.setValue(DOWNLOAD_BOARD, source.getValue(DOWNLOAD_BOARD));
@@ -173,6 +174,8 @@ public class CircuitAttributes extends AbstractAttributeSet {
       Attributes.forBoolean("circuitvhdl", S.getter("circuitIsVhdl"));
   public static final Attribute<Boolean> NAMED_CIRCUIT_BOX_FIXED_SIZE =
       Attributes.forBoolean("circuitnamedboxfixedsize", S.getter("circuitNamedBoxFixedSize"));
+  public static final Attribute<Boolean> COMBINATIONAL_ATTR =
+      Attributes.forBoolean("combinational", S.getter("circuitCombinationalAttr"));
   public static final AttributeOption APPEAR_CLASSIC = StdAttr.APPEAR_CLASSIC;
   public static final AttributeOption APPEAR_FPGA = StdAttr.APPEAR_FPGA;
   public static final AttributeOption APPEAR_EVOLUTION = StdAttr.APPEAR_EVOLUTION;
@@ -198,13 +201,14 @@ public class CircuitAttributes extends AbstractAttributeSet {
     CIRCUIT_LABEL_FONT_ATTR,
     APPEARANCE_ATTR,
     NAMED_CIRCUIT_BOX_FIXED_SIZE,
+    COMBINATIONAL_ATTR,
     SIMULATION_FREQUENCY,
     DOWNLOAD_FREQUENCY,
     DOWNLOAD_BOARD
   };
 
   private static final Object[] STATIC_DEFAULTS = {
-    "", "", Direction.EAST, StdAttr.DEFAULT_LABEL_FONT, APPEAR_CLASSIC, false, -1d, -1d, ""
+    "", "", Direction.EAST, StdAttr.DEFAULT_LABEL_FONT, APPEAR_CLASSIC, false, false, -1d, -1d, ""
   };
 
   private static final List<Attribute<?>> INSTANCE_ATTRS =
@@ -18,6 +18,7 @@ import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
 import com.cburch.logisim.fpga.gui.Reporter;
 import com.cburch.logisim.fpga.hdlgenerator.AbstractHdlGeneratorFactory;
 import com.cburch.logisim.fpga.hdlgenerator.Hdl;
+import com.cburch.logisim.fpga.hdlgenerator.HdlGeneratorFactory;
 import com.cburch.logisim.fpga.hdlgenerator.TickComponentHdlGeneratorFactory;
 import com.cburch.logisim.instance.Port;
 import com.cburch.logisim.instance.StdAttr;
@@ -27,10 +28,13 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CircuitHdlGeneratorFactory extends AbstractHdlGeneratorFactory {
 
@@ -113,46 +117,7 @@ public class CircuitHdlGeneratorFactory extends AbstractHdlGeneratorFactory {
     }
     myNetList.setCurrentHierarchyLevel(hierarchy);
     /* First we handle the normal components */
-    for (final var thisComponent : myNetList.getNormalComponents()) {
-      final var componentName =
-          thisComponent.getComponent()
-              .getFactory()
-              .getHDLName(thisComponent.getComponent().getAttributeSet());
-      if (!handledComponents.contains(componentName)) {
-        final var worker =
-            thisComponent.getComponent()
-                .getFactory()
-                .getHDLGenerator(thisComponent.getComponent().getAttributeSet());
-        if (worker == null) {
-          // FIXME: hardcoded string
-          Reporter.report.addFatalError(
-              "INTERNAL ERROR: Cannot find the VHDL generator factory for component "
-                  + componentName);
-          return false;
-        }
-        if (!worker.isOnlyInlined()) {
-          if (!Hdl.writeEntity(
-              workPath + worker.getRelativeDirectory(),
-              worker.getEntity(
-                  myNetList,
-                  thisComponent.getComponent().getAttributeSet(),
-                  componentName),
-              componentName)) {
-            return false;
-          }
-          if (!Hdl.writeArchitecture(
-              workPath + worker.getRelativeDirectory(),
-              worker.getArchitecture(
-                  myNetList,
-                  thisComponent.getComponent().getAttributeSet(),
-                  componentName),
-              componentName)) {
-            return false;
-          }
-        }
-        handledComponents.add(componentName);
-      }
-    }
+    if (!generateComponentDescriptions(myNetList, handledComponents, workPath)) return false;
     /* Now we go down the hierarchy to get all other components */
     for (final var thisCircuit : myNetList.getSubCircuits()) {
       final var worker =
@@ -168,6 +133,10 @@ public class CircuitHdlGeneratorFactory extends AbstractHdlGeneratorFactory {
                 + "'");
         return false;
       }
+      /* a circuit that was already generated has all its contents generated as well */
+      if (handledComponents.contains(worker.getComponentName(thisCircuit.isGatedInstance()))) {
+        continue;
+      }
       hierarchy.add(
           CorrectLabel.getCorrectLabel(
               thisCircuit.getComponent().getAttributeSet().getValue(StdAttr.LABEL)));
@@ -178,8 +147,7 @@ public class CircuitHdlGeneratorFactory extends AbstractHdlGeneratorFactory {
       hierarchy.remove(hierarchy.size() - 1);
     }
     /* I also have to generate myself */
-    var componentName = CorrectLabel.getCorrectLabel(myCircuit.getName());
-    if (gatedInstance) componentName = componentName.concat("_gated");
+    final var componentName = getComponentName(gatedInstance);
     if (!handledComponents.contains(componentName)) {
       if (!Hdl.writeEntity(
           workPath + getRelativeDirectory(),
@@ -199,6 +167,81 @@ public class CircuitHdlGeneratorFactory extends AbstractHdlGeneratorFactory {
     return true;
   }
 
+  private String getComponentName(boolean gatedInstance) {
+    final var componentName = CorrectLabel.getCorrectLabel(myCircuit.getName());
+    return gatedInstance ? componentName.concat("_gated") : componentName;
+  }
+
+  private record HdlDescription(
+      String componentName, String directory, List<String> entity, List<String> architecture) {}
+
+  /**
+   * Generates the descriptions of the normal components of this circuit that were not generated
+   * before. The generators keep state while generating, so the components of a single generator
+   * are handled one after the other, while those of different generators are handled in parallel.
+   * The files are written afterwards, in the order of the netlist.
+   */
+  private boolean generateComponentDescriptions(
+      Netlist myNetList, Set<String> handledComponents, String workPath) {
+    final var workers = new LinkedHashMap<String, HdlGeneratorFactory>();
+    final var attributes = new HashMap<String, AttributeSet>();
+    for (final var thisComponent : myNetList.getNormalComponents()) {
+      final var componentName =
+          thisComponent.getComponent()
+              .getFactory()
+              .getHDLName(thisComponent.getComponent().getAttributeSet());
+      if (handledComponents.contains(componentName) || workers.containsKey(componentName)) continue;
+      final var worker =
+          thisComponent.getComponent()
+              .getFactory()
+              .getHDLGenerator(thisComponent.getComponent().getAttributeSet());
+      if (worker == null) {
+        // FIXME: hardcoded string
+        Reporter.report.addFatalError(
+            "INTERNAL ERROR: Cannot find the VHDL generator factory for component "
+                + componentName);
+        return false;
+      }
+      workers.put(componentName, worker);
+      attributes.put(componentName, thisComponent.getComponent().getAttributeSet());
+    }
+    final var perWorker = new IdentityHashMap<HdlGeneratorFactory, List<String>>();
+    for (final var entry : workers.entrySet()) {
+      if (entry.getValue().isOnlyInlined()) continue;
+      perWorker.computeIfAbsent(entry.getValue(), w -> new ArrayList<>()).add(entry.getKey());
+    }
+    final var descriptions = new ConcurrentHashMap<String, HdlDescription>();
+    perWorker.entrySet().parallelStream()
+        .forEach(
+            entry -> {
+              final var worker = entry.getKey();
+              for (final var componentName : entry.getValue()) {
+                final var attrs = attributes.get(componentName);
+                descriptions.put(
+                    componentName,
+                    new HdlDescription(
+                        componentName,
+                        workPath + worker.getRelativeDirectory(),
+                        worker.getEntity(myNetList, attrs, componentName),
+                        worker.getArchitecture(myNetList, attrs, componentName)));
+              }
+            });
+    for (final var componentName : workers.keySet()) {
+      final var description = descriptions.get(componentName);
+      if (description != null) {
+        if (!Hdl.writeEntity(description.directory(), description.entity(), componentName)) {
+          return false;
+        }
+        if (!Hdl.writeArchitecture(
+            description.directory(), description.architecture(), componentName)) {
+          return false;
+        }
+      }
+      handledComponents.add(componentName);
+    }
+    return true;
+  }
+
   /* here the private handles are defined */
   private String getBubbleIndex(netlistComponent comp, bubbleType type) {
     final var fmt = "{{<}}{{1}} {{2}} {{3}}{{>}}";
@@ -9,6 +9,7 @@
 
 package com.cburch.logisim.circuit;
 
+import com.cburch.logisim.circuit.Propagator.DriverStamp;
 import com.cburch.logisim.circuit.Propagator.SetData;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.comp.ComponentDrawContext;
@@ -25,10 +26,11 @@ import com.cburch.logisim.std.memory.Ram;
 import com.cburch.logisim.std.memory.RamState;
 import com.cburch.logisim.std.wiring.Clock;
 import com.cburch.logisim.std.wiring.Pin;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -48,6 +50,7 @@ public class CircuitState implements InstanceData {
           markPointAsDirty(wire.getEnd1());
         } else {
           markComponentAsDirty(comp);
+          if (comp.getFactory() instanceof Clock) clocksChanged();
         }
       } else if (action == CircuitEvent.ACTION_REMOVE) {
         /* Component was removed */
@@ -55,9 +58,11 @@ public class CircuitState implements InstanceData {
         if (comp == temporaryClock) temporaryClock = null;
         if (comp.getFactory() instanceof Clock) {
           knownClocks = false; // just in case, will be recomputed by simulator
+          clocksChanged();
         }
         if (comp.getFactory() instanceof SubcircuitFactory) {
           knownClocks = false; // just in case, will be recomputed by simulator
+          clocksChanged();
           // disconnect from tree
           final var subState = (CircuitState) getData(comp);
           if (subState != null && subState.parentComp == comp) {
@@ -81,6 +86,7 @@ public class CircuitState implements InstanceData {
         temporaryClock = null;
         knownClocks = false;
         subStates.clear();
+        clocksChanged();
         wireData = null;
         for (final var comp : componentData.keySet()) {
           if (componentData.get(comp) instanceof ComponentDataGuiProvider dataGuiProvider)
@@ -94,13 +100,14 @@ public class CircuitState implements InstanceData {
         dirtyComponents.clear();
         dirtyPoints.clear();
         causes.clear();
+        driverStamps.clear();
       } else if (action == CircuitEvent.ACTION_INVALIDATE) {
         final var comp = (Component) event.getData();
         markComponentAsDirty(comp);
         // If simulator is in single step mode, we want to hilight the
         // invalidated components (which are likely Pins, Buttons, or other
         // inputs), so pass this component to the simulator for display.
-        proj.getSimulator().addPendingInput(CircuitState.this, comp);
+        if (base != null) base.addPendingInput(CircuitState.this, comp);
         // TODO detemine if this should really be missing if (base != null) base.checkComponentEnds(CircuitState.this, comp);
       } else if (action == CircuitEvent.TRANSACTION_DONE) {
         final var map = event.getResult().getReplacementMap(circuit);
@@ -121,6 +128,7 @@ public class CircuitState implements InstanceData {
           if (!found && compState instanceof CircuitState sub) {
             sub.parentState = null;
             subStates.remove(sub);
+            clocksChanged();
           }
         }
       }
@@ -136,6 +144,13 @@ public class CircuitState implements InstanceData {
   private Component parentComp = null; // subcircuit component containing this
   // state
   private HashSet<CircuitState> subStates = new HashSet<>();
+  // ports of parentComp whose value changed on either side since it last propagated, indexed like
+  // portPins; null when all of them must be passed across
+  private BitSet dirtyPorts = null;
+  private Instance[] portPins = null;
+  // the inputs passed on to this state for want of cached outputs, which are cached once the
+  // circuit settles; null if none
+  private OutputCache.Miss cacheMiss = null;
 
   private CircuitWires.State wireData = null;
   private final HashMap<Component, Object> componentData = new HashMap<>();
@@ -143,6 +158,7 @@ public class CircuitState implements InstanceData {
   private CopyOnWriteArraySet<Component> dirtyComponents = new CopyOnWriteArraySet<>();
   private final CopyOnWriteArraySet<Location> dirtyPoints = new CopyOnWriteArraySet<>();
   final HashMap<Location, SetData> causes = new HashMap<>();
+  final HashMap<Location, DriverStamp> driverStamps = new HashMap<>();
 
   private static int lastId = 0;
   private final int id = lastId++;
@@ -308,6 +324,16 @@ public class CircuitState implements InstanceData {
     }
   }
 
+  /**
+   * Marks the subcircuit components that contain this state dirty, up to the root state, so that
+   * cached subcircuits pass their current inputs on to the states they skipped.
+   */
+  public void markParentComponentsDirty() {
+    for (var state = this; state.parentState != null; state = state.parentState) {
+      state.parentState.markComponentAsDirty(state.parentComp);
+    }
+  }
+
   public void markComponentsDirty(Collection<Component> comps) {
     dirtyComponents.addAll(comps);
   }
@@ -339,39 +365,81 @@ public class CircuitState implements InstanceData {
       for (final var compObj : toProcess) {
         if (compObj instanceof Component comp) {
           comp.propagate(this);
-          if (comp.getFactory() instanceof Pin && parentState != null) {
+          if (comp.getFactory() instanceof Pin && parentState != null && markOutputPinDirty(comp)) {
             // should be propagated in superstate
-            parentComp.propagate(parentState);
+            if (base == null || !base.deferPropagation(this, parentComp, parentState)) {
+              parentComp.propagate(parentState);
+            }
           }
         }
       }
     }
 
-    final var subs = new CircuitState[subStates.size()];
-    for (final var substate : subStates.toArray(subs)) {
+    final var subs = subStates.toArray(new CircuitState[subStates.size()]);
+    if (base != null && base.processDirtyComponentsInParallel(subs)) return;
+    for (final var substate : subs) {
       substate.processDirtyComponents();
     }
   }
 
+  // Marks the port of parentComp that the given pin of this state stands for, if it is an output.
+  private boolean markOutputPinDirty(Component pin) {
+    final var pins = ((CircuitAttributes) parentComp.getAttributeSet()).getPinInstances();
+    for (var i = 0; i < pins.length; i++) {
+      if (pins[i].getComponent() == pin) {
+        if (Pin.FACTORY.isInputPin(pins[i])) return false;
+        if (dirtyPorts != null) dirtyPorts.set(i);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Marks the ports of a subcircuit component of this state that lie at the given point.
+  private void markSubcircuitPortDirty(Component comp, Location pt) {
+    if (!(componentData.get(comp) instanceof CircuitState subState) || subState.dirtyPorts == null) {
+      return;
+    }
+    final var ends = comp.getEnds();
+    for (var i = 0; i < ends.size(); i++) {
+      if (ends.get(i).getLocation().equals(pt)) subState.dirtyPorts.set(i);
+    }
+  }
+
+  /**
+   * Returns the ports of the subcircuit component containing this state that must be passed across
+   * since its last propagation, which the caller must clear once done, or null if all of them must.
+   */
+  BitSet getDirtyPorts(Instance[] pins) {
+    if (dirtyPorts == null || portPins != pins) {
+      portPins = pins;
+      dirtyPorts = new BitSet(pins.length);
+      return null;
+    }
+    return dirtyPorts;
+  }
+
+  OutputCache.Miss getCacheMiss() {
+    return cacheMiss;
+  }
+
+  void setCacheMiss(OutputCache.Miss miss) {
+    cacheMiss = miss;
+  }
+
+  /**
+   * Makes the next propagation of the subcircuit component containing this state pass all ports
+   * across, e.g. after its outputs were set from elsewhere than this state.
+   */
+  void invalidateDirtyPorts() {
+    dirtyPorts = null;
+  }
+
   void processDirtyPoints() {
     final var dirty = new HashSet<>(dirtyPoints);
     dirtyPoints.clear();
-    if (circuit.wires.isMapVoided()) {
-      for (var i = 3; i >= 0; i--) {
-        try {
-          dirty.addAll(circuit.wires.points.getSplitLocations());
-          break;
-        } catch (ConcurrentModificationException e) {
-          // try again...
-          try {
-            Thread.sleep(1);
-          } catch (InterruptedException ignored) {
-          }
-          if (i == 0) e.printStackTrace();
-        }
-      }
-    }
-    if (!dirty.isEmpty()) {
+    // the wires are also propagated after an edit that left no dirty point, e.g. a new splitter
+    if (!dirty.isEmpty() || circuit.wires.hasChangedSince(wireData)) {
       circuit.wires.propagate(this, dirty);
     }
 
@@ -385,6 +453,7 @@ public class CircuitState implements InstanceData {
   void reset() {
     temporaryClock = null;
     wireData = null;
+    dirtyPorts = null;
     for (final var comp : componentData.keySet()) {
       if (comp.getFactory() instanceof Ram ram) {
         final var remove = ram.reset(this, Instance.getInstanceFor(comp));
@@ -403,6 +472,7 @@ public class CircuitState implements InstanceData {
     dirtyComponents.clear();
     dirtyPoints.clear();
     causes.clear();
+    driverStamps.clear();
     markAllComponentsDirty();
 
     for (CircuitState sub : subStates) {
@@ -414,6 +484,7 @@ public class CircuitState implements InstanceData {
     if (data instanceof CircuitState newState) {
       final var oldState = (CircuitState) componentData.get(comp);
       if (oldState != newState) {
+        clocksChanged();
         // There's something new going on with this subcircuit.
         // Maybe the subcircuit is new, or perhaps it's being
         // removed.
@@ -461,6 +532,7 @@ public class CircuitState implements InstanceData {
         if (!(comp instanceof Wire) && !(comp instanceof Splitter)) {
           found = true;
           markComponentAsDirty(comp);
+          if (comp.getFactory() instanceof SubcircuitFactory) markSubcircuitPortDirty(comp, p);
         }
       }
       // NOTE: this will cause a double-propagation on components
@@ -474,6 +546,19 @@ public class CircuitState implements InstanceData {
     wireData = data;
   }
 
+  /**
+   * Adds this state and those below it that have clocks to toggle to the given list, i.e. those
+   * whose circuit contains clocks, or that have a temporary clock.
+   */
+  void collectClockedStates(List<CircuitState> dest) {
+    if (temporaryClock != null || !circuit.getClocks().isEmpty()) dest.add(this);
+    final var subs = new CircuitState[subStates.size()];
+    for (final var substate : subStates.toArray(subs)) {
+      if (substate != null) substate.collectClockedStates(dest);
+    }
+  }
+
+  /** Toggles the clocks of this state only; the propagator knows which states have clocks. */
   boolean toggleClocks(int ticks) {
     var ret = false;
     if (temporaryClock != null)
@@ -481,13 +566,13 @@ public class CircuitState implements InstanceData {
 
     for (final var clock : circuit.getClocks())
       ret |= Clock.tick(this, ticks, clock);
-
-    final var subs = new CircuitState[subStates.size()];
-    for (final var substate : subStates.toArray(subs))
-      ret |= substate.toggleClocks(ticks);
     return ret;
   }
 
+  private void clocksChanged() {
+    if (base != null) base.clocksChanged();
+  }
+
   private boolean temporaryClockValidateOrTick(int ticks) {
     // temporaryClock.getFactory() will be Pin, normally a 1 bit input
     try {
@@ -523,6 +608,7 @@ public class CircuitState implements InstanceData {
 
   public boolean setTemporaryClock(Component clk) {
     temporaryClock = clk;
+    clocksChanged();
     return clk == null || temporaryClockValidateOrTick(-1);
   }
 
@@ -9,15 +9,18 @@
 
 package com.cburch.logisim.circuit;
 
+import com.cburch.logisim.Main;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.comp.ComponentDrawContext;
 import com.cburch.logisim.comp.EndData;
 import com.cburch.logisim.data.AttributeEvent;
 import com.cburch.logisim.data.AttributeListener;
+import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.instance.Instance;
 import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.std.wiring.PullResistor;
@@ -27,14 +30,17 @@ import com.cburch.logisim.util.GraphicsUtil;
 import com.cburch.logisim.util.IteratorUtil;
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.swing.SwingUtilities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,12 +48,25 @@ import org.slf4j.LoggerFactory;
 class CircuitWires {
 
   static class BundleMap {
-    final HashMap<Location, WireBundle> pointBundles = new HashMap<>();
-    final HashSet<WireBundle> bundles = new HashSet<>();
+    final HashMap<Location, WireBundle> pointBundles;
+    final HashSet<WireBundle> bundles;
     boolean isValid = true;
     // NOTE: It would make things more efficient if we also had
     // a set of just the first bundle in each tree.
     HashSet<WidthIncompatibilityData> incompatibilityData = null;
+    // the bundles whose widths conflict, so that a rebuild of some nets need not check the others
+    final HashSet<WireBundle> invalidBundles = new HashSet<>();
+    // nets are rebuilt in place; each rebuild bumps the revision and notes what it replaced, so
+    // that the wire values of a circuit state need only be recomputed for those nets
+    int revision = 0;
+    final ArrayDeque<Change> changes = new ArrayDeque<>();
+    // held for reading while the nets are used, and for writing while some are rebuilt
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    BundleMap() {
+      pointBundles = new HashMap<>();
+      bundles = new HashSet<>();
+    }
 
     void addWidthIncompatibilityData(WidthIncompatibilityData e) {
       if (incompatibilityData == null) {
@@ -68,7 +87,29 @@ class CircuitWires {
     }
 
     WireBundle getBundleAt(Location p) {
-      return pointBundles.get(p);
+      lock.readLock().lock();
+      try {
+        return pointBundles.get(p);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    /**
+     * Returns what the rebuilds since the given revision replaced, or null if this map does not
+     * remember all of them.
+     */
+    Change getChangesSince(int since) {
+      if (since == revision) return new Change(revision, Set.of(), List.of());
+      if (changes.isEmpty() || changes.getFirst().revision() > since + 1) return null;
+      final var points = new HashSet<Location>();
+      final var threads = new ArrayList<WireThread>();
+      for (final var change : changes) {
+        if (change.revision() <= since) continue;
+        points.addAll(change.points());
+        threads.addAll(change.threads());
+      }
+      return new Change(revision, points, threads);
     }
 
     Set<Location> getBundlePoints() {
@@ -91,11 +132,40 @@ class CircuitWires {
       return isValid;
     }
 
+    /**
+     * Replaces the nets at the given points by those of nets, which must cover the same points.
+     * The work is proportional to the number of points, not to the size of the map.
+     */
+    void replaceNets(Set<Location> region, BundleMap nets) {
+      lock.writeLock().lock();
+      try {
+        final var threads = new ArrayList<WireThread>();
+        for (final var p : region) {
+          final var b = pointBundles.remove(p);
+          if (b != null && bundles.remove(b)) {
+            invalidBundles.remove(b);
+            if (b.threads != null) threads.addAll(Arrays.asList(b.threads));
+          }
+        }
+        pointBundles.putAll(nets.pointBundles);
+        bundles.addAll(nets.bundles);
+        invalidBundles.addAll(nets.invalidBundles);
+        revision++;
+        changes.addLast(new Change(revision, region, threads));
+        if (changes.size() > MAX_CHANGES) changes.removeFirst();
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
     void setBundleAt(Location p, WireBundle b) {
       pointBundles.put(p, b);
     }
   }
 
+  /** The points whose nets a rebuild replaced, and the threads of the replaced nets. */
+  record Change(int revision, Set<Location> points, List<WireThread> threads) {}
+
   static class SplitterData {
     final WireBundle[] endBundle; // PointData associated with each end
 
@@ -106,15 +176,18 @@ class CircuitWires {
 
   static class State {
     final BundleMap bundleMap;
+    // the revision of the map the thread values were computed for
+    int revision;
     final HashMap<WireThread, Value> thrValues = new HashMap<>();
 
-    State(BundleMap bundleMap) {
+    State(BundleMap bundleMap, int revision) {
       this.bundleMap = bundleMap;
+      this.revision = revision;
     }
 
     @Override
     public Object clone() {
-      final var ret = new State(this.bundleMap);
+      final var ret = new State(this.bundleMap, this.revision);
       ret.thrValues.putAll(this.thrValues);
       return ret;
     }
@@ -139,12 +212,27 @@ class CircuitWires {
     @Override
     public void attributeValueChanged(AttributeEvent e) {
       final var attr = e.getAttribute();
-      if (attr == StdAttr.LABEL || attr == PullResistor.ATTR_PULL_TYPE) {
-        voidBundleMap();
+      if (attr == StdAttr.LABEL) {
+        markChanged(tunnels, e.getSource());
+      } else if (attr == PullResistor.ATTR_PULL_TYPE) {
+        markChanged(pulls, e.getSource());
       }
     }
   }
 
+  private class SplitterListener implements AttributeListener {
+    @Override
+    public void attributeListChanged(AttributeEvent e) {
+      // do nothing.
+    }
+
+    @Override
+    public void attributeValueChanged(AttributeEvent e) {
+      // the bits may go to other ends even if the ends stay where they are
+      markChanged(splitters, e.getSource());
+    }
+  }
+
   private static Value pullValue(Value base, Value pullTo) {
     if (base.isFullyDefined()) {
       return base;
@@ -162,6 +250,9 @@ class CircuitWires {
 
   static final Logger logger = LoggerFactory.getLogger(CircuitWires.class);
 
+  // how many of its latest rebuilds a map remembers
+  private static final int MAX_CHANGES = 8;
+
   // user-given data
   private final HashSet<Wire> wires = new HashSet<>();
   private final HashSet<Splitter> splitters = new HashSet<>();
@@ -171,6 +262,7 @@ class CircuitWires {
   // Tunnel
   // factory
   private final TunnelListener tunnelListener = new TunnelListener();
+  private final SplitterListener splitterListener = new SplitterListener();
   private final HashSet<Component> pulls = new HashSet<>(); // of
   // Components
   // with
@@ -181,21 +273,24 @@ class CircuitWires {
   // derived data
   private Bounds bounds = Bounds.EMPTY_BOUNDS;
 
-  private BundleMap masterBundleMap = null;
+  private volatile BundleMap masterBundleMap = null;
+  // points whose nets must be rebuilt before masterBundleMap is used again, or null if none
+  private volatile HashSet<Location> changedPoints = null;
 
   CircuitWires() {}
 
   //
   // action methods
   //
-  // NOTE: this could be made much more efficient in most cases to
-  // avoid voiding the bundle map.
+  // Edits do not void the bundle map, they note the points where the nets may have changed, and
+  // only the nets at those points are rebuilt when the map is needed again.
   /*synchronized*/ boolean add(Component comp) {
     var added = true;
     if (comp instanceof Wire wire) {
       added = addWire(wire);
     } else if (comp instanceof Splitter splitter) {
       splitters.add(splitter);
+      splitter.getAttributeSet().addAttributeListener(splitterListener);
     } else {
       final var factory = comp.getFactory();
       if (factory instanceof Tunnel) {
@@ -208,14 +303,14 @@ class CircuitWires {
     }
     if (added) {
       points.add(comp);
-      voidBundleMap();
+      markChanged(comp);
     }
     return added;
   }
 
   /*synchronized*/ void add(Component comp, EndData end) {
     points.add(comp, end);
-    voidBundleMap();
+    if (end != null) markChanged(end.getLocation());
   }
 
   private boolean addWire(Wire w) {
@@ -230,10 +325,72 @@ class CircuitWires {
 
   // To be called by getBundleMap only
   private void computeBundleMap(BundleMap ret) {
+    connectNets(ret, wires, splitters, tunnels, pulls);
+
+    // All threads are sewn together! Compute the exception set before
+    // leaving
+    addWidthIncompatibilityData(ret);
+  }
+
+  /**
+   * Rebuilds the nets of the map at the given points, along with the nets that share threads or
+   * tunnels with them. Returns false, leaving the map as it is, if that would rebuild most of the
+   * map, in which case it is better computed afresh.
+   */
+  private boolean computeChangedNets(BundleMap base, Set<Location> changed) {
+    final var region = new HashSet<Location>();
+    final var baseBundles = new HashSet<WireBundle>();
+    final var netWires = new HashSet<Wire>();
+    final var netSplitters = new HashSet<Splitter>();
+    final var netTunnels = new HashSet<Component>();
+    final var netPulls = new HashSet<Component>();
+    HashMap<String, ArrayList<Component>> tunnelsByLabel = null;
+    final var limit = base.getBundlePoints().size() / 2;
+
+    final var todo = new ArrayList<>(changed);
+    while (!todo.isEmpty()) {
+      final var loc = todo.remove(todo.size() - 1);
+      if (!region.add(loc)) continue;
+      if (region.size() > limit) return false;
+      final var b = base.getBundleAt(loc);
+      if (b != null && baseBundles.add(b)) todo.addAll(b.points);
+      for (final var comp : points.getComponents(loc)) {
+        if (comp instanceof Wire wire) {
+          if (netWires.add(wire)) todo.add(wire.e0.equals(loc) ? wire.e1 : wire.e0);
+        } else if (comp instanceof Splitter spl) {
+          if (netSplitters.add(spl)) {
+            for (final var end : spl.getEnds()) todo.add(end.getLocation());
+          }
+        } else if (tunnels.contains(comp)) {
+          if (netTunnels.add(comp)) {
+            final var label = comp.getAttributeSet().getValue(StdAttr.LABEL).trim();
+            if (label.equals("")) continue;
+            if (tunnelsByLabel == null) tunnelsByLabel = getTunnelsByLabel();
+            for (final var tunnel : tunnelsByLabel.get(label)) todo.add(tunnel.getLocation());
+          }
+        } else if (pulls.contains(comp)) {
+          netPulls.add(comp);
+        }
+      }
+    }
+
+    final var nets = new BundleMap();
+    connectNets(nets, netWires, netSplitters, netTunnels, netPulls);
+    base.replaceNets(region, nets);
+    addWidthIncompatibilityData(base);
+    return true;
+  }
+
+  private void connectNets(
+      BundleMap ret,
+      Collection<Wire> wires,
+      Collection<Splitter> splitters,
+      Collection<Component> tunnels,
+      Collection<Component> pulls) {
     // create bundles corresponding to wires and tunnels
-    connectWires(ret);
-    connectTunnels(ret);
-    connectPullResistors(ret);
+    connectWires(ret, wires);
+    connectTunnels(ret, tunnels);
+    connectPullResistors(ret, pulls);
 
     // merge any WireBundle objects united by previous steps
     for (final var it = ret.getBundles().iterator(); it.hasNext(); ) {
@@ -325,21 +482,41 @@ class CircuitWires {
       }
     }
 
-    // All threads are sewn together! Compute the exception set before
-    // leaving
+    // find the bundles whose value can be computed for all bits at once, because each of their
+    // threads runs through this bundle only
+    for (final var wireBundle : ret.getBundles()) {
+      if (wireBundle.isValid() && wireBundle.threads != null) {
+        var unsplit = true;
+        for (final var thr : wireBundle.threads) {
+          if (thr.getBundles().size() != 1) {
+            unsplit = false;
+            break;
+          }
+        }
+        wireBundle.unsplit = unsplit;
+      }
+    }
+
+    for (final var wireBundle : ret.getBundles()) {
+      if (wireBundle.getWidthIncompatibilityData() != null) ret.invalidBundles.add(wireBundle);
+    }
+  }
+
+  /** Sets the width conflicts of the map from those of the points and of its invalid bundles. */
+  private void addWidthIncompatibilityData(BundleMap ret) {
+    ret.incompatibilityData = null;
     final var exceptions = points.getWidthIncompatibilityData();
     if (CollectionUtil.isNotEmpty(exceptions)) {
       for (final var wid : exceptions) {
         ret.addWidthIncompatibilityData(wid);
       }
     }
-    for (final var wireBundle : ret.getBundles()) {
-      final var e = wireBundle.getWidthIncompatibilityData();
-      if (e != null) ret.addWidthIncompatibilityData(e);
+    for (final var wireBundle : ret.invalidBundles) {
+      ret.addWidthIncompatibilityData(wireBundle.getWidthIncompatibilityData());
     }
   }
 
-  private void connectPullResistors(BundleMap ret) {
+  private void connectPullResistors(BundleMap ret, Collection<Component> pulls) {
     for (final var comp : pulls) {
       final var loc = comp.getEnd(0).getLocation();
       var b = ret.getBundleAt(loc);
@@ -353,7 +530,7 @@ class CircuitWires {
     }
   }
 
-  private void connectTunnels(BundleMap ret) {
+  private void connectTunnels(BundleMap ret, Collection<Component> tunnels) {
     // determine the sets of tunnels
     final var tunnelSets = new HashMap<String, ArrayList<Location>>();
     for (final var comp : tunnels) {
@@ -394,7 +571,7 @@ class CircuitWires {
     }
   }
 
-  private void connectWires(BundleMap ret) {
+  private void connectWires(BundleMap ret, Collection<Wire> wires) {
     // make a WireBundle object for each tree of connected wires
     for (final var wire : wires) {
       final var bundleA = ret.getBundleAt(wire.e0);
@@ -414,6 +591,15 @@ class CircuitWires {
     }
   }
 
+  private HashMap<String, ArrayList<Component>> getTunnelsByLabel() {
+    final var ret = new HashMap<String, ArrayList<Component>>();
+    for (final var comp : tunnels) {
+      final var label = comp.getAttributeSet().getValue(StdAttr.LABEL).trim();
+      if (!label.equals("")) ret.computeIfAbsent(label, k -> new ArrayList<>(3)).add(comp);
+    }
+    return ret;
+  }
+
   void draw(ComponentDrawContext context, Collection<Component> hidden) {
     final var showState = context.getShowState();
     final var state = context.getCircuitState();
@@ -431,9 +617,9 @@ class CircuitWires {
         final var wb = bmap.getBundleAt(s);
         var width = 5;
         if (!wb.isValid()) {
-          g.setColor(Value.widthErrorColor);
+          g.setColor(ValueColors.widthErrorColor);
         } else if (showState) {
-          g.setColor(!isValid ? Value.nilColor : state.getValue(s).getColor());
+          g.setColor(!isValid ? ValueColors.nilColor : state.getValue(s).getColor());
         } else {
           g.setColor(Color.BLACK);
         }
@@ -444,7 +630,7 @@ class CircuitWires {
 
           final var oldStroke = g.getStroke();
           g.setStroke(Wire.HIGHLIGHTED_STROKE);
-          g.setColor(Value.strokeColor);
+          g.setColor(ValueColors.strokeColor);
           g.drawLine(s.getX(), s.getY(), t.getX(), t.getY());
           g.setStroke(oldStroke);
         } else {
@@ -475,9 +661,9 @@ class CircuitWires {
           if (wb != null) {
             var color = Color.BLACK;
             if (!wb.isValid()) {
-              color = Value.widthErrorColor;
+              color = ValueColors.widthErrorColor;
             } else if (showState) {
-              color = !isValid ? Value.nilColor : state.getValue(loc).getColor();
+              color = !isValid ? ValueColors.nilColor : state.getValue(loc).getColor();
             }
             g.setColor(color);
 
@@ -501,9 +687,9 @@ class CircuitWires {
           final var t = wire.e1;
           final var wb = bmap.getBundleAt(s);
           if (!wb.isValid()) {
-            g.setColor(Value.widthErrorColor);
+            g.setColor(ValueColors.widthErrorColor);
           } else if (showState) {
-            g.setColor(!isValid ? Value.nilColor : state.getValue(s).getColor());
+            g.setColor(!isValid ? ValueColors.nilColor : state.getValue(s).getColor());
           } else {
             g.setColor(Color.BLACK);
           }
@@ -531,9 +717,9 @@ class CircuitWires {
             final var wireBundle = bmap.getBundleAt(loc);
             if (wireBundle != null) {
               if (!wireBundle.isValid()) {
-                g.setColor(Value.widthErrorColor);
+                g.setColor(ValueColors.widthErrorColor);
               } else if (showState) {
-                g.setColor(!isValid ? Value.nilColor : state.getValue(loc).getColor());
+                g.setColor(!isValid ? ValueColors.nilColor : state.getValue(loc).getColor());
               } else {
                 g.setColor(Color.BLACK);
               }
@@ -551,27 +737,24 @@ class CircuitWires {
 
   // There are only two threads that need to use the bundle map, I think:
   // the AWT event thread, and the simulation worker thread.
-  // AWT does modifications to the components and wires, then voids the
-  // masterBundleMap, and eventually recomputes a new map (if needed) during
-  // painting. AWT sometimes locks a splitter, then changes components and
+  // AWT does modifications to the components and wires, then notes where the
+  // nets changed, and eventually rebuilds those nets in a new map (if needed)
+  // during painting. AWT sometimes locks a splitter, then changes components and
   // wires.
   // Computing a new bundle map requires both locking splitters and touching
   // the components and wires, so to avoid deadlock, only the AWT should
-  // create the new bundle map.
+  // create the new bundle map. Without a GUI, nothing changes the circuit while
+  // it is simulated, so the thread that needs the map creates it, and AWT is
+  // never started.
 
   /*synchronized*/ private BundleMap getBundleMap() {
-    if (SwingUtilities.isEventDispatchThread()) {
-      // AWT event thread.
-      if (masterBundleMap != null) return masterBundleMap;
-      final var ret = new BundleMap();
-      try {
-        computeBundleMap(ret);
-        masterBundleMap = ret;
-      } catch (Exception t) {
-        ret.invalidate();
-        logger.error(t.getLocalizedMessage());
+    if (!Main.hasGui()) {
+      synchronized (this) {
+        return getOrComputeBundleMap();
       }
-      return ret;
+    } else if (SwingUtilities.isEventDispatchThread()) {
+      // AWT event thread.
+      return getOrComputeBundleMap();
     } else {
       // Simulation thread.
       try {
@@ -586,10 +769,52 @@ class CircuitWires {
     }
   }
 
+  private BundleMap getOrComputeBundleMap() {
+    final var changed = changedPoints;
+    if (masterBundleMap != null && changed != null) {
+      changedPoints = null;
+      try {
+        if (!computeChangedNets(masterBundleMap, changed)) masterBundleMap = null;
+      } catch (Exception t) {
+        masterBundleMap = null;
+        logger.error(t.getLocalizedMessage());
+      }
+    }
+    if (masterBundleMap != null) return masterBundleMap;
+    final var ret = new BundleMap();
+    try {
+      computeBundleMap(ret);
+      masterBundleMap = ret;
+    } catch (Exception t) {
+      ret.invalidate();
+      logger.error(t.getLocalizedMessage());
+    }
+    return ret;
+  }
+
   Iterator<? extends Component> getComponents() {
     return IteratorUtil.createJoinedIterator(splitters.iterator(), wires.iterator());
   }
 
+  private Value getBundleValue(CircuitState state, WireBundle b) {
+    final var width = b.getWidth();
+    var ret = Value.createUnknown(width);
+    for (final var p : b.points) {
+      final var val = state.getComponentOutputAt(p);
+      if (val != null && val != Value.NIL) {
+        if (val.getWidth() != width.getWidth()) {
+          // a value of another width is combined bit by bit, as for split bundles
+          final var tvs = new Value[b.threads.length];
+          for (var i = 0; i < tvs.length; i++) tvs[i] = getThreadValue(state, b.threads[i]);
+          return Value.create(tvs);
+        }
+        ret = ret.combine(val);
+      }
+    }
+    final var pull = b.getPullValue();
+    return pull == Value.UNKNOWN ? ret : pullValue(ret, pull);
+  }
+
   private Value getThreadValue(CircuitState state, WireThread t) {
     var ret = Value.UNKNOWN;
     var pull = Value.UNKNOWN;
@@ -665,8 +890,13 @@ class CircuitWires {
   //
   // query methods
   //
-  boolean isMapVoided() {
-    return masterBundleMap == null;
+  /** Returns whether the nets changed since the given wire values were propagated. */
+  boolean hasChangedSince(State state) {
+    final var map = masterBundleMap;
+    return state == null
+        || changedPoints != null
+        || state.bundleMap != map
+        || state.revision != map.revision;
   }
 
   //
@@ -674,17 +904,42 @@ class CircuitWires {
   //
   void propagate(CircuitState circState, Set<Location> points) {
     final var map = getBundleMap();
-    final var dirtyThreads = new CopyOnWriteArraySet<WireThread>(); // affected threads
+    // the nets must not be rebuilt while their values are computed
+    map.lock.readLock().lock();
+    try {
+      propagate(circState, points, map);
+    } finally {
+      map.lock.readLock().unlock();
+    }
+  }
+
+  private void propagate(CircuitState circState, Set<Location> points, BundleMap map) {
+    final var dirtyThreads = new HashSet<WireThread>(); // affected threads
+    final var dirtyBundles = new HashSet<WireBundle>(); // affected unsplit bundles
 
     // get state, or create a new one if current state is outdated
     var state = circState.getWireData();
-    if (state == null || state.bundleMap != map) {
-      // if it is outdated, we need to compute for all threads
-      state = new State(map);
+    final var changes =
+        state == null || state.bundleMap != map ? null : map.getChangesSince(state.revision);
+    if (changes != null) {
+      // only some nets were rebuilt, the values of the others still hold
+      for (final var t : changes.threads()) state.thrValues.remove(t);
+      state.revision = changes.revision();
+      if (!changes.points().isEmpty()) {
+        points = new HashSet<>(points);
+        points.addAll(changes.points());
+      }
+    } else {
+      // if it is outdated, we need to compute for all threads, and to set the values of the points
+      // that are no longer wired
+      points = new HashSet<>(points);
+      addSplitLocations(points);
+      state = new State(map, map.revision);
       for (final var bundle : map.getBundles()) {
         final var wireThreads = bundle.threads;
         if (bundle.isValid() && wireThreads != null) {
-          dirtyThreads.addAll(Arrays.asList(wireThreads));
+          if (bundle.unsplit) dirtyBundles.add(bundle);
+          else dirtyThreads.addAll(Arrays.asList(wireThreads));
         }
       }
       circState.setWireData(state);
@@ -692,7 +947,7 @@ class CircuitWires {
 
     // determine affected threads, and set values for unwired points
     for (final var point : points) {
-      final var wireBundle = map.getBundleAt(point);
+      final var wireBundle = map.pointBundles.get(point);
       if (wireBundle == null) { // point is not wired
         circState.setValueByWire(point, circState.getComponentOutputAt(point));
       } else {
@@ -707,12 +962,22 @@ class CircuitWires {
               circState.setValueByWire(loc2, Value.NIL);
             }
           }
+        } else if (wireBundle.unsplit) {
+          dirtyBundles.add(wireBundle);
         } else {
           dirtyThreads.addAll(Arrays.asList(th));
         }
       }
     }
 
+    // unsplit bundles are computed a whole value at a time, rather than a bit at a time
+    for (final var b : dirtyBundles) {
+      final var bv = getBundleValue(circState, b);
+      for (final var p : b.points) {
+        circState.setValueByWire(p, bv);
+      }
+    }
+
     if (dirtyThreads.isEmpty()) return;
 
     // determine values of affected threads
@@ -754,6 +1019,22 @@ class CircuitWires {
     }
   }
 
+  private void addSplitLocations(Set<Location> dest) {
+    for (var i = 3; i >= 0; i--) {
+      try {
+        dest.addAll(points.getSplitLocations());
+        break;
+      } catch (ConcurrentModificationException e) {
+        // try again...
+        try {
+          Thread.sleep(1);
+        } catch (InterruptedException ignored) {
+        }
+        if (i == 0) e.printStackTrace();
+      }
+    }
+  }
+
   private Bounds recomputeBounds() {
     final var it = wires.iterator();
     if (!it.hasNext()) {
@@ -786,6 +1067,7 @@ class CircuitWires {
       removeWire(wire);
     } else if (comp instanceof Splitter) {
       splitters.remove(comp);
+      comp.getAttributeSet().removeAttributeListener(splitterListener);
     } else {
       final var factory = comp.getFactory();
       if (factory instanceof Tunnel) {
@@ -797,12 +1079,12 @@ class CircuitWires {
       }
     }
     points.remove(comp);
-    voidBundleMap();
+    markChanged(comp);
   }
 
   /*synchronized*/ void remove(Component comp, EndData end) {
     points.remove(comp, end);
-    voidBundleMap();
+    if (end != null) markChanged(end.getLocation());
   }
 
   private void removeWire(Wire w) {
@@ -820,16 +1102,40 @@ class CircuitWires {
   /*synchronized*/ void replace(Component comp, EndData oldEnd, EndData newEnd) {
     points.remove(comp, oldEnd);
     points.add(comp, newEnd);
-    voidBundleMap();
+    if (oldEnd != null) markChanged(oldEnd.getLocation());
+    if (newEnd != null) markChanged(newEnd.getLocation());
   }
 
   //
   // helper methods
   //
-  private void voidBundleMap() {
+  private void markChanged(Component comp) {
+    if (comp instanceof Wire wire) {
+      markChanged(wire.e0);
+      markChanged(wire.e1);
+    } else {
+      for (final var end : comp.getEnds()) {
+        if (end != null) markChanged(end.getLocation());
+      }
+    }
+  }
+
+  private void markChanged(Collection<? extends Component> comps, AttributeSet attrs) {
+    for (final var comp : comps) {
+      if (comp.getAttributeSet() == attrs) markChanged(comp);
+    }
+  }
+
+  private void markChanged(Location loc) {
     // This should really only be called by AWT thread, but main() also
     // calls it during startup. It should not be called by the simulation
     // thread.
-    masterBundleMap = null;
+    if (masterBundleMap == null) return; // the whole map is computed anyway
+    var changed = changedPoints;
+    if (changed == null) {
+      changed = new HashSet<>();
+      changedPoints = changed;
+    }
+    changed.add(loc);
   }
 }
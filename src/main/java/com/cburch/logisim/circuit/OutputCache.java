@@ -0,0 +1,114 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.std.wiring.Probe;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Remembers the output values of a combinational circuit for the input values it was given, so
+ * that its instances can get their outputs without propagating through the subcircuit when their
+ * inputs take values seen before. The table is shared by all instances of the circuit, and the
+ * least recently used entries are dropped once it is full.
+ *
+ * <p>The cache is not used while the circuit, or one inside it, holds a probe or a logged signal,
+ * since those show the values inside the instances that the cache would skip.
+ */
+final class OutputCache {
+  static final int CAPACITY = 4096;
+
+  /**
+   * The outputs for some inputs, indexed by port with null for the input ports, and the number of
+   * steps each output took to settle.
+   */
+  record Entry(Value[] outputs, int[] delays) {}
+
+  /**
+   * The inputs that an instance passed on to its substate for want of an entry, with the time at
+   * which it did so and the times at which it last passed on each output since.
+   */
+  record Miss(List<Value> inputs, int time, int[] outputTimes) {}
+
+  private final Circuit circuit;
+  private final LinkedHashMap<List<Value>, Entry> table =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Value>, Entry> eldest) {
+          return size() > CAPACITY;
+        }
+      };
+  // the project option for undefined gate inputs that the outputs were computed with
+  private Object gateUndefined;
+  // whether the circuit or one inside it holds a probe, or null if not known
+  private Boolean hasProbes = null;
+  // the log models recording signals inside instances of the circuit
+  private final Set<Object> loggers = Collections.newSetFromMap(new WeakHashMap<>());
+
+  OutputCache(Circuit circuit) {
+    this.circuit = circuit;
+  }
+
+  /** Returns the outputs for the given inputs, or null if they are not known. */
+  synchronized Entry get(List<Value> inputs, Object gateUndefined) {
+    if (gateUndefined != this.gateUndefined) {
+      table.clear();
+      this.gateUndefined = gateUndefined;
+    }
+    return table.get(inputs);
+  }
+
+  synchronized void put(List<Value> inputs, Entry entry) {
+    table.put(inputs, entry);
+  }
+
+  /** Returns whether instances of the circuit may take their outputs from the cache. */
+  synchronized boolean isEnabled() {
+    return loggers.isEmpty() && !hasProbes();
+  }
+
+  private synchronized boolean hasProbes() {
+    if (hasProbes == null) {
+      hasProbes = false;
+      for (final var comp : circuit.getNonWires()) {
+        final var factory = comp.getFactory();
+        if (factory instanceof Probe
+            || factory instanceof SubcircuitFactory sub
+                && sub.getSubcircuit().getOutputCache().hasProbes()) {
+          hasProbes = true;
+          break;
+        }
+      }
+    }
+    return hasProbes;
+  }
+
+  synchronized void setLogged(Object logger, boolean logged) {
+    if (logged) loggers.add(logger);
+    else loggers.remove(logger);
+  }
+
+  /** Forgets all outputs of this circuit, and of the circuits that contain it. */
+  void invalidate() {
+    synchronized (this) {
+      table.clear();
+      hasProbes = null;
+    }
+    for (final var supercirc : new ArrayList<>(circuit.getCircuitsUsingThis())) {
+      supercirc.getOutputCache().invalidate();
+    }
+  }
+}
@@ -16,35 +16,17 @@ import com.cburch.logisim.data.AttributeListener;
 import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
 import com.cburch.logisim.file.Options;
+import com.cburch.logisim.prefs.AppPreferences;
 import java.lang.ref.WeakReference;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class Propagator {
-  private static class ComponentPoint {
-    final Component cause;
-    final Location loc;
-
-    public ComponentPoint(Component cause, Location loc) {
-      this.cause = cause;
-      this.loc = loc;
-    }
-
-    @Override
-    public boolean equals(Object other) {
-      return (other instanceof ComponentPoint o)
-             ? this.cause.equals(o.cause) && this.loc.equals(o.loc)
-             : false;
-    }
-
-    @Override
-    public int hashCode() {
-      return 31 * cause.hashCode() + loc.hashCode();
-    }
-  }
-
   private static class Listener implements AttributeListener {
     final WeakReference<Propagator> prop;
 
@@ -70,16 +52,22 @@ public class Propagator {
     }
   }
 
-  static class SetData implements Comparable<SetData> {
-    final int time;
-    final int serialNumber;
-    final CircuitState state; // state of circuit containing component
-    final Component cause; // component emitting the value
-    final Location loc; // the location at which value is emitted
+  static class SetData {
+    int time;
+    int serialNumber;
+    CircuitState state; // state of circuit containing component
+    Component cause; // component emitting the value
+    Location loc; // the location at which value is emitted
     Value val; // value being emitted
     SetData next = null;
+    SetData nextEvent = null; // next change in the event queue, or next free node
 
-    private SetData(
+    SetData(
+        int time, int serialNumber, CircuitState state, Location loc, Component cause, Value val) {
+      set(time, serialNumber, state, loc, cause, val);
+    }
+
+    private void set(
         int time, int serialNumber, CircuitState state, Location loc, Component cause, Value val) {
       this.time = time;
       this.serialNumber = serialNumber;
@@ -100,20 +88,63 @@ public class Propagator {
     }
 
     @Override
-    public int compareTo(SetData o) {
-      // Yes, these subtractions may overflow. This is intentional, as it
-      // avoids potential wraparound problems as the counters increment.
-      int ret = this.time - o.time;
-      if (ret != 0) return ret;
-      return this.serialNumber - o.serialNumber;
+    public String toString() {
+      return loc + ":" + val + "(" + cause + ")";
     }
+  }
 
+  /**
+   * The last step in which a component changed its value at a location of a circuit state. Each
+   * location keeps a short list of these, one per component driving it.
+   */
+  static class DriverStamp {
+    final Component cause;
+    long step;
+    DriverStamp next;
+
+    DriverStamp(Component cause, long step, DriverStamp next) {
+      this.cause = cause;
+      this.step = step;
+      this.next = next;
+    }
+  }
+
+  /** Work that a task requests while substates are processed in parallel, done after all tasks. */
+  private interface DeferredWork {
+    void run(Propagator prop);
+  }
+
+  /** A value change requested by a component. */
+  private record DeferredChange(
+      CircuitState state, Location loc, Value val, Component cause, int delay)
+      implements DeferredWork {
     @Override
-    public String toString() {
-      return loc + ":" + val + "(" + cause + ")";
+    public void run(Propagator prop) {
+      prop.setValue(state, loc, val, cause, delay);
     }
   }
 
+  /** A propagation of a component in a state that the tasks share. */
+  private record DeferredPropagation(CircuitState state, Component comp) implements DeferredWork {
+    @Override
+    public void run(Propagator prop) {
+      comp.propagate(state);
+    }
+  }
+
+  /** The substate a task processes, and the work it leaves for the end. */
+  private record DeferredTask(CircuitState state, List<DeferredWork> work) {}
+
+  // created on first use, since parallel simulation is off by default
+  private static ForkJoinPool substatePool = null;
+
+  private static synchronized ForkJoinPool getSubstatePool() {
+    if (substatePool == null) {
+      substatePool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+    return substatePool;
+  }
+
   //
   // static methods
   //
@@ -138,16 +169,32 @@ public class Propagator {
    */
   private volatile int simRandomShift;
 
-  private final PriorityQueue<SetData> toProcess = new PriorityQueue<>();
   private int clock = 0;
+  private final TimingWheel toProcess = new TimingWheel(clock);
+  // SetData nodes that were processed without becoming a cause, kept for reuse
+  private SetData freeSetData = null;
+  private int freeSetDataCount = 0;
+  private static final int MAX_FREE_SET_DATA = 4096;
   private boolean isOscillating = false;
   private boolean oscAdding = false;
   private PropagationPoints oscPoints = new PropagationPoints();
   private int halfClockCycles = 0;
+  // states of the tree that have clocks, so that ticks need not walk the whole tree; collected
+  // again on the next tick whenever a substate or a clock is added or removed
+  private List<CircuitState> clockedStates = new ArrayList<>();
+  private volatile boolean clockedStatesStale = true;
   private final Random noiseSource = new Random();
   private int noiseCount = 0;
 
   private int setDataSerialNumber = 0;
+  private long stepNumber = 0;
+  // set while substates are processed in parallel; each task then collects its changes in its
+  // own list, so that they can be queued in the order of the sequential engine afterwards
+  private boolean deferring = false;
+  private final ThreadLocal<DeferredTask> deferredTask = new ThreadLocal<>();
+  // substates whose outputs are cached at the end of the next propagation that lets the circuit
+  // settle
+  private final Set<CircuitState> cacheMisses = new LinkedHashSet<>();
   static int lastId = 0;
 
   final int id = lastId++;
@@ -162,7 +209,9 @@ public class Propagator {
 
   private SetData addCause(CircuitState state, SetData head, SetData data) {
     if (data.val == null) { // actually, it should be removed
-      return removeCause(state, head, data.loc, data.cause);
+      final var newHead = removeCause(state, head, data.loc, data.cause);
+      recycle(data);
+      return newHead;
     }
 
     final var causes = state.causes;
@@ -176,6 +225,7 @@ public class Propagator {
         break;
       }
     }
+    if (replaced) recycle(data);
 
     // otherwise, insert to list of causes
     if (!replaced) {
@@ -201,6 +251,7 @@ public class Propagator {
       final var oldVal = computeValue(oldHead);
       final var newHead = removeCause(state, oldHead, loc, comp);
       final var newVal = computeValue(newHead);
+      removeDriverStamp(state, loc, comp);
       final var wireVal = state.getValueByWire(loc);
 
       if (!newVal.equals(oldVal) || wireVal != null) {
@@ -290,15 +341,132 @@ public class Propagator {
       } else {
         isOscillating = true;
         oscAdding = false;
+        clearCacheMisses();
         return true;
       }
     }
     isOscillating = false;
     oscAdding = false;
     oscPoints.clear();
+    cacheMissedOutputs();
     return iters > 0;
   }
 
+  /** Returns the time of the current step, in units of the delays that components request. */
+  int getTime() {
+    return clock >> simRandomShift;
+  }
+
+  /**
+   * Notes that the given substate was given inputs whose outputs were not cached, so that they are
+   * cached once a later call to propagate has let the circuit settle.
+   */
+  void addCacheMiss(CircuitState subState) {
+    synchronized (cacheMisses) {
+      cacheMisses.add(subState);
+    }
+  }
+
+  private void cacheMissedOutputs() {
+    final CircuitState[] states;
+    synchronized (cacheMisses) {
+      if (cacheMisses.isEmpty()) return;
+      states = cacheMisses.toArray(new CircuitState[0]);
+      cacheMisses.clear();
+    }
+    for (final var state : states) {
+      final var comp = state.getSubcircuit();
+      if (comp != null && comp.getFactory() instanceof SubcircuitFactory factory) {
+        factory.cacheOutputs(state);
+      }
+    }
+  }
+
+  private void clearCacheMisses() {
+    synchronized (cacheMisses) {
+      cacheMisses.clear();
+    }
+  }
+
+  /**
+   * Processes the dirty components of the given substates and of their own substates, giving
+   * each of the given substates a task of its own if parallel simulation is enabled. The value
+   * changes requested by the components, and the propagations of the subcircuit components that
+   * contain the given substates, are done once all tasks are done, in the order in which
+   * processing the substates one after the other would have done them, so that both give the same
+   * results.
+   *
+   * @return false if the substates were not processed, and should be processed one after the
+   *     other by the caller
+   */
+  boolean processDirtyComponentsInParallel(CircuitState[] subStates) {
+    // substates of substates that already have their own task are processed by that task
+    if (deferring || subStates.length < 2) return false;
+    if (!AppPreferences.PARALLEL_SIMULATION.getBoolean()) return false;
+
+    final var pool = getSubstatePool();
+    final var work = new ArrayList<List<DeferredWork>>(subStates.length);
+    final var tasks = new ArrayList<ForkJoinTask<?>>(subStates.length);
+    for (final var subState : subStates) {
+      final var task = new DeferredTask(subState, new ArrayList<>());
+      work.add(task.work());
+      tasks.add(
+          ForkJoinTask.adapt(
+              () -> {
+                deferredTask.set(task);
+                try {
+                  subState.processDirtyComponents();
+                } finally {
+                  deferredTask.remove();
+                }
+              }));
+    }
+    deferring = true;
+    try {
+      for (final var task : tasks) pool.execute(task);
+      for (final var task : tasks) task.quietlyJoin();
+    } finally {
+      deferring = false;
+    }
+
+    // a failing task stops the processing at the point where the sequential engine would stop
+    for (var i = 0; i < tasks.size(); i++) {
+      for (final var deferred : work.get(i)) deferred.run(this);
+      final var failure = tasks.get(i).getException();
+      if (failure instanceof RuntimeException e) throw e;
+      if (failure instanceof Error e) throw e;
+      if (failure != null) throw new IllegalStateException(failure);
+    }
+    return true;
+  }
+
+  /**
+   * Leaves the propagation of the given component in the given state to the end of the parallel
+   * processing, if the given substate of the component is processed by a task of its own: the
+   * other tasks share the state, so only the simulation thread may propagate in it.
+   *
+   * @return whether the propagation was deferred
+   */
+  boolean deferPropagation(CircuitState subState, Component comp, CircuitState state) {
+    if (!deferring) return false;
+    final var task = deferredTask.get();
+    if (task == null || task.state() != subState) return false;
+    task.work().add(new DeferredPropagation(state, comp));
+    return true;
+  }
+
+  private void removeDriverStamp(CircuitState state, Location loc, Component comp) {
+    DriverStamp prev = null;
+    for (var n = state.driverStamps.get(loc); n != null; prev = n, n = n.next) {
+      if (n.cause == comp) {
+        if (prev != null) prev.next = n.next;
+        else if (n.next != null) state.driverStamps.put(loc, n.next);
+        else state.driverStamps.remove(loc);
+        return;
+      }
+    }
+  }
+
   private SetData removeCause(CircuitState state, SetData head, Location loc, Component cause) {
     final var causes = state.causes;
     if (head == null) {
@@ -324,6 +492,7 @@ public class Propagator {
   void reset() {
     halfClockCycles = 0;
     toProcess.clear();
+    clearCacheMisses();
     root.reset();
     isOscillating = false;
   }
@@ -331,8 +500,35 @@ public class Propagator {
   //
   // package-protected helper methods
   //
+  private SetData createSetData(
+      int time, CircuitState state, Location loc, Component cause, Value val) {
+    final var data = freeSetData;
+    if (data == null) return new SetData(time, setDataSerialNumber, state, loc, cause, val);
+    freeSetData = data.nextEvent;
+    freeSetDataCount--;
+    data.nextEvent = null;
+    data.set(time, setDataSerialNumber, state, loc, cause, val);
+    return data;
+  }
+
+  private void recycle(SetData data) {
+    if (freeSetDataCount >= MAX_FREE_SET_DATA) return;
+    data.set(0, 0, null, null, null, null);
+    data.next = null;
+    data.nextEvent = freeSetData;
+    freeSetData = data;
+    freeSetDataCount++;
+  }
+
   void setValue(CircuitState state, Location pt, Value val, Component cause, int delay) {
     if (cause instanceof Wire || cause instanceof Splitter) return;
+    if (deferring) {
+      final var task = deferredTask.get();
+      if (task != null) {
+        task.work().add(new DeferredChange(state, pt, val, cause, delay));
+        return;
+      }
+    }
     if (delay <= 0) {
       delay = 1;
     }
@@ -350,7 +546,7 @@ public class Propagator {
         }
       }
     }
-    toProcess.add(new SetData(clock + delay, setDataSerialNumber, state, pt, cause, val));
+    toProcess.add(createSetData(clock + delay, state, pt, cause, val));
     /*
      * DEBUGGING - comment out Simulator.log(clock + ": set " + pt + " in "
      * + state + " to " + val + " by " + cause + " after " + delay); //
@@ -375,28 +571,41 @@ public class Propagator {
     return true;
   }
 
+  /**
+   * Records that the cause changed its value at loc during the current step.
+   *
+   * @return false if it already did so earlier in this step
+   */
+  private boolean stampDriver(CircuitState state, Component cause, Location loc) {
+    final var head = state.driverStamps.get(loc);
+    for (var n = head; n != null; n = n.next) {
+      if (n.cause.equals(cause)) {
+        if (n.step == stepNumber) return false;
+        n.step = stepNumber;
+        return true;
+      }
+    }
+    state.driverStamps.put(loc, new DriverStamp(cause, stepNumber, head));
+    return true;
+  }
+
   private void stepInternal(PropagationPoints changedPoints) {
     if (toProcess.isEmpty()) return;
 
     // update clock
-    clock = toProcess.peek().time;
+    clock = toProcess.advance();
 
     // propagate all values for this clock tick
-    final var visited = new HashMap<CircuitState, HashSet<ComponentPoint>>();
+    stepNumber++;
     while (true) {
-      final var data = toProcess.peek();
-      if (data == null || data.time != clock) break;
-      toProcess.remove();
+      final var data = toProcess.poll();
+      if (data == null) break;
       final var state = data.state;
 
       // if it's already handled for this clock tick, continue
-      var handled = visited.get(state);
-      if (handled != null) {
-        if (!handled.add(new ComponentPoint(data.cause, data.loc))) continue;
-      } else {
-        handled = new HashSet<>();
-        visited.put(state, handled);
-        handled.add(new ComponentPoint(data.cause, data.loc));
+      if (!stampDriver(state, data.cause, data.loc)) {
+        recycle(data);
+        continue;
       }
 
       /*
@@ -405,17 +614,18 @@ public class Propagator {
        * data.cause); //
        */
 
-      if (changedPoints != null) changedPoints.add(state, data.loc);
+      final var loc = data.loc;
+      if (changedPoints != null) changedPoints.add(state, loc);
 
-      // change the information about value
-      final var oldHead = state.causes.get(data.loc);
+      // change the information about value (data may be reused afterwards)
+      final var oldHead = state.causes.get(loc);
       final var oldVal = computeValue(oldHead);
       final var newHead = addCause(state, oldHead, data);
       final var newVal = computeValue(newHead);
 
       // if the value at point has changed, propagate it
       if (!newVal.equals(oldVal)) {
-        state.markPointAsDirty(data.loc);
+        state.markPointAsDirty(loc);
       }
     }
 
@@ -425,7 +635,28 @@ public class Propagator {
 
   public boolean toggleClocks() {
     halfClockCycles++;
-    return root.toggleClocks(halfClockCycles);
+    if (clockedStatesStale) {
+      clockedStatesStale = false;
+      final var states = new ArrayList<CircuitState>();
+      root.collectClockedStates(states);
+      clockedStates = states;
+    }
+    var ret = false;
+    for (final var state : clockedStates) ret |= state.toggleClocks(halfClockCycles);
+    return ret;
+  }
+
+  void clocksChanged() {
+    clockedStatesStale = true;
+  }
+
+  /**
+   * Records a component of a state of this tree whose input changed outside of propagation. The
+   * simulator running this propagator highlights it when single-stepping.
+   */
+  public void addPendingInput(CircuitState state, Component comp) {
+    final var proj = root.getProject();
+    if (proj != null) proj.getSimulator().addPendingInput(this, state, comp);
   }
 
   @Override
@@ -0,0 +1,106 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.proj.Project;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many independent simulations of the same circuit at once, without graphical interface, for
+ * instance to apply a set of test vectors or to sweep over input values.
+ *
+ * <p>Every worker thread simulates its own {@link CircuitState}, with its own {@link Propagator}.
+ * Only the circuit and the project options are shared, and the jobs must not modify them.
+ */
+public final class SimulationFarm {
+
+  /** A simulation to run on a state of the circuit. */
+  @FunctionalInterface
+  public interface Job<T> {
+    T run(CircuitState state) throws Exception;
+  }
+
+  /** Receives the outcome of the jobs, one at a time, in the order in which they finish. */
+  @FunctionalInterface
+  public interface ResultListener<T> {
+    /**
+     * @param index the position of the job in the list given to {@link SimulationFarm#run}
+     * @param result the value returned by the job, null if it failed
+     * @param failure the exception thrown by the job, null if it succeeded
+     */
+    void jobDone(int index, T result, Throwable failure);
+  }
+
+  private final int workers;
+  private final BlockingQueue<CircuitState> idleStates;
+
+  /**
+   * Prepares the states of the workers. They are created here, on the calling thread, as they
+   * register themselves as listeners of the circuit and of the project options.
+   */
+  public SimulationFarm(Project proj, Circuit circuit, int workers) {
+    this.workers = Math.max(1, workers);
+    idleStates = new ArrayBlockingQueue<>(this.workers);
+    for (var i = 0; i < this.workers; i++) {
+      final var state = new CircuitState(proj, circuit);
+      state.getPropagator();
+      idleStates.add(state);
+    }
+  }
+
+  public int getWorkers() {
+    return workers;
+  }
+
+  /**
+   * Runs all jobs, each on a state that was reset beforehand, and waits until they are done.
+   *
+   * @throws ExecutionException if the listener failed
+   */
+  public <T> void run(List<? extends Job<? extends T>> jobs, ResultListener<? super T> listener)
+      throws InterruptedException, ExecutionException {
+    final var executor = Executors.newFixedThreadPool(Math.min(workers, Math.max(1, jobs.size())));
+    try {
+      final var results = new ArrayList<Future<?>>(jobs.size());
+      for (var i = 0; i < jobs.size(); i++) {
+        final var index = i;
+        final var job = jobs.get(i);
+        results.add(
+            executor.submit(
+                () -> {
+                  final var state = idleStates.take();
+                  T result = null;
+                  Throwable failure = null;
+                  try {
+                    state.reset();
+                    result = job.run(state);
+                  } catch (Exception | StackOverflowError e) {
+                    failure = e;
+                  } finally {
+                    idleStates.add(state);
+                  }
+                  synchronized (listener) {
+                    listener.jobDone(index, result, failure);
+                  }
+                  return null;
+                }));
+      }
+      for (final var result : results) result.get();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
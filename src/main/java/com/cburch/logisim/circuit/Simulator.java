@@ -18,13 +18,18 @@ import com.cburch.logisim.util.CollectionUtil;
 import com.cburch.logisim.util.UniquelyNamedThread;
 import java.util.ArrayList;
 import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
-
-import javax.swing.JOptionPane;
-import javax.swing.SwingUtilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class Simulator {
 
+  static final Logger logger = LoggerFactory.getLogger(Simulator.class);
+
+  /** Tick frequency at which the clocks tick as fast as the simulation allows. */
+  public static final double UNLIMITED_TICK_FREQUENCY = Double.POSITIVE_INFINITY;
+
   public static class Event {
     private final Simulator source;
     private final boolean didTick;
@@ -69,6 +74,15 @@ public class Simulator {
     public void propagationInProgress(Event e);
   }
 
+  /** Receives the messages that come up while simulating, e.g. a processor that hits an error. */
+  public static interface MessageListener {
+    /**
+     * Called on the simulation thread, which keeps going without waiting for the message to be
+     * read. The title may be null.
+     */
+    public void simulatorMessage(String title, String message, boolean isError);
+  }
+
   // This thread keeps track of the current stepPoints (when running in step
   // mode), and it invokes various Propagator methods:
   //
@@ -82,7 +96,9 @@ public class Simulator {
   //
   // [auto-tick]   If autoTicking is on and autoPropagation is on, the thread
   //               periodically wakes up and invokes toggleClocks() then
-  //               propagate().
+  //               propagate(), once for every tick that became due since it
+  //               last woke up. At the unlimited tick frequency, it does so
+  //               without ever waiting.
   //
   // [manual-tick] If the User/GUI requests a tick happen and autoPropagation is
   //               on, the thread wakes up and invokes toggleClocks() then
@@ -101,6 +117,9 @@ public class Simulator {
   //               stable, then toggleClocks() is also called before step().
   private static class SimThread extends UniquelyNamedThread {
 
+    private static final long MAX_BATCH_NANOS = 50_000_000L;
+    private static final long MIN_AWAIT_NANOS = 1_000_000L;
+
     private final Simulator sim;
 
     private ReentrantLock simStateLock = new ReentrantLock();
@@ -110,14 +129,15 @@ public class Simulator {
     private boolean autoPropagating = true;
     private boolean autoTicking = false;
     private double autoTickFreq = 1.0; // Hz
-    private int smoothingFactor = 1; // for WEMA
-    private long autoTickNanos = Math.round(1.0e9 / autoTickFreq);
+    private long autoTickNanos = Math.round(1.0e9 / autoTickFreq); // 0 if unlimited
+    private boolean pacing = false; // whether nextTickDeadline is valid
+    private long nextTickDeadline = 0L;
+    private int pendingAutoTicks = 0; // ticks that are due but not done yet
     private int manualTicksRequested = 0;
     private int manualStepsRequested = 0;
     private boolean nudgeRequested = false;
     private boolean resetRequested = false;
     private boolean complete = false;
-    private double avgTickNanos = -1.0;
 
     // These are copies of some of the above variables that can be read without
     // the lock if synchronization with other variables is not needed.
@@ -131,14 +151,11 @@ public class Simulator {
     // to be kept consistent with other variables.
     private volatile boolean exceptionEncountered = false;
     private volatile boolean oscillating = false;
+    private volatile long tickCount = 0L;
 
     // This last one should be made thread-safe, but it isn't for now.
     private final PropagationPoints stepPoints = new PropagationPoints();
 
-    // lastTick is used only within loop() by a single thread.
-    // No synchronization needed.
-    private long lastTick = System.nanoTime(); // time of last propagation start
-
     SimThread(Simulator s) {
       super("SimThread");
       sim = s;
@@ -172,8 +189,9 @@ public class Simulator {
       }
     }
 
-    void addPendingInput(CircuitState state, Component comp) {
-      if (!autoPropagatingUnsynchronized) {
+    void addPendingInput(Propagator prop, CircuitState state, Component comp) {
+      // states simulated elsewhere, such as those of a simulation farm, are not shown here
+      if (!autoPropagatingUnsynchronized && prop == propagatorUnsynchronized) {
         stepPoints.addPendingInput(state, comp);
       }
     }
@@ -183,14 +201,6 @@ public class Simulator {
     }
 
     boolean setPropagator(Propagator prop) {
-      var smoothFactor = 1;
-      if (prop != null) {
-        final var opts = prop.getRootState().getProject().getOptions();
-        //smoothFactor = opts.getAttributeSet().getValue(Options.ATTR_SIM_SMOOTH); #TODO: implement smooth factor
-        if (smoothFactor < 1) {
-          smoothFactor = 1;
-        }
-      }
       simStateLock.lock();
       try {
         if (propagator == prop) {
@@ -198,7 +208,6 @@ public class Simulator {
         }
         propagator = prop;
         propagatorUnsynchronized = prop;
-        smoothingFactor = smoothFactor;
         manualTicksRequested = 0;
         manualStepsRequested = 0;
         if (Thread.currentThread() != this) {
@@ -240,6 +249,7 @@ public class Simulator {
         }
         autoTicking = value;
         autoTickingUnsynchronized = value;
+        stopPacing();
         if (Thread.currentThread() != this) {
           simStateUpdated.signalAll();
         }
@@ -258,7 +268,7 @@ public class Simulator {
         autoTickFreq = freq;
         autoTickFreqUnsynchronized = freq;
         autoTickNanos = freq <= 0 ? 0 : Math.round(1.0e9 / autoTickFreq);
-        avgTickNanos = -1.0;
+        stopPacing();
         if (Thread.currentThread() != this) {
           simStateUpdated.signalAll();
         }
@@ -336,6 +346,58 @@ public class Simulator {
       }
     }
 
+    // NOTE: Must be called with lock held.
+    private void stopPacing() {
+      pacing = false;
+      pendingAutoTicks = 0;
+    }
+
+    /**
+     * Sets pendingAutoTicks to the number of auto-ticks that became due, or waits until the next
+     * one becomes due. All ticks that became due while the thread slept are done in one go, so
+     * that high tick frequencies are reached without waking up for every single tick. If the
+     * simulation cannot keep up with the tick frequency, the ticks that are late by more than
+     * MAX_BATCH_NANOS are dropped instead of being caught up with later.
+     *
+     * <p>NOTE: Must be called with lock held. The lock is released while waiting.
+     */
+    private void scheduleAutoTicks(long now) {
+      if (autoTickNanos == 0) {
+        pendingAutoTicks = 1;
+        return;
+      }
+      if (!pacing) {
+        pacing = true;
+        nextTickDeadline = now;
+      }
+      final var delta = nextTickDeadline - now;
+      if (delta <= 0) {
+        final var due = 1 - delta / autoTickNanos;
+        final var maxDue = Math.max(1, MAX_BATCH_NANOS / autoTickNanos);
+        if (due > maxDue) {
+          pendingAutoTicks = (int) maxDue;
+          nextTickDeadline = now + autoTickNanos;
+        } else {
+          pendingAutoTicks = (int) due;
+          nextTickDeadline += due * autoTickNanos;
+        }
+      } else if (delta < MIN_AWAIT_NANOS) {
+        // Too short to bother with the condition, but still no reason to spin.
+        simStateLock.unlock();
+        try {
+          LockSupport.parkNanos(delta);
+        } finally {
+          simStateLock.lock();
+        }
+      } else {
+        try {
+          simStateUpdated.awaitNanos(delta);
+        } catch (InterruptedException e) {
+          // Do Nothing
+        }
+      }
+    }
+
     private boolean loop() {
 
       Propagator prop = null;
@@ -379,50 +441,20 @@ public class Simulator {
             doProp = autoPropagating;
             doStep = !autoPropagating;
             ready = true;
+          } else if (autoTicking && autoPropagating && autoTickFreq > 0) {
+            if (pendingAutoTicks == 0) scheduleAutoTicks(now);
+            if (pendingAutoTicks > 0) {
+              pendingAutoTicks--;
+              doTick = true;
+              doProp = true;
+              ready = true;
+            }
           } else {
-            if (autoTicking && autoPropagating && autoTickNanos > 0) {
-              // see if it is time to do an auto-tick
-              final var smooth = smoothingFactor;
-              final var lastNanos = now - lastTick;
-              if (avgTickNanos <= 0) {
-                avgTickNanos = autoTickNanos;
-                doTick = true;
-                doProp = true;
-                ready = true;
-              } else {
-                final var avg = ((smooth - 1.0) / smooth) * avgTickNanos + (1.0 / smooth) * lastNanos;
-                final var deadline = lastTick + autoTickNanos - (long) ((smooth - 1) * (avgTickNanos - autoTickNanos));
-                final var delta = deadline - now;
-                if (delta <= 1000) {
-                  avgTickNanos = avg;
-                  doTick = true;
-                  doProp = true;
-                  ready = true;
-                } else if (delta < 1000000) {
-                  simStateLock.unlock();
-                  try {
-                    var time = 0L;
-                    do {
-                      time = System.nanoTime();
-                    } while (time < deadline);
-                  } finally {
-                    simStateLock.lock();
-                  }
-                } else {
-                  try {
-                    simStateUpdated.awaitNanos(delta);
-                  } catch (InterruptedException e) {
-                    // Do Nothing
-                  }
-                }
-              }
-            } else {
-              avgTickNanos = -1.0;
-              try {
-                simStateUpdated.await();
-              } catch (InterruptedException e) {
-                // Do Nothing
-              }
+            stopPacing();
+            try {
+              simStateUpdated.await();
+            } catch (InterruptedException e) {
+              // Do Nothing
             }
           }
         } while (!ready);
@@ -457,8 +489,8 @@ public class Simulator {
       }
 
       if (doTick || (doTickIfStable && prop != null && !prop.isPending())) {
-        lastTick = now;
         ticked = true;
+        tickCount++;
         if (prop != null) {
           hasClocks = prop.toggleClocks();
         }
@@ -553,12 +585,8 @@ public class Simulator {
           } finally {
             simStateLock.unlock();
           }
-          SwingUtilities.invokeLater(new Runnable() {
-              public void run() {
-                JOptionPane.showMessageDialog(null, "The simulator crashed. Save your work and restart Logisim.");
-              }
-              // TODO: Hardcoded String
-            });
+          // TODO: Hardcoded String
+          sim.showMessage(null, "The simulator crashed. Save your work and restart Logisim.", true);
         }
       }
     }
@@ -577,6 +605,7 @@ public class Simulator {
   private final ArrayList<StatusListener> statusListeners = new ArrayList<>();
   private ArrayList<Listener> activityListeners = new ArrayList<>();
   private volatile ProgressListener progressListener = null;
+  private volatile MessageListener messageListener = null;
   private final Object lock = new Object();
   private volatile int numListeners = 0;
   private volatile Listener[] listeners = new Listener[10];
@@ -642,6 +671,25 @@ public class Simulator {
     }
   }
 
+  public void setMessageListener(MessageListener listener) {
+    messageListener = listener;
+  }
+
+  /**
+   * Passes a message from the simulation to the message listener, or to the log if there is none,
+   * as when simulating from the command line.
+   */
+  public void showMessage(String title, String message, boolean isError) {
+    final var listener = messageListener;
+    if (listener != null) {
+      listener.simulatorMessage(title, message, isError);
+      return;
+    }
+    final var logMessage = title == null ? message : title + ": " + message;
+    if (isError) logger.error(logMessage);
+    else logger.info(logMessage);
+  }
+
   public void drawStepPoints(ComponentDrawContext context) {
     simThread.drawStepPoints(context);
   }
@@ -654,8 +702,8 @@ public class Simulator {
     return simThread.getSingleStepMessage();
   }
 
-  public void addPendingInput(CircuitState state, Component comp) {
-    simThread.addPendingInput(state, comp);
+  void addPendingInput(Propagator prop, CircuitState state, Component comp) {
+    simThread.addPendingInput(prop, state, comp);
   }
 
   private ArrayList<StatusListener> copyStatusListeners() {
@@ -714,6 +762,11 @@ public class Simulator {
     return simThread.getTickFrequencyUnsynchronized();
   }
 
+  /** Returns the number of ticks done since this simulator was created. */
+  public long getTickCount() {
+    return simThread.tickCount;
+  }
+
   public boolean isExceptionEncountered() {
     return simThread.exceptionEncountered;
   }
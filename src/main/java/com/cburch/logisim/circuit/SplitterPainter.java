@@ -12,7 +12,7 @@ package com.cburch.logisim.circuit;
 import com.cburch.logisim.comp.ComponentDrawContext;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Location;
-import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.util.GraphicsUtil;
 import java.awt.Graphics2D;
 
@@ -89,7 +89,7 @@ class SplitterPainter {
     final var fanout = attrs.fanout;
     final var parms = attrs.getParameters();
 
-    g.setColor(Value.multiColor);
+    g.setColor(ValueColors.multiColor);
     final var x0 = origin.getX();
     final var y0 = origin.getY();
     final var x1 = x0 + parms.getEnd0X();
@@ -113,11 +113,11 @@ class SplitterPainter {
       }
       if (fanout > 3) {
         GraphicsUtil.switchToWidth(g, SPINE_WIDTH);
-        g.setColor(Value.multiColor);
+        g.setColor(ValueColors.multiColor);
         g.drawLine(
             x1 + (dx > 0 ? 10 : -10), ySpine, x1 + (fanout - 1) * dx + (dx > 0 ? 10 : -10), ySpine);
       } else {
-        g.setColor(Value.multiColor);
+        g.setColor(ValueColors.multiColor);
         g.fillOval(x0 - SPINE_DOT / 2, ySpine - SPINE_DOT / 2, SPINE_DOT, SPINE_DOT);
       }
     } else {
@@ -137,11 +137,11 @@ class SplitterPainter {
       }
       if (fanout >= 3) {
         GraphicsUtil.switchToWidth(g, SPINE_WIDTH);
-        g.setColor(Value.multiColor);
+        g.setColor(ValueColors.multiColor);
         g.drawLine(
             xSpine, y1 + (dy > 0 ? 10 : -10), xSpine, y1 + (fanout - 1) * dy + (dy > 0 ? 10 : -10));
       } else {
-        g.setColor(Value.multiColor);
+        g.setColor(ValueColors.multiColor);
         g.fillOval(xSpine - SPINE_DOT / 2, y0 - SPINE_DOT / 2, SPINE_DOT, SPINE_DOT);
       }
     }
@@ -176,7 +176,7 @@ class SplitterPainter {
       y += dy;
     }
     GraphicsUtil.switchToWidth(g, SPINE_WIDTH);
-    g.setColor(Value.multiColor);
+    g.setColor(ValueColors.multiColor);
     var spine0x = x0 + parms.getSpine0X();
     var spine0y = y0 + parms.getSpine0Y();
     var spine1x = x0 + parms.getSpine1X();
@@ -18,6 +18,8 @@ import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
+import com.cburch.logisim.file.Options;
 import com.cburch.logisim.instance.Instance;
 import com.cburch.logisim.instance.InstanceComponent;
 import com.cburch.logisim.instance.InstanceFactory;
@@ -42,6 +44,7 @@ import java.awt.Graphics2D;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.font.TextLayout;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import javax.swing.JMenuItem;
@@ -388,21 +391,109 @@ public class SubcircuitFactory extends InstanceFactory {
 
     final var attrs = (CircuitAttributes) superState.getAttributeSet();
     final var pins = attrs.getPinInstances();
-    for (var i = 0; i < pins.length; i++) {
-      final var pin = pins[i];
-      final var pinState = subState.getInstanceState(pin);
-      if (Pin.FACTORY.isInputPin(pin)) {
-        final var newVal = superState.getPortValue(i);
-        final var oldVal = Pin.FACTORY.getValue(pinState);
-        if (!newVal.equals(oldVal)) {
-          Pin.FACTORY.setValue(pinState, newVal);
-          Pin.FACTORY.propagate(pinState);
+    final var cache = source.getOutputCache();
+    if (source.isCombinational()
+        && cache.isEnabled()
+        && !isShown(superState.getProject(), subState)) {
+      final var inputs = new Value[pins.length];
+      for (var i = 0; i < pins.length; i++) {
+        if (Pin.FACTORY.isInputPin(pins[i])) inputs[i] = superState.getPortValue(i);
+      }
+      final var key = Arrays.asList(inputs);
+      final var entry = cache.get(key, getGateUndefined(superState));
+      if (entry != null) {
+        // seen before: skip the subcircuit, which is brought up to date when it is shown, and set
+        // each output after as many steps as it took to settle through the subcircuit
+        final var outputs = entry.outputs();
+        for (var i = 0; i < pins.length; i++) {
+          if (outputs[i] != null) superState.setPort(i, outputs[i], entry.delays()[i]);
         }
-      } else { // it is output-only
-        final var val = pinState.getPortValue(0);
-        superState.setPort(i, val, 1);
+        // the outputs now differ from the substate's, whose pins need not change to restore them
+        subState.invalidateDirtyPorts();
+        subState.setCacheMiss(null);
+        return;
+      }
+      // the outputs passing on later for the same inputs belong to the same miss
+      final var miss = subState.getCacheMiss();
+      if (miss == null || !miss.inputs().equals(key)) {
+        final var prop = subState.getPropagator();
+        final var time = prop.getTime();
+        final var outputTimes = new int[pins.length];
+        Arrays.fill(outputTimes, time);
+        subState.setCacheMiss(new OutputCache.Miss(key, time, outputTimes));
+        prop.addCacheMiss(subState);
+      }
+    }
+    final var dirtyPorts = subState.getDirtyPorts(pins);
+    if (dirtyPorts == null) {
+      for (var i = 0; i < pins.length; i++) transferPort(superState, subState, pins[i], i);
+    } else {
+      for (var i = dirtyPorts.nextSetBit(0); i >= 0 && i < pins.length; ) {
+        transferPort(superState, subState, pins[i], i);
+        i = dirtyPorts.nextSetBit(i + 1);
+      }
+      dirtyPorts.clear();
+    }
+  }
+
+  private static void transferPort(
+      InstanceState superState, CircuitState subState, Instance pin, int i) {
+    final var pinState = subState.getInstanceState(pin);
+    if (Pin.FACTORY.isInputPin(pin)) {
+      final var newVal = superState.getPortValue(i);
+      final var oldVal = Pin.FACTORY.getValue(pinState);
+      if (!newVal.equals(oldVal)) {
+        Pin.FACTORY.setValue(pinState, newVal);
+        Pin.FACTORY.propagate(pinState);
+      }
+    } else { // it is output-only
+      final var val = pinState.getPortValue(0);
+      final var miss = subState.getCacheMiss();
+      if (miss != null && !val.equals(superState.getPortValue(i))) {
+        miss.outputTimes()[i] = subState.getPropagator().getTime();
+      }
+      superState.setPort(i, val, 1);
+    }
+  }
+
+  // The substate shown in the project window, and the ones containing it, always follow their
+  // inputs, so that what they show is up to date.
+  private static boolean isShown(Project proj, CircuitState subState) {
+    if (proj == null) return false;
+    for (var state = proj.getCircuitState(); state != null; state = state.getParentState()) {
+      if (state == subState) return true;
+    }
+    return false;
+  }
+
+  private static Object getGateUndefined(InstanceState state) {
+    final var proj = state.getProject();
+    if (proj == null) return null;
+    return proj.getOptions().getAttributeSet().getValue(Options.ATTR_GATE_UNDEFINED);
+  }
+
+  // Remembers the outputs of the subcircuit once it has settled, unless its inputs changed since.
+  void cacheOutputs(CircuitState subState) {
+    final var miss = subState.getCacheMiss();
+    subState.setCacheMiss(null);
+    final var superState = subState.getParentState();
+    final var comp = subState.getSubcircuit();
+    if (miss == null || superState == null || comp == null) return;
+    final var instanceState = createInstanceState(superState, comp);
+    final var pins = ((CircuitAttributes) comp.getAttributeSet()).getPinInstances();
+    final var inputs = miss.inputs();
+    if (pins.length != inputs.size()) return;
+    final var outputs = new Value[pins.length];
+    final var delays = new int[pins.length];
+    for (var i = 0; i < pins.length; i++) {
+      if (Pin.FACTORY.isInputPin(pins[i])) {
+        if (!instanceState.getPortValue(i).equals(inputs.get(i))) return;
+      } else {
+        outputs[i] = subState.getInstanceState(pins[i]).getPortValue(0);
+        delays[i] = miss.outputTimes()[i] - miss.time() + 1;
       }
     }
+    source.getOutputCache().put(inputs, new OutputCache.Entry(outputs, delays));
   }
 
   @Override
@@ -436,11 +527,11 @@ public class SubcircuitFactory extends InstanceFactory {
         AppPreferences.getScaled(14));
     final var wh = AppPreferences.getScaled(3);
     for (var y = 0; y < 3; y++) {
-      if (y == 1) g2.setColor(Value.trueColor);
-      else g2.setColor(Value.falseColor);
+      if (y == 1) g2.setColor(ValueColors.trueColor);
+      else g2.setColor(ValueColors.falseColor);
       g2.fillOval(AppPreferences.getScaled(1), AppPreferences.getScaled(y * 4 + 3), wh, wh);
       if (y < 2) {
-        g2.setColor(Value.unknownColor);
+        g2.setColor(ValueColors.unknownColor);
         g2.fillOval(AppPreferences.getScaled(12), AppPreferences.getScaled(y * 4 + 3), wh, wh);
       }
     }
@@ -462,11 +553,11 @@ public class SubcircuitFactory extends InstanceFactory {
         (float) (AppPreferences.getIconSize() / 4 - l.getBounds().getCenterY()));
     final var wh = AppPreferences.getScaled(3);
     for (int y = 1; y < 3; y++) {
-      if (y == 1) g2.setColor(Value.trueColor);
-      else g2.setColor(Value.falseColor);
+      if (y == 1) g2.setColor(ValueColors.trueColor);
+      else g2.setColor(ValueColors.falseColor);
       g2.fillOval(AppPreferences.getScaled(0), AppPreferences.getScaled(y * 4 + 3), wh, wh);
       if (y < 2) {
-        g2.setColor(Value.unknownColor);
+        g2.setColor(ValueColors.unknownColor);
         g2.fillOval(AppPreferences.getScaled(13), AppPreferences.getScaled(y * 4 + 3), wh, wh);
       }
     }
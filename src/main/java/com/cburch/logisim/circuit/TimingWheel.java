@@ -0,0 +1,100 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import com.cburch.logisim.circuit.Propagator.SetData;
+import java.util.Arrays;
+
+/**
+ * Queue of the pending value changes of a {@link Propagator}, ordered by time and then by serial
+ * number.
+ *
+ * <p>Delays are small, so the changes are kept in a ring of slots indexed by their time instead of
+ * in a heap. All changes in a slot have the same time and, as serial numbers are handed out in
+ * increasing order, appending to the slot keeps them sorted. Adding and removing a change thus
+ * take constant time. The ring doubles whenever a change is scheduled further ahead than it can
+ * hold.
+ */
+final class TimingWheel {
+
+  private static final int INITIAL_SLOTS = 64;
+
+  private SetData[] heads = new SetData[INITIAL_SLOTS];
+  private SetData[] tails = new SetData[INITIAL_SLOTS];
+  private int mask = INITIAL_SLOTS - 1;
+  private int size = 0;
+  // time of the changes being processed; all pending changes are later than this
+  private int now;
+
+  TimingWheel(int now) {
+    this.now = now;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  void clear() {
+    Arrays.fill(heads, null);
+    Arrays.fill(tails, null);
+    size = 0;
+  }
+
+  /** Adds a change, which must be later than the current time and have the largest serial number. */
+  void add(SetData data) {
+    // the subtraction may overflow, which keeps the ring working when the clock wraps around
+    final var ahead = data.time - now;
+    if (ahead > mask) grow(ahead);
+    final var slot = data.time & mask;
+    data.nextEvent = null;
+    if (heads[slot] == null) heads[slot] = data;
+    else tails[slot].nextEvent = data;
+    tails[slot] = data;
+    size++;
+  }
+
+  /** Moves the current time to that of the earliest pending change and returns it. */
+  int advance() {
+    var time = now + 1;
+    while (heads[time & mask] == null) time++;
+    now = time;
+    return time;
+  }
+
+  /** Removes and returns the next pending change of the current time, or null if there is none. */
+  SetData poll() {
+    final var slot = now & mask;
+    final var data = heads[slot];
+    if (data == null) return null;
+    heads[slot] = data.nextEvent;
+    if (data.nextEvent == null) tails[slot] = null;
+    data.nextEvent = null;
+    size--;
+    return data;
+  }
+
+  private void grow(int ahead) {
+    var slots = heads.length;
+    while (slots <= ahead) slots <<= 1;
+    final var newHeads = new SetData[slots];
+    final var newTails = new SetData[slots];
+    final var newMask = slots - 1;
+    // every old slot holds a single time, hence slots of different times do not collide
+    for (var time = now; time != now + heads.length; time++) {
+      final var slot = time & mask;
+      if (heads[slot] == null) continue;
+      newHeads[time & newMask] = heads[slot];
+      newTails[time & newMask] = tails[slot];
+    }
+    heads = newHeads;
+    tails = newTails;
+    mask = newMask;
+  }
+}
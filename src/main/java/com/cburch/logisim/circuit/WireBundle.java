@@ -21,6 +21,7 @@ class WireBundle {
   private Location widthDeterminant = null;
   private boolean isBus_ = false;
   WireThread[] threads = null;
+  boolean unsplit = false; // no splitter takes any of the threads elsewhere
   final CopyOnWriteArraySet<Location> points = new CopyOnWriteArraySet<>(); // points
   // bundle
   // hits
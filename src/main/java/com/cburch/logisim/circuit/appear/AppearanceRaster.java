@@ -0,0 +1,211 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit.appear;
+
+import com.cburch.draw.model.CanvasObject;
+import com.cburch.draw.shapes.Line;
+import com.cburch.draw.shapes.Rectangle;
+import com.cburch.draw.shapes.Text;
+import com.cburch.logisim.data.Bounds;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsDevice;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Images of the static shapes of an appearance, so that the instances of a circuit are painted on
+ * screen by copying pixels instead of drawing every shape. The shapes between two dynamic elements
+ * go into one image, and the dynamic elements are still painted over them one by one, which keeps
+ * the stacking order. An image is made for each zoom, facing and sub-pixel position the appearance
+ * is painted at, and the last few of them are kept.
+ *
+ * <p>Rectangles, lines and text are drawn about as fast as an image of them is copied, so shapes
+ * are only turned into an image when there are others among them, such as curves or polygons.
+ */
+final class AppearanceRaster {
+  private static final int MAX_VARIANTS = 8;
+  private static final long MAX_PIXELS = 1L << 22;
+  // room around the bounds of the shapes for half the widest stroke and for antialiasing
+  private static final int MARGIN = 5;
+  // sub-pixel positions are rounded to this fraction of a pixel
+  private static final double PHASES = 4;
+
+  /** Shapes that follow each other in the stacking order and are painted as one image. */
+  static final class Layer {
+    private final List<CanvasObject> shapes;
+    private BufferedImage image; // null if the shapes are drawn as they are
+    // position of the image relative to the pixel that contains the origin of the appearance
+    private int x;
+    private int y;
+
+    private Layer(List<CanvasObject> shapes) {
+      this.shapes = shapes;
+    }
+
+    /** Paints the shapes, given a graphics context like the one the layer was made for. */
+    void paint(Graphics2D g) {
+      if (image == null) {
+        for (final var shape : shapes) paintShape(g, shape);
+        return;
+      }
+      final var t = g.getTransform();
+      g.setTransform(
+          AffineTransform.getTranslateInstance(
+              Math.floor(t.getTranslateX()) + x, Math.floor(t.getTranslateY()) + y));
+      g.drawImage(image, 0, 0, null);
+      g.setTransform(t);
+    }
+  }
+
+  private record Key(
+      double scaleX,
+      double shearY,
+      double shearX,
+      double scaleY,
+      double phaseX,
+      double phaseY,
+      Object antialias,
+      Object textAntialias) {}
+
+  private final LinkedHashMap<Key, List<Object>> variants =
+      new LinkedHashMap<>(MAX_VARIANTS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, List<Object>> eldest) {
+          return size() > MAX_VARIANTS;
+        }
+      };
+
+  /**
+   * Returns what to paint for the given shapes, from the bottom up: a {@link Layer} for each run
+   * of static shapes and the dynamic elements in between. Returns null if the shapes must be drawn
+   * as they are, which is the case for anything but the screen, e.g. printing and exports.
+   */
+  synchronized List<Object> getLayers(Graphics2D g, List<CanvasObject> shapes) {
+    final var config = g.getDeviceConfiguration();
+    if (config == null || config.getDevice().getType() != GraphicsDevice.TYPE_RASTER_SCREEN) {
+      return null;
+    }
+    final var t = g.getTransform();
+    final var key =
+        new Key(
+            t.getScaleX(),
+            t.getShearY(),
+            t.getShearX(),
+            t.getScaleY(),
+            phase(t.getTranslateX()),
+            phase(t.getTranslateY()),
+            g.getRenderingHint(RenderingHints.KEY_ANTIALIASING),
+            g.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING));
+    var layers = variants.get(key);
+    if (layers == null) {
+      final var linear =
+          new AffineTransform(key.scaleX, key.shearY, key.shearX, key.scaleY, key.phaseX, key.phaseY);
+      layers = buildLayers(g, shapes, linear);
+      variants.put(key, layers);
+    }
+    return layers;
+  }
+
+  synchronized void invalidate() {
+    variants.clear();
+  }
+
+  private static double phase(double translate) {
+    return Math.round((translate - Math.floor(translate)) * PHASES) / PHASES;
+  }
+
+  private static List<Object> buildLayers(
+      Graphics2D g, List<CanvasObject> shapes, AffineTransform transform) {
+    final var layers = new ArrayList<Object>();
+    List<CanvasObject> run = null;
+    for (final var shape : shapes) {
+      if (shape instanceof AppearanceElement) continue;
+      if (shape instanceof DynamicElement) {
+        layers.add(shape);
+        run = null;
+      } else {
+        if (run == null) {
+          run = new ArrayList<>();
+          layers.add(new Layer(run));
+        }
+        run.add(shape);
+      }
+    }
+    for (final var layer : layers) {
+      if (layer instanceof Layer l && isWorthRendering(l)) render(g, l, transform);
+    }
+    return layers;
+  }
+
+  private static boolean isWorthRendering(Layer layer) {
+    for (final var shape : layer.shapes) {
+      if (!(shape instanceof Rectangle || shape instanceof Line || shape instanceof Text)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Draws the shapes of the layer into an image, with the given transform from the coordinates of
+   * the appearance to the pixels, less the whole pixels of the translation.
+   */
+  private static void render(Graphics2D g, Layer layer, AffineTransform transform) {
+    final var config = g.getDeviceConfiguration();
+    // text only knows its size once it has been drawn
+    final var scratch = config.createCompatibleImage(1, 1, Transparency.TRANSLUCENT);
+    final var sg = prepare(scratch.createGraphics(), g, transform);
+    Bounds bds = null;
+    for (final var shape : layer.shapes) {
+      paintShape(sg, shape);
+      bds = (bds == null) ? shape.getBounds() : bds.add(shape.getBounds());
+    }
+    sg.dispose();
+    bds = bds.expand(MARGIN);
+    final var area =
+        transform
+            .createTransformedShape(
+                new Rectangle2D.Double(bds.getX(), bds.getY(), bds.getWidth(), bds.getHeight()))
+            .getBounds();
+    if ((long) area.width * area.height > MAX_PIXELS) return;
+
+    layer.x = area.x;
+    layer.y = area.y;
+    layer.image = config.createCompatibleImage(area.width, area.height, Transparency.TRANSLUCENT);
+    final var ig = layer.image.createGraphics();
+    ig.translate(-area.x, -area.y);
+    prepare(ig, g, transform);
+    for (final var shape : layer.shapes) paintShape(ig, shape);
+    ig.dispose();
+  }
+
+  private static Graphics2D prepare(Graphics2D dest, Graphics2D like, AffineTransform transform) {
+    dest.setRenderingHints(like.getRenderingHints());
+    dest.setColor(like.getColor());
+    dest.setFont(like.getFont());
+    dest.setStroke(like.getStroke());
+    dest.transform(transform);
+    return dest;
+  }
+
+  private static void paintShape(Graphics g, CanvasObject shape) {
+    final var dup = g.create();
+    shape.paint(dup, null);
+    dup.dispose();
+  }
+}
@@ -46,6 +46,7 @@ public class CircuitAppearance extends Drawing implements AttributeListener {
   private class MyListener implements CanvasModelListener {
     @Override
     public void modelChanged(CanvasModelEvent event) {
+      raster.invalidate();
       if (!suppressRecompute) {
         fireCircuitAppearanceChanged(CircuitAppearanceEvent.ALL_TYPES);
       }
@@ -60,6 +61,7 @@ public class CircuitAppearance extends Drawing implements AttributeListener {
   private final ArrayList<CanvasObject> defaultCanvasObjects;
   private boolean suppressRecompute;
   private List<CanvasObject> defaultCustomAppearance;
+  private final AppearanceRaster raster = new AppearanceRaster();
 
   public CircuitAppearance(Circuit circuit) {
     this.circuit = circuit;
@@ -197,6 +199,7 @@ public class CircuitAppearance extends Drawing implements AttributeListener {
   }
 
   void fireCircuitAppearanceChanged(int affected) {
+    raster.invalidate();
     final var event = new CircuitAppearanceEvent(circuit, affected);
     for (final var listener : listeners) {
       listener.circuitAppearanceChanged(event);
@@ -311,15 +314,20 @@ public class CircuitAppearance extends Drawing implements AttributeListener {
         // Do nothing.
       }
     }
-    for (final var shape : getObjectsFromBottom()) {
-      if (!(shape instanceof AppearanceElement)) {
-        final var dup = g.create();
-        if (shape instanceof DynamicElement dynEl) {
-          dynEl.paintDynamic(dup, state);
-          if (shape instanceof DynamicElementWithPoker dynElWithPoker)
-            dynElWithPoker.setAnchor(offset);
-        } else shape.paint(dup, null);
-        dup.dispose();
+    final var layers =
+        (g instanceof Graphics2D g2d) ? raster.getLayers(g2d, getObjectsFromBottom()) : null;
+    if (layers != null) {
+      // the static shapes come as images, only the dynamic elements depend on the state
+      for (final var layer : layers) {
+        if (layer instanceof AppearanceRaster.Layer staticShapes) {
+          staticShapes.paint((Graphics2D) g);
+        } else {
+          paintShape(g, (CanvasObject) layer, state, offset);
+        }
+      }
+    } else {
+      for (final var shape : getObjectsFromBottom()) {
+        if (!(shape instanceof AppearanceElement)) paintShape(g, shape, state, offset);
       }
     }
     g.translate(offset.getX(), offset.getY());
@@ -328,6 +336,16 @@ public class CircuitAppearance extends Drawing implements AttributeListener {
     }
   }
 
+  private static void paintShape(Graphics g, CanvasObject shape, CircuitState state, Location offset) {
+    final var dup = g.create();
+    if (shape instanceof DynamicElement dynEl) {
+      dynEl.paintDynamic(dup, state);
+      if (shape instanceof DynamicElementWithPoker dynElWithPoker)
+        dynElWithPoker.setAnchor(offset);
+    } else shape.paint(dup, null);
+    dup.dispose();
+  }
+
   public boolean isNamedBoxShapedFixedSize() {
     if (circuit == null || circuit.getStaticAttributes() == null) return true;
     final var staticAttrs = circuit.getStaticAttributes(); 
@@ -522,6 +540,7 @@ public class CircuitAppearance extends Drawing implements AttributeListener {
 
   @Override
   public void attributeValueChanged(AttributeEvent e) {
+    raster.invalidate();
     if (e.getAttribute() == CircuitAttributes.APPEARANCE_ATTR) {
       if (e.getValue() == CircuitAttributes.APPEAR_CLASSIC
           || e.getValue() == CircuitAttributes.APPEAR_FPGA
@@ -79,12 +79,14 @@ public class BitWidth implements Comparable<BitWidth> {
 
   private static void ensurePrefab() {
     if (prefab == null) {
-      prefab = new BitWidth[MAXWIDTH + 1];
-      prefab[0] = UNKNOWN;
-      prefab[1] = ONE;
-      for (int i = 2; i < prefab.length; i++) {
-        prefab[i] = new BitWidth(i);
+      // fill the table before publishing it, as widths may be created from several threads
+      final var table = new BitWidth[MAXWIDTH + 1];
+      table[0] = UNKNOWN;
+      table[1] = ONE;
+      for (int i = 2; i < table.length; i++) {
+        table[i] = new BitWidth(i);
       }
+      prefab = table;
     }
   }
 
@@ -103,7 +105,7 @@ public class BitWidth implements Comparable<BitWidth> {
   public static final int MAXWIDTH = Value.MAX_WIDTH;
   public static final int MINWIDTH = 1;
 
-  private static BitWidth[] prefab = null;
+  private static volatile BitWidth[] prefab = null;
 
   final int width;
 
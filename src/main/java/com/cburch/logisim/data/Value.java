@@ -9,7 +9,6 @@
 
 package com.cburch.logisim.data;
 
-import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.util.Cache;
 import java.awt.Color;
 import java.util.Arrays;
@@ -176,11 +175,12 @@ public class Value {
     }
   }
 
-  public static char TRUECHAR = AppPreferences.TRUE_CHAR.get().charAt(0);
-  public static char FALSECHAR = AppPreferences.FALSE_CHAR.get().charAt(0);
-  public static char UNKNOWNCHAR = AppPreferences.UNKNOWN_CHAR.get().charAt(0);
-  public static char ERRORCHAR = AppPreferences.ERROR_CHAR.get().charAt(0);
-  public static char DONTCARECHAR = AppPreferences.DONTCARE_CHAR.get().charAt(0);
+  // set from the preferences once they are loaded, see AppPreferences
+  public static char TRUECHAR = '1';
+  public static char FALSECHAR = '0';
+  public static char UNKNOWNCHAR = 'U';
+  public static char ERRORCHAR = 'E';
+  public static char DONTCARECHAR = '-';
   public static final Value FALSE = new Value(1, 0, 0, 0);
   public static final Value TRUE = new Value(1, 0, 0, 1);
   public static final Value UNKNOWN = new Value(1, 0, 1, 0);
@@ -188,19 +188,6 @@ public class Value {
   public static final Value NIL = new Value(0, 0, 0, 0);
   public static final int MAX_WIDTH = 64;
 
-  public static Color falseColor = new Color(AppPreferences.FALSE_COLOR.get());
-  public static Color trueColor = new Color(AppPreferences.TRUE_COLOR.get());
-  public static Color unknownColor = new Color(AppPreferences.UNKNOWN_COLOR.get());
-  public static Color errorColor = new Color(AppPreferences.ERROR_COLOR.get());
-  public static Color nilColor = new Color(AppPreferences.NIL_COLOR.get());
-  public static Color strokeColor = new Color(AppPreferences.STROKE_COLOR.get());
-  public static Color multiColor = new Color(AppPreferences.BUS_COLOR.get());
-  public static Color widthErrorColor = new Color(AppPreferences.WIDTH_ERROR_COLOR.get());
-  public static Color widthErrorCaptionColor = new Color(AppPreferences.WIDTH_ERROR_CAPTION_COLOR.get());
-  public static Color widthErrorHighlightColor = new Color(AppPreferences.WIDTH_ERROR_HIGHLIGHT_COLOR.get());
-  public static Color widthErrorCaptionBgcolor = new Color(AppPreferences.WIDTH_ERROR_BACKGROUND_COLOR.get());
-  public static Color clockFrequencyColor = new Color(AppPreferences.CLOCK_FREQUENCY_COLOR.get());
-
   private static final Cache cache = new Cache();
 
   private final int width;
@@ -336,17 +323,7 @@ public class Value {
   }
 
   public Color getColor() {
-    if (error != 0) {
-      return errorColor;
-    } else if (width == 0) {
-      return nilColor;
-    } else if (width == 1) {
-      if (this == UNKNOWN) return unknownColor;
-      else if (this == TRUE) return trueColor;
-      else return falseColor;
-    } else {
-      return multiColor;
-    }
+    return ValueColors.get(this);
   }
 
   public int getWidth() {
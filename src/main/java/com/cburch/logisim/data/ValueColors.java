@@ -0,0 +1,50 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.data;
+
+import com.cburch.logisim.prefs.AppPreferences;
+import java.awt.Color;
+
+/**
+ * Colors in which values and wires are drawn, as set in the preferences. They are kept apart from
+ * {@link Value} so that simulating does not load AWT or the preferences.
+ */
+public final class ValueColors {
+  public static Color falseColor = new Color(AppPreferences.FALSE_COLOR.get());
+  public static Color trueColor = new Color(AppPreferences.TRUE_COLOR.get());
+  public static Color unknownColor = new Color(AppPreferences.UNKNOWN_COLOR.get());
+  public static Color errorColor = new Color(AppPreferences.ERROR_COLOR.get());
+  public static Color nilColor = new Color(AppPreferences.NIL_COLOR.get());
+  public static Color strokeColor = new Color(AppPreferences.STROKE_COLOR.get());
+  public static Color multiColor = new Color(AppPreferences.BUS_COLOR.get());
+  public static Color widthErrorColor = new Color(AppPreferences.WIDTH_ERROR_COLOR.get());
+  public static Color widthErrorCaptionColor = new Color(AppPreferences.WIDTH_ERROR_CAPTION_COLOR.get());
+  public static Color widthErrorHighlightColor = new Color(AppPreferences.WIDTH_ERROR_HIGHLIGHT_COLOR.get());
+  public static Color widthErrorCaptionBgcolor = new Color(AppPreferences.WIDTH_ERROR_BACKGROUND_COLOR.get());
+  public static Color clockFrequencyColor = new Color(AppPreferences.CLOCK_FREQUENCY_COLOR.get());
+
+  private ValueColors() {
+    throw new IllegalStateException("Utility class. No instantiation allowed.");
+  }
+
+  public static Color get(Value v) {
+    if (v.isErrorValue()) {
+      return errorColor;
+    } else if (v.getWidth() == 0) {
+      return nilColor;
+    } else if (v.getWidth() == 1) {
+      if (v == Value.UNKNOWN) return unknownColor;
+      else if (v == Value.TRUE) return trueColor;
+      else return falseColor;
+    } else {
+      return multiColor;
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.file;
+
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.util.XmlUtil;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * Append-only log of the changes made to a project since its last full autosave, stored next to
+ * the autosave file.
+ *
+ * <p>Each entry holds, in the binary project format, the whole project except for the circuits
+ * that did not change since the previous entry. Writing an entry thus costs in proportion to the
+ * edited circuits rather than to the whole project. Once the log holds too many entries, or grows
+ * larger than the autosave itself, the next autosave is a full one and the log starts anew.
+ *
+ * <p>Entries can only describe the circuits of the full autosave. Adding, removing, renaming or
+ * reordering circuits thus also leads to a full autosave.
+ */
+final class AutosaveJournal {
+
+  static final String SUFFIX = ".journal";
+  private static final int MAX_ENTRIES = 32;
+
+  private final LibraryLoader loader;
+  private final File autosaveFile;
+  private final File journalFile;
+  private final List<String> circuitNames;
+  private final long maxSize;
+  private long size = 0;
+  private int entries = 0;
+
+  /** Starts a new journal for an autosave file that was just fully written. */
+  AutosaveJournal(LibraryLoader loader, File autosaveFile, LogisimFile file) {
+    this.loader = loader;
+    this.autosaveFile = autosaveFile;
+    this.journalFile = getJournalFile(autosaveFile);
+    this.circuitNames = getCircuitNames(file);
+    this.maxSize = autosaveFile.length();
+    journalFile.delete();
+  }
+
+  static File getJournalFile(File autosaveFile) {
+    return new File(autosaveFile.getParentFile(), autosaveFile.getName() + SUFFIX);
+  }
+
+  private static List<String> getCircuitNames(LogisimFile file) {
+    final var names = new ArrayList<String>();
+    for (final var circ : file.getCircuits()) names.add(circ.getName());
+    return names;
+  }
+
+  /**
+   * Appends the current state of the given circuits, and of everything outside the circuits, to
+   * the journal.
+   *
+   * @return false if the journal cannot hold these changes and a full autosave is needed instead
+   */
+  boolean append(LogisimFile file, Collection<Circuit> changed) {
+    if (entries >= MAX_ENTRIES || size > maxSize) return false;
+    if (!circuitNames.equals(getCircuitNames(file))) return false;
+    final var entry = new ByteArrayOutputStream();
+    try {
+      final var doc = XmlWriter.toDocument(file, loader, autosaveFile, null, changed, false);
+      BinaryProjectFormat.write(doc, entry);
+    } catch (ParserConfigurationException | IOException e) {
+      return false;
+    }
+    try (final var out = new DataOutputStream(new FileOutputStream(journalFile, true))) {
+      out.writeInt(entry.size());
+      entry.writeTo(out);
+    } catch (IOException e) {
+      return false;
+    }
+    size += entry.size() + 4;
+    entries++;
+    return true;
+  }
+
+  void delete() {
+    journalFile.delete();
+  }
+
+  /**
+   * Opens an autosave file for loading, with the changes of its journal, if any, applied.
+   * Entries that were only partly written when the application stopped are ignored.
+   */
+  static InputStream openRecovered(File autosaveFile) throws IOException {
+    final var journalFile = getJournalFile(autosaveFile);
+    if (!journalFile.exists()) return new FileInputStream(autosaveFile);
+    final Document doc;
+    try (final var in = new FileInputStream(autosaveFile)) {
+      doc = XmlUtil.getHardenedBuilderFactory().newDocumentBuilder().parse(in);
+    } catch (ParserConfigurationException | SAXException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+    try (final var in = new DataInputStream(new FileInputStream(journalFile))) {
+      while (true) {
+        final byte[] entry;
+        try {
+          entry = new byte[in.readInt()];
+          in.readFully(entry);
+        } catch (EOFException e) {
+          break;
+        }
+        apply(doc, BinaryProjectFormat.read(new ByteArrayInputStream(entry)));
+      }
+    }
+    final var recovered = new ByteArrayOutputStream();
+    BinaryProjectFormat.write(doc, recovered);
+    return new ByteArrayInputStream(recovered.toByteArray());
+  }
+
+  /**
+   * Replaces the project in doc by the one of a journal entry, keeping the circuits that the entry
+   * does not hold.
+   */
+  private static void apply(Document doc, Document entry) {
+    final var oldRoot = doc.getDocumentElement();
+    final var circuits = new LinkedHashMap<String, Node>();
+    for (final var circ : XmlIterator.forChildElements(oldRoot, "circuit")) {
+      circuits.put(circ.getAttribute("name"), circ);
+    }
+    final var newRoot = (Element) doc.importNode(entry.getDocumentElement(), true);
+    final var vhdl = new ArrayList<Node>();
+    for (var child = newRoot.getFirstChild(); child != null; ) {
+      final var next = child.getNextSibling();
+      if (child instanceof Element elt) {
+        if ("circuit".equals(elt.getTagName())) {
+          circuits.replace(elt.getAttribute("name"), elt);
+          newRoot.removeChild(elt);
+        } else if ("vhdl".equals(elt.getTagName())) {
+          vhdl.add(elt);
+          newRoot.removeChild(elt);
+        }
+      }
+      child = next;
+    }
+    // keep the order of the saved file: circuits come before the vhdl entities
+    for (final var circ : circuits.values()) newRoot.appendChild(circ);
+    for (final var elt : vhdl) newRoot.appendChild(elt);
+    doc.replaceChild(newRoot, oldRoot);
+  }
+}
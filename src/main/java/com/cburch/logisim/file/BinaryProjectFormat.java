@@ -0,0 +1,405 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.file;
+
+import com.cburch.logisim.std.memory.MemContents;
+import com.cburch.logisim.std.memory.Rom;
+import com.cburch.logisim.util.XmlUtil;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Compact binary container for project files, meant for very large (generated) designs where the
+ * size of the XML text and the time to parse it dominate. It stores the very same tree as the
+ * {@code .circ} XML format, so files convert between both formats without loss:
+ *
+ * <ul>
+ *   <li>element names, attribute names and attribute values go through a string table that is
+ *       built while writing, so each distinct string is stored only once;
+ *   <li>wire end points are delta encoded against the previous wire;
+ *   <li>memory contents are stored as raw pages of words instead of hex text.
+ * </ul>
+ *
+ * <p>Reading produces a DOM tree that is handed to the regular XML loading code. When loading or
+ * saving a project, memory contents are never turned into hex text: they are attached to their
+ * attribute element instead, see {@link #getMemoryContents} and {@link #setMemoryContents}.
+ */
+final class BinaryProjectFormat {
+
+  private static final byte[] MAGIC = {'L', 'G', 'S', 'M', 'B', 'I', 'N', 0};
+  private static final int VERSION = 1;
+
+  // node tags
+  private static final int END = 0;
+  private static final int ELEMENT = 1;
+  private static final int TEXT = 2;
+  private static final int WIRE = 3;
+  private static final int MEMORY = 4;
+
+  // memory pages hold 1 << PAGE_BITS words, all zero pages are not stored
+  private static final int PAGE_BITS = 10;
+  // user data key of the memory contents attached to attribute elements
+  private static final String MEMORY_CONTENTS = "memoryContents";
+
+  private BinaryProjectFormat() {
+    throw new IllegalStateException("Utility class. No instantiation allowed.");
+  }
+
+  /**
+   * Checks whether the given stream holds a binary project. The stream is reset to its current
+   * position afterwards.
+   */
+  static boolean isBinary(BufferedInputStream in) throws IOException {
+    final var head = new byte[MAGIC.length];
+    in.mark(head.length);
+    final var count = in.readNBytes(head, 0, head.length);
+    in.reset();
+    return count == head.length && Arrays.equals(head, MAGIC);
+  }
+
+  static void write(Document doc, OutputStream out) throws IOException {
+    final var data = new DataOutputStream(new BufferedOutputStream(out));
+    data.write(MAGIC);
+    writeVarint(data, VERSION);
+    new Writer(data).writeElement(doc.getDocumentElement());
+    data.flush();
+  }
+
+  /** Reads a binary project into the very same tree as its XML text. */
+  static Document read(InputStream in) throws IOException {
+    return read(in, true);
+  }
+
+  /**
+   * Reads a binary project. Unless memoryAsText is set, the memory contents are attached to their
+   * attribute element, where {@link #getMemoryContents} finds them, instead of being stored as hex
+   * text.
+   */
+  static Document read(InputStream in, boolean memoryAsText) throws IOException {
+    final var data = new DataInputStream(in);
+    final var head = new byte[MAGIC.length];
+    data.readFully(head);
+    if (!Arrays.equals(head, MAGIC)) throw new IOException("Not a binary Logisim project");
+    final var version = readVarint(data);
+    if (version != VERSION) {
+      throw new IOException("Unsupported binary project version " + version);
+    }
+    final Document doc;
+    try {
+      doc = XmlUtil.getHardenedBuilderFactory().newDocumentBuilder().newDocument();
+    } catch (ParserConfigurationException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+    final var reader = new Reader(data, doc, memoryAsText);
+    if (data.readUnsignedByte() != ELEMENT) throw new IOException("Missing root element");
+    doc.appendChild(reader.readElement());
+    return doc;
+  }
+
+  private static class Writer {
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private int lastX = 0;
+    private int lastY = 0;
+
+    Writer(DataOutputStream out) {
+      this.out = out;
+    }
+
+    void writeElement(Element elt) throws IOException {
+      if (writeWire(elt)) return;
+      out.writeByte(ELEMENT);
+      writeString(elt.getTagName());
+      final var attrs = elt.getAttributes();
+      writeVarint(out, attrs.getLength());
+      for (var i = 0; i < attrs.getLength(); i++) {
+        final var attr = attrs.item(i);
+        writeString(attr.getNodeName());
+        writeString(attr.getNodeValue());
+      }
+      final var contents = getMemoryContents(elt);
+      if (contents != null) writeMemory(contents);
+      final var children = elt.getChildNodes();
+      var hasElements = false;
+      for (var i = 0; i < children.getLength() && !hasElements; i++) {
+        hasElements = children.item(i).getNodeType() == Node.ELEMENT_NODE;
+      }
+      for (var i = 0; i < children.getLength(); i++) {
+        final var child = children.item(i);
+        switch (child.getNodeType()) {
+          case Node.ELEMENT_NODE -> writeElement((Element) child);
+          case Node.TEXT_NODE, Node.CDATA_SECTION_NODE -> {
+            final var text = child.getNodeValue();
+            // indentation between elements is not part of the content
+            if (hasElements && text.isBlank()) continue;
+            if (!writeMemory(elt, text)) {
+              out.writeByte(TEXT);
+              writeRawString(out, text);
+            }
+          }
+          default -> {
+            // comments and processing instructions are not kept
+          }
+        }
+      }
+      out.writeByte(END);
+    }
+
+    private boolean writeWire(Element elt) throws IOException {
+      if (!"wire".equals(elt.getTagName())
+          || elt.hasChildNodes()
+          || elt.getAttributes().getLength() != 2) {
+        return false;
+      }
+      final var from = parseLocation(elt.getAttribute("from"));
+      final var to = parseLocation(elt.getAttribute("to"));
+      if (from == null || to == null) return false;
+      out.writeByte(WIRE);
+      writeSignedVarint(out, from[0] - lastX);
+      writeSignedVarint(out, from[1] - lastY);
+      writeSignedVarint(out, to[0] - from[0]);
+      writeSignedVarint(out, to[1] - from[1]);
+      lastX = from[0];
+      lastY = from[1];
+      return true;
+    }
+
+    private boolean writeMemory(Element parent, String text) throws IOException {
+      if (!"a".equals(parent.getTagName()) || !text.startsWith("addr/data:")) return false;
+      final var contents = Rom.CONTENTS_ATTR.parse(text);
+      // only store contents that give back the very same text
+      if (contents == null || !Rom.CONTENTS_ATTR.toStandardString(contents).equals(text)) {
+        return false;
+      }
+      writeMemory(contents);
+      return true;
+    }
+
+    private void writeMemory(MemContents contents) throws IOException {
+      out.writeByte(MEMORY);
+      final var addrBits = contents.getLogLength();
+      final var width = contents.getWidth();
+      writeVarint(out, addrBits);
+      writeVarint(out, width);
+      final var bytesPerWord = (width + 7) / 8;
+      final var pageSize = 1L << Math.min(addrBits, PAGE_BITS);
+      final var length = 1L << addrBits;
+      var lastPage = -1L;
+      for (var start = 0L; start < length; start += pageSize) {
+        if (contents.isClear(start, pageSize)) continue;
+        final var page = start / pageSize;
+        writeVarint(out, page - lastPage);
+        lastPage = page;
+        for (var addr = start; addr < start + pageSize; addr++) {
+          var value = contents.get(addr);
+          for (var i = 0; i < bytesPerWord; i++) {
+            out.writeByte((int) value);
+            value >>>= 8;
+          }
+        }
+      }
+      writeVarint(out, 0);
+    }
+
+    private void writeString(String value) throws IOException {
+      final var index = strings.get(value);
+      if (index != null) {
+        writeVarint(out, index + 1);
+      } else {
+        writeVarint(out, 0);
+        writeRawString(out, value);
+        strings.put(value, strings.size());
+      }
+    }
+  }
+
+  /**
+   * Returns the memory contents stored in the given attribute element by {@link #read(InputStream,
+   * boolean)}, or null if it holds none.
+   */
+  static MemContents getMemoryContents(Element attrElt) {
+    return (MemContents) attrElt.getUserData(MEMORY_CONTENTS);
+  }
+
+  /** Attaches memory contents to an attribute element, which is then written without its text. */
+  static void setMemoryContents(Element attrElt, MemContents contents) {
+    attrElt.setUserData(MEMORY_CONTENTS, contents, null);
+  }
+
+  private static class Reader {
+    private final DataInputStream in;
+    private final Document doc;
+    private final boolean memoryAsText;
+    private final List<String> strings = new ArrayList<>();
+    private int lastX = 0;
+    private int lastY = 0;
+
+    Reader(DataInputStream in, Document doc, boolean memoryAsText) {
+      this.in = in;
+      this.doc = doc;
+      this.memoryAsText = memoryAsText;
+    }
+
+    Element readElement() throws IOException {
+      final var elt = doc.createElement(readString());
+      final var attrCount = readVarint(in);
+      for (var i = 0; i < attrCount; i++) {
+        final var name = readString();
+        elt.setAttribute(name, readString());
+      }
+      while (true) {
+        final var tag = in.readUnsignedByte();
+        switch (tag) {
+          case END -> {
+            return elt;
+          }
+          case ELEMENT -> elt.appendChild(readElement());
+          case TEXT -> elt.appendChild(doc.createTextNode(readRawString(in)));
+          case WIRE -> elt.appendChild(readWire());
+          case MEMORY -> {
+            final var contents = readMemory();
+            if (memoryAsText) {
+              elt.appendChild(doc.createTextNode(Rom.CONTENTS_ATTR.toStandardString(contents)));
+            } else {
+              setMemoryContents(elt, contents);
+            }
+          }
+          default -> throw new IOException("Invalid node tag " + tag);
+        }
+      }
+    }
+
+    private Element readWire() throws IOException {
+      final var fromX = lastX + (int) readSignedVarint(in);
+      final var fromY = lastY + (int) readSignedVarint(in);
+      final var toX = fromX + (int) readSignedVarint(in);
+      final var toY = fromY + (int) readSignedVarint(in);
+      lastX = fromX;
+      lastY = fromY;
+      final var wire = doc.createElement("wire");
+      wire.setAttribute("from", formatLocation(fromX, fromY));
+      wire.setAttribute("to", formatLocation(toX, toY));
+      return wire;
+    }
+
+    private MemContents readMemory() throws IOException {
+      final var addrBits = (int) readVarint(in);
+      final var width = (int) readVarint(in);
+      final MemContents contents;
+      try {
+        contents = MemContents.create(addrBits, width, false);
+      } catch (RuntimeException e) {
+        throw new IOException("Invalid memory dimensions " + addrBits + "/" + width, e);
+      }
+      final var bytesPerWord = (width + 7) / 8;
+      final var pageSize = 1 << Math.min(addrBits, PAGE_BITS);
+      final var values = new long[pageSize];
+      var page = -1L;
+      for (var delta = readVarint(in); delta != 0; delta = readVarint(in)) {
+        page += delta;
+        if ((page + 1) * pageSize > 1L << addrBits) throw new IOException("Invalid memory page");
+        for (var i = 0; i < pageSize; i++) {
+          var value = 0L;
+          for (var b = 0; b < bytesPerWord; b++) {
+            value |= (long) in.readUnsignedByte() << (8 * b);
+          }
+          values[i] = value;
+        }
+        contents.set(page * pageSize, values);
+      }
+      return contents;
+    }
+
+    private String readString() throws IOException {
+      final var index = readVarint(in);
+      if (index == 0) {
+        final var value = readRawString(in);
+        strings.add(value);
+        return value;
+      }
+      if (index > strings.size()) throw new IOException("Invalid string reference " + index);
+      return strings.get((int) index - 1);
+    }
+  }
+
+  /** Parses a location as written by the XML format, or returns null if it is not canonical. */
+  private static int[] parseLocation(String value) {
+    if (!value.startsWith("(") || !value.endsWith(")")) return null;
+    final var comma = value.indexOf(',');
+    if (comma < 0) return null;
+    try {
+      final var x = Integer.parseInt(value.substring(1, comma));
+      final var y = Integer.parseInt(value.substring(comma + 1, value.length() - 1));
+      return formatLocation(x, y).equals(value) ? new int[] {x, y} : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static String formatLocation(int x, int y) {
+    return "(" + x + "," + y + ")";
+  }
+
+  private static void writeRawString(DataOutputStream out, String value) throws IOException {
+    final var bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarint(out, bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readRawString(DataInputStream in) throws IOException {
+    final var length = readVarint(in);
+    if (length > Integer.MAX_VALUE) throw new IOException("Invalid string length " + length);
+    final var bytes = new byte[(int) length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeVarint(DataOutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  private static long readVarint(DataInputStream in) throws IOException {
+    var value = 0L;
+    for (var shift = 0; shift < 64; shift += 7) {
+      final var b = in.readUnsignedByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return value;
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+
+  private static void writeSignedVarint(DataOutputStream out, long value) throws IOException {
+    writeVarint(out, (value << 1) ^ (value >> 63));
+  }
+
+  private static long readSignedVarint(DataInputStream in) throws IOException {
+    final var value = readVarint(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -197,7 +197,7 @@ public final class LibraryManager {
   }
 
   public String getDescriptor(Loader loader, Library lib) {
-    if (loader.getBuiltin().getLibraries().contains(lib)) {
+    if (loader.getBuiltin().isBuiltinLibrary(lib)) {
       return DESC_SEP + lib.getName();
     } else {
       final var desc = invMap.get(lib);
@@ -238,11 +238,7 @@ public final class LibraryManager {
   }
 
   public static Set<String> getBuildinNames(Loader loader) {
-    final var buildinNames = new HashSet<String>();
-    for (final var lib : loader.getBuiltin().getLibraries()) {
-      buildinNames.add(lib.getName());
-    }
-    return buildinNames;
+    return new HashSet<>(loader.getBuiltin().getLibraryNames());
   }
 
   public Library loadLibrary(Loader loader, String desc) {
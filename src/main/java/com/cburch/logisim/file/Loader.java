@@ -77,7 +77,9 @@ public class Loader implements LibraryLoader {
   private static class LogisimFileFilter extends FileFilter {
     @Override
     public boolean accept(File f) {
-      return f.isDirectory() || f.getName().endsWith(LOGISIM_EXTENSION);
+      return f.isDirectory()
+          || f.getName().endsWith(LOGISIM_EXTENSION)
+          || isBinaryProjectFile(f);
     }
 
     @Override
@@ -111,6 +113,8 @@ public class Loader implements LibraryLoader {
   }
 
   public static final String LOGISIM_EXTENSION = ".circ";
+  /** Extension of projects saved in the compact binary format instead of XML. */
+  public static final String LOGISIM_BINARY_EXTENSION = ".circb";
   public static final String LOGISIM_LIBRARY_DIR = "library";
   public static final String LOGISIM_CIRCUIT_DIR = "circuit";
   public static final String LOGISIM_UNNAMED_AUTOSAVE_PREFIX = ".logisim-unnamed-autosave_";
@@ -127,6 +131,7 @@ public class Loader implements LibraryLoader {
   // to be cleared with each new file
   private File mainFile = null;
   private File autosaveFile = null;
+  private AutosaveJournal autosaveJournal = null;
   private final Stack<File> filesOpening = new Stack<>();
   private Map<File, File> substitutions = new HashMap<>();
 
@@ -138,9 +143,7 @@ public class Loader implements LibraryLoader {
   private static File determineBackupName(File base) {
     final var dir = base.getParentFile();
     var name = base.getName();
-    if (name.endsWith(LOGISIM_EXTENSION)) {
-      name = name.substring(0, name.length() - LOGISIM_EXTENSION.length());
-    }
+    name = stripProjectExtension(name);
     for (var i = 1; i <= 20; i++) {
       final var ext = i == 1 ? ".bak" : (".bak" + i);
       final var candidate = new File(dir, name + ext);
@@ -149,7 +152,7 @@ public class Loader implements LibraryLoader {
     return null;
   }
 
-  // Determine the autosave file name for any .circ file as .<basename>.circ.autosave
+  // Determine the autosave file name for any .circ(b) file as .<basename>.circ(b).autosave
   private static File determineAutosaveName(File base) {
     if (base == null) {
       String timestamp =
@@ -159,7 +162,7 @@ public class Loader implements LibraryLoader {
       if (!candidate.exists()) return candidate;
       return null;
     }
-    if (!base.getName().endsWith(LOGISIM_EXTENSION)) return null;
+    if (!base.getName().endsWith(LOGISIM_EXTENSION) && !isBinaryProjectFile(base)) return null;
     final var dir = base.getParentFile();
     final var name = "." + base.getName() + ".autosave";
     return new File(dir, name);
@@ -469,6 +472,17 @@ public class Loader implements LibraryLoader {
     if (autosaveFile == null) {
       return false;
     }
+    // Only log the changes when the previous autosave is still there to apply them to
+    final var changed = file.takeAutosaveChanges();
+    if (autosaveJournal != null && autosaveFile.equals(oldAutosave) && autosaveFile.exists()
+        && autosaveJournal.append(file, changed)) {
+      return true;
+    }
+    // The changes logged so far are part of the full autosave
+    if (autosaveJournal != null) {
+      autosaveJournal.delete();
+      autosaveJournal = null;
+    }
     FileOutputStream fwrite = null;
     try {
       fwrite = new FileOutputStream(autosaveFile);
@@ -477,6 +491,7 @@ public class Loader implements LibraryLoader {
     } catch (IOException e) {
       return false;
     }
+    autosaveJournal = new AutosaveJournal(this, autosaveFile, file);
     if (oldAutosave != null && !oldAutosave.equals(autosaveFile)) {
       oldAutosave.delete();
     }
@@ -490,6 +505,10 @@ public class Loader implements LibraryLoader {
    *     false if the file is null or deletion failed
    */
   public boolean deleteAutosave() {
+    if (autosaveJournal != null) {
+      autosaveJournal.delete();
+      autosaveJournal = null;
+    }
     return autosaveFile != null ? autosaveFile.delete() : false;
   }
 
@@ -567,11 +586,19 @@ public class Loader implements LibraryLoader {
   }
 
   private String toProjectName(File file) {
-    final var ret = file.getName();
+    return stripProjectExtension(file.getName());
+  }
+
+  private static String stripProjectExtension(String name) {
+    for (final var ext : new String[] {LOGISIM_EXTENSION, LOGISIM_BINARY_EXTENSION}) {
+      if (name.endsWith(ext)) return name.substring(0, name.length() - ext.length());
+    }
+    return name;
+  }
 
-    return (ret.endsWith(LOGISIM_EXTENSION))
-        ? ret.substring(0, ret.length() - LOGISIM_EXTENSION.length())
-        : ret;
+  /** Tells whether a project file is to be saved in the binary format. */
+  public static boolean isBinaryProjectFile(File file) {
+    return file != null && file.getName().endsWith(LOGISIM_BINARY_EXTENSION);
   }
 
   public String vhdlImportChooser(Component window) {
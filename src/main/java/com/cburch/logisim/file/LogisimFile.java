@@ -16,6 +16,8 @@ import com.cburch.logisim.circuit.CircuitAttributes;
 import com.cburch.logisim.circuit.CircuitEvent;
 import com.cburch.logisim.circuit.CircuitListener;
 import com.cburch.logisim.circuit.SubcircuitFactory;
+import com.cburch.logisim.circuit.appear.CircuitAppearanceEvent;
+import com.cburch.logisim.circuit.appear.CircuitAppearanceListener;
 import com.cburch.logisim.comp.ComponentFactory;
 import com.cburch.logisim.gui.generic.OptionPane;
 import com.cburch.logisim.prefs.AppPreferences;
@@ -36,41 +38,21 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.JOptionPane;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import org.xml.sax.SAXException;
 
-public class LogisimFile extends Library implements LibraryEventSource, CircuitListener {
-
-  private static class WritingThread extends UniquelyNamedThread {
-    final OutputStream out;
-    final LogisimFile file;
-
-    WritingThread(OutputStream out, LogisimFile file) {
-      super("WritingThread");
-      this.out = out;
-      this.file = file;
-    }
-
-    @Override
-    public void run() {
-      file.write(out, file.loader);
-      try {
-        out.close();
-      } catch (IOException e) {
-        file.loader.showError(S.get("fileDuplicateError", e.toString()));
-      }
-    }
-  }
+public class LogisimFile extends Library
+    implements LibraryEventSource, CircuitListener, CircuitAppearanceListener {
 
   private static class AutosaveThread extends UniquelyNamedThread {
     private static int threadCount = 0;
@@ -124,6 +106,8 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
   private String name;
   private boolean isDirty = false;
   private boolean isAutosaveDirty = false;
+  // circuits changed since the last autosave, which only needs to journal these
+  private final Set<Circuit> autosaveChangedCircuits = ConcurrentHashMap.newKeySet();
   private AutosaveThread autosaveThread = null;
   private boolean autosaveLoaded = false;
 
@@ -146,9 +130,15 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
     }
   }
 
+  @Override
+  public void circuitAppearanceChanged(CircuitAppearanceEvent event) {
+    autosaveChangedCircuits.add(event.getCircuit());
+  }
+
   @Override
   public void circuitChanged(CircuitEvent event) {
     final var act = event.getAction();
+    if (act != CircuitEvent.ACTION_DISPLAY_CHANGE) autosaveChangedCircuits.add(event.getCircuit());
     if (act == CircuitEvent.ACTION_CHECK_NAME) {
       final var oldname = (String) event.getData();
       final var newname = event.getCircuit().getName();
@@ -192,9 +182,9 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
   //
   public static LogisimFile createNew(Loader loader, Project proj) {
     final var ret = new LogisimFile(loader);
-    ret.main = new Circuit("main", ret, proj);
     // The name will be changed in LogisimPreferences
-    ret.tools.add(new AddTool(ret.main.getSubcircuitFactory()));
+    // (added as any other circuit, so that its changes are listened to)
+    ret.addCircuit(new Circuit("main", ret, proj));
     return ret;
   }
 
@@ -232,11 +222,14 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
         autosaveLoading = true; // Also set this to true to remember an autosave was loaded
       } else if (res == 1) {
         autosave.get().delete();
+        AutosaveJournal.getJournalFile(autosave.get()).delete();
       }
     }
 
     LogisimFile result = null;
-    FileInputStream inputStream = new FileInputStream(loadFile);
+    // An autosave comes with the journal of the changes made after it was written
+    final var inputStream =
+        autosaveLoading ? AutosaveJournal.openRecovered(loadFile) : new FileInputStream(loadFile);
     Throwable firstExcept = null;
     try {
       result = loadSub(inputStream, loader, file);
@@ -310,6 +303,7 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
 
   public void addCircuit(Circuit circuit, int index) {
     circuit.addCircuitListener(this);
+    circuit.getAppearance().addCircuitAppearanceListener(this);
     final var tool = new AddTool(circuit.getSubcircuitFactory());
     tools.add(index, tool);
     if (tools.size() == 1) setMainCircuit(circuit);
@@ -329,7 +323,8 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
   public void addLibrary(Library lib) {
     if (!lib.getName().equals(BaseLibrary._ID)) {
       for (final var tool : lib.getTools()) {
-        if (tool instanceof AddTool addTool) {
+        // circuit names only come with subcircuit tools, whose factory is never loaded lazily
+        if (tool instanceof AddTool addTool && addTool.getFactory(false) != null) {
           final var atrs = addTool.getAttributeSet();
           for (final var attr : atrs.getAttributes()) {
             if (attr == CircuitAttributes.NAME_ATTR) atrs.setReadOnly(attr, true);
@@ -356,27 +351,17 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
     messages.addLast(msg);
   }
 
-  @SuppressWarnings("resource")
+  /**
+   * Creates an independent copy of this file for the given loader. The copy is built directly
+   * from the in-memory circuits, so no XML is written or parsed.
+   */
   public LogisimFile cloneLogisimFile(Loader newloader) {
-    final var reader = new PipedInputStream();
-    final var writer = new PipedOutputStream();
     try {
-      reader.connect(writer);
-    } catch (IOException e) {
+      return LogisimFileCloner.clone(this, newloader);
+    } catch (RuntimeException e) {
       newloader.showError(S.get("fileDuplicateError", e.toString()));
       return null;
     }
-    new WritingThread(writer, this).start();
-    try {
-      return LogisimFile.load(reader, newloader);
-    } catch (IOException e) {
-      newloader.showError(S.get("fileDuplicateError", e.toString()));
-      try {
-        reader.close();
-      } catch (IOException ignored) {
-      }
-      return null;
-    }
   }
 
   public boolean contains(Circuit circ) {
@@ -682,7 +667,14 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
 
   void write(OutputStream out, LibraryLoader loader, File dest, String libraryHome) {
     try {
-      XmlWriter.write(this, out, loader, dest, libraryHome);
+      if (Loader.isBinaryProjectFile(dest)) {
+        final var doc = XmlWriter.toDocument(this, loader, dest, libraryHome, null, false);
+        BinaryProjectFormat.write(doc, out);
+      } else {
+        XmlWriter.write(this, out, loader, dest, libraryHome);
+      }
+    } catch (IOException e) {
+      loader.showError(S.get("fileSaveError", e.toString()));
     } catch (TransformerConfigurationException e) {
       loader.showError("internal error configuring transformer");
     } catch (ParserConfigurationException e) {
@@ -695,6 +687,16 @@ public class LogisimFile extends Library implements LibraryEventSource, CircuitL
     }
   }
 
+  /** Returns the circuits changed since the previous call, as needed by the autosave journal. */
+  Set<Circuit> takeAutosaveChanges() {
+    final var changed = new HashSet<Circuit>();
+    for (final var it = autosaveChangedCircuits.iterator(); it.hasNext(); ) {
+      changed.add(it.next());
+      it.remove();
+    }
+    return changed;
+  }
+
   void interruptAutosaveThread() {
     if (autosaveThread == null) return;
     autosaveThread.interrupt();
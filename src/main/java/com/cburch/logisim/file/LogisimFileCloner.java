@@ -0,0 +1,375 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.file;
+
+import static com.cburch.logisim.file.Strings.S;
+
+import com.cburch.draw.model.CanvasObject;
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitMapInfo;
+import com.cburch.logisim.circuit.CircuitMutator;
+import com.cburch.logisim.circuit.CircuitTransaction;
+import com.cburch.logisim.circuit.SubcircuitFactory;
+import com.cburch.logisim.circuit.appear.AppearancePort;
+import com.cburch.logisim.circuit.appear.AppearanceSvgReader;
+import com.cburch.logisim.circuit.appear.DynamicElement;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.comp.ComponentFactory;
+import com.cburch.logisim.data.Attribute;
+import com.cburch.logisim.data.AttributeOptionInterface;
+import com.cburch.logisim.data.AttributeSet;
+import com.cburch.logisim.data.AttributeSets;
+import com.cburch.logisim.data.BitWidth;
+import com.cburch.logisim.data.Bounds;
+import com.cburch.logisim.data.Direction;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.fpga.data.MapComponent;
+import com.cburch.logisim.instance.Instance;
+import com.cburch.logisim.std.memory.MemContents;
+import com.cburch.logisim.tools.AddTool;
+import com.cburch.logisim.tools.Library;
+import com.cburch.logisim.tools.Tool;
+import com.cburch.logisim.util.XmlUtil;
+import com.cburch.logisim.vhdl.base.VhdlContent;
+import com.cburch.logisim.vhdl.base.VhdlEntity;
+import java.awt.Color;
+import java.awt.Font;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+
+/**
+ * Creates an in-memory structural copy of a {@link LogisimFile}. The copy is equivalent to what
+ * writing the file to XML and reading it back would produce, but it never serializes the project:
+ * circuits, components, attribute sets and appearances are rebuilt directly from the source
+ * objects. Immutable attribute values (numbers, strings, bit widths, options, ...) are shared
+ * between the source and the copy, mutable ones (e.g. memory contents) are duplicated.
+ */
+final class LogisimFileCloner {
+
+  private final LogisimFile source;
+  private final Loader loader;
+  private final LogisimFile dest;
+  private final Map<Library, Library> libraryMap = new HashMap<>();
+  private final Map<ComponentFactory, ComponentFactory> factoryMap = new HashMap<>();
+  private final Map<Circuit, Circuit> circuitMap = new LinkedHashMap<>();
+  private final Map<Component, Component> componentMap = new HashMap<>();
+  private final List<String> messages = new ArrayList<>();
+  private Document svgDocument;
+
+  private LogisimFileCloner(LogisimFile source, Loader loader) {
+    this.source = source;
+    this.loader = loader;
+    this.dest = new LogisimFile(loader);
+  }
+
+  static LogisimFile clone(LogisimFile source, Loader loader) {
+    final var cloner = new LogisimFileCloner(source, loader);
+    cloner.cloneLibraries();
+    cloner.cloneTools();
+    cloner.cloneOptions();
+    new CircuitBuilder(cloner).execute();
+    cloner.cloneAppearances();
+    cloner.cloneBoardMaps();
+    final var main = cloner.circuitMap.get(source.getMainCircuit());
+    if (main != null) cloner.dest.setMainCircuit(main);
+    if (cloner.dest.getCircuitCount() == 0) {
+      cloner.dest.addCircuit(new Circuit("main", cloner.dest, null));
+    }
+    if (!cloner.messages.isEmpty()) {
+      loader.showError(String.join("\n", cloner.messages));
+    }
+    return cloner.dest;
+  }
+
+  /**
+   * Checks whether an attribute value may be shared between two attribute sets. All values that
+   * are not known to be immutable are copied.
+   */
+  private static boolean isImmutable(Object value) {
+    return value instanceof String
+        || value instanceof Number
+        || value instanceof Boolean
+        || value instanceof Character
+        || value instanceof Enum<?>
+        || value instanceof AttributeOptionInterface
+        || value instanceof BitWidth
+        || value instanceof Direction
+        || value instanceof Location
+        || value instanceof Bounds
+        || value instanceof Font
+        || value instanceof Color
+        || value instanceof File;
+  }
+
+  private static Object copyValue(Attribute<Object> attr, Object value) {
+    if (value == null || isImmutable(value)) return value;
+    if (value instanceof MemContents contents) return contents.clone();
+    // Unknown value type: take the same route as the XML writer and reader do.
+    return attr.parse(attr.toStandardString(value));
+  }
+
+  /**
+   * Copies all saved attribute values from one set into another. The attribute list of the
+   * destination is refetched on every step, as it may change while we iterate (e.g. splitters).
+   */
+  private void copyAttributes(AttributeSet src, AttributeSet dst, String context) {
+    for (var i = 0; true; i++) {
+      final var attrList = dst.getAttributes();
+      if (i >= attrList.size()) break;
+      @SuppressWarnings("unchecked")
+      final var attr = (Attribute<Object>) attrList.get(i);
+      if (dst.isReadOnly(attr)) continue;
+      @SuppressWarnings("unchecked")
+      final var srcAttr = (Attribute<Object>) src.getAttribute(attr.getName());
+      if (srcAttr == null || !src.isToSave(srcAttr)) continue;
+      final var value = src.getValue(srcAttr);
+      if (value == null) continue;
+      try {
+        dst.setValue(attr, copyValue(srcAttr, value));
+      } catch (RuntimeException e) {
+        messages.add(S.get("attrValueInvalidError", srcAttr.toStandardString(value), attr.getName())
+            + " [" + context + "]");
+      }
+    }
+  }
+
+  private void cloneLibraries() {
+    final var srcLoader = source.getLoader();
+    for (final var lib : source.getLibraries()) {
+      final var desc = srcLoader.getDescriptor(lib);
+      final var newLib = desc == null ? null : loader.loadLibrary(desc);
+      if (newLib == null) continue;
+      libraryMap.put(lib, newLib);
+      if (newLib != lib) {
+        // The library was instantiated anew, so the tool defaults have to be carried over.
+        for (final var tool : lib.getTools()) {
+          final var newTool = newLib.getTool(tool.getName());
+          if (newTool != null && tool.getAttributeSet() != null && newTool.getAttributeSet() != null) {
+            copyAttributes(tool.getAttributeSet(), newTool.getAttributeSet(), "lib." + lib.getName());
+          }
+        }
+      }
+      dest.addLibrary(newLib);
+    }
+  }
+
+  private void cloneTools() {
+    for (final var tool : source.getTools()) {
+      final var factory = tool.getFactory();
+      if (factory instanceof SubcircuitFactory subcircuitFactory) {
+        final var circuit = subcircuitFactory.getSubcircuit();
+        final var copy = new Circuit(circuit.getName(), dest, null);
+        dest.addCircuit(copy);
+        circuitMap.put(circuit, copy);
+        factoryMap.put(factory, copy.getSubcircuitFactory());
+      } else if (factory instanceof VhdlEntity vhdlEntity) {
+        final var content = vhdlEntity.getContent();
+        content.aboutToSave();
+        final var copy = VhdlContent.parse(content.getName(), content.getContent(), dest);
+        if (copy != null) {
+          dest.addVhdlContent(copy);
+          factoryMap.put(factory, dest.getAddTool(copy).getFactory());
+        }
+      }
+    }
+  }
+
+  private void cloneOptions() {
+    final var options = source.getOptions();
+    copyAttributes(options.getAttributeSet(), dest.getOptions().getAttributeSet(), "options");
+    final var mappings = dest.getOptions().getMouseMappings();
+    for (final var entry : options.getMouseMappings().getMappings().entrySet()) {
+      final var tool = mapTool(entry.getValue());
+      if (tool != null) mappings.setToolFor(entry.getKey(), tool);
+    }
+    final var toolbar = dest.getOptions().getToolbarData();
+    for (final var tool : options.getToolbarData().getContents()) {
+      if (tool == null) {
+        toolbar.addSeparator();
+      } else {
+        final var newTool = mapTool(tool);
+        if (newTool != null) toolbar.addTool(newTool);
+      }
+    }
+  }
+
+  private Tool mapTool(Tool query) {
+    Tool found = null;
+    if (source.getTools().contains(query)) {
+      found = dest.getTool(query.getName());
+    } else {
+      for (final var lib : source.getLibraries()) {
+        final var newLib = libraryMap.get(lib);
+        if (newLib == null) continue;
+        for (final var tool : lib.getTools()) {
+          if (tool.sharesSource(query)) {
+            found = newLib.getTool(tool.getName());
+            break;
+          }
+        }
+        if (found != null) break;
+      }
+    }
+    if (found == null) return null;
+    final var ret = found.cloneTool();
+    AttributeSets.copy(query.getAttributeSet(), ret.getAttributeSet());
+    return ret;
+  }
+
+  private ComponentFactory mapFactory(ComponentFactory factory) {
+    if (factoryMap.containsKey(factory)) return factoryMap.get(factory);
+    ComponentFactory ret = null;
+    for (final var lib : source.getLibraries()) {
+      if (!lib.contains(factory)) continue;
+      final var newLib = libraryMap.get(lib);
+      if (newLib == lib) {
+        ret = factory;
+      } else if (newLib != null && newLib.getTool(factory.getName()) instanceof AddTool addTool) {
+        ret = addTool.getFactory();
+      }
+      break;
+    }
+    factoryMap.put(factory, ret);
+    return ret;
+  }
+
+  private void buildCircuit(Circuit src, Circuit dst, CircuitMutator mutator) {
+    copyAttributes(src.getStaticAttributes(), dst.getStaticAttributes(), src.getName() + ".static");
+    for (final var wire : src.getWires()) {
+      // wires are immutable and interned, so they can be shared
+      mutator.add(dst, wire);
+    }
+    for (final var comp : src.getNonWires()) {
+      final var oldFactory = comp.getFactory();
+      final var factory = mapFactory(oldFactory);
+      if (factory == null) {
+        messages.add(S.get("compUnknownError", oldFactory.getName()) + " [" + src.getName() + "]");
+        continue;
+      }
+      final var attrs = factory.createAttributeSet();
+      copyAttributes(comp.getAttributeSet(), attrs, src.getName() + "." + oldFactory.getName());
+      final var copy = factory.createComponent(comp.getLocation(), attrs);
+      componentMap.put(comp, copy);
+      mutator.add(dst, copy);
+    }
+  }
+
+  private Document getSvgDocument() throws ParserConfigurationException {
+    if (svgDocument == null) {
+      svgDocument = XmlUtil.getHardenedBuilderFactory().newDocumentBuilder().newDocument();
+    }
+    return svgDocument;
+  }
+
+  private void cloneAppearances() {
+    for (final var entry : circuitMap.entrySet()) {
+      final var src = entry.getKey();
+      final var dst = entry.getValue();
+      if (!src.getAppearance().hasCustomAppearance()) continue;
+      final var shapes = new ArrayList<CanvasObject>();
+      for (final var shape : src.getAppearance().getCustomObjectsFromBottom()) {
+        final var context = src.getName() + ".appear";
+        if (shape instanceof AppearancePort port) {
+          final var pin = componentMap.get(port.getPin().getComponent());
+          if (pin == null) {
+            messages.add(S.get("fileAppearanceNotFound", "circ-port") + " [" + context + "]");
+          } else {
+            shapes.add(new AppearancePort(port.getLocation(), Instance.getInstanceFor(pin)));
+          }
+        } else if (shape instanceof DynamicElement dynamic) {
+          // The path of a dynamic element has to be resolved against the new components; we
+          // reuse the SVG path notation for this, as it is done by the reader.
+          try {
+            final var elt = dynamic.toSvgElement(getSvgDocument());
+            final var copy = AppearanceSvgReader.createShape(elt, null, dst);
+            if (copy == null) {
+              messages.add(S.get("fileAppearanceNotFound", elt.getTagName()) + " [" + context + "]");
+            } else {
+              shapes.add(copy);
+            }
+          } catch (ParserConfigurationException | RuntimeException e) {
+            messages.add(S.get("fileAppearanceError", dynamic.getDisplayName()) + " [" + context + "]");
+          }
+        } else {
+          // static shapes are cloned by setObjectsForce
+          shapes.add(shape);
+        }
+      }
+      if (!shapes.isEmpty()) dst.getAppearance().setObjectsForce(shapes);
+    }
+  }
+
+  private void cloneBoardMaps() {
+    for (final var entry : circuitMap.entrySet()) {
+      final var src = entry.getKey();
+      final var dst = entry.getValue();
+      for (final var boardName : src.getBoardMapNamestoSave()) {
+        final var map = new HashMap<String, CircuitMapInfo>();
+        for (final var info : src.getMapInfo(boardName).entrySet()) {
+          final var copy = copyMapInfo(info.getValue());
+          if (copy != null) map.put(info.getKey(), copy);
+        }
+        if (!map.isEmpty()) dst.addLoadedMap(boardName, map);
+      }
+    }
+  }
+
+  private CircuitMapInfo copyMapInfo(CircuitMapInfo info) {
+    if (info.isOldFormat()) {
+      if (info.isOpen()) return new CircuitMapInfo();
+      if (info.isConst()) return new CircuitMapInfo(info.getConstValue());
+      return new CircuitMapInfo(info.getRectangle());
+    }
+    // The new map format refers to the netlist of the source circuit, so it is carried over in
+    // its persistent form and resolved again once the board map of the copy is built.
+    try {
+      final var elt = getSvgDocument().createElement("mc");
+      final var map = info.getMap();
+      if (map != null) {
+        map.getMapElement(elt);
+      } else {
+        MapComponent.getComplexMap(elt, info);
+      }
+      return MapComponent.getMapInfo(elt);
+    } catch (ParserConfigurationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static class CircuitBuilder extends CircuitTransaction {
+    private final LogisimFileCloner cloner;
+
+    CircuitBuilder(LogisimFileCloner cloner) {
+      this.cloner = cloner;
+    }
+
+    @Override
+    protected Map<Circuit, Integer> getAccessedCircuits() {
+      final var access = new HashMap<Circuit, Integer>();
+      for (final var circuit : cloner.circuitMap.values()) {
+        access.put(circuit, READ_WRITE);
+      }
+      return access;
+    }
+
+    @Override
+    protected void run(CircuitMutator mutator) {
+      for (final var entry : cloner.circuitMap.entrySet()) {
+        cloner.buildCircuit(entry.getKey(), entry.getValue(), mutator);
+      }
+    }
+  }
+}
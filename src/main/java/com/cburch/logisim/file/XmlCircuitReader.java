@@ -16,9 +16,11 @@ import com.cburch.logisim.circuit.Circuit;
 import com.cburch.logisim.circuit.CircuitAttributes;
 import com.cburch.logisim.circuit.CircuitMutator;
 import com.cburch.logisim.circuit.CircuitTransaction;
+import com.cburch.logisim.circuit.SubcircuitFactory;
 import com.cburch.logisim.circuit.Wire;
 import com.cburch.logisim.circuit.appear.AppearanceSvgReader;
 import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.comp.ComponentFactory;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Location;
@@ -29,11 +31,16 @@ import com.cburch.logisim.std.memory.RamAttributes;
 import com.cburch.logisim.tools.AddTool;
 import com.cburch.logisim.util.CollectionUtil;
 import com.cburch.logisim.util.StringUtil;
+import com.cburch.logisim.vhdl.base.VhdlEntity;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.w3c.dom.Element;
 
 public class XmlCircuitReader extends CircuitTransaction {
@@ -66,14 +73,71 @@ public class XmlCircuitReader extends CircuitTransaction {
   static Component getComponent(
       Element elt, XmlReader.ReadContext reader, boolean isHolyCross, boolean isEvolution)
       throws XmlReaderException {
+    final var source = getFactory(elt.getAttribute("name"), elt.getAttribute("lib"), reader);
+    final var attrs = createAttributeSet(source, isHolyCross);
+    reader.initAttributeSet(elt, attrs, getDefaults(source, isHolyCross), isHolyCross, isEvolution);
+    return createComponent(source, elt.getAttribute("loc"), attrs);
+  }
+
+  /**
+   * @param name name of the component's factory
+   * @param libName name of the library within the file, empty for the file itself
+   * @param locStr location of the component
+   * @param attrsDefined attribute values as stored in the file
+   * @param reader XML file reader
+   * @return the component built from its streamed description
+   * @throws XmlReaderException
+   */
+  static Component getComponent(
+      String name,
+      String libName,
+      String locStr,
+      Map<String, ?> attrsDefined,
+      XmlReader.ReadContext reader,
+      boolean isHolyCross,
+      boolean isEvolution)
+      throws XmlReaderException {
+    return getComponent(
+        getFactory(name, libName, reader), locStr, attrsDefined, reader, isHolyCross, isEvolution);
+  }
+
+  /**
+   * @param source factory of the component, as returned by {@link #getFactory}
+   * @param locStr location of the component
+   * @param attrsDefined attribute values as stored in the file
+   * @param reader XML file reader
+   * @return the component built by the given factory
+   * @throws XmlReaderException
+   */
+  static Component getComponent(
+      ComponentFactory source,
+      String locStr,
+      Map<String, ?> attrsDefined,
+      XmlReader.ReadContext reader,
+      boolean isHolyCross,
+      boolean isEvolution)
+      throws XmlReaderException {
+    final var attrs = createAttributeSet(source, isHolyCross);
+    reader.initAttributeSet(
+        attrsDefined, null, attrs, getDefaults(source, isHolyCross), isHolyCross, isEvolution);
+    return createComponent(source, locStr, attrs);
+  }
 
+  /**
+   * Tells whether components of a factory can be built without touching any circuit or HDL
+   * entity of the project, and thus concurrently and in any order.
+   */
+  static boolean isSelfContained(ComponentFactory factory) {
+    return !(factory instanceof SubcircuitFactory) && !(factory instanceof VhdlEntity);
+  }
+
+  static ComponentFactory getFactory(String name, String libName, XmlReader.ReadContext reader)
+      throws XmlReaderException {
     // Determine the factory that creates this element
-    final var name = elt.getAttribute("name");
     if (StringUtil.isNullOrEmpty(name)) {
       throw new XmlReaderException(S.get("compNameMissingError"));
     }
 
-    final var libName = elt.getAttribute("lib");
     final var lib = reader.findLibrary(libName);
     if (lib == null) {
       // FIXME: the "no-lib" thing may not be clear enough
@@ -88,20 +152,25 @@ public class XmlCircuitReader extends CircuitTransaction {
               : S.get("compAbsentError", name, libName);
       throw new XmlReaderException(msg);
     }
-    final var source = ((AddTool) tool).getFactory();
+    return ((AddTool) tool).getFactory();
+  }
 
-    // Determine attributes
-    final var locStr = elt.getAttribute("loc");
+  private static AttributeSet createAttributeSet(ComponentFactory source, boolean isHolyCross) {
     final var attrs = source.createAttributeSet();
-    var defaults = source;
     if (isHolyCross && source instanceof Ram) {
       final var ramAttrs = (RamAttributes) attrs;
       ramAttrs.setValue(Mem.ENABLES_ATTR, Mem.USELINEENABLES);
       ramAttrs.updateAttributes();
-      defaults = null;
     }
-    reader.initAttributeSet(elt, attrs, defaults, isHolyCross, isEvolution);
+    return attrs;
+  }
+
+  private static ComponentFactory getDefaults(ComponentFactory source, boolean isHolyCross) {
+    return isHolyCross && source instanceof Ram ? null : source;
+  }
 
+  private static Component createComponent(ComponentFactory source, String locStr, AttributeSet attrs)
+      throws XmlReaderException {
     // Create component if location known
     if (StringUtil.isNullOrEmpty(locStr)) {
       throw new XmlReaderException(S.get("compLocMissingError", source.getName()));
@@ -114,32 +183,39 @@ public class XmlCircuitReader extends CircuitTransaction {
   }
 
   void addWire(Circuit dest, CircuitMutator mutator, Element elt) throws XmlReaderException {
+    final var wire = createWire(elt.getAttribute("from"), elt.getAttribute("to"));
+    if (wire != null) mutator.add(dest, wire);
+  }
+
+  /**
+   * @param from start location of the wire
+   * @param to end location of the wire
+   * @return the wire, or null for a zero length wire
+   * @throws XmlReaderException
+   */
+  static Wire createWire(String from, String to) throws XmlReaderException {
     Location pt0;
     try {
-      final var str = elt.getAttribute("from");
-      if (str == null || "".equals(str)) {
+      if (from == null || "".equals(from)) {
         throw new XmlReaderException(S.get("wireStartMissingError"));
       }
-      pt0 = Location.parse(str);
+      pt0 = Location.parse(from);
     } catch (NumberFormatException e) {
       throw new XmlReaderException(S.get("wireStartInvalidError"));
     }
 
     Location pt1;
     try {
-      final var str = elt.getAttribute("to");
-      if (str == null || "".equals(str)) {
+      if (to == null || "".equals(to)) {
         throw new XmlReaderException(S.get("wireEndMissingError"));
       }
-      pt1 = Location.parse(str);
+      pt1 = Location.parse(to);
     } catch (NumberFormatException e) {
       throw new XmlReaderException(S.get("wireEndInvalidError"));
     }
 
-    if (!pt0.equals(pt1)) {
-      // Avoid zero length wires
-      mutator.add(dest, Wire.create(pt0, pt1));
-    }
+    // Avoid zero length wires
+    return pt0.equals(pt1) ? null : Wire.create(pt0, pt1);
   }
 
   private void buildCircuit(XmlReader.CircuitData circData, CircuitMutator mutator) {
@@ -162,7 +238,7 @@ public class XmlCircuitReader extends CircuitTransaction {
       }
       reader.initAttributeSet(
           circData.circuitElement, dest.getStaticAttributes(), null, isHolyCross, isEvolution);
-      if (circData.circuitElement.hasChildNodes()) {
+      if (circData.hasContent) {
         if (hasNamedBox) {
           // This situation is clear, it is an older logisim-evolution file
           final var appear =
@@ -200,28 +276,7 @@ public class XmlCircuitReader extends CircuitTransaction {
         try {
           var comp = knownComponents.get(subElement);
           if (comp == null) comp = getComponent(subElement, reader, isHolyCross, isEvolution);
-          if (comp != null) {
-            /* filter out empty text boxes */
-            if (comp.getFactory() instanceof Text) {
-              if (comp.getAttributeSet().getValue(Text.ATTR_TEXT).isEmpty()) {
-                continue;
-              }
-            }
-            final var bds = comp.getBounds();
-            final var conflict = componentsAt.get(bds);
-            if (conflict != null) {
-              final var msg =
-                  S.get(
-                      "fileComponentOverlapError",
-                      conflict.getFactory().getName() + conflict.getLocation(),
-                      comp.getFactory().getName() + conflict.getLocation());
-              reader.addError(msg, circData.circuit.getName());
-              overlapComponents.add(comp);
-            } else {
-              mutator.add(dest, comp);
-              componentsAt.put(bds, comp);
-            }
-          }
+          if (comp != null) addComponent(circData, comp, componentsAt, overlapComponents, mutator);
         } catch (XmlReaderException e) {
           final var context =
               String.format(contextFmt, circData.circuit.getName(), toComponentString(subElement));
@@ -237,6 +292,16 @@ public class XmlCircuitReader extends CircuitTransaction {
         }
       }
     }
+    if (circData.streamedComponents != null) {
+      for (final var comp : circData.streamedComponents) {
+        addComponent(circData, comp, componentsAt, overlapComponents, mutator);
+      }
+    }
+    if (circData.streamedWires != null) {
+      for (final var wire : circData.streamedWires) {
+        mutator.add(dest, wire);
+      }
+    }
     for (var comp : overlapComponents) {
       final var bds = comp.getBounds();
       if (bds.getHeight() == 0 || bds.getWidth() == 0) {
@@ -255,6 +320,34 @@ public class XmlCircuitReader extends CircuitTransaction {
     }
   }
 
+  private void addComponent(
+      XmlReader.CircuitData circData,
+      Component comp,
+      Map<Bounds, Component> componentsAt,
+      List<Component> overlapComponents,
+      CircuitMutator mutator) {
+    /* filter out empty text boxes */
+    if (comp.getFactory() instanceof Text) {
+      if (comp.getAttributeSet().getValue(Text.ATTR_TEXT).isEmpty()) {
+        return;
+      }
+    }
+    final var bds = comp.getBounds();
+    final var conflict = componentsAt.get(bds);
+    if (conflict != null) {
+      final var msg =
+          S.get(
+              "fileComponentOverlapError",
+              conflict.getFactory().getName() + conflict.getLocation(),
+              comp.getFactory().getName() + conflict.getLocation());
+      reader.addError(msg, circData.circuit.getName());
+      overlapComponents.add(comp);
+    } else {
+      mutator.add(circData.circuit, comp);
+      componentsAt.put(bds, comp);
+    }
+  }
+
   private void buildDynamicAppearance(XmlReader.CircuitData circData) {
     final var dest = circData.circuit;
     final var shapes = new ArrayList<AbstractCanvasObject>();
@@ -307,7 +400,7 @@ public class XmlCircuitReader extends CircuitTransaction {
 
   @Override
   protected void run(CircuitMutator mutator) {
-    for (final var circuitData : circuitsData) {
+    for (final var circuitData : getBuildOrder()) {
       buildCircuit(circuitData, mutator);
     }
     for (final var circuitData : circuitsData) {
@@ -315,6 +408,55 @@ public class XmlCircuitReader extends CircuitTransaction {
     }
   }
 
+  /**
+   * Orders the circuits so that each one is built after the subcircuits it uses. Subcircuit
+   * instances then get their final ports when they are created, instead of being updated for
+   * every pin added to their subcircuit.
+   */
+  private Collection<XmlReader.CircuitData> getBuildOrder() {
+    final var byName = new HashMap<String, XmlReader.CircuitData>();
+    for (final var data : circuitsData) {
+      byName.put(data.circuit.getName(), data);
+    }
+    final var ordered = new LinkedHashSet<XmlReader.CircuitData>();
+    final var visited = new HashSet<XmlReader.CircuitData>();
+    for (final var data : circuitsData) {
+      addInBuildOrder(data, byName, visited, ordered);
+    }
+    return ordered;
+  }
+
+  private void addInBuildOrder(
+      XmlReader.CircuitData data,
+      Map<String, XmlReader.CircuitData> byName,
+      Set<XmlReader.CircuitData> visited,
+      Set<XmlReader.CircuitData> ordered) {
+    // visited also guards against (invalid) recursive circuits
+    if (!visited.add(data)) return;
+    for (final var name : getSubcircuitNames(data)) {
+      final var sub = byName.get(name);
+      if (sub != null) addInBuildOrder(sub, byName, visited, ordered);
+    }
+    ordered.add(data);
+  }
+
+  private Set<String> getSubcircuitNames(XmlReader.CircuitData data) {
+    final var names = new HashSet<String>();
+    for (final var compElt : XmlIterator.forChildElements(data.circuitElement, "comp")) {
+      if (StringUtil.isNullOrEmpty(compElt.getAttribute("lib"))) {
+        names.add(compElt.getAttribute("name"));
+      }
+    }
+    if (data.streamedComponents != null) {
+      for (final var comp : data.streamedComponents) {
+        if (comp.getFactory() instanceof SubcircuitFactory sub) {
+          names.add(sub.getSubcircuit().getName());
+        }
+      }
+    }
+    return names;
+  }
+
   private String toComponentString(Element elt) {
     final var name = elt.getAttribute("name");
     final var loc = elt.getAttribute("loc");
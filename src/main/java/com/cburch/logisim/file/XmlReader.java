@@ -16,8 +16,10 @@ import com.cburch.logisim.LogisimVersion;
 import com.cburch.logisim.circuit.Circuit;
 import com.cburch.logisim.circuit.CircuitMapInfo;
 import com.cburch.logisim.circuit.Splitter;
+import com.cburch.logisim.circuit.Wire;
 import com.cburch.logisim.circuit.appear.AppearanceSvgReader;
 import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.comp.ComponentFactory;
 import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeDefaultProvider;
 import com.cburch.logisim.data.AttributeSet;
@@ -30,6 +32,8 @@ import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.proj.Project;
 import com.cburch.logisim.std.base.Text;
+import com.cburch.logisim.std.memory.MemContents;
+import com.cburch.logisim.std.memory.Rom;
 import com.cburch.logisim.std.wiring.BitExtender;
 import com.cburch.logisim.std.wiring.Clock;
 import com.cburch.logisim.std.wiring.Pin;
@@ -50,20 +54,25 @@ import com.cburch.logisim.util.LineBuffer;
 import com.cburch.logisim.util.StringUtil;
 import com.cburch.logisim.util.XmlUtil;
 import com.cburch.logisim.vhdl.base.VhdlContent;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.IntStream;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -77,16 +86,32 @@ class XmlReader {
     final Circuit circuit;
     Map<Element, Component> knownComponents;
     List<AbstractCanvasObject> appearance;
+    /* Filled by the streaming reader, whose circuit element holds neither comps nor wires. */
+    List<Component> streamedComponents;
+    List<Wire> streamedWires;
+    boolean hasContent;
 
     public CircuitData(Element circuitElement, Circuit circuit) {
       this.circuitElement = circuitElement;
       this.circuit = circuit;
+      this.hasContent = circuitElement.hasChildNodes();
+    }
+
+    Collection<Component> getKnownComponents() {
+      if (streamedComponents != null) return streamedComponents;
+      return knownComponents == null ? Collections.emptyList() : knownComponents.values();
     }
   }
 
+  /** A comp element whose factory is known, ready to be built on any thread. */
+  private record ComponentSource(
+      Element element, ComponentFactory factory, String loc, Map<String, Object> attrsDefined) {}
+
   class ReadContext {
     final LogisimFile file;
     LogisimVersion sourceVersion;
+    boolean isHolyCrossFile = false;
+    boolean isEvolutionFile = true;
     final HashMap<String, Library> libs = new HashMap<>();
     private final ArrayList<String> messages;
 
@@ -119,33 +144,66 @@ class XmlReader {
         boolean isHolyCross,
         boolean isEvolution)
         throws XmlReaderException {
-      List<String> messages = null;
+      final var messages = new ArrayList<String>();
+      final var attrsDefined = getAttributesDefined(parent, messages);
+      initAttributeSet(
+          attrsDefined,
+          messages.isEmpty() ? null : messages,
+          attrs,
+          defaults,
+          isHolyCross,
+          isEvolution);
+    }
 
-      final var attrsDefined = new HashMap<String, String>();
+    /**
+     * Collects the attribute values stored in the "a" children of an element, keyed by attribute
+     * name. The values are the strings to parse, or the memory contents that a binary project
+     * holds. Problems found are added to messages.
+     */
+    Map<String, Object> getAttributesDefined(Element parent, List<String> messages) {
+      final var attrsDefined = new HashMap<String, Object>();
       for (final var attrElt : XmlIterator.forChildElements(parent, "a")) {
         if (!attrElt.hasAttribute("name")) {
-          if (messages == null) messages = new ArrayList<>();
           messages.add(S.get("attrNameMissingError"));
         } else {
           final var attrName = attrElt.getAttribute("name");
-          String attrVal;
-          if (attrElt.hasAttribute("val")) {
-            attrVal = attrElt.getAttribute("val");
-            if ("filePath".equals(attrName)) {
-              /* De-relativize the path */
-              var dirPath = "";
-              if (srcFilePath != null)
-                dirPath = srcFilePath.substring(0, srcFilePath.lastIndexOf(File.separator));
-              final var tmp = Paths.get(dirPath, attrVal);
-              attrVal = tmp.toString();
-            }
-          } else {
-            attrVal = attrElt.getTextContent();
-          }
+          final var contents = BinaryProjectFormat.getMemoryContents(attrElt);
+          final Object attrVal =
+              contents != null
+                  ? contents
+                  : attrElt.hasAttribute("val")
+                      ? toAttributeValue(attrName, attrElt.getAttribute("val"))
+                      : attrElt.getTextContent();
           attrsDefined.put(attrName, attrVal);
         }
       }
+      return attrsDefined;
+    }
+
+    /**
+     * Converts the "val" property of an attribute element into the string handed to the
+     * attribute's parser.
+     */
+    String toAttributeValue(String attrName, String attrVal) {
+      if ("filePath".equals(attrName)) {
+        /* De-relativize the path */
+        var dirPath = "";
+        if (srcFilePath != null)
+          dirPath = srcFilePath.substring(0, srcFilePath.lastIndexOf(File.separator));
+        final var tmp = Paths.get(dirPath, attrVal);
+        return tmp.toString();
+      }
+      return attrVal;
+    }
 
+    void initAttributeSet(
+        Map<String, ?> attrsDefined,
+        List<String> messages,
+        AttributeSet attrs,
+        AttributeDefaultProvider defaults,
+        boolean isHolyCross,
+        boolean isEvolution)
+        throws XmlReaderException {
       if (attrs == null) return;
 
       LogisimVersion ver = sourceVersion;
@@ -178,13 +236,20 @@ class XmlReader {
               attrs.setValue(attr, val);
             }
           }
+        } else if (attrVal instanceof MemContents contents && Rom.CONTENTS_ATTR.equals(attr)) {
+          // decoded from a binary project, no need to go through its hex text
+          attrs.setValue(attr, contents);
         } else {
+          final var text =
+              attrVal instanceof MemContents contents
+                  ? Rom.CONTENTS_ATTR.toStandardString(contents)
+                  : (String) attrVal;
           try {
-            Object val = attr.parse(attrVal);
+            Object val = attr.parse(text);
             attrs.setValue(attr, val);
           } catch (NumberFormatException e) {
             if (messages == null) messages = new ArrayList<>();
-            messages.add(S.get("attrValueInvalidError", attrVal, attrName));
+            messages.add(S.get("attrValueInvalidError", text, attrName));
           }
         }
       }
@@ -193,7 +258,7 @@ class XmlReader {
       }
     }
 
-    private void initMouseMappings(Element elt, boolean isHolyCross, boolean isEvolution) {
+    void initMouseMappings(Element elt, boolean isHolyCross, boolean isEvolution) {
       final var map = file.getOptions().getMouseMappings();
       for (final var sub_elt : XmlIterator.forChildElements(elt, "tool")) {
         Tool tool;
@@ -228,7 +293,7 @@ class XmlReader {
       }
     }
 
-    private void initToolbarData(Element elt, boolean isHolyCross, boolean isEvolution) {
+    void initToolbarData(Element elt, boolean isHolyCross, boolean isEvolution) {
       final var toolbar = file.getOptions().getToolbarData();
       for (final var subElement : XmlIterator.forChildElements(elt)) {
         if ("sep".equals(subElement.getTagName())) {
@@ -264,12 +329,57 @@ class XmlReader {
       }
     }
 
-    private Map<Element, Component> loadKnownComponents(Element elt, boolean isHolyCross, boolean isEvolution) {
+    /**
+     * Builds the components of all circuits ahead of the transaction that fills them. The comp
+     * elements are read and their factories resolved on this thread, as neither the DOM tree nor
+     * the lazily loaded library tools may be accessed concurrently. The components themselves are
+     * then created in parallel, one circuit per task. Subcircuit and VHDL instances are left to
+     * XmlCircuitReader, which creates them once the circuits they depend on are built. Components
+     * that fail to load are skipped here and reported when XmlCircuitReader retries them.
+     */
+    private void loadKnownComponents(List<CircuitData> circuitsData) {
+      final var factories = new HashMap<String, ComponentFactory>();
+      final var sources = new ArrayList<List<ComponentSource>>();
+      for (final var circData : circuitsData) {
+        final var circSources = new ArrayList<ComponentSource>();
+        for (final var sub : XmlIterator.forChildElements(circData.circuitElement, "comp")) {
+          final var name = sub.getAttribute("name");
+          final var libName = sub.getAttribute("lib");
+          final var key = libName + "#" + name;
+          var factory = factories.get(key);
+          if (factory == null && !factories.containsKey(key)) {
+            try {
+              factory = XmlCircuitReader.getFactory(name, libName, this);
+            } catch (XmlReaderException ignored) {
+            }
+            factories.put(key, factory);
+          }
+          if (factory == null || !XmlCircuitReader.isSelfContained(factory)) continue;
+          final var messages = new ArrayList<String>();
+          final var attrsDefined = getAttributesDefined(sub, messages);
+          if (!messages.isEmpty()) continue;
+          circSources.add(new ComponentSource(sub, factory, sub.getAttribute("loc"), attrsDefined));
+        }
+        sources.add(circSources);
+      }
+      IntStream.range(0, circuitsData.size())
+          .parallel()
+          .forEach(i -> circuitsData.get(i).knownComponents = createComponents(sources.get(i)));
+    }
+
+    private Map<Element, Component> createComponents(List<ComponentSource> sources) {
       final var known = new HashMap<Element, Component>();
-      for (final var sub : XmlIterator.forChildElements(elt, "comp")) {
+      for (final var source : sources) {
         try {
-          final var comp = XmlCircuitReader.getComponent(sub, this, isHolyCross, isEvolution);
-          if (comp != null) known.put(sub, comp);
+          final var comp =
+              XmlCircuitReader.getComponent(
+                  source.factory(),
+                  source.loc(),
+                  source.attrsDefined(),
+                  this,
+                  isHolyCrossFile,
+                  isEvolutionFile);
+          if (comp != null) known.put(source.element(), comp);
         } catch (XmlReaderException ignored) {
         }
       }
@@ -318,7 +428,7 @@ class XmlReader {
 
     void loadAppearance(Element appearElt, XmlReader.CircuitData circData, String context) {
       final var pins = new ArrayList<AppearanceSvgReader.PinInfo>();
-      for (final var comp : circData.knownComponents.values()) {
+      for (final var comp : circData.getKnownComponents()) {
         if (comp.getFactory() == Pin.FACTORY) {
           pins.add(AppearanceSvgReader.getPinInfo(comp.getLocation(), Instance.getInstanceFor(comp)));
         }
@@ -382,17 +492,21 @@ class XmlReader {
       return ret;
     }
 
-    private void toLogisimFile(Element elt, Project proj) {
-      // determine the version producing this file
-      final var versionString = elt.getAttribute("source");
-      var isHolyCrossFile = false;
-      var isEvolutionFile = true;
-      if ("".equals(versionString)) {
+    /**
+     * Determines the version producing this file from the "source" attribute of the project
+     * element.
+     */
+    void setSourceVersion(String versionString) {
+      if (StringUtil.isNullOrEmpty(versionString)) {
         sourceVersion = BuildInfo.version;
       } else {
         sourceVersion = LogisimVersion.fromString(versionString);
         isHolyCrossFile = versionString.endsWith("-HC");
       }
+    }
+
+    private void toLogisimFile(Element elt, Project proj) {
+      setSourceVersion(elt.getAttribute("source"));
 
       // If we are opening a pre-logisim-evolution file, there might be
       // some components
@@ -415,6 +529,69 @@ class XmlReader {
       }
 
       // first, load the sublibraries
+      loadLibraries(elt);
+
+      // second, create the circuits - empty for now - and the vhdl entities
+      final var circuitsData = new ArrayList<CircuitData>();
+      for (final var circElt : XmlIterator.forChildElements(elt)) {
+        switch (circElt.getTagName()) {
+          case "vhdl" -> loadVhdl(circElt);
+          case "circuit" -> {
+            final var name = circElt.getAttribute("name");
+            if (name == null || "".equals(name)) {
+              addError(S.get("circNameMissingError"), "C??");
+            }
+            final var circData = new CircuitData(circElt, new Circuit(name, file, proj));
+            file.addCircuit(circData.circuit);
+            circuitsData.add(circData);
+          }
+          default -> {
+            // do nothing
+          }
+        }
+      }
+
+      // then build their components, which needs all circuits to be known
+      loadKnownComponents(circuitsData);
+      for (final var circData : circuitsData) {
+        final var circElt = circData.circuitElement;
+        final var name = circElt.getAttribute("name");
+        for (Element appearElt : XmlIterator.forChildElements(circElt, "appear")) {
+          loadAppearance(appearElt, circData, name + ".appear");
+        }
+        for (final var boardMap : XmlIterator.forChildElements(circElt, "boardmap")) {
+          loadBoardMap(boardMap, circData.circuit);
+        }
+      }
+
+      // third, process the other child elements
+      loadProjectElements(elt);
+
+      // fourth, execute a transaction that initializes all the circuits
+      XmlCircuitReader builder;
+      builder = new XmlCircuitReader(this, circuitsData, isHolyCrossFile, isEvolutionFile);
+      builder.execute();
+    }
+
+    void loadBoardMap(Element boardMap, Circuit circ) {
+      final var boardName = boardMap.getAttribute("boardname");
+      if (StringUtil.isNullOrEmpty(boardName)) return;
+      loadMap(boardMap, boardName, circ);
+    }
+
+    void loadVhdl(Element vhdlElt) {
+      final var name = vhdlElt.getAttribute("name");
+      if (name == null || "".equals(name)) {
+        addError(S.get("circNameMissingError"), "C??");
+      }
+      final var vhdl = vhdlElt.getTextContent();
+      final var contents = VhdlContent.parse(name, vhdl, file);
+      if (contents != null) {
+        file.addVhdlContent(contents);
+      }
+    }
+
+    void loadLibraries(Element elt) {
       final var libsToAddAfter = new HashSet<Library>();
       final var baseLibsToEnable = new HashSet<String>();
       final var libsLoaded = new HashSet<String>();
@@ -451,50 +628,9 @@ class XmlReader {
         LibraryManager.removeBaseLibraries(newLib, baseLibsToEnable);
         file.addLibrary(newLib);
       }
+    }
 
-      // second, create the circuits - empty for now - and the vhdl entities
-      final var circuitsData = new ArrayList<CircuitData>();
-      for (final var circElt : XmlIterator.forChildElements(elt)) {
-        String name;
-        switch (circElt.getTagName()) {
-          case "vhdl" -> {
-            name = circElt.getAttribute("name");
-            if (name == null || "".equals(name)) {
-              addError(S.get("circNameMissingError"), "C??");
-            }
-            final var vhdl = circElt.getTextContent();
-            final var contents = VhdlContent.parse(name, vhdl, file);
-            if (contents != null) {
-              file.addVhdlContent(contents);
-            }
-          }
-          case "circuit" -> {
-            name = circElt.getAttribute("name");
-            if (name == null || "".equals(name)) {
-              addError(S.get("circNameMissingError"), "C??");
-            }
-            final var circData = new CircuitData(circElt, new Circuit(name, file, proj));
-            file.addCircuit(circData.circuit);
-            circData.knownComponents = loadKnownComponents(circElt, isHolyCrossFile,
-                isEvolutionFile);
-            for (Element appearElt : XmlIterator.forChildElements(circElt, "appear")) {
-              loadAppearance(appearElt, circData, name + ".appear");
-            }
-            for (final var boardMap : XmlIterator.forChildElements(circElt, "boardmap")) {
-              final var boardName = boardMap.getAttribute("boardname");
-              if (StringUtil.isNullOrEmpty(boardName))
-                continue;
-              loadMap(boardMap, boardName, circData.circuit);
-            }
-            circuitsData.add(circData);
-          }
-          default -> {
-            // do nothing
-          }
-        }
-      }
-
-      // third, process the other child elements
+    void loadProjectElements(Element elt) {
       for (Element sub_elt : XmlIterator.forChildElements(elt)) {
         final var name = sub_elt.getTagName();
 
@@ -536,11 +672,6 @@ class XmlReader {
             throw new IllegalArgumentException("Invalid node in logisim file: " + name);
         }
       }
-
-      // fourth, execute a transaction that initializes all the circuits
-      XmlCircuitReader builder;
-      builder = new XmlCircuitReader(this, circuitsData, isHolyCrossFile, isEvolutionFile);
-      builder.execute();
     }
 
     Tool toTool(Element elt) throws XmlReaderException {
@@ -689,7 +820,7 @@ class XmlReader {
    *
    * @param root root element of the XML tree
    */
-  private static void fixInvalidToolbarLib(Element root) {
+  static void fixInvalidToolbarLib(Element root) {
     if (root == null) throw new RuntimeException("Value of 'root' cannot be null");
 
     // Iterate on toolbars -- though there should be only one!
@@ -1051,15 +1182,26 @@ class XmlReader {
   }
 
   LogisimFile readLibrary(InputStream is, Project proj) throws IOException, SAXException {
-    final var doc = loadXmlFrom(is);
-    var elt = doc.getDocumentElement();
-    elt = ensureLogisimCompatibility(elt);
-
-    considerRepairs(doc, elt);
+    final var in = (is instanceof BufferedInputStream buffered) ? buffered : new BufferedInputStream(is);
     final var file = new LogisimFile((Loader) loader);
     final var context = new ReadContext(file);
 
-    context.toLogisimFile(elt, proj);
+    final var isBinary = BinaryProjectFormat.isBinary(in);
+    if (!isBinary && XmlStreamReader.canStream(in)) {
+      // Current files are read in a single streaming pass, without building a DOM
+      try {
+        new XmlStreamReader(context, proj).read(in);
+      } catch (XMLStreamException | ParserConfigurationException e) {
+        throw new SAXException(e.getMessage(), e);
+      }
+    } else {
+      final var doc = isBinary ? BinaryProjectFormat.read(in, false) : loadXmlFrom(in);
+      var elt = doc.getDocumentElement();
+      elt = ensureLogisimCompatibility(elt);
+
+      considerRepairs(doc, elt);
+      context.toLogisimFile(elt, proj);
+    }
 
     if (file.getCircuitCount() == 0) {
       file.addCircuit(new Circuit("main", file, proj));
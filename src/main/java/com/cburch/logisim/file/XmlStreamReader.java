@@ -0,0 +1,458 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.file;
+
+import static com.cburch.logisim.file.Strings.S;
+
+import com.cburch.logisim.LogisimVersion;
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.Wire;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.comp.ComponentFactory;
+import com.cburch.logisim.proj.Project;
+import com.cburch.logisim.util.StringUtil;
+import com.cburch.logisim.util.XmlUtil;
+import com.cburch.logisim.vhdl.base.VhdlContent;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Single pass StAX reader for .circ files. Wires are created as each circuit is parsed, and the
+ * components of a circuit are created in parallel once its end is reached; neither is ever kept as
+ * a DOM node. Everything else in the file (libraries, options, toolbar, static circuit attributes,
+ * appearances, board maps, ...) is small and is collected into a skeleton DOM, so that it can be
+ * handled by the same code as in {@link XmlReader}.
+ *
+ * <p>The label repairs of {@link XmlReader#ensureLogisimCompatibility} are applied on the fly.
+ * Files written before {@link #FIRST_STREAMABLE_VERSION} need the repairs that rewrite the library
+ * structure of the document, so they are still read through the DOM.
+ */
+final class XmlStreamReader {
+
+  static final LogisimVersion FIRST_STREAMABLE_VERSION = new LogisimVersion(2, 7, 2);
+  /* Upper bound of bytes looked at to find the version, the project element comes first anyway. */
+  private static final int PEEK_LIMIT = 1 << 20;
+  private static final String CONTEXT_FMT = "%s.%s";
+
+  private static class PendingComponent {
+    final String name;
+    final String libName;
+    final String location;
+    final Map<String, String> attrs;
+
+    PendingComponent(String name, String libName, String location, Map<String, String> attrs) {
+      this.name = name;
+      this.libName = libName;
+      this.location = location;
+      this.attrs = attrs;
+    }
+  }
+
+  /* A component whose factory is known, created with the others of its circuit at its end. */
+  private static class ComponentSource {
+    final ComponentFactory factory;
+    final String location;
+    final Map<String, String> attrs;
+    final String errorContext;
+    Component component;
+    XmlReaderException error;
+
+    ComponentSource(
+        ComponentFactory factory, String location, Map<String, String> attrs, String errorContext) {
+      this.factory = factory;
+      this.location = location;
+      this.attrs = attrs;
+      this.errorContext = errorContext;
+    }
+  }
+
+  private static class StreamedCircuit {
+    final XmlReader.CircuitData data;
+    /* Either a Component, a ComponentSource or a PendingComponent, in document order */
+    final List<Object> components = new ArrayList<>();
+    final List<Wire> wires = new ArrayList<>();
+
+    StreamedCircuit(XmlReader.CircuitData data) {
+      this.data = data;
+    }
+  }
+
+  private final XmlReader.ReadContext context;
+  private final Project proj;
+  private final Document skeleton;
+  private final Element root;
+  private final List<StreamedCircuit> circuits = new ArrayList<>();
+  private final Map<String, String> validCircuitNames = new HashMap<>();
+  private final Map<String, String> validCircuitLabels = new HashMap<>();
+  private final Map<String, String> validComponentLabels = new HashMap<>();
+  private boolean librariesLoaded = false;
+
+  XmlStreamReader(XmlReader.ReadContext context, Project proj) throws ParserConfigurationException {
+    this.context = context;
+    this.proj = proj;
+    skeleton = XmlUtil.getHardenedBuilderFactory().newDocumentBuilder().newDocument();
+    root = skeleton.createElement("project");
+    skeleton.appendChild(root);
+  }
+
+  /**
+   * Checks whether the file in the given stream can be read by this reader. The stream is reset
+   * to its current position afterwards.
+   */
+  static boolean canStream(BufferedInputStream in) throws IOException {
+    in.mark(PEEK_LIMIT);
+    String version = null;
+    try {
+      final var xml = XmlUtil.getHardenedInputFactory().createXMLStreamReader(in);
+      try {
+        while (xml.hasNext()) {
+          if (xml.next() == XMLStreamConstants.START_ELEMENT) {
+            if ("project".equals(xml.getLocalName())) {
+              version = xml.getAttributeValue(null, "source");
+              if (version == null) version = "";
+            }
+            break;
+          }
+        }
+      } finally {
+        xml.close();
+      }
+    } catch (XMLStreamException e) {
+      // Let the DOM reader report the error
+      version = null;
+    } finally {
+      in.reset();
+      // drop the mark, we do not want to buffer the whole file
+      in.mark(0);
+    }
+    if (version == null) return false;
+    if (version.isEmpty()) return true;
+    return LogisimVersion.fromString(version).compareTo(FIRST_STREAMABLE_VERSION) >= 0;
+  }
+
+  void read(BufferedInputStream in) throws XMLStreamException {
+    final var xml = XmlUtil.getHardenedInputFactory().createXMLStreamReader(in);
+    try {
+      if (nextElement(xml) != XMLStreamConstants.START_ELEMENT
+          || !"project".equals(xml.getLocalName())) {
+        throw new XMLStreamException("Not a logisim project file", xml.getLocation());
+      }
+      context.setSourceVersion(xml.getAttributeValue(null, "source"));
+      while (nextElement(xml) == XMLStreamConstants.START_ELEMENT) {
+        switch (xml.getLocalName()) {
+          case "circuit" -> readCircuit(xml);
+          case "vhdl" -> {
+            loadLibraries();
+            context.loadVhdl(readFragment(xml));
+          }
+          default -> root.appendChild(readFragment(xml));
+        }
+      }
+    } finally {
+      xml.close();
+    }
+
+    loadLibraries();
+    XmlReader.fixInvalidToolbarLib(root);
+    context.loadProjectElements(root);
+
+    final var circuitsData = new ArrayList<XmlReader.CircuitData>();
+    for (final var circuit : circuits) {
+      circuit.data.streamedComponents = resolveComponents(circuit);
+      circuit.data.streamedWires = circuit.wires;
+      circuitsData.add(circuit.data);
+    }
+    new XmlCircuitReader(context, circuitsData, context.isHolyCrossFile, context.isEvolutionFile)
+        .execute();
+  }
+
+  /** Skips text, comments and processing instructions up to the next start or end tag. */
+  private static int nextElement(XMLStreamReader xml) throws XMLStreamException {
+    while (xml.hasNext()) {
+      final var event = xml.next();
+      if (event == XMLStreamConstants.START_ELEMENT || event == XMLStreamConstants.END_ELEMENT) {
+        return event;
+      }
+    }
+    return XMLStreamConstants.END_DOCUMENT;
+  }
+
+  private static void skipElement(XMLStreamReader xml) throws XMLStreamException {
+    var depth = 1;
+    while (depth > 0) {
+      final var event = xml.next();
+      if (event == XMLStreamConstants.START_ELEMENT) depth++;
+      else if (event == XMLStreamConstants.END_ELEMENT) depth--;
+    }
+  }
+
+  private static String getAttribute(XMLStreamReader xml, String name) {
+    final var ret = xml.getAttributeValue(null, name);
+    return ret == null ? "" : ret;
+  }
+
+  private static String getQualifiedName(String prefix, String localName) {
+    return StringUtil.isNullOrEmpty(prefix) ? localName : prefix + ":" + localName;
+  }
+
+  /** Copies the element the reader is positioned on, including its children, into the skeleton. */
+  private Element readFragment(XMLStreamReader xml) throws XMLStreamException {
+    final var elt = skeleton.createElement(getQualifiedName(xml.getPrefix(), xml.getLocalName()));
+    for (var i = 0; i < xml.getAttributeCount(); i++) {
+      final var name = getQualifiedName(xml.getAttributePrefix(i), xml.getAttributeLocalName(i));
+      elt.setAttribute(name, xml.getAttributeValue(i));
+    }
+    while (true) {
+      switch (xml.next()) {
+        case XMLStreamConstants.START_ELEMENT -> elt.appendChild(readFragment(xml));
+        case XMLStreamConstants.CHARACTERS,
+            XMLStreamConstants.CDATA,
+            XMLStreamConstants.SPACE -> elt.appendChild(skeleton.createTextNode(xml.getText()));
+        case XMLStreamConstants.END_ELEMENT -> {
+          return elt;
+        }
+        default -> {
+          // comments and processing instructions are dropped, as the DOM reader ignores them
+        }
+      }
+    }
+  }
+
+  private void loadLibraries() {
+    if (librariesLoaded) return;
+    librariesLoaded = true;
+    XmlReader.fixInvalidToolbarLib(root);
+    context.loadLibraries(root);
+  }
+
+  private static String getValidLabel(Map<String, String> validLabels, String label) {
+    if (!VhdlContent.labelVHDLInvalid(label)) return label;
+    return validLabels.computeIfAbsent(label, XmlReader::generateValidVHDLLabel);
+  }
+
+  private void readCircuit(XMLStreamReader xml) throws XMLStreamException {
+    loadLibraries();
+    final var originalName = getAttribute(xml, "name");
+    final var name = getValidLabel(validCircuitNames, originalName);
+    if ("".equals(name)) {
+      context.addError(S.get("circNameMissingError"), "C??");
+    }
+    final var circElt = skeleton.createElement("circuit");
+    circElt.setAttribute("name", name);
+    final var data = new XmlReader.CircuitData(circElt, new Circuit(name, context.file, proj));
+    context.file.addCircuit(data.circuit);
+    final var circuit = new StreamedCircuit(data);
+    circuits.add(circuit);
+
+    var event = xml.next();
+    while (event != XMLStreamConstants.END_ELEMENT) {
+      data.hasContent = true;
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        switch (xml.getLocalName()) {
+          case "comp" -> readComponent(xml, circuit);
+          case "wire" -> readWire(xml, circuit);
+          case "a" -> {
+            final var attrElt = readFragment(xml);
+            final var attrName = attrElt.getAttribute("name");
+            if ("circuit".equals(attrName) && !name.equals(originalName)) {
+              attrElt.setAttribute("val", name);
+            } else if ("label".equals(attrName) && !attrElt.getAttribute("val").isEmpty()) {
+              attrElt.setAttribute(
+                  "val", getValidLabel(validCircuitLabels, attrElt.getAttribute("val")));
+            }
+            circElt.appendChild(attrElt);
+          }
+          default -> circElt.appendChild(readFragment(xml));
+        }
+      }
+      event = xml.next();
+    }
+
+    buildComponents(circuit);
+    // The components read so far hold all pins of this circuit, which the appearance needs.
+    final var known = new ArrayList<Component>();
+    for (final var comp : circuit.components) {
+      if (comp instanceof Component component) known.add(component);
+    }
+    data.streamedComponents = known;
+    for (final var appearElt : XmlIterator.forChildElements(circElt, "appear")) {
+      context.loadAppearance(appearElt, data, name + ".appear");
+    }
+    for (final var boardMap : XmlIterator.forChildElements(circElt, "boardmap")) {
+      context.loadBoardMap(boardMap, data.circuit);
+    }
+  }
+
+  private void readComponent(XMLStreamReader xml, StreamedCircuit circuit)
+      throws XMLStreamException {
+    final var hasLib = xml.getAttributeValue(null, "lib") != null;
+    final var libName = getAttribute(xml, "lib");
+    final var name = hasLib ? getAttribute(xml, "name") : getCircuitName(getAttribute(xml, "name"));
+    final var location = getAttribute(xml, "loc");
+    final var circuitName = circuit.data.circuit.getName();
+    final var errorContext =
+        String.format(CONTEXT_FMT, circuitName, String.format("%s(%s)", name, location));
+
+    final var attrs = new HashMap<String, String>();
+    while (nextElement(xml) == XMLStreamConstants.START_ELEMENT) {
+      if (!"a".equals(xml.getLocalName())) {
+        skipElement(xml);
+        continue;
+      }
+      final var attrName = xml.getAttributeValue(null, "name");
+      final var attrVal = xml.getAttributeValue(null, "val");
+      if (attrName == null) {
+        context.addError(S.get("attrNameMissingError"), errorContext);
+        skipElement(xml);
+      } else if (attrVal == null) {
+        attrs.put(attrName, xml.getElementText());
+      } else {
+        skipElement(xml);
+        var value = attrVal;
+        if (hasLib && "label".equals(attrName) && !value.isEmpty()) {
+          value = getValidLabel(validComponentLabels, value);
+        }
+        attrs.put(attrName, context.toAttributeValue(attrName, value));
+      }
+    }
+
+    if (libName.isEmpty() && context.file.getTool(name) == null) {
+      // Most likely a subcircuit or VHDL entity that is defined further down in the file
+      circuit.components.add(new PendingComponent(name, libName, location, attrs));
+      return;
+    }
+    final ComponentFactory factory;
+    try {
+      factory = XmlCircuitReader.getFactory(name, libName, context);
+    } catch (XmlReaderException e) {
+      context.addErrors(e, errorContext);
+      return;
+    }
+    if (XmlCircuitReader.isSelfContained(factory)) {
+      circuit.components.add(new ComponentSource(factory, location, attrs, errorContext));
+      return;
+    }
+    final var comp = createComponent(name, libName, location, attrs, errorContext);
+    if (comp != null) circuit.components.add(comp);
+  }
+
+  /**
+   * Creates the components of the given circuit whose factory is self-contained. As in {@link
+   * XmlReader}, only their attributes, locations and the components themselves are built in
+   * parallel; their factories were resolved while reading, and errors are reported on this thread,
+   * in document order.
+   */
+  private void buildComponents(StreamedCircuit circuit) {
+    final var sources = new ArrayList<ComponentSource>();
+    for (final var comp : circuit.components) {
+      if (comp instanceof ComponentSource source) sources.add(source);
+    }
+    sources.parallelStream().forEach(this::buildComponent);
+    final var iter = circuit.components.listIterator();
+    while (iter.hasNext()) {
+      if (iter.next() instanceof ComponentSource source) {
+        if (source.component != null) {
+          iter.set(source.component);
+        } else {
+          iter.remove();
+          if (source.error != null) context.addErrors(source.error, source.errorContext);
+        }
+      }
+    }
+  }
+
+  private void buildComponent(ComponentSource source) {
+    try {
+      source.component =
+          XmlCircuitReader.getComponent(
+              source.factory,
+              source.location,
+              source.attrs,
+              context,
+              context.isHolyCrossFile,
+              context.isEvolutionFile);
+    } catch (XmlReaderException e) {
+      source.error = e;
+    }
+  }
+
+  private Component createComponent(
+      String name,
+      String libName,
+      String location,
+      Map<String, String> attrs,
+      String errorContext) {
+    try {
+      return XmlCircuitReader.getComponent(
+          name,
+          libName,
+          location,
+          attrs,
+          context,
+          context.isHolyCrossFile,
+          context.isEvolutionFile);
+    } catch (XmlReaderException e) {
+      context.addErrors(e, errorContext);
+      return null;
+    }
+  }
+
+  private void readWire(XMLStreamReader xml, StreamedCircuit circuit) throws XMLStreamException {
+    final var from = getAttribute(xml, "from");
+    final var to = getAttribute(xml, "to");
+    skipElement(xml);
+    try {
+      final var wire = XmlCircuitReader.createWire(from, to);
+      if (wire != null) circuit.wires.add(wire);
+    } catch (XmlReaderException e) {
+      final var wireName = String.format("w%s-%s", from, to);
+      context.addErrors(e, String.format(CONTEXT_FMT, circuit.data.circuit.getName(), wireName));
+    }
+  }
+
+  /**
+   * Returns the name under which a component without library refers to a circuit. As in {@link
+   * XmlReader#ensureLogisimCompatibility}, only names of circuits that were renamed are replaced;
+   * names of circuits further down in the file are replaced when resolving pending components.
+   */
+  private String getCircuitName(String name) {
+    return validCircuitNames.getOrDefault(name, name);
+  }
+
+  private List<Component> resolveComponents(StreamedCircuit circuit) {
+    final var ret = new ArrayList<Component>(circuit.components.size());
+    for (final var comp : circuit.components) {
+      if (comp instanceof Component component) {
+        ret.add(component);
+      } else if (comp instanceof PendingComponent pending) {
+        final var name = getCircuitName(pending.name);
+        final var errorContext =
+            String.format(
+                CONTEXT_FMT,
+                circuit.data.circuit.getName(),
+                String.format("%s(%s)", name, pending.location));
+        final var created =
+            createComponent(name, pending.libName, pending.location, pending.attrs, errorContext);
+        if (created != null) ret.add(created);
+      }
+    }
+    return ret;
+  }
+}
@@ -23,6 +23,7 @@ import com.cburch.logisim.generated.BuildInfo;
 import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.std.base.Text;
+import com.cburch.logisim.std.memory.MemContents;
 import com.cburch.logisim.std.wiring.ProbeAttributes;
 import com.cburch.logisim.tools.Library;
 import com.cburch.logisim.tools.Tool;
@@ -39,6 +40,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -69,6 +71,8 @@ final class XmlWriter {
   private final boolean isProjectExport;
   private final LibraryLoader loader;
   private final HashMap<Library, String> libs = new HashMap<>();
+  /* Whether memory contents are attached to their attribute elements instead of written as text. */
+  private boolean memoryAsContents = false;
 
   private XmlWriter(LogisimFile file, Document doc, LibraryLoader loader) {
     this(file, doc, loader, null, null);
@@ -176,23 +180,7 @@ final class XmlWriter {
 
   static void write(LogisimFile file, OutputStream out, LibraryLoader loader, File destFile, String libraryHome)
       throws ParserConfigurationException, TransformerException {
-
-    final var docFactory = XmlUtil.getHardenedBuilderFactory();
-    final var docBuilder = docFactory.newDocumentBuilder();
-
-    final var doc = docBuilder.newDocument();
-    XmlWriter context;
-    if (destFile != null) {
-      var dstFilePath = destFile.getAbsolutePath();
-      dstFilePath = dstFilePath.substring(0, dstFilePath.lastIndexOf(File.separator));
-      context = new XmlWriter(file, doc, loader, dstFilePath);
-    } else if (libraryHome != null) {
-      context = new XmlWriter(file, doc, loader, null, libraryHome);
-    } else {
-      context = new XmlWriter(file, doc, loader);
-    }
-
-    context.fromLogisimFile();
+    final var doc = toDocument(file, loader, destFile, libraryHome);
 
     final var tfFactory = TransformerFactory.newInstance();
     try {
@@ -209,13 +197,69 @@ final class XmlWriter {
       // Do nothing
     }
 
-    doc.normalize();
-    sort(doc);
     Source src = new DOMSource(doc);
     Result dest = new StreamResult(out);
     tf.transform(src, dest);
   }
 
+  /**
+   * Builds the XML tree of a file, normalized and sorted as it is saved.
+   */
+  static Document toDocument(LogisimFile file, LibraryLoader loader, File destFile, String libraryHome)
+      throws ParserConfigurationException {
+    return toDocument(file, loader, destFile, libraryHome, null);
+  }
+
+  /**
+   * Builds the XML tree of a file, normalized and sorted as it is saved, keeping only the given
+   * circuits, or all of them if circuits is null.
+   */
+  static Document toDocument(
+      LogisimFile file,
+      LibraryLoader loader,
+      File destFile,
+      String libraryHome,
+      Collection<Circuit> circuits)
+      throws ParserConfigurationException {
+    return toDocument(file, loader, destFile, libraryHome, circuits, false);
+  }
+
+  /**
+   * Builds the XML tree of a file like {@link #toDocument(LogisimFile, LibraryLoader, File, String,
+   * Collection)}. Unless memoryAsText is set, memory contents are not turned into hex text: they
+   * are attached to their attribute element for {@link BinaryProjectFormat} to store their pages.
+   */
+  static Document toDocument(
+      LogisimFile file,
+      LibraryLoader loader,
+      File destFile,
+      String libraryHome,
+      Collection<Circuit> circuits,
+      boolean memoryAsText)
+      throws ParserConfigurationException {
+    final var docFactory = XmlUtil.getHardenedBuilderFactory();
+    final var docBuilder = docFactory.newDocumentBuilder();
+
+    final var doc = docBuilder.newDocument();
+    XmlWriter context;
+    if (destFile != null) {
+      var dstFilePath = destFile.getAbsolutePath();
+      dstFilePath = dstFilePath.substring(0, dstFilePath.lastIndexOf(File.separator));
+      context = new XmlWriter(file, doc, loader, dstFilePath);
+    } else if (libraryHome != null) {
+      context = new XmlWriter(file, doc, loader, null, libraryHome);
+    } else {
+      context = new XmlWriter(file, doc, loader);
+    }
+    context.memoryAsContents = !memoryAsText;
+
+    context.fromLogisimFile(circuits);
+
+    doc.normalize();
+    sort(doc);
+    return doc;
+  }
+
   void addAttributeSetContent(Element elt, AttributeSet attrs, AttributeDefaultProvider source, boolean userModifiedOnly) {
     if (attrs == null) return;
     if (source != null && source.isAllDefaultValues(attrs, BuildInfo.version)) return;
@@ -226,6 +270,21 @@ final class XmlWriter {
       if (userModifiedOnly && (attrs.isReadOnly(attr) || attr.isHidden())) continue;
       if (attrs.isToSave(attr) && val != null) {
         final var dflt = source == null ? null : source.getDefaultAttributeValue(attr, BuildInfo.version);
+        if (memoryAsContents && val instanceof MemContents contents) {
+          // a cleared memory of the default size would be written as the text of the default
+          if (dflt instanceof MemContents dfltContents
+              && contents.isClear()
+              && dfltContents.isClear()
+              && contents.getLogLength() == dfltContents.getLogLength()
+              && contents.getWidth() == dfltContents.getWidth()) {
+            continue;
+          }
+          final var a = doc.createElement("a");
+          a.setAttribute("name", attr.getName());
+          BinaryProjectFormat.setMemoryContents(a, contents);
+          elt.appendChild(a);
+          continue;
+        }
         final var defaultValue = dflt == null ? "" : attr.toStandardString(dflt);
         var newValue = attr.toStandardString(val);
         if (dflt == null || (!dflt.equals(val) && !defaultValue.equals(newValue))
@@ -431,7 +490,7 @@ final class XmlWriter {
     return ret;
   }
 
-  Element fromLogisimFile() {
+  Element fromLogisimFile(Collection<Circuit> circuits) {
     final var ret = doc.createElement("project");
     doc.appendChild(ret);
     ret.appendChild(
@@ -461,7 +520,7 @@ final class XmlWriter {
     ret.appendChild(fromToolbarData());
 
     for (final var circ : file.getCircuits()) {
-      ret.appendChild(fromCircuit(circ));
+      if (circuits == null || circuits.contains(circ)) ret.appendChild(fromCircuit(circ));
     }
     for (final var vhdl : file.getVhdlContents()) {
       ret.appendChild(fromVhdl(vhdl));
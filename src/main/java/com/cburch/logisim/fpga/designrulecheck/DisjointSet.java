@@ -0,0 +1,55 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.fpga.designrulecheck;
+
+import java.util.HashMap;
+
+/**
+ * Union-find structure used to group connected elements (wire end points, tunneled nets) in
+ * near-linear time. Elements are added on first use.
+ */
+final class DisjointSet<T> {
+
+  private final HashMap<T, T> parents = new HashMap<>();
+  private final HashMap<T, Integer> sizes = new HashMap<>();
+
+  public T find(T element) {
+    var root = parents.get(element);
+    if (root == null) {
+      parents.put(element, element);
+      sizes.put(element, 1);
+      return element;
+    }
+    var current = element;
+    while (!root.equals(current)) {
+      // path halving: let every visited element point to its grandparent
+      final var grandParent = parents.get(root);
+      parents.put(current, grandParent);
+      current = grandParent;
+      root = parents.get(current);
+    }
+    return root;
+  }
+
+  public void union(T first, T second) {
+    final var firstRoot = find(first);
+    final var secondRoot = find(second);
+    if (firstRoot.equals(secondRoot)) return;
+    final int firstSize = sizes.get(firstRoot);
+    final int secondSize = sizes.get(secondRoot);
+    if (firstSize < secondSize) {
+      parents.put(firstRoot, secondRoot);
+      sizes.put(secondRoot, firstSize + secondSize);
+    } else {
+      parents.put(secondRoot, firstRoot);
+      sizes.put(firstRoot, firstSize + secondSize);
+    }
+  }
+}
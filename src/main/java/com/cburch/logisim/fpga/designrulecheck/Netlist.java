@@ -13,6 +13,8 @@ import static com.cburch.logisim.fpga.Strings.S;
 
 import com.cburch.logisim.circuit.Circuit;
 import com.cburch.logisim.circuit.CircuitAttributes;
+import com.cburch.logisim.circuit.CircuitEvent;
+import com.cburch.logisim.circuit.CircuitListener;
 import com.cburch.logisim.circuit.Splitter;
 import com.cburch.logisim.circuit.SplitterAttributes;
 import com.cburch.logisim.circuit.SplitterFactory;
@@ -31,14 +33,21 @@ import com.cburch.logisim.std.wiring.Probe;
 import com.cburch.logisim.std.wiring.Tunnel;
 import java.awt.Color;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public class Netlist {
+public class Netlist implements CircuitListener {
+
+  private record SplitterEnd(Component splitter, int end) {}
+
+  /* A bit of a net that was visited while searching for hidden sources or sinks */
+  private record NetBit(Net net, byte bit) {}
 
   private static class SourceInfo {
     private final ConnectionPoint source;
@@ -92,7 +101,20 @@ public class Netlist {
   private final ClockTreeFactory myClockInformation = new ClockTreeFactory();
   private final Circuit myCircuit;
   private int drcStatus;
-  private final Set<Wire> wires = new HashSet<>();
+  /*
+   * The circuit revision is increased on every change of the circuit. A netlist that passed the
+   * DRC stays valid as long as neither its circuit nor any of its sub-circuits changed since.
+   */
+  private volatile int circuitRevision = 0;
+  private int checkedRevision = -1;
+  /* The toplevel of the hierarchy this netlist was last checked in */
+  private Netlist hierarchyTop = null;
+  /* The net at each location; the nets of a netlist never share a location */
+  private final Map<Location, Net> netsByLocation = new HashMap<>();
+  /* The splitter ends connected to each net, in the order of mySplitters */
+  private Map<Net, List<SplitterEnd>> splitterEnds = null;
+  // read by the HDL generators of several circuits at once, so only ever set once complete
+  private volatile Map<Net, Integer> netIds = null;
   private ArrayList<String> currentHierarchyLevel;
   public static final int DRC_REQUIRED = 4;
   public static final int DRC_PASSED = 0;
@@ -106,6 +128,15 @@ public class Netlist {
   public Netlist(Circuit ThisCircuit) {
     myCircuit = ThisCircuit;
     clear();
+    if (myCircuit != null) myCircuit.addCircuitListener(this);
+  }
+
+  @Override
+  public void circuitChanged(CircuitEvent event) {
+    final var action = event.getAction();
+    if (action != CircuitEvent.ACTION_DISPLAY_CHANGE && action != CircuitEvent.ACTION_CHECK_NAME) {
+      circuitRevision++;
+    }
   }
 
   public void cleanClockTree(ClockSourceContainer ClockSources) {
@@ -124,8 +155,38 @@ public class Netlist {
       final var subFact = (SubcircuitFactory) subcirc.getComponent().getFactory();
       subFact.getSubcircuit().getNetList().clear();
     }
+    clearLocal();
+  }
+
+  /**
+   * Clears the netlists in the hierarchy below this one that are outdated, that is whose circuit
+   * or any of whose sub-circuits changed since they passed the DRC. The other netlists are kept.
+   *
+   * @param checked the netlists that were already visited, with their state
+   * @return true if this netlist is still valid
+   */
+  private boolean clearOutdated(Map<Netlist, Boolean> checked) {
+    final var known = checked.get(this);
+    if (known != null) return known;
+    var upToDate = drcStatus == DRC_PASSED && checkedRevision == circuitRevision;
+    for (final var comp : myCircuit.getNonWires()) {
+      if (comp.getFactory() instanceof SubcircuitFactory sub
+          && !sub.getSubcircuit().getNetList().clearOutdated(checked)) {
+        upToDate = false;
+      }
+    }
+    if (!upToDate) clearLocal();
+    checked.put(this, upToDate);
+    return upToDate;
+  }
+
+  private void clearLocal() {
     drcStatus = DRC_REQUIRED;
+    checkedRevision = -1;
     myNets.clear();
+    netsByLocation.clear();
+    splitterEnds = null;
+    netIds = null;
     mySubCircuits.clear();
     myComponents.clear();
     myClockGenerators.clear();
@@ -223,16 +284,33 @@ public class Netlist {
     }
   }
 
-  public int designRuleCheckResult(boolean isTopLevel, ArrayList<String> sheetNames) {
-    final var compNames = new ArrayList<String>();
+  public int designRuleCheckResult(boolean isTopLevel, Set<String> sheetNames) {
+    final var compNames = new HashSet<String>();
     final var labels = new HashMap<String, Component>();
     final var drc = new ArrayList<SimpleDrcContainer>();
 
-    // if we are the toplevel component we clear the complete netlist
-    if (isTopLevel) clear();
+    // if we are the toplevel component we clear the outdated parts of the netlist, or the
+    // complete netlist if it was last checked as part of another hierarchy
+    if (isTopLevel) {
+      final var checked = new HashMap<Netlist, Boolean>();
+      final var upToDate = clearOutdated(checked);
+      var sameHierarchy = true;
+      for (final var netlist : checked.keySet()) {
+        if (netlist.hierarchyTop != this) sameHierarchy = false;
+        netlist.hierarchyTop = this;
+      }
+      if (upToDate && sameHierarchy) {
+        Reporter.report.addInfo(S.get("DRCUnchangedString", myCircuit.getName()));
+        return DRC_PASSED;
+      }
+      // the clock trees and the bubbles of the whole hierarchy are determined by the toplevel,
+      // so we have to redo these if part of the hierarchy was checked in another one
+      if (!sameHierarchy) clearLocal();
+    }
 
     // if we already have good drc results we can leave
     if (drcStatus == DRC_PASSED) return DRC_PASSED;
+    final var revision = circuitRevision;
 
     // we mark already passed, if an error * occurs the status is changed
     drcStatus = DRC_PASSED;
@@ -254,12 +332,11 @@ public class Netlist {
       sheetNames.add(myCircuit.getName());
     }
     // we have to go down the tree to build first all subcircuits
-    final var handledCircuits = new ArrayList<Circuit>();
+    final var handledCircuits = new HashSet<Circuit>();
     for (final var comp : myCircuit.getNonWires()) {
       if (comp.getFactory() instanceof SubcircuitFactory factory) {
         final var subCircuit = factory.getSubcircuit();
-        if (handledCircuits.contains(subCircuit)) continue;
-        handledCircuits.add(subCircuit);
+        if (!handledCircuits.add(subCircuit)) continue;
         if (subCircuit.getNetList().designRuleCheckResult(false, sheetNames) != DRC_PASSED) {
           drcStatus = DRC_REQUIRED;
           return DRC_ERROR;
@@ -269,8 +346,7 @@ public class Netlist {
 
     // Preparing stage
     for (final var comp : myCircuit.getNonWires()) {
-      final var compName = comp.getFactory().getHDLName(comp.getAttributeSet());
-      if (!compNames.contains(compName)) compNames.add(compName);
+      compNames.add(comp.getFactory().getHDLName(comp.getAttributeSet()));
     }
 
     drc.add(
@@ -490,6 +566,7 @@ public class Netlist {
     Reporter.report.addInfo(S.get("CircuitInfoString", myCircuit.getName(), numberOfNets(), numberOfBusses()));
     Reporter.report.addInfo(S.get("DRCPassesString", myCircuit.getName()));
     drcStatus = DRC_PASSED;
+    checkedRevision = revision;
     return drcStatus;
   }
 
@@ -541,10 +618,43 @@ public class Netlist {
   }
 
   private Net findConnectedNet(Location loc) {
-    for (final var current : myNets) {
-      if (current.contains(loc)) return current;
+    return netsByLocation.get(loc);
+  }
+
+  private void indexNet(Net net) {
+    for (final var point : net.getPoints()) netsByLocation.put(point, net);
+    splitterEnds = null;
+    netIds = null;
+  }
+
+  private void indexNets() {
+    netsByLocation.clear();
+    for (final var net : myNets) indexNet(net);
+  }
+
+  /** Merges the second net into the first one; the caller has to remove the second one. */
+  private boolean mergeNets(Net net, Net other) {
+    if (!net.merge(other)) return false;
+    indexNet(net);
+    return true;
+  }
+
+  private List<SplitterEnd> getSplitterEnds(Net net) {
+    if (splitterEnds == null) {
+      splitterEnds = new HashMap<>();
+      for (final var splitter : mySplitters) {
+        final var ends = splitter.getEnds();
+        for (var end = 0; end < ends.size(); end++) {
+          final var connectedNet = findConnectedNet(ends.get(end).getLocation());
+          if (connectedNet != null) {
+            splitterEnds
+                .computeIfAbsent(connectedNet, key -> new ArrayList<>())
+                .add(new SplitterEnd(splitter, end));
+          }
+        }
+      }
     }
-    return null;
+    return splitterEnds.getOrDefault(net, Collections.emptyList());
   }
 
   private boolean generateNetlist() {
@@ -563,15 +673,17 @@ public class Netlist {
       progress.setString(S.get("NetListBuild", circuitName, 1));
     }
 
-    wires.clear();
-    wires.addAll(myCircuit.getWires());
     // FIRST PASS: In this pass we take all wire segments and see if they
     // are connected to other segments. If they are connected we build a net.
-    while (wires.size() != 0) {
-      final var newNet = new Net();
-      getNet(null, newNet);
-      if (!newNet.isEmpty()) myNets.add(newNet);
-    }
+    final var wires = new HashSet<>(myCircuit.getWires());
+    final var connectivity = new DisjointSet<Location>();
+    for (final var wire : wires) connectivity.union(wire.getEnd0(), wire.getEnd1());
+    final var wireNets = new LinkedHashMap<Location, Net>();
+    for (final var wire : wires) {
+      wireNets.computeIfAbsent(connectivity.find(wire.getEnd0()), root -> new Net()).add(wire);
+    }
+    myNets.addAll(wireNets.values());
+    indexNets();
     // Here we start to detect direct input-output component connections, read we detect "hidden"
     // nets
     final var components = myCircuit.getNonWires();
@@ -631,10 +743,8 @@ public class Netlist {
         }
         /* Here we are going to mark the bitwidths on the nets */
         final var width = end.getWidth().getWidth();
-        final var loc = end.getLocation();
-        for (final var thisNet : myNets) {
-          if (thisNet.contains(loc) && !thisNet.setWidth(width)) drc.get(1).addMarkComponents(thisNet.getWires());
-        }
+        final var thisNet = findConnectedNet(end.getLocation());
+        if (thisNet != null && !thisNet.setWidth(width)) drc.get(1).addMarkComponents(thisNet.getWires());
       }
     }
     for (final var simpleDRCContainer : drc) {
@@ -662,14 +772,12 @@ public class Netlist {
         final var loc = end.getLocation();
         if (points.containsKey(loc)) {
           /* Found a connection already used */
-          var newNet = true;
-          for (final var net : myNets) {
-            if (net.contains(loc)) newNet = false;
-          }
-          if (newNet) {
+          if (findConnectedNet(loc) == null) {
             final var bitWidth = points.get(loc);
             if (bitWidth == end.getWidth().getWidth()) {
-              myNets.add(new Net(loc, bitWidth));
+              final var newNet = new Net(loc, bitWidth);
+              myNets.add(newNet);
+              indexNet(newNet);
             } else {
               drc.get(0).addMarkComponent(comp);
             }
@@ -692,42 +800,43 @@ public class Netlist {
      * Here we are going to process the tunnels and possible merging of the
      * tunneled nets
      */
-    var areTunnelsPresent = false;
+    final var mergedNets = new HashSet<Net>();
+    final var tunneledNets = new DisjointSet<Net>();
+    final var netsByTunnel = new HashMap<String, Net>();
     for (final var comp : tunnelList) {
       final var ends = comp.getEnds();
       for (final var end : ends) {
-        for (final var thisNet : myNets) {
-          if (thisNet.contains(end.getLocation())) {
-            thisNet.addTunnel(comp.getAttributeSet().getValue(StdAttr.LABEL));
-            areTunnelsPresent = true;
-          }
+        final var thisNet = findConnectedNet(end.getLocation());
+        if (thisNet != null) {
+          final var name = comp.getAttributeSet().getValue(StdAttr.LABEL);
+          thisNet.addTunnel(name);
+          final var otherNet = netsByTunnel.putIfAbsent(name, thisNet);
+          if (otherNet != null) tunneledNets.union(thisNet, otherNet);
         }
       }
     }
     drc.clear();
     drc.add(new SimpleDrcContainer(myCircuit, S.get("NetMerge_BitWidthError"), SimpleDrcContainer.LEVEL_FATAL, SimpleDrcContainer.MARK_WIRE));
-    if (areTunnelsPresent) {
-      final var netIterator = myNets.listIterator();
-      while (netIterator.hasNext()) {
-        final var thisNet = netIterator.next();
-        if (thisNet.hasTunnel() && (myNets.indexOf(thisNet) < (myNets.size() - 1))) {
-          var merged = false;
-          final var searchIterator = myNets.listIterator(myNets.indexOf(thisNet) + 1);
-          while (searchIterator.hasNext() && !merged) {
-            final var searchNet = searchIterator.next();
-            for (final var name : thisNet.getTunnelNames()) {
-              if (searchNet.containsTunnel(name) && !merged) {
-                merged = true;
-                if (!searchNet.merge(thisNet)) {
-                  drc.get(0).addMarkComponents(searchNet.getWires());
-                  drc.get(0).addMarkComponents(thisNet.getWires());
-                }
-              }
-            }
+    if (!netsByTunnel.isEmpty()) {
+      // all nets connected by tunnels are merged into the last one of them in the list of nets
+      final var groups = new HashMap<Net, List<Net>>();
+      for (final var thisNet : myNets) {
+        if (thisNet.hasTunnel()) {
+          groups.computeIfAbsent(tunneledNets.find(thisNet), root -> new ArrayList<>()).add(thisNet);
+        }
+      }
+      for (final var group : groups.values()) {
+        final var searchNet = group.get(group.size() - 1);
+        for (final var thisNet : group.subList(0, group.size() - 1)) {
+          if (!mergeNets(searchNet, thisNet)) {
+            drc.get(0).addMarkComponents(searchNet.getWires());
+            drc.get(0).addMarkComponents(thisNet.getWires());
           }
-          if (merged) netIterator.remove();
+          mergedNets.add(thisNet);
         }
       }
+      myNets.removeIf(mergedNets::contains);
+      mergedNets.clear();
     }
     if (drc.get(0).isDrcInfoPresent()) {
       Reporter.report.addError(drc.get(0));
@@ -795,6 +904,7 @@ public class Netlist {
     if (drc.get(0).isDrcInfoPresent()) {
       Reporter.report.addWarning(drc.get(0));
     }
+    indexNets();
     mySplitIter = mySplitters.iterator();
     // We also check quickly the splitters and remove the ones where input-bus is output-bus. We
     // mark those who are not correctly connected and remove both versions from the set.
@@ -821,47 +931,23 @@ public class Netlist {
       }
       /* stupid situation first: the splitters bus connection is a single fanout */
       if (busWidth == maxFanoutWidth) {
-        Net busnet = null;
-        Net connectedNet = null;
-        final var busLoc = mySplitter.getEnd(0).getLocation();
-        final var connectedLoc = mySplitter.getEnd(index).getLocation();
-        var issueWarning = false;
         /* here we search for the nets */
-        for (final var currentNet : myNets) {
-          if (currentNet.contains(busLoc)) {
-            if (busnet != null) {
-              Reporter.report.addFatalErrorFmt(
-                  "BUG: Multiple bus nets found for a single splitter\n ==> %s:%d\n",
-                  this.getClass().getName().replace(".", "/"),
-                  Thread.currentThread().getStackTrace()[2].getLineNumber());
-              return false;
-            } else {
-              busnet = currentNet;
-            }
-          }
-          if (currentNet.contains(connectedLoc)) {
-            if (connectedNet != null) {
-              Reporter.report.addFatalErrorFmt(
-                  "BUG: Multiple nets found for a single splitter split connection\n ==> %s:%d\n",
-                  this.getClass().getName().replace(".", "/"),
-                  Thread.currentThread().getStackTrace()[2].getLineNumber());
-              return false;
-            } else {
-              connectedNet = currentNet;
-            }
-          }
-        }
+        final var busnet = findConnectedNet(mySplitter.getEnd(0).getLocation());
+        final var connectedNet = findConnectedNet(mySplitter.getEnd(index).getLocation());
+        var issueWarning = false;
         if (connectedNet != null) {
           if (busnet != null) {
             /* we can merge both nets */
-            if (!busnet.merge(connectedNet)) {
+            if (busnet == connectedNet) {
+              // both ends are on the same net already, nothing to merge
+            } else if (!mergeNets(busnet, connectedNet)) {
               Reporter.report.addFatalErrorFmt(
                   "BUG: Splitter bus merge error\n ==> %s:%d\n",
                   this.getClass().getName().replace(".", "/"),
                   Thread.currentThread().getStackTrace()[2].getLineNumber());
               return false;
             } else {
-              myNets.remove(connectedNet);
+              mergedNets.add(connectedNet);
             }
           } else {
             issueWarning = true;
@@ -882,6 +968,7 @@ public class Netlist {
         mySplitIter.remove(); /* Does not exist anymore */
       }
     }
+    myNets.removeIf(mergedNets::contains);
 
     if (progress != null) {
       progress.setValue(4);
@@ -897,15 +984,9 @@ public class Netlist {
       // Currently by definition end(0) is the combined end of the splitter
       final var ends = comp.getEnds();
       final var combinedEnd = ends.get(0);
-      var rootNet = -1;
       /* We search for the root net in the list of nets */
-      for (var i = 0; i < myNets.size() && rootNet < 0; i++) {
-        if (myNets.get(i).contains(combinedEnd.getLocation())) {
-          rootNet = i;
-          // FIXME: shouldn't we `break` once we found it?
-        }
-      }
-      if (rootNet < 0) {
+      final var rootNet = findConnectedNet(combinedEnd.getLocation());
+      if (rootNet == null) {
         Reporter.report.addFatalErrorFmt(
             "BUG: Splitter without a bus connection\n ==> %s:%d\n",
             this.getClass().getName().replace(".", "/"),
@@ -915,35 +996,24 @@ public class Netlist {
       }
       // Now we process all the other ends to find the child busses/nets
       // of this root bus
-      final var connections = new ArrayList<Integer>();
-      for (var i = 1; i < ends.size(); i++) {
-        final var thisEnd = ends.get(i);
-        /* Find the connected net */
-        var connectedNet = -1;
-        for (var j = 0; j < myNets.size() && connectedNet < 1; j++) {
-          if (myNets.get(j).contains(thisEnd.getLocation())) {
-            connectedNet = j;
-          }
-        }
-        connections.add(connectedNet);
-      }
       var unconnectedEnds = false;
       var connectedUnknownEnds = false;
       final var sattrs = (SplitterAttributes) comp.getAttributeSet();
       for (var i = 1; i < ends.size(); i++) {
-        var connectedNet = connections.get(i - 1);
-        if (connectedNet >= 0) {
+        /* Find the connected net */
+        final var connectedNet = findConnectedNet(ends.get(i).getLocation());
+        if (connectedNet != null) {
           /* Has this end a connection to the root bus? */
           connectedUnknownEnds |= sattrs.isNoConnect(i);
           /* There is a net connected to this splitter's end point */
-          if (!myNets.get(connectedNet).setParent(myNets.get(rootNet))) {
-            myNets.get(connectedNet).forceRootNet();
+          if (!connectedNet.setParent(rootNet)) {
+            connectedNet.forceRootNet();
           }
           /* Here we have to process the inherited bits of the parent */
           final var busBitConnection = ((Splitter) comp).getEndpoints();
           for (byte b = 0; b < busBitConnection.length; b++) {
             if (busBitConnection[b] == i) {
-              myNets.get(connectedNet).addParentBit(b);
+              connectedNet.addParentBit(b);
             }
           }
         } else {
@@ -1023,17 +1093,18 @@ public class Netlist {
       if (thisNet.isForcedRootNet()) {
         /* Cycle through all the bits of this net */
         for (var bit = 0; bit < thisNet.getBitWidth(); bit++) {
-          for (final var comp : mySplitters) {
+          // we iterate through all splitter ends connected to the current net
+          for (final var splitterEnd : getSplitterEnds(thisNet)) {
+            final var comp = splitterEnd.splitter();
+            final var endId = splitterEnd.end();
             // Currently by definition end(0) is the combined end of the splitter
+            if (endId == 0) continue;
             final var ends = comp.getEnds();
             final var combinedEnd = ends.get(0);
-            var connectedBus = -1;
             final var sattrs = (SplitterAttributes) comp.getAttributeSet();
             /* We search for the root net in the list of nets */
-            for (var i = 0; i < myNets.size() && connectedBus < 0; i++) {
-              if (myNets.get(i).contains(combinedEnd.getLocation())) connectedBus = i;
-            }
-            if (connectedBus < 0) {
+            final var connectedBus = findConnectedNet(combinedEnd.getLocation());
+            if (connectedBus == null) {
               // This should never happen as we already checked in the first pass.
               Reporter.report.addFatalErrorFmt(
                   "BUG: This is embarasing as this should never happen\n ==> %s:%d\n",
@@ -1042,42 +1113,36 @@ public class Netlist {
               this.clear();
               return false;
             }
-            for (int endId = 1; endId < ends.size(); endId++) {
-              //If this is an end that is not connected to the root bus
-              //we can continue we already warned severly before.
-              if (sattrs.isNoConnect(endId)) continue;
-              // we iterate through all bits to see if the current net is connected to this splitter
-              if (thisNet.contains(ends.get(endId).getLocation())) {
-                // first we have to get the bitindices of the rootbus
-                // Here we have to process the inherited bits of the parent
-                final var busBitConnection = ((Splitter) comp).getEndpoints();
-                final var indexBits = new ArrayList<Byte>();
-                for (byte b = 0; b < busBitConnection.length; b++) {
-                  if (busBitConnection[b] == endId) indexBits.add(b);
-                }
-                byte connectedBusIndex = indexBits.get(bit);
-                // Figure out the rootbusid and rootbusindex
-                var rootBus = myNets.get(connectedBus);
-                while (!rootBus.isRootNet()) {
-                  connectedBusIndex = rootBus.getBit(connectedBusIndex);
-                  rootBus = rootBus.getParent();
-                }
-                final var solderPoint = new ConnectionPoint(comp);
-                solderPoint.setParentNet(rootBus, connectedBusIndex);
-                var isSink = true;
-                if (!thisNet.hasBitSource(bit)) {
-                  if (hasHiddenSource(thisNet, (byte) bit, rootBus, connectedBusIndex, mySplitters,
-                      new HashSet<>(), comp)) {
-                    isSink = false;
-                  }
-                }
-                if (isSink) {
-                  thisNet.addSinkNet(bit, solderPoint);
-                } else {
-                  thisNet.addSourceNet(bit, solderPoint);
-                }
+            //If this is an end that is not connected to the root bus
+            //we can continue we already warned severly before.
+            if (sattrs.isNoConnect(endId)) continue;
+            // first we have to get the bitindices of the rootbus
+            // Here we have to process the inherited bits of the parent
+            final var busBitConnection = ((Splitter) comp).getEndpoints();
+            final var indexBits = new ArrayList<Byte>();
+            for (byte b = 0; b < busBitConnection.length; b++) {
+              if (busBitConnection[b] == endId) indexBits.add(b);
+            }
+            byte connectedBusIndex = indexBits.get(bit);
+            // Figure out the rootbusid and rootbusindex
+            var rootBus = connectedBus;
+            while (!rootBus.isRootNet()) {
+              connectedBusIndex = rootBus.getBit(connectedBusIndex);
+              rootBus = rootBus.getParent();
+            }
+            final var solderPoint = new ConnectionPoint(comp);
+            solderPoint.setParentNet(rootBus, connectedBusIndex);
+            var isSink = true;
+            if (!thisNet.hasBitSource(bit)) {
+              if (hasHiddenSource(thisNet, (byte) bit, rootBus, connectedBusIndex, new HashSet<>(), comp)) {
+                isSink = false;
               }
             }
+            if (isSink) {
+              thisNet.addSinkNet(bit, solderPoint);
+            } else {
+              thisNet.addSourceNet(bit, solderPoint);
+            }
           }
         }
       }
@@ -1134,54 +1199,44 @@ public class Netlist {
     return -1;
   }
 
-  private List<ConnectionPoint> getHiddenSinks(Net thisNet, Byte bitIndex, List<Component> splitters, Set<String> handledNets, Boolean isSourceNet) {
+  private List<ConnectionPoint> getHiddenSinks(Net thisNet, Byte bitIndex, Set<NetBit> handledNets, Boolean isSourceNet) {
     final var result = new ArrayList<ConnectionPoint>();
     // to prevent deadlock situations we check if we already looked at this net
-    final var netId = myNets.indexOf(thisNet) + "-" + bitIndex;
-    if (handledNets.contains(netId)) return result;
-    handledNets.add(netId);
+    if (!handledNets.add(new NetBit(thisNet, bitIndex))) return result;
 
     if (thisNet.hasBitSinks(bitIndex) && !isSourceNet && thisNet.isRootNet()) {
       result.addAll(thisNet.getBitSinks(bitIndex));
     }
     // Check if we have a connection to another splitter
-    for (final var currentSplitter : splitters) {
+    for (final var splitterEnd : getSplitterEnds(thisNet)) {
+      final var currentSplitter = splitterEnd.splitter();
+      final var end = splitterEnd.end();
       final var ends = currentSplitter.getEnds();
       final var splitterAttrs = (SplitterAttributes) currentSplitter.getAttributeSet();
-      for (byte end = 0; end < ends.size(); end++) {
-        /* prevent the search for ends that are not connected to the root bus */
-        if (end > 0 && splitterAttrs.isNoConnect(end)) continue;
-        if (thisNet.contains(ends.get(end).getLocation())) {
-          // Here we have to process the inherited bits of the parent.
-          final var busBitConnection = ((Splitter) currentSplitter).getEndpoints();
-          if (end == 0) {
-            // This is a main net, find the connected end.
-            final var splitterEnd = busBitConnection[bitIndex];
-            /* Find the corresponding Net index */
-            Byte netIndex = 0;
-            for (var index = 0; index < bitIndex; index++) {
-              if (busBitConnection[index] == splitterEnd) netIndex++;
-            }
-            // Find the connected Net
-            Net slaveNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(ends.get(splitterEnd).getLocation())) slaveNet = thisnet;
-            }
-            if (slaveNet != null)
-              result.addAll(getHiddenSinks(slaveNet, netIndex, splitters, handledNets, false));
-          } else {
-            final var rootIndices = new ArrayList<Byte>();
-            for (byte b = 0; b < busBitConnection.length; b++) {
-              if (busBitConnection[b] == end) rootIndices.add(b);
-            }
-            Net rootNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(currentSplitter.getEnd(0).getLocation())) rootNet = thisnet;
-            }
-            if (rootNet != null)
-              result.addAll(getHiddenSinks(rootNet, rootIndices.get(bitIndex), splitters, handledNets, false));
-          }
+      /* prevent the search for ends that are not connected to the root bus */
+      if (end > 0 && splitterAttrs.isNoConnect(end)) continue;
+      // Here we have to process the inherited bits of the parent.
+      final var busBitConnection = ((Splitter) currentSplitter).getEndpoints();
+      if (end == 0) {
+        // This is a main net, find the connected end.
+        final var connectedEnd = busBitConnection[bitIndex];
+        /* Find the corresponding Net index */
+        Byte netIndex = 0;
+        for (var index = 0; index < bitIndex; index++) {
+          if (busBitConnection[index] == connectedEnd) netIndex++;
+        }
+        // Find the connected Net
+        final var slaveNet = findConnectedNet(ends.get(connectedEnd).getLocation());
+        if (slaveNet != null)
+          result.addAll(getHiddenSinks(slaveNet, netIndex, handledNets, false));
+      } else {
+        final var rootIndices = new ArrayList<Byte>();
+        for (byte b = 0; b < busBitConnection.length; b++) {
+          if (busBitConnection[b] == end) rootIndices.add(b);
         }
+        final var rootNet = findConnectedNet(currentSplitter.getEnd(0).getLocation());
+        if (rootNet != null)
+          result.addAll(getHiddenSinks(rootNet, rootIndices.get(bitIndex), handledNets, false));
       }
     }
     return result;
@@ -1252,28 +1307,14 @@ public class Netlist {
     return components;
   }
 
-  private void getNet(Wire wire, Net thisNet) {
-    final var myIterator = wires.iterator();
-    final var matchedWires = new ArrayList<Wire>();
-    var compWire = wire;
-    while (myIterator.hasNext()) {
-      final var thisWire = myIterator.next();
-      if (compWire == null) {
-        compWire = thisWire;
-        thisNet.add(thisWire);
-        myIterator.remove();
-      } else if (thisWire.sharesEnd(compWire)) {
-        matchedWires.add(thisWire);
-        thisNet.add(thisWire);
-        myIterator.remove();
-      }
-    }
-    for (final var matched : matchedWires) getNet(matched, thisNet);
-    matchedWires.clear();
-  }
-
   public Integer getNetId(Net selectedNet) {
-    return myNets.indexOf(selectedNet);
+    var ids = netIds;
+    if (ids == null) {
+      ids = new HashMap<>();
+      for (var id = 0; id < myNets.size(); id++) ids.put(myNets.get(id), id);
+      netIds = ids;
+    }
+    return ids.getOrDefault(selectedNet, -1);
   }
 
   public ConnectionPoint getNetlistConnectionForSubCircuit(String label, int PortIndex, byte bitindex) {
@@ -1373,21 +1414,14 @@ public class Netlist {
       Byte srcBitIndex,
       Net thisNet,
       Byte bitIndex,
-      List<Component> splitters,
-      Set<String> handledNets,
+      Set<NetBit> handledNets,
       Set<Wire> segments,
       Component splitterToIgnore) {
     // If the source net not is null add it to the set of visited nets to prevent back-search on
     // this net
-    if (srcNet != null) {
-      final var netId = myNets.indexOf(srcNet) + "-" + srcBitIndex;
-      if (handledNets.contains(netId)) return null;
-      handledNets.add(netId);
-    }
+    if (srcNet != null && !handledNets.add(new NetBit(srcNet, srcBitIndex))) return null;
     // to prevent deadlock situations we check if we already looked at this net
-    final var netId = myNets.indexOf(thisNet) + "-" + bitIndex;
-    if (handledNets.contains(netId)) return null;
-    handledNets.add(netId);
+    if (!handledNets.add(new NetBit(thisNet, bitIndex))) return null;
     segments.addAll(thisNet.getWires());
 
     if (thisNet.hasBitSource(bitIndex)) {
@@ -1402,44 +1436,36 @@ public class Netlist {
       return new SourceInfo(sources.get(0), bitIndex);
     }
     /* Check if we have a connection to another splitter */
-    for (final var splitter : splitters) {
+    for (final var splitterEnd : getSplitterEnds(thisNet)) {
+      final var splitter = splitterEnd.splitter();
       if (splitter.equals(splitterToIgnore)) continue;
+      final var end = splitterEnd.end();
       final var ends = splitter.getEnds();
-      for (var end = 0; end < ends.size(); end++) {
-        if (thisNet.contains(ends.get(end).getLocation())) {
-          /* Here we have to process the inherited bits of the parent */
-          final var busBitConnection = ((Splitter) splitter).getEndpoints();
-          if (end == 0) {
-            /* this is a main net, find the connected end */
-            final var splitterEnd = busBitConnection[bitIndex];
-            /* Find the corresponding Net index */
-            Byte netIndex = 0;
-            for (var index = 0; index < bitIndex; index++) {
-              if (busBitConnection[index] == splitterEnd) netIndex++;
-            }
-            /* Find the connected Net */
-            Net slaveNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(ends.get(splitterEnd).getLocation())) slaveNet = thisnet;
-            }
-            if (slaveNet != null) {
-              final var ret = getHiddenSource(null, (byte) 0, slaveNet, netIndex, splitters, handledNets, segments, splitter);
-              if (ret != null) return ret;
-            }
-          } else {
-            final var rootIndices = new ArrayList<Byte>();
-            for (byte b = 0; b < busBitConnection.length; b++) {
-              if (busBitConnection[b] == end) rootIndices.add(b);
-            }
-            Net rootNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(splitter.getEnd(0).getLocation())) rootNet = thisnet;
-            }
-            if (rootNet != null) {
-              final var ret = getHiddenSource(null, (byte) 0, rootNet, rootIndices.get(bitIndex), splitters, handledNets, segments, splitter);
-              if (ret != null) return ret;
-            }
-          }
+      /* Here we have to process the inherited bits of the parent */
+      final var busBitConnection = ((Splitter) splitter).getEndpoints();
+      if (end == 0) {
+        /* this is a main net, find the connected end */
+        final var connectedEnd = busBitConnection[bitIndex];
+        /* Find the corresponding Net index */
+        Byte netIndex = 0;
+        for (var index = 0; index < bitIndex; index++) {
+          if (busBitConnection[index] == connectedEnd) netIndex++;
+        }
+        /* Find the connected Net */
+        final var slaveNet = findConnectedNet(ends.get(connectedEnd).getLocation());
+        if (slaveNet != null) {
+          final var ret = getHiddenSource(null, (byte) 0, slaveNet, netIndex, handledNets, segments, splitter);
+          if (ret != null) return ret;
+        }
+      } else {
+        final var rootIndices = new ArrayList<Byte>();
+        for (byte b = 0; b < busBitConnection.length; b++) {
+          if (busBitConnection[b] == end) rootIndices.add(b);
+        }
+        final var rootNet = findConnectedNet(splitter.getEnd(0).getLocation());
+        if (rootNet != null) {
+          final var ret = getHiddenSource(null, (byte) 0, rootNet, rootIndices.get(bitIndex), handledNets, segments, splitter);
+          if (ret != null) return ret;
         }
       }
     }
@@ -1451,58 +1477,43 @@ public class Netlist {
       Byte fannoutBitIndex,
       Net combinedNet,
       Byte combinedBitIndex,
-      List<Component> splitterList,
-      Set<String> handledNets,
+      Set<NetBit> handledNets,
       Component ignoreSplitter) {
     // If the fannout net not is null add it to the set of visited nets to prevent back-search on
     // this net
-    if (fannoutNet != null) {
-      final var netId = myNets.indexOf(fannoutNet) + "-" + fannoutBitIndex;
-      if (handledNets.contains(netId)) return false;
-      handledNets.add(netId);
-    }
+    if (fannoutNet != null && !handledNets.add(new NetBit(fannoutNet, fannoutBitIndex))) return false;
     // to prevent deadlock situations we check if we already looked at this net
-    final var netId = myNets.indexOf(combinedNet) + "-" + combinedBitIndex;
-    if (handledNets.contains(netId)) return false;
-    handledNets.add(netId);
+    if (!handledNets.add(new NetBit(combinedNet, combinedBitIndex))) return false;
     if (combinedNet.hasBitSource(combinedBitIndex)) return true;
     /* Check if we have a connection to another splitter */
-    for (var currentSplitter : splitterList) {
+    for (final var splitterEnd : getSplitterEnds(combinedNet)) {
+      final var currentSplitter = splitterEnd.splitter();
       if (currentSplitter.equals(ignoreSplitter)) continue;
+      final var end = splitterEnd.end();
       final var ends = currentSplitter.getEnds();
-      for (var end = 0; end < ends.size(); end++) {
-        if (combinedNet.contains(ends.get(end).getLocation())) {
-          /* Here we have to process the inherited bits of the parent */
-          final var busBitConnection = ((Splitter) currentSplitter).getEndpoints();
-          if (end == 0) {
-            // This is a main net, find the connected end.
-            var splitterEnd = busBitConnection[combinedBitIndex];
-            /* Find the corresponding Net index */
-            Byte netIndex = 0;
-            for (var index = 0; index < combinedBitIndex; index++) {
-              if (busBitConnection[index] == splitterEnd) netIndex++;
-            }
-            // Find the connected Net
-            Net slaveNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(ends.get(splitterEnd).getLocation())) slaveNet = thisnet;
-            }
-            if (slaveNet != null && hasHiddenSource(null, (byte) 0, slaveNet, netIndex, splitterList, handledNets, currentSplitter))
-              return true;
-          } else {
-            final var rootIndices = new ArrayList<Byte>();
-            for (byte b = 0; b < busBitConnection.length; b++) {
-              if (busBitConnection[b] == end) rootIndices.add(b);
-            }
-            Net rootNet = null;
-            for (final var thisnet : myNets) {
-              if (thisnet.contains(currentSplitter.getEnd(0).getLocation())) rootNet = thisnet;
-            }
-            if (rootNet != null
-                && hasHiddenSource(null, (byte) 0, rootNet, rootIndices.get(combinedBitIndex), splitterList, handledNets, currentSplitter)) {
-              return true;
-            }
-          }
+      /* Here we have to process the inherited bits of the parent */
+      final var busBitConnection = ((Splitter) currentSplitter).getEndpoints();
+      if (end == 0) {
+        // This is a main net, find the connected end.
+        final var connectedEnd = busBitConnection[combinedBitIndex];
+        /* Find the corresponding Net index */
+        Byte netIndex = 0;
+        for (var index = 0; index < combinedBitIndex; index++) {
+          if (busBitConnection[index] == connectedEnd) netIndex++;
+        }
+        // Find the connected Net
+        final var slaveNet = findConnectedNet(ends.get(connectedEnd).getLocation());
+        if (slaveNet != null && hasHiddenSource(null, (byte) 0, slaveNet, netIndex, handledNets, currentSplitter))
+          return true;
+      } else {
+        final var rootIndices = new ArrayList<Byte>();
+        for (byte b = 0; b < busBitConnection.length; b++) {
+          if (busBitConnection[b] == end) rootIndices.add(b);
+        }
+        final var rootNet = findConnectedNet(currentSplitter.getEnd(0).getLocation());
+        if (rootNet != null
+            && hasHiddenSource(null, (byte) 0, rootNet, rootIndices.get(combinedBitIndex), handledNets, currentSplitter)) {
+          return true;
         }
       }
     }
@@ -1623,8 +1634,8 @@ public class Netlist {
           for (ConnectionPoint sourceNet : sourceNets) {
             final var connectedNet = sourceNet.getParentNet();
             final byte bitIndex = sourceNet.getParentNetBitIndex();
-            if (hasHiddenSource(net, (byte) 0, connectedNet, bitIndex, mySplitters, new HashSet<>(), null)) {
-              final var source = getHiddenSource(net, (byte) 0, connectedNet, bitIndex, mySplitters, new HashSet<>(), segments, null);
+            if (hasHiddenSource(net, (byte) 0, connectedNet, bitIndex, new HashSet<>(), null)) {
+              final var source = getHiddenSource(net, (byte) 0, connectedNet, bitIndex, new HashSet<>(), segments, null);
               if (source == null) return true; // this should never happen
               final var comp = source.getSource().getComp();
               for (final var seg : segments) error.addMarkComponent(seg);
@@ -1661,7 +1672,7 @@ public class Netlist {
             final var sinks = thisNet.getBitSinks(i);
             hasSink |= !sinks.isEmpty();
             sinks.forEach(mySinks::remove);
-            final var hiddenSinkNets = getHiddenSinks(thisNet, (byte) i, mySplitters, new HashSet<>(), true);
+            final var hiddenSinkNets = getHiddenSinks(thisNet, (byte) i, new HashSet<>(), true);
             hasSink |= !hiddenSinkNets.isEmpty();
             hiddenSinkNets.forEach(mySinks::remove);
             if (!hasSink) {
@@ -1934,7 +1945,7 @@ public class Netlist {
   }
 
   public boolean traceClockNet(Net clockNet, byte clockNetBitIndex, int clockSourceId, boolean isPinSource, List<String> hierarchyNames, List<Netlist> hierarchyNetlists) {
-    final var hiddenComps = getHiddenSinks(clockNet, clockNetBitIndex, mySplitters, new HashSet<>(), false);
+    final var hiddenComps = getHiddenSinks(clockNet, clockNetBitIndex, new HashSet<>(), false);
     for (final var point : hiddenComps) {
       markClockNet(hierarchyNames, clockSourceId, point, isPinSource);
       if (point.getComp().getFactory() instanceof SubcircuitFactory)
@@ -2056,6 +2067,8 @@ public class Netlist {
       Set<netlistComponent> warnedComponents) {
     /* First pass: we go down the tree */
     for (final var subCirc : mySubCircuits) {
+      // the netlist may be reused from an earlier check, so we start afresh
+      subCirc.clearIsGatedInstance();
       final var sub = (SubcircuitFactory) subCirc.getComponent().getFactory();
       final var newHierarchyNames = new ArrayList<>(getCurrentHierarchyLevel());
       newHierarchyNames.add(
@@ -2187,7 +2200,7 @@ public class Netlist {
       if (connectedNet != null) {
         isGatedClock = true;
         final var segments = new HashSet<Wire>();
-        final var source = getHiddenSource(null, (byte) 0, connectedNet, connectedNetindex, mySplitters, new HashSet<>(), segments, null);
+        final var source = getHiddenSource(null, (byte) 0, connectedNet, connectedNetindex, new HashSet<>(), segments, null);
         hasSource = source != null;
         if (hasSource) {
           final var sourceCon = source.getSource();
@@ -2283,7 +2296,7 @@ public class Netlist {
         final var newNet = subNet.getParentNet();
         final var newNetIndex = subNet.getParentNetBitIndex();
         final var segments = new HashSet<Wire>();
-        final var source = subNetList.getHiddenSource(null, (byte) 0, newNet, newNetIndex, subNetList.mySplitters, new HashSet<>(), segments, null);
+        final var source = subNetList.getHiddenSource(null, (byte) 0, newNet, newNetIndex, new HashSet<>(), segments, null);
         if (source == null) {
           Reporter.report.addFatalErrorFmt(
               "BUG: Unable to find source in sub-circuit!\n ==> %s:%d\n",
@@ -2377,7 +2390,6 @@ public class Netlist {
                 (byte) 0,
                 newNet,
                 newNetIndex,
-                subNetList.mySplitters,
                 new HashSet<>(),
                 segments,
                 null);
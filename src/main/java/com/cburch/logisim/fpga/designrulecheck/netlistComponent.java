@@ -232,4 +232,8 @@ public class netlistComponent {
   public void setIsGatedInstance() {
     isGatedInstance = true;
   }
+
+  public void clearIsGatedInstance() {
+    isGatedInstance = false;
+  }
 }
@@ -0,0 +1,124 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.fpga.download;
+
+import static com.cburch.logisim.fpga.Strings.S;
+
+import com.cburch.logisim.fpga.designrulecheck.Netlist;
+import com.cburch.logisim.fpga.file.BoardReaderClass;
+import com.cburch.logisim.fpga.gui.Reporter;
+import com.cburch.logisim.prefs.AppPreferences;
+import com.cburch.logisim.proj.Project;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless export of one circuit to several boards in a single run.
+ *
+ * <p>All boards share the netlist of the circuit, such that the design rule check is only done
+ * once. The HDL, constraint and project files are written board by board, each into a project
+ * directory of its own. Unless only these files are requested, the vendor tools of all boards
+ * then run in parallel; nothing is downloaded to a board.
+ */
+public final class BatchExport {
+
+  private record Target(String boardName, String mapFileName) {}
+
+  private final Project project;
+  private final String circuitName;
+  private final double tickFrequency;
+  private final boolean generateHdlOnly;
+  private final List<Target> targets = new ArrayList<>();
+
+  public BatchExport(
+      Project project, String circuitName, double tickFrequency, boolean generateHdlOnly) {
+    this.project = project;
+    this.circuitName = circuitName;
+    this.tickFrequency = tickFrequency;
+    this.generateHdlOnly = generateHdlOnly;
+  }
+
+  /**
+   * Adds a board to export to.
+   *
+   * @param mapFileName map file with the IO mapping for this board, or null to use the mapping
+   *     stored in the project
+   */
+  public void addTarget(String boardName, String mapFileName) {
+    targets.add(new Target(boardName, mapFileName));
+  }
+
+  public boolean run() {
+    final var root = project.getLogisimFile().getCircuit(circuitName);
+    if (root == null) {
+      Reporter.report.addFatalError("Toplevel sheet \"" + circuitName + "\" not found in project!");
+      return false;
+    }
+    root.annotate(project, false, false);
+    // the netlists built here are reused by the checks of the individual boards
+    if (root.getNetList().designRuleCheckResult(true, new HashSet<>()) != Netlist.DRC_PASSED) {
+      return false;
+    }
+    var success = true;
+    final var downloads = new ArrayList<Download>();
+    final var boardNames = new ArrayList<String>();
+    for (final var target : targets) {
+      final var boardFile = AppPreferences.Boards.getBoardFilePath(target.boardName());
+      if (boardFile == null) {
+        Reporter.report.addFatalError(S.get("FpgaBatchUnknownBoard", target.boardName()));
+        success = false;
+        continue;
+      }
+      Reporter.report.addInfo(S.get("FpgaBatchTarget", target.boardName()));
+      final var download =
+          new Download(
+              project,
+              circuitName,
+              tickFrequency,
+              new BoardReaderClass(boardFile).getBoardInformation(),
+              target.mapFileName(),
+              generateHdlOnly);
+      if (download.prepareTty()) {
+        downloads.add(download);
+        boardNames.add(target.boardName());
+      } else {
+        Reporter.report.addFatalError(S.get("FpgaBatchFailed", target.boardName()));
+        success = false;
+      }
+    }
+    if (generateHdlOnly || downloads.isEmpty()) return success;
+
+    // The vendor tools run as separate processes on separate project directories, hence the
+    // boards do not depend on each other anymore.
+    Reporter.report.addInfo(S.get("FpgaBatchSynthesis", downloads.size()));
+    final var threads = Math.min(downloads.size(), Runtime.getRuntime().availableProcessors());
+    final var executor = Executors.newFixedThreadPool(threads);
+    try {
+      final var results = new ArrayList<Future<Boolean>>();
+      for (final var download : downloads) results.add(executor.submit(download::synthesizeTty));
+      for (var i = 0; i < results.size(); i++) {
+        if (!results.get(i).get()) {
+          Reporter.report.addFatalError(S.get("FpgaBatchFailed", boardNames.get(i)));
+          success = false;
+        }
+      }
+    } catch (InterruptedException | ExecutionException e) {
+      Reporter.report.addFatalError(e.getMessage());
+      return false;
+    } finally {
+      executor.shutdownNow();
+    }
+    return success;
+  }
+}
@@ -108,6 +108,31 @@ public class Download extends DownloadBase implements Runnable, BaseWindowListen
         preDivider);
   }
 
+  /**
+   * Creates a headless download into a project directory of its own for the given board, such
+   * that several boards can be targeted at once (see {@link BatchExport}).
+   */
+  public Download(
+      Project myProject,
+      String topLevelSheet,
+      double tickFrequency,
+      BoardInformation myBoardInformation,
+      String mapFileName,
+      boolean generateHdlOnly) {
+    boardSuffix = myBoardInformation.getBoardName();
+    setUpDownload(
+        myProject,
+        topLevelSheet,
+        tickFrequency,
+        myBoardInformation,
+        mapFileName,
+        false,
+        false,
+        generateHdlOnly,
+        1.0,
+        1.0);
+  }
+
   private void setUpDownload(
       Project myProject,
       String topLevelSheet,
@@ -219,7 +244,7 @@ public class Download extends DownloadBase implements Runnable, BaseWindowListen
   public void run() {
     if (prepareDownload() && isVendorSoftwarePresent() && !generateHdlOnly) {
       try {
-        var error = download();
+        var error = download(true);
         if (error != null) Reporter.report.addFatalError(error);
       } catch (IOException e) {
         Reporter.report.addFatalError(S.get("FPGAIOError", VendorSoftware.getVendorString(vendor)));
@@ -241,9 +266,27 @@ public class Download extends DownloadBase implements Runnable, BaseWindowListen
     }
     if (!prepareDownload()) return false;
     if (generateHdlOnly) return true;
+    return runVendorTools(true);
+  }
+
+  /**
+   * Writes the HDL, constraint and project files without any user interaction. The toplevel
+   * sheet must have been annotated before.
+   */
+  public boolean prepareTty() {
+    if (downloader == null) return false;
+    return prepareDownload();
+  }
+
+  /** Runs the synthesis stages of the vendor tools, without downloading to a board. */
+  public boolean synthesizeTty() {
+    return runVendorTools(false);
+  }
+
+  private boolean runVendorTools(boolean toBoard) {
     if (!isVendorSoftwarePresent()) return false;
     try {
-      var error = download();
+      var error = download(toBoard);
       if (error != null) {
         Reporter.report.addFatalError(error);
         return false;
@@ -259,8 +302,8 @@ public class Download extends DownloadBase implements Runnable, BaseWindowListen
     return true;
   }
 
-  private String download() throws IOException, InterruptedException {
-    Reporter.report.clearConsole();
+  private String download(boolean toBoard) throws IOException, InterruptedException {
+    if (toBoard) Reporter.report.clearConsole();
     if (!downloadOnly || !downloader.readyForDownload()) {
       for (var stages = 0; stages < downloader.getNumberOfStages(); stages++) {
         if (stopRequested) return S.get("FPGAInterrupted");
@@ -273,7 +316,7 @@ public class Download extends DownloadBase implements Runnable, BaseWindowListen
       }
     }
     if (useGui) progressBar.setValue(downloader.getNumberOfStages() + basicSteps - 1);
-    if (generateHdlOnly) return null;
+    if (generateHdlOnly || !toBoard) return null;
     if (stopRequested) return S.get("FPGAInterrupted");
     Object[] options = {S.get("FPGADownloadOk"), S.get("FPGADownloadCancel")};
     if (useGui)
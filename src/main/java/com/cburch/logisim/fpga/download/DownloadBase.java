@@ -37,6 +37,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 
 public abstract class DownloadBase {
@@ -46,6 +47,8 @@ public abstract class DownloadBase {
   protected MappableResourcesContainer myMappableResources;
   protected double preMultiplier = 1.0;
   protected double preDivider = 1.0;
+  // when set, the board name is added to the project directory name
+  protected String boardSuffix = null;
   static final String[] HDLPaths = {
     HdlGeneratorFactory.VERILOG.toLowerCase(),
     HdlGeneratorFactory.VHDL.toLowerCase(),
@@ -127,12 +130,11 @@ public abstract class DownloadBase {
 
   protected boolean performDrc(String circuitName, String HDLType) {
     final var root = myProject.getLogisimFile().getCircuit(circuitName);
-    final var sheetNames = new ArrayList<String>();
+    final var sheetNames = new HashSet<String>();
     var drcResult = Netlist.DRC_PASSED;
     if (root == null) {
       drcResult |= Netlist.DRC_ERROR;
     } else {
-      root.getNetList().clear();
       drcResult = root.getNetList().designRuleCheckResult(true, sheetNames);
     }
     return drcResult == Netlist.DRC_PASSED;
@@ -144,7 +146,9 @@ public abstract class DownloadBase {
     if (!projectDir.endsWith(File.separator)) {
       projectDir += File.separator;
     }
-    projectDir += CorrectLabel.getCorrectLabel(selectedCircuit) + File.separator;
+    projectDir += CorrectLabel.getCorrectLabel(selectedCircuit);
+    if (boardSuffix != null) projectDir += "_" + CorrectLabel.getCorrectLabel(boardSuffix);
+    projectDir += File.separator;
     return projectDir;
   }
 
@@ -162,8 +166,11 @@ public abstract class DownloadBase {
       return false;
     }
     final var projectDir = getProjDir(selectedCircuit);
-    final var rootSheet = myProject.getLogisimFile().getCircuit(selectedCircuit);
-    if (!cleanDirectory(projectDir)) {
+    // the HDL sources of a previous export are kept, such that unchanged files are not rewritten
+    final var sourceDirs =
+        List.of(
+            projectDir + HDLPaths[VERILOG_SOURCE_PATH], projectDir + HDLPaths[VHDL_SOURCE_PATH]);
+    if (!cleanDirectory(projectDir, sourceDirs)) {
       Reporter.report.addFatalError(
           "Unable to cleanup old project files in directory: \"" + projectDir + "\"");
       return false;
@@ -179,7 +186,13 @@ public abstract class DownloadBase {
         return false;
       }
     }
+    try (final var export = FileWriter.startIncrementalExport(sourceDirs)) {
+      return writeHDLFiles(selectedCircuit, projectDir, frequency) && export.finish();
+    }
+  }
 
+  private boolean writeHDLFiles(String selectedCircuit, String projectDir, Double frequency) {
+    final var rootSheet = myProject.getLogisimFile().getCircuit(selectedCircuit);
     final var generatedHDLComponents = new HashSet<String>();
     var worker = rootSheet.getSubcircuitFactory().getHDLGenerator(rootSheet.getStaticAttributes());
     if (worker == null) {
@@ -373,6 +386,22 @@ public abstract class DownloadBase {
     return base + HDLPaths[identifier] + File.separator;
   }
 
+  private boolean cleanDirectory(String dir, List<String> keep) {
+    final var keptDirs = new HashSet<File>();
+    for (final var kept : keep) keptDirs.add(new File(kept).getAbsoluteFile());
+    final var contents = new File(dir).listFiles();
+    if (contents == null) return true;
+    for (final var file : contents) {
+      if (keptDirs.contains(file.getAbsoluteFile())) continue;
+      if (file.isDirectory()) {
+        if (!cleanDirectory(file.getPath())) return false;
+      } else if (!file.delete()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private boolean cleanDirectory(String dir) {
     try {
       final var thisDir = new File(dir);
@@ -14,16 +14,108 @@ import static com.cburch.logisim.fpga.Strings.S;
 import com.cburch.logisim.fpga.gui.Reporter;
 import com.cburch.logisim.fpga.hdlgenerator.Hdl;
 import com.cburch.logisim.generated.BuildInfo;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class FileWriter {
 
   public static final String ENTITY_EXTENSION = "_entity";
   public static final String ARCHITECTURE_EXTENSION = "_behavior";
 
+  /**
+   * An HDL export that keeps the files of a previous export which are still present in its
+   * directories, and only rewrites them when their contents change, such that the incremental
+   * builds of the vendor tools stay effective. It is active from its start until it is closed;
+   * the HDL files written into its directories meanwhile are tracked by it.
+   */
+  public static final class IncrementalExport implements AutoCloseable {
+    private final List<File> directories = new ArrayList<>();
+    // the HDL files of the previous export, and the ones this export produced so far
+    private final Set<File> previousFiles = new HashSet<>();
+    private final Set<File> exportedFiles = new HashSet<>();
+
+    private IncrementalExport(Collection<String> directories) {
+      for (final var directory : directories) {
+        final var dir = new File(directory).getAbsoluteFile();
+        this.directories.add(dir);
+        collectFiles(dir, previousFiles);
+      }
+    }
+
+    private boolean contains(File file) {
+      for (var dir = file.getParentFile(); dir != null; dir = dir.getParentFile()) {
+        if (directories.contains(dir)) return true;
+      }
+      return false;
+    }
+
+    /** Registers a file to be written, unless this export already wrote it or did not expect it. */
+    private synchronized boolean claim(File file) {
+      if (exportedFiles.contains(file) || (file.exists() && !previousFiles.contains(file))) {
+        return false;
+      }
+      exportedFiles.add(file);
+      return true;
+    }
+
+    /** Removes the files of the previous export that this export did not produce. */
+    public synchronized boolean finish() {
+      var result = true;
+      for (final var file : previousFiles) {
+        if (!exportedFiles.contains(file) && !file.delete()) {
+          Reporter.report.addFatalError(S.fmt("fileUnableToDelete", file.getPath()));
+          result = false;
+        }
+      }
+      previousFiles.clear();
+      return result;
+    }
+
+    @Override
+    public void close() {
+      activeExports.remove(this);
+    }
+  }
+
+  private static final List<IncrementalExport> activeExports = new CopyOnWriteArrayList<>();
+
+  /**
+   * Starts an incremental HDL export into the given directories. The caller has to close it once
+   * done, after calling {@link IncrementalExport#finish()} if the export succeeded.
+   */
+  public static IncrementalExport startIncrementalExport(Collection<String> directories) {
+    final var export = new IncrementalExport(directories);
+    activeExports.add(export);
+    return export;
+  }
+
+  private static IncrementalExport getIncrementalExport(File file) {
+    for (final var export : activeExports) {
+      if (export.contains(file)) return export;
+    }
+    return null;
+  }
+
+  private static void collectFiles(File directory, Set<File> files) {
+    final var contents = directory.listFiles();
+    if (contents == null) return;
+    for (final var file : contents) {
+      if (file.isDirectory()) collectFiles(file, files);
+      else files.add(file.getAbsoluteFile());
+    }
+  }
+
   public static File getFilePointer(
       String targetDirectory, String componentName, boolean isEntity) {
     final var fileName = new StringBuilder();
@@ -40,9 +132,10 @@ public class FileWriter {
       if (isEntity && Hdl.isVhdl()) fileName.append(ENTITY_EXTENSION);
       if (!isEntity && Hdl.isVhdl()) fileName.append(ARCHITECTURE_EXTENSION);
       fileName.append(Hdl.isVhdl() ? ".vhd" : ".v");
-      final var outFile = new File(fileName.toString());
+      final var outFile = new File(fileName.toString()).getAbsoluteFile();
       Reporter.report.addInfo(S.fmt("fileCreateHDLFile", fileName.toString()));
-      if (outFile.exists()) {
+      final var export = getIncrementalExport(outFile);
+      if (export == null ? outFile.exists() : !export.claim(outFile)) {
         Reporter.report.addWarning(S.fmt("fileHDLFileExists", fileName.toString()));
         return null;
       }
@@ -133,14 +226,43 @@ public class FileWriter {
     return lines;
   }
 
+  /**
+   * Writes the given contents to the file, unless the file already holds exactly these contents.
+   * An unchanged file thus keeps its time stamp.
+   */
+  public static boolean writeContentsIfChanged(File outfile, List<String> contents) {
+    final var bytes = new ByteArrayOutputStream();
+    for (final var thisLine : contents) {
+      bytes.writeBytes(thisLine.getBytes(StandardCharsets.UTF_8));
+      bytes.write('\n');
+    }
+    final var newContents = bytes.toByteArray();
+    try {
+      if (outfile.length() == newContents.length
+          && Arrays.equals(Files.readAllBytes(outfile.toPath()), newContents)) {
+        Reporter.report.addInfo(S.fmt("fileHDLFileUnchanged", outfile.getPath()));
+        return true;
+      }
+    } catch (IOException e) {
+      // the file does not exist or cannot be read, so we simply (re)write it
+    }
+    try (final var output = new FileOutputStream(outfile)) {
+      output.write(newContents);
+      return true;
+    } catch (Exception e) {
+      Reporter.report.addFatalError(S.fmt("fileUnableToWrite", outfile.getAbsolutePath()));
+      return false;
+    }
+  }
+
   public static boolean writeContents(File outfile, List<String> contents) {
     try {
       final var output = new FileOutputStream(outfile);
       for (var thisLine : contents) {
         if (!thisLine.isEmpty()) {
-          output.write(thisLine.getBytes());
+          output.write(thisLine.getBytes(StandardCharsets.UTF_8));
         }
-        output.write("\n".getBytes());
+        output.write("\n".getBytes(StandardCharsets.UTF_8));
       }
       output.flush();
       output.close();
@@ -11,7 +11,7 @@ package com.cburch.logisim.fpga.gui;
 
 import static com.cburch.logisim.fpga.Strings.S;
 
-import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.util.GraphicsUtil;
 import java.awt.BasicStroke;
@@ -91,7 +91,7 @@ public class BoardPainter {
     g.setFont(AppPreferences.getScaledFont(g.getFont().deriveFont(Font.BOLD), scale));
     g.setColor(Color.BLUE);
     g.drawString(txt, xpos + height + (height >> 2), ypos + ydif2);
-    g.setColor(value == 0 ? Value.falseColor : value == 1 ? Value.trueColor : Value.unknownColor);
+    g.setColor(value == 0 ? ValueColors.falseColor : value == 1 ? ValueColors.trueColor : ValueColors.unknownColor);
     g.fillOval(
         xpos + (height >> 3), ypos + (height >> 3), height - (height >> 2), height - (height >> 2));
     g.setColor(Color.WHITE);
@@ -132,7 +132,8 @@ public class FpgaClockPanel extends JPanel implements ActionListener, LocaleList
   }
 
   private void setSelectedFrequency(double freq) {
-    if (freq <= 0) return;
+    // ignores unset frequencies, and the unlimited one of the simulator, which has no divider
+    if (freq <= 0 || !Double.isFinite(freq)) return;
     if (rootSheet != null) {
       final var savedDownloadFrequency = rootSheet.getDownloadFrequency();
       final var savedSimFrequency = rootSheet.getTickFrequency();
@@ -421,7 +421,7 @@ public class Hdl {
     }
     final var outFile = FileWriter.getFilePointer(targetDirectory, componentName, true);
     if (outFile == null) return false;
-    return FileWriter.writeContents(outFile, contents);
+    return FileWriter.writeContentsIfChanged(outFile, contents);
   }
 
   public static boolean writeArchitecture(String targetDirectory, List<String> contents, String componentName) {
@@ -432,7 +432,7 @@ public class Hdl {
     }
     final var outFile = FileWriter.getFilePointer(targetDirectory, componentName, false);
     if (outFile == null)  return false;
-    return FileWriter.writeContents(outFile, contents);
+    return FileWriter.writeContentsIfChanged(outFile, contents);
   }
 
   public static Map<String, String> getNetMap(String sourceName, boolean floatingPinTiedToGround,
@@ -13,6 +13,7 @@ import static com.cburch.logisim.gui.Strings.S;
 
 import com.cburch.logisim.gui.log.Model;
 import com.cburch.logisim.gui.log.Signal;
+import com.cburch.logisim.gui.log.SignalSummary;
 import com.cburch.logisim.prefs.AppPreferences;
 import java.awt.BasicStroke;
 import java.awt.Color;
@@ -434,26 +435,51 @@ public class RightPanel extends JPanel {
       var prevLo = false;
       Color prevFill = null;
       while (cur.value != null) {
-        final var v = cur.getFormattedValue();
         final var x0 = (int) (z * (cur.time - t0));
         final var x1 = (int) (z * (cur.time + cur.duration - t0));
 
+        if (x1 == x0) {
+          // Several values share pixel column x0: summarize all of them in a single busy column,
+          // then go on with what remains of the last one after that column.
+          final var tNext = t0 + (long) Math.ceil((x0 + 1) / z);
+          final var last = signal.getPosition(tNext - 1);
+          if (last > cur.position) {
+            final var kinds = signal.getKinds(cur.position, last + 1);
+            if ((kinds & SignalSummary.ERROR) != 0) {
+              prevFill = colors[3];
+              g.setColor(colors[4]);
+            } else if ((kinds & SignalSummary.UNKNOWN) != 0) {
+              prevFill = colors[5];
+              g.setColor(colors[6]);
+            } else {
+              prevFill = colors[1];
+              g.setColor(colors[2]);
+            }
+            g.drawLine(x0, HIGH, x0, LOW);
+            prevHi = (kinds & ~SignalSummary.LOW) != 0;
+            prevLo = (kinds & ~SignalSummary.HIGH) != 0;
+            if (!cur.advanceTo(last) || !cur.advance(tNext - cur.time)) break;
+            continue;
+          }
+        }
+
         var hi = true;
         var lo = true;
         Color lineColor;
         Color fillColor;
 
-        if (v.contains("E")) {
+        final var kind = SignalSummary.kindOf(cur.value);
+        if (kind == SignalSummary.ERROR) {
           fillColor = colors[3];
           lineColor = colors[4];
-        } else if (v.contains("x")) {
+        } else if (kind == SignalSummary.UNKNOWN) {
           fillColor = colors[5];
           lineColor = colors[6];
-        } else if (v.equals(min)) {
+        } else if (kind == SignalSummary.LOW) {
           hi = false;
           fillColor = colors[1];
           lineColor = colors[2];
-        } else if (v.equals(max)) {
+        } else if (kind == SignalSummary.HIGH) {
           lo = false;
           fillColor = colors[1];
           lineColor = colors[2];
@@ -565,7 +591,7 @@ public class RightPanel extends JPanel {
         }
         if (x1 - x0 > labelWidth) {
           g.setColor(Color.BLACK);
-          g.drawString(v, x0 + 6, MID + 5);
+          g.drawString(cur.getFormattedValue(), x0 + 6, MID + 5);
         }
 
         prevHi = hi;
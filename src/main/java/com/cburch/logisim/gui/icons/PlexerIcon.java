@@ -9,7 +9,7 @@
 
 package com.cburch.logisim.gui.icons;
 
-import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import java.awt.BasicStroke;
 import java.awt.Graphics2D;
 
@@ -41,7 +41,7 @@ public class PlexerIcon extends BaseIcon {
     /* draw output */
     xOffset = inverted ? scale(xpos[0] - 1) : scale(xpos[2] - 1);
     var yOffset = scale(ypos[3] + 1);
-    g2.setColor(Value.trueColor);
+    g2.setColor(ValueColors.trueColor);
     g2.fillOval(xOffset, yOffset, scale(3), scale(3));
     xOffset = inverted ? scale(xpos[2] - 1) : scale(xpos[0] - 1);
     if (singleInput) {
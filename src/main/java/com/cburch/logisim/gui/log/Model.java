@@ -25,6 +25,7 @@ import com.cburch.logisim.util.EventSourceWeakSupport;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 
@@ -76,6 +77,8 @@ public class Model implements CircuitListener, SignalInfo.Listener {
   final CircuitState circuitState;
   private final ArrayList<SignalInfo> info = new ArrayList<>();
   private final ArrayList<Signal> signals = new ArrayList<>();
+  // the circuits whose instances hold logged signals
+  private final HashSet<Circuit> loggedCircuits = new HashSet<>();
   private long timeEnd = -1; // signals go from 0 <= t < tEnd
   private Signal spotlight;
   private SignalInfo clockSource;
@@ -490,9 +493,24 @@ public class Model implements CircuitListener, SignalInfo.Listener {
   }
 
   void fireSelectionChanged(Event e) {
+    updateLoggedCircuits();
     for (final var l : listeners) l.selectionChanged(e);
   }
 
+  // Tells the circuits that hold logged signals, so that their instances are always simulated.
+  private void updateLoggedCircuits() {
+    final var circuits = new HashSet<Circuit>();
+    for (final var item : info) circuits.addAll(item.getSubcircuits());
+    for (final var circ : loggedCircuits) {
+      if (!circuits.contains(circ)) circ.setLogged(this, false);
+    }
+    for (final var circ : circuits) {
+      if (!loggedCircuits.contains(circ)) circ.setLogged(this, true);
+    }
+    loggedCircuits.clear();
+    loggedCircuits.addAll(circuits);
+  }
+
   public CircuitState getCircuitState() {
     return circuitState;
   }
@@ -32,6 +32,7 @@ public class Signal {
   private int curSize;
   private int maxSize; // limit, or zero for unlimited
   private short firstIndex; // for wrapping, only when limited
+  private SignalSummary summary = new SignalSummary(); // start time and kind of each value
 
   public Signal(
       int idx, SignalInfo info, Value initialValue, long duration, long timeStart, int maxSize) {
@@ -51,12 +52,37 @@ public class Signal {
   }
 
   public long getEndTime() {
-    var t = timeStart;
-    for (var p = 0; p < curSize; p++) {
-      var i = (firstIndex + p) % curSize;
-      t += dur[i / CHUNK][i % CHUNK];
+    if (curSize == 0) return timeStart;
+    final var i = slot(curSize - 1);
+    return summary.getStart(i) + dur[i / CHUNK][i % CHUNK];
+  }
+
+  private int slot(int position) {
+    return (firstIndex + position) % curSize;
+  }
+
+  /**
+   * Returns the position of the last value that starts at or before time t, or the first position
+   * if there is none.
+   */
+  public int getPosition(long t) {
+    var lo = 0;
+    var hi = curSize - 1;
+    while (lo < hi) {
+      final var mid = (lo + hi + 1) >>> 1;
+      if (summary.getStart(slot(mid)) <= t) lo = mid;
+      else hi = mid - 1;
     }
-    return t;
+    return lo;
+  }
+
+  /** Returns the union of the {@link SignalSummary} kinds of the values at positions [from, to). */
+  public int getKinds(int from, int to) {
+    if (from >= to) return 0;
+    final var i = slot(from);
+    final var n = to - from;
+    if (i + n <= curSize) return summary.getKinds(i, i + n);
+    return summary.getKinds(i, curSize) | summary.getKinds(0, i + n - curSize);
   }
 
   public void extend(long duration) {
@@ -78,6 +104,7 @@ public class Signal {
       dur[i / CHUNK][i % CHUNK] += duration;
       return;
     }
+    final var start = curSize == 0 ? timeStart : getEndTime();
     last = v;
     final var c = val.length;
     final var cap = CHUNK * (c - 1) + val[c - 1].length;
@@ -85,6 +112,7 @@ public class Signal {
       // fits in an existing chunk
       val[curSize / CHUNK][curSize % CHUNK] = v;
       dur[curSize / CHUNK][curSize % CHUNK] = duration;
+      summary.set(curSize, start, v);
       curSize++;
     } else if (curSize < maxSize || maxSize <= 0) {
       // allocate another chunk
@@ -92,18 +120,20 @@ public class Signal {
       final var dur2 = new long[c + 1][];
       System.arraycopy(val, 0, val2, 0, c);
       System.arraycopy(dur, 0, dur2, 0, c);
-      val2[c + 1] = new Value[maxSize == 0 || (maxSize - cap) > CHUNK ? CHUNK : (maxSize - cap)];
-      dur2[c + 1] = new long[maxSize == 0 || (maxSize - cap) > CHUNK ? CHUNK : (maxSize - cap)];
+      val2[c] = new Value[maxSize == 0 || (maxSize - cap) > CHUNK ? CHUNK : (maxSize - cap)];
+      dur2[c] = new long[maxSize == 0 || (maxSize - cap) > CHUNK ? CHUNK : (maxSize - cap)];
       val = val2;
       dur = dur2;
       val[curSize / CHUNK][curSize % CHUNK] = v;
       dur[curSize / CHUNK][curSize % CHUNK] = duration;
+      summary.set(curSize, start, v);
       curSize++;
     } else {
       // limited size is filled, wrap around, and adjust start offset
       timeStart += dur[firstIndex / CHUNK][firstIndex % CHUNK];
       val[firstIndex / CHUNK][firstIndex % CHUNK] = v;
       dur[firstIndex / CHUNK][firstIndex % CHUNK] = duration;
+      summary.set(firstIndex, start, v);
       firstIndex++;
       if (firstIndex >= maxSize) firstIndex = 0;
     }
@@ -115,6 +145,7 @@ public class Signal {
     final var i = (firstIndex + curSize - 1) % curSize;
     if (dur[i / CHUNK][i % CHUNK] == duration) {
       val[i / CHUNK][i % CHUNK] = v;
+      summary.set(i, summary.getStart(i), v);
       last = v;
       final var j = (i + curSize - 1) % curSize;
       if (curSize > 1 && val[j / CHUNK][j % CHUNK].equals(v)) {
@@ -138,6 +169,7 @@ public class Signal {
       timeStart -= (duration - dur[i / CHUNK][i % CHUNK]);
       val[i / CHUNK][i % CHUNK] = v;
       dur[i / CHUNK][i % CHUNK] = duration;
+      summary.set(i, timeStart, v);
       last = v;
     } else {
       throw new IllegalStateException(
@@ -157,6 +189,7 @@ public class Signal {
     final var last = cap == 0 ? CHUNK : Math.min(CHUNK, cap - (c - 1) * CHUNK);
     final var v = new Value[c][];
     final var d = new long[c][];
+    final var s = new SignalSummary();
     for (var i = 0; i < c; i++) {
       v[i] = new Value[i < c - 1 ? CHUNK : last];
       d[i] = new long[i < c - 1 ? CHUNK : last];
@@ -165,9 +198,11 @@ public class Signal {
       int i = (firstIndex + offset + p) % curSize;
       v[p / CHUNK][p % CHUNK] = val[i / CHUNK][i % CHUNK];
       d[p / CHUNK][p % CHUNK] = dur[i / CHUNK][i % CHUNK];
+      s.set(p, summary.getStart(i), val[i / CHUNK][i % CHUNK]);
     }
     val = v;
     dur = d;
+    summary = s;
     firstIndex = 0;
     curSize = amt;
   }
@@ -176,7 +211,8 @@ public class Signal {
     if (newMaxSize == maxSize) return;
     if (newMaxSize == 0 || newMaxSize > maxSize) {
       // growing
-      if (firstIndex != 0) retainOnly(0, curSize, newMaxSize); // keeps all data, but shifts it left
+      // keeps all data, but shifts it left, and lets a short last chunk grow to a full one
+      if (firstIndex != 0 || val[val.length - 1].length < CHUNK) retainOnly(0, curSize, newMaxSize);
     } else {
       // shrinking: newMaxSize < maxSize
       if (curSize <= newMaxSize) {
@@ -212,7 +248,7 @@ public class Signal {
         }
       } else { // curSize > newMaxSize
         // too much data, keep only most recent data and shift it left
-        final var discard = (maxSize - newMaxSize);
+        final var discard = curSize - newMaxSize;
         for (var p = 0; p < discard; p++) {
           final var i = (firstIndex + p) % curSize;
           timeStart += dur[i / CHUNK][i % CHUNK];
@@ -246,12 +282,7 @@ public class Signal {
     public Value value;
 
     public Iterator() {
-      position = 0;
-      time = timeStart;
-      final var i = firstIndex;
-      final var width = info.getWidth();
-      value = val[i / CHUNK][i % CHUNK].extendWidth(width, Value.FALSE);
-      duration = dur[i / CHUNK][i % CHUNK];
+      seek(0);
     }
 
     public Iterator(long t) {
@@ -263,27 +294,41 @@ public class Signal {
       return value == null ? "-" : info.format(value);
     }
 
-    public boolean advance() {
-      if (position == curSize - 1) {
-        value = null;
-        duration = 0;
-        return false;
-      }
-      position++;
-      time += duration;
-      final var i = (firstIndex + position) % curSize;
-      final var width = info.getWidth();
-      value = val[i / CHUNK][i % CHUNK].extendWidth(width, Value.FALSE);
+    private void seek(int p) {
+      position = p;
+      final var i = slot(p);
+      time = summary.getStart(i);
+      value = val[i / CHUNK][i % CHUNK].extendWidth(info.getWidth(), Value.FALSE);
       duration = dur[i / CHUNK][i % CHUNK];
+    }
+
+    private boolean end() {
+      position = curSize - 1;
+      value = null;
+      duration = 0;
+      return false;
+    }
+
+    public boolean advance() {
+      if (position >= curSize - 1) return end();
+      seek(position + 1);
       return true;
     }
 
+    /** Moves to the value at position p, skipping all the values in between. */
+    public boolean advanceTo(int p) {
+      if (p >= curSize) return end();
+      if (p > position) seek(p);
+      return value != null;
+    }
+
     public boolean advance(long timeFwd) {
       if (value == null) return false;
       if (timeFwd <= 0) return true;
       final var t = time + timeFwd;
-      while (t >= time + duration) {
-        if (!advance()) return false;
+      if (t >= time + duration) {
+        if (t >= getEndTime()) return end();
+        seek(getPosition(t));
       }
       // postcondition: t < time + duration
       //                t - time < duration
@@ -293,18 +338,10 @@ public class Signal {
     }
   }
 
-  // TODO: easily optimized
   public Value getValue(long t) { // always current width, even when width changes
-    if (t < timeStart) return null;
-    final var width = info.getWidth();
-    var tt = timeStart;
-    for (int p = 0; p < curSize; p++) {
-      final var i = (firstIndex + p) % curSize;
-      final var d = dur[i / CHUNK][i % CHUNK];
-      if (t < tt + d) return val[i / CHUNK][i % CHUNK].extendWidth(width, Value.FALSE);
-      tt += d;
-    }
-    return null;
+    if (t < timeStart || t >= getEndTime()) return null;
+    final var i = slot(getPosition(t));
+    return val[i / CHUNK][i % CHUNK].extendWidth(info.getWidth(), Value.FALSE);
   }
 
   public String getFormattedValue(long t) {
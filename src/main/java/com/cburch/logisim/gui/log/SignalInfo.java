@@ -30,6 +30,7 @@ import java.awt.datatransfer.Transferable;
 import java.awt.datatransfer.UnsupportedFlavorException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Objects;
 import javax.swing.Icon;
 
@@ -254,6 +255,11 @@ public class SignalInfo implements AttributeListener, CircuitListener, Location.
     return circ[0];
   }
 
+  /** Returns the circuits of the subcircuits along the path, outermost first. */
+  public Collection<Circuit> getSubcircuits() {
+    return Arrays.asList(circ).subList(1, n);
+  }
+
   public int getDepth() {
     return n;
   }
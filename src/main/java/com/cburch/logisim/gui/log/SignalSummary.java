@@ -0,0 +1,78 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.gui.log;
+
+import com.cburch.logisim.data.Value;
+import java.util.Arrays;
+
+/**
+ * Start time and kind of each value stored by a {@link Signal}, indexed by storage slot. The kinds
+ * are kept in a tree of unions, so that the chronogram can tell in logarithmic time which kinds of
+ * values occur in a range of slots, e.g. all the values that fall within one pixel.
+ */
+public final class SignalSummary {
+
+  // kinds of values, a single one per value, or a union of them for a range of values
+  public static final int LOW = 1; // all bits zero
+  public static final int HIGH = 2; // all bits one
+  public static final int OTHER = 4; // any other fully defined value
+  public static final int UNKNOWN = 8; // some bits floating
+  public static final int ERROR = 16; // some bits in conflict
+
+  private int size = 1; // number of leaves, always a power of two
+  private long[] starts = new long[1];
+  // kinds[size + i] is the kind of slot i, kinds[n] = kinds[2 * n] | kinds[2 * n + 1]
+  private byte[] kinds = new byte[2];
+
+  public static int kindOf(Value v) {
+    if (v.isErrorValue()) return ERROR;
+    if (v.getWidth() > 0 && !v.isFullyDefined()) return UNKNOWN;
+    final var bits = v.toLongValue();
+    if (bits == 0) return LOW;
+    final var width = v.getWidth();
+    final var mask = width >= 64 ? -1L : (1L << width) - 1;
+    return (bits & mask) == mask ? HIGH : OTHER;
+  }
+
+  void set(int slot, long start, Value v) {
+    if (slot >= size) grow(slot + 1);
+    starts[slot] = start;
+    var n = size + slot;
+    kinds[n] = (byte) kindOf(v);
+    for (n >>= 1; n > 0; n >>= 1) kinds[n] = (byte) (kinds[2 * n] | kinds[2 * n + 1]);
+  }
+
+  long getStart(int slot) {
+    return starts[slot];
+  }
+
+  /** Returns the union of the kinds of slots [from, to). */
+  int getKinds(int from, int to) {
+    var k = 0;
+    for (int l = from + size, r = to + size; l < r; l >>= 1, r >>= 1) {
+      if ((l & 1) != 0) k |= kinds[l++];
+      if ((r & 1) != 0) k |= kinds[--r];
+    }
+    return k;
+  }
+
+  private void grow(int minSize) {
+    var newSize = size;
+    while (newSize < minSize) newSize <<= 1;
+    final var newKinds = new byte[2 * newSize];
+    System.arraycopy(kinds, size, newKinds, newSize, size);
+    for (var n = newSize - 1; n > 0; n--) {
+      newKinds[n] = (byte) (newKinds[2 * n] | newKinds[2 * n + 1]);
+    }
+    starts = Arrays.copyOf(starts, newSize);
+    kinds = newKinds;
+    size = newSize;
+  }
+}
@@ -27,7 +27,7 @@ import com.cburch.logisim.data.AttributeListener;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Location;
-import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.file.LibraryEvent;
 import com.cburch.logisim.file.LibraryListener;
 import com.cburch.logisim.file.LogisimFile;
@@ -176,7 +176,7 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
         sz.height - ZOOM_BUTTON_SIZE - 30,
         ZOOM_BUTTON_SIZE,
         ZOOM_BUTTON_SIZE);
-    g.setColor(Value.unknownColor);
+    g.setColor(ValueColors.unknownColor);
     GraphicsUtil.switchToWidth(g, 3);
     int width = sz.width - ZOOM_BUTTON_MARGIN;
     int height = sz.height - ZOOM_BUTTON_MARGIN;
@@ -1228,7 +1228,7 @@ public class Canvas extends JPanel implements LocaleListener, CanvasPaneContents
       final var sz = getSize();
 
       if (widthMessage != null) {
-        g.setColor(Value.widthErrorColor);
+        g.setColor(ValueColors.widthErrorColor);
         msgY = paintString(g, msgY, widthMessage);
       } else g.setColor(TICK_RATE_COLOR);
 
@@ -13,7 +13,7 @@ import com.cburch.logisim.circuit.Circuit;
 import com.cburch.logisim.circuit.WireSet;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.comp.ComponentDrawContext;
-import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.gui.generic.GridPainter;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.proj.Project;
@@ -79,10 +79,10 @@ class CanvasPainter implements PropertyChangeListener {
         }
         GraphicsUtil.switchToWidth(g, 2);
         if (common != null && !w.equals(common)) {
-          g.setColor(Value.widthErrorHighlightColor);
+          g.setColor(ValueColors.widthErrorHighlightColor);
           g.drawOval(p.getX() - 5, p.getY() - 5, 10, 10);
         }
-        g.setColor(Value.widthErrorColor);
+        g.setColor(ValueColors.widthErrorColor);
         g.drawOval(p.getX() - 4, p.getY() - 4, 8, 8);
         GraphicsUtil.switchToWidth(g, 3);
         GraphicsUtil.outlineText(
@@ -90,10 +90,10 @@ class CanvasPainter implements PropertyChangeListener {
             caption.toString(),
             p.getX() + 4,
             p.getY() + 1 + fm.getAscent(),
-            Value.widthErrorCaptionColor,
+            ValueColors.widthErrorCaptionColor,
             common != null && !w.equals(common)
-                ? Value.widthErrorHighlightColor
-                : Value.widthErrorCaptionBgcolor);
+                ? ValueColors.widthErrorHighlightColor
+                : ValueColors.widthErrorCaptionBgcolor);
       }
     }
     g.setColor(Color.BLACK);
@@ -69,6 +69,7 @@ import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.JTabbedPane;
+import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -124,6 +125,17 @@ public class Frame extends LFrame.MainWindow implements LocaleListener {
     project.addProjectListener(myProjectListener);
     project.addLibraryListener(myProjectListener);
     project.addCircuitListener(myProjectListener);
+    project
+        .getSimulator()
+        .setMessageListener(
+            (title, message, isError) ->
+                SwingUtilities.invokeLater(
+                    () ->
+                        OptionPane.showMessageDialog(
+                            this,
+                            message,
+                            title,
+                            isError ? OptionPane.ERROR_MESSAGE : OptionPane.INFORMATION_MESSAGE)));
 
     // set up elements for the Layout view
     layoutToolbarModel = new LayoutToolbarModel(this, project);
@@ -545,7 +557,9 @@ public class Frame extends LFrame.MainWindow implements LocaleListener {
   }
 
   public void savePreferences() {
-    AppPreferences.TICK_FREQUENCY.set(project.getSimulator().getTickFrequency());
+    final var tickFrequency = project.getSimulator().getTickFrequency();
+    // the unlimited frequency only lasts for the session
+    if (Double.isFinite(tickFrequency)) AppPreferences.TICK_FREQUENCY.set(tickFrequency);
     AppPreferences.LAYOUT_SHOW_GRID.setBoolean(layoutZoomModel.getShowGrid());
     AppPreferences.LAYOUT_ZOOM.set(layoutZoomModel.getZoomFactor());
     if (appearance != null) {
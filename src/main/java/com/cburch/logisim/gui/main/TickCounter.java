@@ -19,7 +19,9 @@ import java.text.DecimalFormat;
 public class TickCounter implements Simulator.Listener {
   private final DecimalFormat formatter;
   private Simulator simulator;
-  private long tickCount = 0;
+  // the tick count of the simulator at startTime; ticks are counted by the simulator itself, as
+  // it may do several of them for a single propagationCompleted event
+  private long baseTickCount = 0;
   private long startTime;
   private boolean useKiloHertz = false;
   private double previousFrequency = 0.0;
@@ -38,12 +40,14 @@ public class TickCounter implements Simulator.Listener {
   public void clear() {
     // If we know the requested frequency, let's initialize the counts to this frequency.
     // It provides a nicer effect at low frequencies, and doesn't hurt at high frequencies.
-    if (simulator != null) {
+    if (simulator != null && !Double.isInfinite(simulator.getTickFrequency())) {
       final var tickPeriodNanoseconds = NANOSECONDS_PER_SECONDS / simulator.getTickFrequency();
-      tickCount = 12; // We'll set the frequency as if it happened during 12 ticks already.
-      startTime = System.nanoTime() - (long) (tickCount * tickPeriodNanoseconds);
+      final var initialTicks = 12; // We'll set the frequency as if it happened during 12 ticks already.
+      baseTickCount = simulator.getTickCount() - initialTicks;
+      startTime = System.nanoTime() - (long) (initialTicks * tickPeriodNanoseconds);
     } else {
-      tickCount = 0;
+      // At the unlimited tick frequency, we only show the frequency that is actually reached.
+      baseTickCount = simulator == null ? 0 : simulator.getTickCount();
       startTime = System.nanoTime();
     }
   }
@@ -70,6 +74,7 @@ public class TickCounter implements Simulator.Listener {
     }
 
     // If we didn't have any ticks we can't compute a frequency.
+    final var tickCount = simulator.getTickCount() - baseTickCount;
     if (tickCount < 1) {
       return "";
     }
@@ -86,7 +91,7 @@ public class TickCounter implements Simulator.Listener {
 
     // If we accumulated a lot of ticks then lets reduce the weight of the past.
     if (tickCount > TICKS_THRESHOLD_BEFORE_HISTORY_WEIGHT_REDUCTION) {
-      tickCount -= WEIGHT_REDUCTION_TICKS_COUNT;
+      baseTickCount += WEIGHT_REDUCTION_TICKS_COUNT;
       final var nanoseconds = WEIGHT_REDUCTION_TICKS_COUNT / ticksPerNanoseconds;
       startTime += (long) nanoseconds;
     }
@@ -111,9 +116,9 @@ public class TickCounter implements Simulator.Listener {
 
   @Override
   public void propagationCompleted(Simulator.Event e) {
-    if (e.didTick()) {
+    if (e.didTick() && simulator != e.getSource()) {
       simulator = e.getSource();
-      tickCount++;
+      clear();
     }
   }
 }
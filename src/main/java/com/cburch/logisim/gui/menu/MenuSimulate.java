@@ -49,7 +49,7 @@ public class MenuSimulate extends Menu {
   private final MenuItemImpl tickFull;
   private final JMenu tickFreq = new JMenu();
   private final TickFrequencyChoice[] tickFreqs =
-      new TickFrequencyChoice[SUPPORTED_TICK_FREQUENCIES.length];
+      new TickFrequencyChoice[SUPPORTED_TICK_FREQUENCIES.length + 1];
   private final JMenu downStateMenu = new JMenu();
   private final ArrayList<CircuitStateMenuItem> downStateItems = new ArrayList<>();
   private final JMenu upStateMenu = new JMenu();
@@ -100,10 +100,15 @@ public class MenuSimulate extends Menu {
     AppPreferences.gui_sync_objects.add(this);
 
     final var bgroup = new ButtonGroup();
+    // the simulation-only unlimited frequency comes first, the frequencies shared with the FPGA
+    // download after it
+    tickFreqs[0] = new TickFrequencyChoice(Simulator.UNLIMITED_TICK_FREQUENCY);
     for (var i = 0; i < SUPPORTED_TICK_FREQUENCIES.length; i++) {
-      tickFreqs[i] = new TickFrequencyChoice(SUPPORTED_TICK_FREQUENCIES[i]);
-      bgroup.add(tickFreqs[i]);
-      tickFreq.add(tickFreqs[i]);
+      tickFreqs[i + 1] = new TickFrequencyChoice(SUPPORTED_TICK_FREQUENCIES[i]);
+    }
+    for (final var choice : tickFreqs) {
+      bgroup.add(choice);
+      tickFreq.add(choice);
     }
 
     add(runToggle);
@@ -293,7 +298,8 @@ public class MenuSimulate extends Menu {
     if (currentSim != oldSim) {
       final var freq = currentSim == null ? 1.0 : currentSim.getTickFrequency();
       for (final var tickFrequencyChoice : tickFreqs) {
-        tickFrequencyChoice.setSelected(Math.abs(tickFrequencyChoice.freq - freq) < 0.001);
+        tickFrequencyChoice.setSelected(
+            tickFrequencyChoice.freq == freq || Math.abs(tickFrequencyChoice.freq - freq) < 0.001);
       }
 
       if (oldSim != null) {
@@ -472,7 +478,9 @@ public class MenuSimulate extends Menu {
 
     public void localeChanged() {
       double f = freq;
-      if (f < 1000) {
+      if (Double.isInfinite(f)) {
+        setText(S.get("simulateTickFreqUnlimited"));
+      } else if (f < 1000) {
         final var small = Math.abs(f - Math.round(f)) < 0.0001;
         final var freqHz = "" + (small ? (int) Math.round(f) : f);
         setText(S.get("simulateTickFreqItem", freqHz));
@@ -23,6 +23,8 @@ class ExperimentalOptions extends OptionsPanel {
   private static final long serialVersionUID = 1L;
   private final JLabel accelRestart = new JLabel();
   private final PrefOptionList accel;
+  private final PrefBoolean parallelSimulation =
+      new PrefBoolean(AppPreferences.PARALLEL_SIMULATION, S.getter("parallelSimulation"));
 
   public ExperimentalOptions(PreferencesFrame window) {
     super(window);
@@ -49,6 +51,9 @@ class ExperimentalOptions extends OptionsPanel {
     setLayout(new BoxLayout(this, BoxLayout.PAGE_AXIS));
     add(Box.createGlue());
     add(accelPanel2);
+    final var simPanel = new JPanel();
+    simPanel.add(parallelSimulation);
+    add(simPanel);
     add(Box.createGlue());
   }
 
@@ -65,6 +70,7 @@ class ExperimentalOptions extends OptionsPanel {
   @Override
   public void localeChanged() {
     accel.localeChanged();
+    parallelSimulation.localeChanged();
     accelRestart.setText(S.get("accelRestartLabel"));
   }
 }
@@ -12,6 +12,7 @@ package com.cburch.logisim.gui.prefs;
 import static com.cburch.logisim.gui.Strings.S;
 
 import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.prefs.PrefMonitor;
 import com.cburch.logisim.proj.Projects;
@@ -450,57 +451,57 @@ public class SimOptions extends OptionsPanel {
       var update = false;
       final var key = evt.getKey();
       if (key.equals(AppPreferences.TRUE_COLOR.getIdentifier())) {
-        Value.trueColor = new Color(AppPreferences.TRUE_COLOR.get());
+        ValueColors.trueColor = new Color(AppPreferences.TRUE_COLOR.get());
         update = true;
       } else if (key.equals(AppPreferences.TRUE_CHAR.getIdentifier())) {
         Value.TRUECHAR = AppPreferences.TRUE_CHAR.get().charAt(0);
         update = true;
       } else if (key.equals(AppPreferences.FALSE_COLOR.getIdentifier())) {
-        Value.falseColor = new Color(AppPreferences.FALSE_COLOR.get());
+        ValueColors.falseColor = new Color(AppPreferences.FALSE_COLOR.get());
         update = true;
       } else if (key.equals(AppPreferences.FALSE_CHAR.getIdentifier())) {
         Value.FALSECHAR = AppPreferences.FALSE_CHAR.get().charAt(0);
         update = true;
       } else if (key.equals(AppPreferences.UNKNOWN_COLOR.getIdentifier())) {
-        Value.unknownColor = new Color(AppPreferences.UNKNOWN_COLOR.get());
+        ValueColors.unknownColor = new Color(AppPreferences.UNKNOWN_COLOR.get());
         update = true;
       } else if (key.equals(AppPreferences.UNKNOWN_CHAR.getIdentifier())) {
         Value.UNKNOWNCHAR = AppPreferences.UNKNOWN_CHAR.get().charAt(0);
         update = true;
       } else if (key.equals(AppPreferences.ERROR_COLOR.getIdentifier())) {
-        Value.errorColor = new Color(AppPreferences.ERROR_COLOR.get());
+        ValueColors.errorColor = new Color(AppPreferences.ERROR_COLOR.get());
         update = true;
       } else if (key.equals(AppPreferences.ERROR_CHAR.getIdentifier())) {
         Value.ERRORCHAR = AppPreferences.ERROR_CHAR.get().charAt(0);
         update = true;
       } else if (key.equals(AppPreferences.NIL_COLOR.getIdentifier())) {
-        Value.nilColor = new Color(AppPreferences.NIL_COLOR.get());
+        ValueColors.nilColor = new Color(AppPreferences.NIL_COLOR.get());
         update = true;
       } else if (key.equals(AppPreferences.DONTCARE_CHAR.getIdentifier())) {
         Value.DONTCARECHAR = AppPreferences.DONTCARE_CHAR.get().charAt(0);
         update = true;
       } else if (key.equals(AppPreferences.BUS_COLOR.getIdentifier())) {
-        Value.multiColor = new Color(AppPreferences.BUS_COLOR.get());
+        ValueColors.multiColor = new Color(AppPreferences.BUS_COLOR.get());
         update = true;
       } else if (key.equals(AppPreferences.STROKE_COLOR.getIdentifier())) {
-        Value.strokeColor = new Color(AppPreferences.STROKE_COLOR.get());
+        ValueColors.strokeColor = new Color(AppPreferences.STROKE_COLOR.get());
         update = true;
       } else if (key.equals(AppPreferences.WIDTH_ERROR_COLOR.getIdentifier())) {
-        Value.widthErrorColor = new Color(AppPreferences.WIDTH_ERROR_COLOR.get());
+        ValueColors.widthErrorColor = new Color(AppPreferences.WIDTH_ERROR_COLOR.get());
         update = true;
       } else if (key.equals(AppPreferences.WIDTH_ERROR_CAPTION_COLOR.getIdentifier())) {
-        Value.widthErrorCaptionColor = new Color(AppPreferences.WIDTH_ERROR_CAPTION_COLOR.get());
+        ValueColors.widthErrorCaptionColor = new Color(AppPreferences.WIDTH_ERROR_CAPTION_COLOR.get());
         update = true;
       } else if (key.equals(AppPreferences.WIDTH_ERROR_HIGHLIGHT_COLOR.getIdentifier())) {
-        Value.widthErrorHighlightColor =
+        ValueColors.widthErrorHighlightColor =
             new Color(AppPreferences.WIDTH_ERROR_HIGHLIGHT_COLOR.get());
         update = true;
       } else if (key.equals(AppPreferences.WIDTH_ERROR_BACKGROUND_COLOR.getIdentifier())) {
-        Value.widthErrorCaptionBgcolor =
+        ValueColors.widthErrorCaptionBgcolor =
             new Color(AppPreferences.WIDTH_ERROR_BACKGROUND_COLOR.get());
         update = true;
       } else if (key.equals(AppPreferences.CLOCK_FREQUENCY_COLOR.getIdentifier())) {
-        Value.clockFrequencyColor = new Color(AppPreferences.CLOCK_FREQUENCY_COLOR.get());
+        ValueColors.clockFrequencyColor = new Color(AppPreferences.CLOCK_FREQUENCY_COLOR.get());
         update = true;
       }
       if (update) {
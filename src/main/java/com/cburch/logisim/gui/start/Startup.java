@@ -14,6 +14,7 @@ import static com.cburch.logisim.gui.Strings.S;
 import com.cburch.logisim.Main;
 import com.cburch.logisim.file.LoadFailedException;
 import com.cburch.logisim.file.Loader;
+import com.cburch.logisim.fpga.download.BatchExport;
 import com.cburch.logisim.fpga.download.Download;
 import com.cburch.logisim.fpga.file.BoardReaderClass;
 import com.cburch.logisim.generated.BuildInfo;
@@ -46,6 +47,7 @@ import java.io.FilenameFilter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.help.JHelp;
@@ -95,6 +97,8 @@ public class Startup implements AWTEventListener {
   private boolean templPlain = false;
   private String testVector = null;
   private String circuitToTest = null;
+  /* Test vectors to apply at once without graphical interface; null if not requested */
+  private List<String> testVectors = null;
   private boolean exitAfterStartup = false;
   private boolean showSplash;
   private File loadFile;
@@ -117,6 +121,8 @@ public class Startup implements AWTEventListener {
   private final String testCircuitImpMapFile = null;
   /* Indicate if only the HDL should be generated */
   private Boolean testCircuitHdlOnly = false;
+  /* Boards, with optional map file, of a batch export; null if no batch export is requested */
+  private Map<String, String> fpgaExportTargets = null;
   /* Testing Xml (circ file) Variable */
   private String testCircPathInput = null;
   private String testCircPathOutput = null;
@@ -142,6 +148,7 @@ public class Startup implements AWTEventListener {
   private static final String ARG_TEST_CIRCUIT_LONG = "test-circuit";
   private static final String ARG_TEST_FGPA_SHORT = "f";
   private static final String ARG_TEST_FGPA_LONG = "test-fpga";
+  private static final String ARG_EXPORT_FPGA_LONG = "export-fpga";
   private static final String ARG_GATES_SHORT = "g";
   private static final String ARG_GATES_LONG = "gates";
   private static final String ARG_HELP_SHORT = "h";
@@ -166,6 +173,7 @@ public class Startup implements AWTEventListener {
   private static final String ARG_VERSION_LONG = "version";
   private static final String ARG_TEST_VECTOR_SHORT = "w";
   private static final String ARG_TEST_VECTOR_LONG = "test-vector";
+  private static final String ARG_TEST_VECTORS_LONG = "test-vectors";
   private static final String ARG_NO_SPLASH_LONG = "no-splash";
   private static final String ARG_MAIN_CIRCUIT = "toplevel-circuit";
 
@@ -315,6 +323,7 @@ public class Startup implements AWTEventListener {
     // It is assumed that evey option always has long-form switch. Short forms are optional.
     addOption(opts, "argTtyOption", ARG_TTY_LONG, ARG_TTY_SHORT, 1);
     addOption(opts, "argTestImplement", ARG_TEST_FGPA_LONG, ARG_TEST_FGPA_SHORT, Option.UNLIMITED_VALUES);  // We can have 3, 4 or 5 arguments here
+    addOption(opts, "argExportFpgaOption", ARG_EXPORT_FPGA_LONG, Option.UNLIMITED_VALUES);
     addOption(opts, "argClearOption", ARG_CLEAR_PREFS_LONG);
     addOption(opts, "argSubOption", ARG_SUBSTITUTE_LONG, ARG_SUBSTITUTE_SHORT, 2);
     addOption(opts, "argLoadOption", ARG_LOAD_LONG, ARG_LOAD_SHORT, 1);
@@ -326,6 +335,7 @@ public class Startup implements AWTEventListener {
     addOption(opts, "argNoSplashOption", ARG_NO_SPLASH_LONG);
     addOption(opts, "argMainCircuitOption", ARG_MAIN_CIRCUIT, 1);
     addOption(opts, "argTestVectorOption", ARG_TEST_VECTOR_LONG, ARG_TEST_VECTOR_SHORT, 2);
+    addOption(opts, "argTestVectorsOption", ARG_TEST_VECTORS_LONG, Option.UNLIMITED_VALUES);
     addOption(opts, "argTestCircuitOption", ARG_TEST_CIRCUIT_LONG, ARG_TEST_CIRCUIT_SHORT, 1);     // FIXME add "Option" suffix to key name
     addOption(opts, "argTestCircGenOption", ARG_TEST_CIRC_GEN_LONG, ARG_TEST_CIRC_GEN_SHORT, 2);   // FIXME add "Option" suffix to key name
 
@@ -346,7 +356,8 @@ public class Startup implements AWTEventListener {
     // see whether we'll be using any graphics
     var isTty = false;
     var shallClearPreferences = false;
-    if (cmd.hasOption(ARG_TTY_SHORT) || cmd.hasOption(ARG_TEST_FGPA_SHORT) || cmd.hasOption(ARG_TEST_FGPA_LONG)) {
+    if (cmd.hasOption(ARG_TTY_SHORT) || cmd.hasOption(ARG_TEST_FGPA_SHORT) || cmd.hasOption(ARG_TEST_FGPA_LONG)
+        || cmd.hasOption(ARG_EXPORT_FPGA_LONG) || cmd.hasOption(ARG_TEST_VECTORS_LONG)) {
       isTty = true;
       Main.headless = true;
     } else {
@@ -391,7 +402,9 @@ public class Startup implements AWTEventListener {
         case ARG_TEMPLATE_LONG -> handleArgTemplate(startup, opt);
         case ARG_NO_SPLASH_LONG -> handleArgNoSplash(startup, opt);
         case ARG_TEST_VECTOR_LONG -> handleArgTestVector(startup, opt);
+        case ARG_TEST_VECTORS_LONG -> handleArgTestVectors(startup, opt);
         case ARG_TEST_FGPA_LONG -> handleArgTestFpga(startup, opt);
+        case ARG_EXPORT_FPGA_LONG -> handleArgExportFpga(startup, opt);
         case ARG_TEST_CIRCUIT_LONG -> handleArgTestCircuit(startup, opt);
         case ARG_TEST_CIRC_GEN_LONG -> handleArgTestCircGen(startup, opt);
         case ARG_MAIN_CIRCUIT -> handleArgMainCircuit(startup, opt);
@@ -631,6 +644,25 @@ public class Startup implements AWTEventListener {
     return RC.OK;
   }
 
+  /**
+   * Handles the `--test-vectors` argument:<br /><br />
+   * * circ_file circuit_name test_vector [test_vector ...]<br />
+   * <br />
+   * where the test vectors are simulated in parallel, without graphical interface.
+   */
+  private static RC handleArgTestVectors(Startup startup, Option opt) {
+    final var optArgs = opt.getValues();
+    if (optArgs == null || optArgs.length < 3) {
+      logger.error(S.get("argTestVectorsInvalidArguments"));
+      return RC.QUIT;
+    }
+    startup.filesToOpen.add(new File(optArgs[0]));
+    startup.circuitToTest = optArgs[1];
+    startup.testVectors = List.of(optArgs).subList(2, optArgs.length);
+    startup.showSplash = false;
+    return RC.OK;
+  }
+
   private static RC handleArgMainCircuit(Startup startup, Option opt) {
     startup.circuitToTest = opt.getValues()[0];
     return RC.OK;
@@ -718,6 +750,90 @@ public class Startup implements AWTEventListener {
     return RC.OK;
   }
 
+  /**
+   * Handles the `--export-fpga` argument:<br /><br />
+   * * circ_file name board=board [map=map_file] [board=board [map=map_file] ...] [freq=tick_freq]
+   * [HDLONLY]<br />
+   * <br />
+   * where each `map=` gives the map file of the board named before it, and `HDLONLY` stops before
+   * the vendor tools are invoked.
+   */
+  private static RC handleArgExportFpga(Startup startup, Option opt) {
+    final var args = parseExportFpgaArgs(opt.getValues());
+    if (args == null) return RC.QUIT;
+    startup.testCircuitImpPath = args.circFile();
+    startup.testCircuitImpName = args.circuitName();
+    startup.fpgaExportTargets = args.boards();
+    if (args.tickFrequency() > 0) startup.testTickFrequency = args.tickFrequency();
+    startup.testCircuitHdlOnly = args.hdlOnly();
+
+    startup.doFpgaDownload = true;
+    startup.showSplash = false;
+    startup.filesToOpen.add(new File(startup.testCircuitImpPath));
+    return RC.OK;
+  }
+
+  /**
+   * The arguments of `--export-fpga`, where boards maps each board to its map file, or to null if
+   * the mapping stored in the project is used.
+   */
+  record ExportFpgaArgs(
+      String circFile,
+      String circuitName,
+      Map<String, String> boards,
+      int tickFrequency,
+      boolean hdlOnly) {}
+
+  /** Parses the arguments of `--export-fpga`, or returns null after reporting what is wrong. */
+  static ExportFpgaArgs parseExportFpgaArgs(String[] optArgs) {
+    if (optArgs == null || optArgs.length < 3) {
+      logger.error(S.get("argExportFpgaInvalidArguments"));
+      return null;
+    }
+    final var boards = new LinkedHashMap<String, String>();
+    String lastBoard = null;
+    var tickFrequency = -1;
+    var hdlOnly = false;
+    for (var i = 2; i < optArgs.length; i++) {
+      final var arg = optArgs[i];
+      final var separator = arg.indexOf('=');
+      final var key = separator < 0 ? arg : arg.substring(0, separator);
+      final var value = separator < 0 ? "" : arg.substring(separator + 1);
+      if ("HDLONLY".equals(arg)) {
+        hdlOnly = true;
+      } else if ("board".equals(key) && !value.isEmpty()) {
+        if (AppPreferences.Boards.getBoardFilePath(value) == null) {
+          logger.error(
+              S.get(
+                  "argExportFpgaUnknownBoard",
+                  value,
+                  String.join(", ", AppPreferences.Boards.getBoardNames())));
+          return null;
+        }
+        boards.put(value, null);
+        lastBoard = value;
+      } else if ("map".equals(key) && !value.isEmpty() && lastBoard != null) {
+        boards.put(lastBoard, value);
+        lastBoard = null;
+      } else if ("freq".equals(key) && !value.isEmpty()) {
+        try {
+          tickFrequency = Integer.parseUnsignedInt(value);
+        } catch (NumberFormatException ex) {
+          logger.error(S.get("argTestUnknownFlagOrValue", arg));
+          return null;
+        }
+      } else {
+        logger.error(S.get("argTestUnknownFlagOrValue", arg));
+        return null;
+      }
+    }
+    if (boards.isEmpty()) {
+      logger.error(S.get("argExportFpgaInvalidArguments"));
+      return null;
+    }
+    return new ExportFpgaArgs(optArgs[0], optArgs[1], boards, tickFrequency, hdlOnly);
+  }
+
   private static RC handleArgTestCircuit(Startup startup, Option opt) {
     final var fileName = opt.getValue();
     startup.testCircuitPathInput = fileName;
@@ -793,6 +909,10 @@ public class Startup implements AWTEventListener {
     return circuitToTest;
   }
 
+  List<String> getTestVectors() {
+    return testVectors;
+  }
+
   Map<File, File> getSubstitutions() {
     return Collections.unmodifiableMap(substitutions);
   }
@@ -809,10 +929,19 @@ public class Startup implements AWTEventListener {
     /* Testing synthesis */
     final var mainCircuit = proj.getLogisimFile().getCircuit(testCircuitImpName);
     if (mainCircuit == null) return false;
-    final var simTickFreq = mainCircuit.getTickFrequency();
+    // the unlimited frequency of the simulator counts as unset
+    final var simTickFreq =
+        Double.isFinite(mainCircuit.getTickFrequency()) ? mainCircuit.getTickFrequency() : -1;
     final var downTickFreq = mainCircuit.getDownloadFrequency();
     final var usedFrequency = (testTickFrequency > 0) ? testTickFrequency :
         (downTickFreq > 0) ? downTickFreq : simTickFreq;
+    if (fpgaExportTargets != null) {
+      final var export = new BatchExport(proj, testCircuitImpName, usedFrequency, testCircuitHdlOnly);
+      for (final var target : fpgaExportTargets.entrySet()) {
+        export.addTarget(target.getKey(), target.getValue());
+      }
+      return export.run();
+    }
     Download downloader =
         new Download(
             proj,
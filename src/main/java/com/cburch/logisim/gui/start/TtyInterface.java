@@ -22,6 +22,7 @@ import com.cburch.logisim.file.LoadFailedException;
 import com.cburch.logisim.file.Loader;
 import com.cburch.logisim.file.LogisimFile;
 import com.cburch.logisim.gui.hex.HexFile;
+import com.cburch.logisim.gui.test.TestThread;
 import com.cburch.logisim.instance.Instance;
 import com.cburch.logisim.instance.InstanceState;
 import com.cburch.logisim.instance.StdAttr;
@@ -287,6 +288,14 @@ public class TtyInterface {
         ? file.getMainCircuit()
         : file.getCircuit(circuitToTest);
 
+    if (args.getTestVectors() != null) {
+      if (circuit == null) {
+        logger.error("{}", S.get("argTestVectorsNoCircuit", circuitToTest));
+        System.exit(-1);
+      }
+      System.exit(TestThread.doTestVectors(proj, circuit, args.getTestVectors()));
+    }
+
     var format = args.getTtyFormat();
     if ((format & FORMAT_STATISTICS) != 0) {
       format &= ~FORMAT_STATISTICS;
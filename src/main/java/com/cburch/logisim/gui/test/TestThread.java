@@ -15,6 +15,7 @@ import com.cburch.logisim.circuit.Circuit;
 import com.cburch.logisim.circuit.CircuitEvent;
 import com.cburch.logisim.circuit.CircuitListener;
 import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.circuit.SimulationFarm;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.data.FailException;
 import com.cburch.logisim.data.TestException;
@@ -25,6 +26,9 @@ import com.cburch.logisim.instance.StdAttr;
 import com.cburch.logisim.proj.Project;
 import com.cburch.logisim.std.wiring.Pin;
 import com.cburch.logisim.util.UniquelyNamedThread;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class TestThread extends UniquelyNamedThread implements CircuitListener {
 
@@ -103,6 +107,85 @@ public class TestThread extends UniquelyNamedThread implements CircuitListener {
     return 0;
   }
 
+  // used only for automated testing via command line arguments
+  public static int doTestVectors(Project proj, Circuit circuit, List<String> vectorNames) {
+    final var jobs = new ArrayList<SimulationFarm.Job<VectorReport>>();
+    for (final var vectorName : vectorNames) {
+      jobs.add(state -> runTestVector(proj, circuit, state, vectorName));
+    }
+    final var reports = new VectorReport[jobs.size()];
+    final var workers = Math.min(jobs.size(), Runtime.getRuntime().availableProcessors());
+    try {
+      new SimulationFarm(proj, circuit, workers)
+          .run(
+              jobs,
+              (index, report, failure) ->
+                  reports[index] =
+                      (failure == null)
+                          ? report
+                          : new VectorReport(
+                              S.get("testFailed", vectorNames.get(index) + " " + failure) + "\n",
+                              false));
+    } catch (InterruptedException | ExecutionException e) {
+      System.err.println(S.get("testSetupFailed", e.getMessage()));
+      return -1;
+    }
+
+    var numPass = 0;
+    for (final var report : reports) {
+      System.out.println(report.text());
+      if (report.passed()) numPass++;
+    }
+    System.out.println(
+        S.get(
+            "testVectorsResults",
+            Integer.toString(numPass),
+            Integer.toString(reports.length - numPass)));
+    return (numPass == reports.length) ? 0 : -1;
+  }
+
+  private record VectorReport(String text, boolean passed) {}
+
+  /** Applies all lines of a test vector to a state of the circuit. */
+  private static VectorReport runTestVector(
+      Project proj, Circuit circuit, CircuitState state, String vectorName) {
+    final var report = new StringBuilder();
+    report.append(S.get("testLoadingVector", vectorName)).append('\n');
+    TestVector vec;
+    try {
+      vec = new TestVector(vectorName);
+    } catch (Exception e) {
+      report.append(S.get("testLoadingFailed", e.getMessage())).append('\n');
+      return new VectorReport(report.toString(), false);
+    }
+
+    TestThread tester;
+    try {
+      tester = new TestThread(proj, circuit, vec);
+    } catch (TestException e) {
+      report.append(S.get("testSetupFailed", e.getMessage())).append('\n');
+      return new VectorReport(report.toString(), false);
+    }
+
+    var numPass = 0;
+    var numFail = 0;
+    for (var i = 0; i < vec.data.size(); i++) {
+      try {
+        circuit.doTestVector(state, tester.pin, vec.data.get(i));
+        numPass++;
+      } catch (FailException e) {
+        report.append(S.get("testFailed", Integer.toString(i + 1))).append('\n');
+        for (final var e1 : e.getAll()) report.append("  ").append(e1.getMessage()).append('\n');
+        numFail++;
+      } catch (TestException e) {
+        report.append(S.get("testFailed", (i + 1) + " " + e.getMessage())).append('\n');
+        numFail++;
+      }
+    }
+    report.append(S.get("testResults", Integer.toString(numPass), Integer.toString(numFail)));
+    return new VectorReport(report.append('\n').toString(), numFail == 0);
+  }
+
   public void cancel() {
     canceled = true;
   }
@@ -15,6 +15,7 @@ import com.cburch.logisim.Main;
 import com.cburch.logisim.circuit.RadixOption;
 import com.cburch.logisim.data.AttributeOption;
 import com.cburch.logisim.data.Direction;
+import com.cburch.logisim.data.Value;
 import com.cburch.logisim.fpga.hdlgenerator.HdlGeneratorFactory;
 import com.cburch.logisim.gui.menu.Menu;
 import com.cburch.logisim.gui.menu.MenuItemImpl;
@@ -679,6 +680,8 @@ public class AppPreferences {
 
   public static final PrefMonitor<Boolean> Memory_Startup_Unknown =
       create(new PrefMonitorBoolean("MemStartUnknown", false));
+  public static final PrefMonitor<Boolean> PARALLEL_SIMULATION =
+      create(new PrefMonitorBoolean("parallelSimulation", false));
 
   // Simulation preferences
   public static final PrefMonitor<Integer> TRUE_COLOR =
@@ -714,6 +717,15 @@ public class AppPreferences {
       create(new PrefMonitorInt("SimWidthErrorBackgroundColor", 0xFFE6D2));
   public static final PrefMonitor<Integer> CLOCK_FREQUENCY_COLOR =
       create(new PrefMonitorInt("SimClockFrequencyColor", 0xFF00B4));
+
+  static {
+    Value.TRUECHAR = TRUE_CHAR.get().charAt(0);
+    Value.FALSECHAR = FALSE_CHAR.get().charAt(0);
+    Value.UNKNOWNCHAR = UNKNOWN_CHAR.get().charAt(0);
+    Value.ERRORCHAR = ERROR_CHAR.get().charAt(0);
+    Value.DONTCARECHAR = DONTCARE_CHAR.get().charAt(0);
+  }
+
   public static final PrefMonitor<Integer> KMAP1_COLOR =
       create(new PrefMonitorInt("KMAPColor1", 0x800000));
   public static final PrefMonitor<Integer> KMAP2_COLOR =
@@ -475,6 +475,11 @@ public class Project {
       recentRootState.put(newCircuit, circuitState);
     }
     simulator.setCircuitState(circuitState);
+    if (circuitState.isSubstate()) {
+      // a cached subcircuit may have skipped this state, bring it up to date
+      circuitState.markParentComponentsDirty();
+      simulator.nudge();
+    }
     if (circuitChanged) {
       fireEvent(ProjectEvent.ACTION_SET_CURRENT, oldActive, newCircuit);
       if (newCircuit != null) {
@@ -483,10 +488,14 @@ public class Project {
         }
         final var circTickFrequency = newCircuit.getTickFrequency();
         final var simTickFrequency = simulator.getTickFrequency();
-        if (circTickFrequency < 0) {
-          newCircuit.setTickFrequency(simTickFrequency);
-        } else if (circTickFrequency != simTickFrequency) {
-          simulator.setTickFrequency(circTickFrequency);
+        // the unlimited frequency is a simulator mode, not a frequency to save or download with,
+        // so it is neither stored in circuits nor left when switching to another circuit
+        if (Double.isFinite(simTickFrequency)) {
+          if (circTickFrequency < 0) {
+            newCircuit.setTickFrequency(simTickFrequency);
+          } else if (circTickFrequency != simTickFrequency) {
+            simulator.setTickFrequency(circTickFrequency);
+          }
         }
       }
       if (oldCircuit != null) oldCircuit.displayChanged();
@@ -112,4 +112,9 @@ public class SocSupport {
     if (!state.isSubstate()) return compName;
     return getMasterHierName(state) + compName;
   }
+
+  /** Reports a message of a simulated processor, e.g. an error, without waiting for it to be read. */
+  public static void showMessage(CircuitState state, String title, String message, boolean isError) {
+    state.getProject().getSimulator().showMessage(title, message, isError);
+  }
 }
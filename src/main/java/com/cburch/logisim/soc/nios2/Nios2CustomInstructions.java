@@ -13,9 +13,9 @@ import static com.cburch.logisim.soc.Strings.S;
 
 import com.cburch.logisim.circuit.CircuitState;
 import com.cburch.logisim.data.Value;
-import com.cburch.logisim.gui.generic.OptionPane;
 import com.cburch.logisim.instance.Instance;
 import com.cburch.logisim.instance.InstanceState;
+import com.cburch.logisim.soc.data.SocSupport;
 import com.cburch.logisim.soc.util.AssemblerAsmInstruction;
 import com.cburch.logisim.soc.util.AssemblerExecutionInterface;
 import com.cburch.logisim.soc.util.AssemblerToken;
@@ -62,8 +62,7 @@ public class Nios2CustomInstructions implements AssemblerExecutionInterface {
     istate.setPort(Nios2.START, Value.createKnown(1, 0), 0);
     if (!done.equals(Value.TRUE) && !done.equals(Value.FALSE)) {
       custActive = false;
-      OptionPane.showMessageDialog(
-          null, S.get("Nios2DonePinError"), "Nios2s", OptionPane.ERROR_MESSAGE);
+      SocSupport.showMessage(circuitState, "Nios2s", S.get("Nios2DonePinError"), true);
       state.getSimState().errorInExecution();
       return true;
     }
@@ -12,7 +12,7 @@ package com.cburch.logisim.soc.rv32im;
 import static com.cburch.logisim.soc.Strings.S;
 
 import com.cburch.logisim.circuit.CircuitState;
-import com.cburch.logisim.gui.generic.OptionPane;
+import com.cburch.logisim.soc.data.SocSupport;
 import com.cburch.logisim.soc.util.AssemblerAsmInstruction;
 import com.cburch.logisim.soc.util.AssemblerExecutionInterface;
 import java.util.ArrayList;
@@ -39,7 +39,7 @@ public class RV32imEnvironmentCallAndBreakpoints implements AssemblerExecutionIn
   @Override
   public boolean execute(Object state, CircuitState cState) {
     if (!valid) return false;
-    OptionPane.showMessageDialog(null, S.get("Rv32imECABNotImplmented"));
+    SocSupport.showMessage(cState, null, S.get("Rv32imECABNotImplmented"), false);
     return true;
   }
 
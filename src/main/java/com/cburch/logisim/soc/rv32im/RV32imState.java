@@ -17,7 +17,6 @@ import com.cburch.logisim.circuit.ComponentDataGuiProvider;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Value;
-import com.cburch.logisim.gui.generic.OptionPane;
 import com.cburch.logisim.instance.Instance;
 import com.cburch.logisim.instance.InstanceComponent;
 import com.cburch.logisim.instance.InstanceData;
@@ -207,11 +206,11 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
       if (breakPoints.containsKey(pc)) {
         if (simState.breakPointReached()) {
           bPanel.gotoLine(breakPoints.get(pc) - 1);
-          OptionPane.showMessageDialog(
-              null,
-              S.get("RV32imBreakPointReached"),
+          SocSupport.showMessage(
+              cState,
               SocSupport.getMasterName(cState, RV32imState.this.getName()),
-              OptionPane.INFORMATION_MESSAGE);
+              S.get("RV32imBreakPointReached"),
+              false);
           return;
         }
       }
@@ -228,12 +227,12 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
           .getSocSimulationManager()
           .initializeTransaction(trans, attachedBus.getBusId(), cState);
       if (trans.hasError()) {
-        OptionPane.showMessageDialog(
-            null,
-            trans.getErrorMessage(),
+        SocSupport.showMessage(
+            cState,
             SocSupport.getMasterName(cState, RV32imState.this.getName())
                 + S.get("RV32imFetchTransaction"),
-            OptionPane.ERROR_MESSAGE);
+            trans.getErrorMessage(),
+            true);
         simState.errorInExecution();
         return;
       }
@@ -245,12 +244,12 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
       lastRegisterWritten = -1;
       while (instrTrace.size() >= CpuDrawSupport.NR_OF_TRACES) instrTrace.removeLast();
       if (exe == null) {
-        OptionPane.showMessageDialog(
-            null,
-            S.get("RV32imFetchInvalidInstruction"),
+        SocSupport.showMessage(
+            cState,
             SocSupport.getMasterName(cState, RV32imState.this.getName())
                 + S.get("RV32imFetchTransaction"),
-            OptionPane.ERROR_MESSAGE);
+            S.get("RV32imFetchInvalidInstruction"),
+            true);
         simState.errorInExecution();
         instrTrace.addFirst(new TraceInfo(pc, instruction, S.get("RV32imFetchInvInstrAsm"), true));
         pc = pc + 4;
@@ -262,12 +261,12 @@ public class RV32imState implements SocUpSimulationStateListener, SocProcessorIn
         final var s = new StringBuilder();
         s.append(S.get("RV32imFetchExecutionError"));
         if (exe.getErrorMessage() != null) s.append("\n").append(exe.getErrorMessage());
-        OptionPane.showMessageDialog(
-            null,
-            s.toString(),
+        SocSupport.showMessage(
+            cState,
             SocSupport.getMasterName(cState, RV32imState.this.getName())
                 + S.get("RV32imFetchTransaction"),
-            OptionPane.ERROR_MESSAGE);
+            s.toString(),
+            true);
         simState.errorInExecution();
         trace.setError();
         instrTrace.addFirst(trace);
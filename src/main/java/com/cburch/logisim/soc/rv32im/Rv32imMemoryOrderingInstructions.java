@@ -12,7 +12,7 @@ package com.cburch.logisim.soc.rv32im;
 import static com.cburch.logisim.soc.Strings.S;
 
 import com.cburch.logisim.circuit.CircuitState;
-import com.cburch.logisim.gui.generic.OptionPane;
+import com.cburch.logisim.soc.data.SocSupport;
 import com.cburch.logisim.soc.util.AssemblerAsmInstruction;
 import com.cburch.logisim.soc.util.AssemblerExecutionInterface;
 import java.util.ArrayList;
@@ -48,7 +48,7 @@ public class Rv32imMemoryOrderingInstructions implements AssemblerExecutionInter
   @Override
   public boolean execute(Object state, CircuitState cState) {
     if (!valid) return false;
-    OptionPane.showMessageDialog(null, S.get("Rv32imMOINotImplmented"));
+    SocSupport.showMessage(cState, null, S.get("Rv32imMOINotImplmented"), false);
     return true;
   }
 
@@ -39,24 +39,63 @@ public class Builtin extends Library {
    */
   public static final String _ID = "Builtin";
 
+  // The libraries are only created when they are first asked for, since most files use a few of
+  // them and creating one loads the classes of all its components.
+  private static final String[] LIBRARY_IDS = {
+    BaseLibrary._ID,
+    GatesLibrary._ID,
+    WiringLibrary._ID,
+    PlexersLibrary._ID,
+    ArithmeticLibrary._ID,
+    MemoryLibrary._ID,
+    IoLibrary._ID,
+    TtlLibrary._ID,
+    HdlLibrary._ID,
+    TclLibrary._ID,
+    BfhLibrary._ID,
+    ExtraIoLibrary._ID,
+    Soc._ID
+  };
+
+  private final Library[] created = new Library[LIBRARY_IDS.length];
   private List<Library> libraries = null;
 
-  public Builtin() {
-    libraries =
-        Arrays.asList(
-            new BaseLibrary(),
-            new GatesLibrary(),
-            new WiringLibrary(),
-            new PlexersLibrary(),
-            new ArithmeticLibrary(),
-            new MemoryLibrary(),
-            new IoLibrary(),
-            new TtlLibrary(),
-            new HdlLibrary(),
-            new TclLibrary(),
-            new BfhLibrary(),
-            new ExtraIoLibrary(),
-            new Soc());
+  private static Library create(String id) {
+    return switch (id) {
+      case BaseLibrary._ID -> new BaseLibrary();
+      case GatesLibrary._ID -> new GatesLibrary();
+      case WiringLibrary._ID -> new WiringLibrary();
+      case PlexersLibrary._ID -> new PlexersLibrary();
+      case ArithmeticLibrary._ID -> new ArithmeticLibrary();
+      case MemoryLibrary._ID -> new MemoryLibrary();
+      case IoLibrary._ID -> new IoLibrary();
+      case TtlLibrary._ID -> new TtlLibrary();
+      case HdlLibrary._ID -> new HdlLibrary();
+      case TclLibrary._ID -> new TclLibrary();
+      case BfhLibrary._ID -> new BfhLibrary();
+      case ExtraIoLibrary._ID -> new ExtraIoLibrary();
+      case Soc._ID -> new Soc();
+      default -> throw new IllegalArgumentException(id);
+    };
+  }
+
+  private Library getOrCreate(int index) {
+    var lib = created[index];
+    if (lib == null) {
+      lib = create(LIBRARY_IDS[index]);
+      created[index] = lib;
+    }
+    return lib;
+  }
+
+  /** Returns the names of the built-in libraries, without creating them. */
+  public List<String> getLibraryNames() {
+    return Arrays.asList(LIBRARY_IDS);
+  }
+
+  /** Tells whether the given library is one of the built-in ones. */
+  public synchronized boolean isBuiltinLibrary(Library lib) {
+    return lib != null && Arrays.asList(created).contains(lib);
   }
 
   @Override
@@ -65,10 +104,23 @@ public class Builtin extends Library {
   }
 
   @Override
-  public List<Library> getLibraries() {
+  public synchronized List<Library> getLibraries() {
+    if (libraries == null) {
+      final var all = new Library[LIBRARY_IDS.length];
+      for (var i = 0; i < all.length; i++) all[i] = getOrCreate(i);
+      libraries = Collections.unmodifiableList(Arrays.asList(all));
+    }
     return libraries;
   }
 
+  @Override
+  public synchronized Library getLibrary(String name) {
+    for (var i = 0; i < LIBRARY_IDS.length; i++) {
+      if (LIBRARY_IDS[i].equals(name)) return getOrCreate(i);
+    }
+    return null;
+  }
+
   @Override
   public List<Tool> getTools() {
     return Collections.emptyList();
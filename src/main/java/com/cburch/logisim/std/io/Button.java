@@ -20,6 +20,7 @@ import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.fpga.data.ComponentMapInformationContainer;
 import com.cburch.logisim.gui.icons.ButtonIcon;
 import com.cburch.logisim.instance.Instance;
@@ -228,7 +229,7 @@ public class Button extends InstanceFactory {
         int px = p.getX();
         int py = p.getY();
         GraphicsUtil.switchToWidth(g, Wire.WIDTH);
-        g.setColor(Value.trueColor);
+        g.setColor(ValueColors.trueColor);
         if (facing == Direction.NORTH) g.drawLine(px, py, px, py + 10);
         else g.drawLine(px, py, px + 10, py);
         GraphicsUtil.switchToWidth(g, 1);
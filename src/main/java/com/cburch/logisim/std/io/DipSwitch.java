@@ -19,6 +19,7 @@ import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.fpga.data.ComponentMapInformationContainer;
 import com.cburch.logisim.gui.icons.DipSwitchIcon;
 import com.cburch.logisim.instance.Instance;
@@ -261,7 +262,7 @@ public class DipSwitch extends InstanceFactory {
       g.setFont(g.getFont().deriveFont(g.getFont().getSize2D() * 0.6f));
     }
     for (var i = 0; i < n; i++) {
-      g.setColor(state.isBitSet(i) ? Value.trueColor : Color.white);
+      g.setColor(state.isBitSet(i) ? ValueColors.trueColor : Color.white);
       g.fillRect(7 + (i * segmentWidth), 16, 6, 20);
 
       g.setColor(Color.white);
@@ -39,6 +39,7 @@ import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.fpga.data.ComponentMapInformationContainer;
 import com.cburch.logisim.fpga.hdlgenerator.HdlGeneratorFactory;
 import com.cburch.logisim.gui.icons.LedMatrixIcon;
@@ -406,7 +407,7 @@ public abstract class DotMatrixBase extends InstanceFactory {
         } else if (val == Value.FALSE) {
           c = offColor;
         } else {
-          c = Value.errorColor;
+          c = ValueColors.errorColor;
         }
         g.setColor(c);
         if (SHAPE_SQUARE.equals(shape)) {
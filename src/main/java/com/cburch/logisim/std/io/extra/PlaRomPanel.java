@@ -13,7 +13,7 @@ import static com.cburch.logisim.std.Strings.S;
 
 import com.cburch.contracts.BaseMouseListenerContract;
 import com.cburch.contracts.BaseMouseMotionListenerContract;
-import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.std.ttl.Drawgates;
 import com.cburch.logisim.util.GraphicsUtil;
@@ -290,7 +290,7 @@ public class PlaRomPanel extends JPanel
       }
     }
     if (hover) {
-      g.setColor(Value.trueColor);
+      g.setColor(ValueColors.trueColor);
       if (data.columnHovered < inputs * 2)
         g.drawOval(
             IMAGE_BORDER + 4 + 20 * data.columnHovered,
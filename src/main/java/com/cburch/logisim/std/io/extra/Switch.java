@@ -19,6 +19,7 @@ import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Location;
 import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.instance.Instance;
 import com.cburch.logisim.instance.InstanceDataSingleton;
 import com.cburch.logisim.instance.InstanceFactory;
@@ -165,7 +166,7 @@ public class Switch extends InstanceFactory {
         int px = p.getX();
         int py = p.getY();
         GraphicsUtil.switchToWidth(g, Wire.WIDTH);
-        g.setColor(Value.trueColor);
+        g.setColor(ValueColors.trueColor);
         if (facing == Direction.NORTH) g.drawLine(px, py, px, py + 10);
         else g.drawLine(px, py, px + 10, py);
         GraphicsUtil.switchToWidth(g, 1);
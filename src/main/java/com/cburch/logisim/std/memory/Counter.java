@@ -20,6 +20,7 @@ import com.cburch.logisim.data.Attributes;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
 import com.cburch.logisim.gui.icons.CounterIcon;
 import com.cburch.logisim.instance.Instance;
@@ -347,7 +348,7 @@ public class Counter extends InstanceFactory implements DynamicElementProvider {
     final var LineWidth =
         (nrOfBits == 1) ? GraphicsUtil.DATA_SINGLE_WIDTH : GraphicsUtil.DATA_MULTI_WIDTH;
     GraphicsUtil.switchToWidth(g, LineWidth);
-    g.setColor(Value.multiColor);
+    g.setColor(ValueColors.multiColor);
     if (first) {
       painter.drawPort(IN);
       painter.drawPort(OUT);
@@ -246,6 +246,22 @@ public class MemContents implements Cloneable, HexModel {
     return true;
   }
 
+  /** Returns whether the given addresses only hold zeros, skipping the pages never written to. */
+  public boolean isClear(long start, long length) {
+    final var end = Math.min(start + length, 1L << addrBits);
+    for (var addr = Math.max(start, 0); addr < end; ) {
+      final var page = pages[(int) (addr >>> PAGE_SIZE_BITS)];
+      final var pageEnd = Math.min(end, ((addr >>> PAGE_SIZE_BITS) + 1) << PAGE_SIZE_BITS);
+      if (page != null) {
+        for (; addr < pageEnd; addr++) {
+          if ((page.get(addr & PAGE_MASK) & mask) != 0) return false;
+        }
+      }
+      addr = pageEnd;
+    }
+    return true;
+  }
+
   @Override
   public void removeHexModelListener(HexModelListener l) {
     if (listeners == null) return;
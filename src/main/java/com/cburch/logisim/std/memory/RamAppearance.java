@@ -14,7 +14,7 @@ import static com.cburch.logisim.std.Strings.S;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
-import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.instance.Instance;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.Port;
@@ -569,7 +569,7 @@ public class RamAppearance {
               ypos[1] += 20;
               ypos[2] += 20;
             }
-            g.setColor(Value.multiColor);
+            g.setColor(ValueColors.multiColor);
             g.setStroke(new BasicStroke(4));
             xpos[0] = x;
             xpos[1] = xpos[2] = x + 5;
@@ -634,7 +634,7 @@ public class RamAppearance {
               ypos[2] += 20;
             }
             g.setStroke(new BasicStroke(4));
-            g.setColor(Value.multiColor);
+            g.setColor(ValueColors.multiColor);
             xpos[0] = x;
             xpos[1] = xpos[2] = x - 5;
             ypos[0] = y;
@@ -670,7 +670,7 @@ public class RamAppearance {
             g.drawLine(x + 15, y + 13 + j * 6, x + 15, y + 15 + j * 6);
         }
         g.drawPolyline(xpos, ypos, 3);
-        g.setColor(Value.multiColor);
+        g.setColor(ValueColors.multiColor);
         g.setStroke(new BasicStroke(4));
         xpos[0] = x;
         xpos[1] = xpos[2] = x + 5;
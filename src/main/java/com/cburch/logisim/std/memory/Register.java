@@ -20,6 +20,7 @@ import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.fpga.designrulecheck.CorrectLabel;
 import com.cburch.logisim.fpga.designrulecheck.Netlist;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
@@ -101,7 +102,7 @@ public class Register extends InstanceFactory implements DynamicElementProvider
         g.drawLine(x + 60, y + 30, x + 60, y + 90);
         g.drawLine(x + 55, y + 30, x + 60, y + 30);
       }
-      g.setColor(Value.multiColor);
+      g.setColor(ValueColors.multiColor);
     }
     GraphicsUtil.switchToWidth(g, dq_widtdqWidth);
     g.drawLine(x, y + 30, x + 8, y + 30);
@@ -18,6 +18,7 @@ import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Bounds;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
 import com.cburch.logisim.gui.icons.ShifterIcon;
 import com.cburch.logisim.instance.Instance;
@@ -227,7 +228,7 @@ public class ShiftRegister extends InstanceFactory {
     final var dataWidth = (nrOfBits == 1) ? 2 : 5;
     final var lineFix = (nrOfBits == 1) ? 1 : 2;
     final var componentColor = new Color(AppPreferences.COMPONENT_COLOR.get());
-    final var inOutputConectionColor = (nrOfBits == 1) ? componentColor : Value.multiColor;
+    final var inOutputConectionColor = (nrOfBits == 1) ? componentColor : ValueColors.multiColor;
     int height = (currentStage == 0) ? 30 : 20;
     final var lastBlock = (currentStage == (nrOfStages - 1));
     final var blockWidth = symbolWidth;
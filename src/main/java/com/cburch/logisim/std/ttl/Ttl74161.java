@@ -9,11 +9,12 @@
 
 package com.cburch.logisim.std.ttl;
 
-import static com.cburch.logisim.data.Value.falseColor;
-import static com.cburch.logisim.data.Value.trueColor;
+import static com.cburch.logisim.data.ValueColors.falseColor;
+import static com.cburch.logisim.data.ValueColors.trueColor;
 
 import com.cburch.logisim.data.BitWidth;
 import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.fpga.designrulecheck.netlistComponent;
 import com.cburch.logisim.instance.InstancePainter;
 import com.cburch.logisim.instance.InstancePoker;
@@ -141,7 +141,12 @@ public class Clock extends InstanceFactory {
     } else {
       dirty = state.updateTick(ticks, attrs);
     }
-    if (dirty) Instance.getInstanceFor(comp).fireInvalidated();
+    if (dirty) {
+      // Only this state has to see the new value. Invalidating the component would instead notify
+      // every state of the circuit and the interface, which repaints once the tick has propagated.
+      circState.markComponentAsDirty(comp);
+      circState.getPropagator().addPendingInput(circState, comp);
+    }
     return true;
   }
 
@@ -58,6 +58,7 @@ public class AddTool extends Tool implements Transferable, PropertyChangeListene
     @Override
     public void attributeListChanged(AttributeEvent e) {
       bounds = null;
+      listenToPreferences();
     }
 
     @Override
@@ -90,6 +91,7 @@ public class AddTool extends Tool implements Transferable, PropertyChangeListene
   private boolean matrixPlace = false;
   private KeyConfigurator keyHandler;
   private final AutoLabel autoLabeler = new AutoLabel();
+  private boolean listensToPreferences;
 
   private AddTool(AddTool base) {
     this.descriptionBase = base.descriptionBase;
@@ -100,12 +102,7 @@ public class AddTool extends Tool implements Transferable, PropertyChangeListene
     this.shouldSnap = base.shouldSnap;
     this.attrs = (AttributeSet) base.attrs.clone();
     attrs.addAttributeListener(new MyAttributeListener());
-    if (this.attrs.containsAttribute(StdAttr.APPEARANCE)) {
-      AppPreferences.DefaultAppearance.addPropertyChangeListener(this);
-    }
-    if (this.attrs.containsAttribute(ProbeAttributes.PROBEAPPEARANCE)) {
-      AppPreferences.NEW_INPUT_OUTPUT_SHAPES.addPropertyChangeListener(this);
-    }
+    listenToPreferences();
   }
 
   public AddTool(Class<? extends Library> base, FactoryDescription description) {
@@ -116,12 +113,7 @@ public class AddTool extends Tool implements Transferable, PropertyChangeListene
     this.attrs = new FactoryAttributes(base, description);
     attrs.addAttributeListener(new MyAttributeListener());
     this.keyHandlerTried = false;
-    if (this.attrs.containsAttribute(StdAttr.APPEARANCE)) {
-      AppPreferences.DefaultAppearance.addPropertyChangeListener(this);
-    }
-    if (this.attrs.containsAttribute(ProbeAttributes.PROBEAPPEARANCE)) {
-      AppPreferences.NEW_INPUT_OUTPUT_SHAPES.addPropertyChangeListener(this);
-    }
+    // asking the attributes would load the factory; the listener registers once it is loaded
   }
 
   public AddTool(ComponentFactory source) {
@@ -133,10 +125,21 @@ public class AddTool extends Tool implements Transferable, PropertyChangeListene
     attrs.addAttributeListener(new MyAttributeListener());
     final var value = (Boolean) source.getFeature(ComponentFactory.SHOULD_SNAP, attrs);
     this.shouldSnap = value == null || value;
-    if (this.attrs.containsAttribute(StdAttr.APPEARANCE)) {
+    listenToPreferences();
+  }
+
+  private void listenToPreferences() {
+    if (listensToPreferences) return;
+    if (description != null
+        && attrs instanceof FactoryAttributes factAttrs
+        && !factAttrs.isFactoryInstantiated()) {
+      return;
+    }
+    listensToPreferences = true;
+    if (attrs.containsAttribute(StdAttr.APPEARANCE)) {
       AppPreferences.DefaultAppearance.addPropertyChangeListener(this);
     }
-    if (this.attrs.containsAttribute(ProbeAttributes.PROBEAPPEARANCE)) {
+    if (attrs.containsAttribute(ProbeAttributes.PROBEAPPEARANCE)) {
       AppPreferences.NEW_INPUT_OUTPUT_SHAPES.addPropertyChangeListener(this);
     }
   }
@@ -144,8 +147,11 @@ public class AddTool extends Tool implements Transferable, PropertyChangeListene
   @Override
   public void propertyChange(PropertyChangeEvent evt) {
     if (AppPreferences.DefaultAppearance.isSource(evt)) {
-      attrs.setValue(StdAttr.APPEARANCE, AppPreferences.getDefaultAppearance());
-    } else if (AppPreferences.NEW_INPUT_OUTPUT_SHAPES.isSource(evt)) {
+      if (attrs.containsAttribute(StdAttr.APPEARANCE)) {
+        attrs.setValue(StdAttr.APPEARANCE, AppPreferences.getDefaultAppearance());
+      }
+    } else if (AppPreferences.NEW_INPUT_OUTPUT_SHAPES.isSource(evt)
+        && attrs.containsAttribute(ProbeAttributes.PROBEAPPEARANCE)) {
       attrs.setValue(ProbeAttributes.PROBEAPPEARANCE, ProbeAttributes.getDefaultProbeAppearance());
     }
   }
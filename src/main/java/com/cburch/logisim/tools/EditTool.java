@@ -22,7 +22,7 @@ import com.cburch.logisim.data.Attribute;
 import com.cburch.logisim.data.AttributeSet;
 import com.cburch.logisim.data.Direction;
 import com.cburch.logisim.data.Location;
-import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.gui.main.Canvas;
 import com.cburch.logisim.gui.main.Selection;
 import com.cburch.logisim.gui.main.Selection.Event;
@@ -165,7 +165,7 @@ public class EditTool extends Tool {
       final var x = loc.getX();
       final var y = loc.getY();
       final var g = context.getGraphics();
-      g.setColor(Value.trueColor);
+      g.setColor(ValueColors.trueColor);
       GraphicsUtil.switchToWidth(g, 2);
       g.drawOval(x - 5, y - 5, 10, 10);
       g.setColor(Color.BLACK);
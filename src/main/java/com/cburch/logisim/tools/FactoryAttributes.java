@@ -112,6 +112,11 @@ public class FactoryAttributes implements AttributeSet, AttributeListener, Clone
         ret.addAttributeListener(this);
       }
       baseAttrs = ret;
+      if (desc != null) {
+        // the attributes of a described factory only become known now
+        final var e = new AttributeEvent(this);
+        for (final var l : new ArrayList<>(listeners)) l.attributeListChanged(e);
+      }
     }
     return ret;
   }
@@ -16,7 +16,7 @@ import com.cburch.logisim.circuit.Wire;
 import com.cburch.logisim.comp.Component;
 import com.cburch.logisim.comp.ComponentDrawContext;
 import com.cburch.logisim.data.Location;
-import com.cburch.logisim.data.Value;
+import com.cburch.logisim.data.ValueColors;
 import com.cburch.logisim.gui.main.Canvas;
 import com.cburch.logisim.prefs.AppPreferences;
 import com.cburch.logisim.proj.Action;
@@ -347,10 +347,10 @@ public class WiringTool extends Tool {
           AppPreferences.getScaled(points[i + 1]),
           AppPreferences.getScaled(points[i + 2]),
           AppPreferences.getScaled(points[i + 3]));
-    g2.setColor(Value.trueColor);
+    g2.setColor(ValueColors.trueColor);
     final var wh = AppPreferences.getScaled(5);
     g2.fillOval(AppPreferences.getScaled(1), AppPreferences.getScaled(11), wh, wh);
-    g2.setColor(Value.unknownColor);
+    g2.setColor(ValueColors.unknownColor);
     g2.fillOval(AppPreferences.getScaled(11), AppPreferences.getScaled(1), wh, wh);
     g2.dispose();
   }
@@ -19,29 +19,153 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Set;
 
+/**
+ * Tells, for each point of the 10 pixel grid, in which directions a new wire may pass through it.
+ *
+ * <p>The points are stored in a grid of two bits per point, one forbidding horizontal and one
+ * forbidding vertical moves, which keeps cloning and look-ups cheap. Points that do not lie on the
+ * grid are kept separately.
+ */
 public final class AvoidanceMap {
 
-  private final HashMap<Location, String> avoidanceMap;
+  private static final int GRID = 10;
+  // a horizontal wire passes, so only vertical moves are allowed
+  private static final int BLOCK_HORIZONTAL = 1;
+  // a vertical wire passes, so only horizontal moves are allowed
+  private static final int BLOCK_VERTICAL = 2;
+  private static final int BLOCK_BOTH = BLOCK_HORIZONTAL | BLOCK_VERTICAL;
+  private static final int MIN_GROWTH = 16;
 
-  private AvoidanceMap(HashMap<Location, String> map) {
-    avoidanceMap = map;
+  // grid bounds, in grid units
+  private int originX;
+  private int originY;
+  private int width;
+  private int height;
+  private long[] cells;
+  private final HashMap<Location, Integer> offGrid;
+
+  private AvoidanceMap() {
+    cells = new long[0];
+    offGrid = new HashMap<>();
+  }
+
+  private AvoidanceMap(AvoidanceMap other) {
+    originX = other.originX;
+    originY = other.originY;
+    width = other.width;
+    height = other.height;
+    cells = other.cells.clone();
+    offGrid = new HashMap<>(other.offGrid);
   }
 
   static AvoidanceMap create(Collection<Component> elements, int dx, int dy) {
-    final var ret = new AvoidanceMap(new HashMap<>());
+    final var ret = new AvoidanceMap();
     ret.markAll(elements, dx, dy);
     return ret;
   }
 
   public AvoidanceMap cloneMap() {
-    return new AvoidanceMap(new HashMap<>(avoidanceMap));
+    return new AvoidanceMap(this);
   }
 
   public Object get(Location loc) {
-    return avoidanceMap.get(loc);
+    return switch (getCode(loc)) {
+      case BLOCK_BOTH -> Connector.ALLOW_NEITHER;
+      case BLOCK_HORIZONTAL -> Connector.ALLOW_VERTICAL;
+      case BLOCK_VERTICAL -> Connector.ALLOW_HORIZONTAL;
+      default -> null;
+    };
+  }
+
+  private static boolean isOnGrid(Location loc) {
+    return loc.getX() % GRID == 0 && loc.getY() % GRID == 0;
+  }
+
+  private int getCode(Location loc) {
+    if (!isOnGrid(loc)) return offGrid.getOrDefault(loc, 0);
+    final var x = loc.getX() / GRID - originX;
+    final var y = loc.getY() / GRID - originY;
+    if (x < 0 || y < 0 || x >= width || y >= height) return 0;
+    final var index = y * width + x;
+    return (int) (cells[index >>> 5] >>> ((index & 31) << 1)) & BLOCK_BOTH;
+  }
+
+  private void setCode(Location loc, int code) {
+    if (!isOnGrid(loc)) {
+      if (code == 0) offGrid.remove(loc);
+      else offGrid.put(loc, code);
+      return;
+    }
+    final var gridX = loc.getX() / GRID;
+    final var gridY = loc.getY() / GRID;
+    if (code == 0 && getCode(loc) == 0) return;
+    include(gridX, gridY, gridX, gridY);
+    final var index = (gridY - originY) * width + gridX - originX;
+    final var shift = (index & 31) << 1;
+    final var word = index >>> 5;
+    cells[word] = (cells[word] & ~((long) BLOCK_BOTH << shift)) | ((long) code << shift);
+  }
+
+  /** Grows the grid, if needed, such that it holds the given rectangle of grid points. */
+  private void include(int x0, int y0, int x1, int y1) {
+    final var maxX = originX + width - 1;
+    final var maxY = originY + height - 1;
+    if (width > 0 && x0 >= originX && y0 >= originY && x1 <= maxX && y1 <= maxY) return;
+    int newX0;
+    int newY0;
+    int newX1;
+    int newY1;
+    if (width == 0) {
+      newX0 = x0;
+      newY0 = y0;
+      newX1 = x1;
+      newY1 = y1;
+    } else {
+      // leave some room, such that marking point by point does not copy the grid each time
+      final var growX = Math.max(MIN_GROWTH, width / 2);
+      final var growY = Math.max(MIN_GROWTH, height / 2);
+      newX0 = x0 < originX ? Math.min(x0, originX - growX) : originX;
+      newY0 = y0 < originY ? Math.min(y0, originY - growY) : originY;
+      newX1 = x1 > maxX ? Math.max(x1, maxX + growX) : maxX;
+      newY1 = y1 > maxY ? Math.max(y1, maxY + growY) : maxY;
+    }
+    final var newWidth = newX1 - newX0 + 1;
+    final var newHeight = newY1 - newY0 + 1;
+    final var newCells = new long[(newWidth * newHeight + 31) >>> 5];
+    for (var y = 0; y < height; y++) {
+      for (var x = 0; x < width; x++) {
+        final var index = y * width + x;
+        final long code = (cells[index >>> 5] >>> ((index & 31) << 1)) & BLOCK_BOTH;
+        if (code == 0) continue;
+        final var newIndex = (y + originY - newY0) * newWidth + x + originX - newX0;
+        newCells[newIndex >>> 5] |= code << ((newIndex & 31) << 1);
+      }
+    }
+    originX = newX0;
+    originY = newY0;
+    width = newWidth;
+    height = newHeight;
+    cells = newCells;
   }
 
   public void markAll(Collection<Component> elements, int dx, int dy) {
+    // size the grid once for all elements
+    var x0 = Integer.MAX_VALUE;
+    var y0 = Integer.MAX_VALUE;
+    var x1 = Integer.MIN_VALUE;
+    var y1 = Integer.MIN_VALUE;
+    for (final var element : elements) {
+      final var bds = element.getBounds();
+      x0 = Math.min(x0, bds.getX() + dx);
+      y0 = Math.min(y0, bds.getY() + dy);
+      x1 = Math.max(x1, bds.getX() + bds.getWidth() + dx);
+      y1 = Math.max(y1, bds.getY() + bds.getHeight() + dy);
+    }
+    if (x0 <= x1) {
+      include(
+          Math.floorDiv(x0, GRID), Math.floorDiv(y0, GRID),
+          Math.floorDiv(x1, GRID), Math.floorDiv(y1, GRID));
+    }
     // first we go through the components, saying that we should not
     // intersect with any point that lies within a component
     for (final var element : elements) {
@@ -54,7 +178,6 @@ public final class AvoidanceMap {
   }
 
   public void markComponent(Component comp, int dx, int dy) {
-    final var avoid = this.avoidanceMap;
     final var translated = dx != 0 || dy != 0;
     final var bds = comp.getBounds();
     var x0 = bds.getX() + dx;
@@ -66,26 +189,14 @@ public final class AvoidanceMap {
     for (var x = x0; x <= x1; x += 10) {
       for (var y = y0; y <= y1; y += 10) {
         final var loc = Location.create(x, y, false);
-        // loc is most likely in the component, so go ahead and
-        // put it into the map as if it is - and in the rare event
-        // that loc isn't in the component, we can remove it.
-        final var prev = avoid.put(loc, Connector.ALLOW_NEITHER);
-        if (!Connector.ALLOW_NEITHER.equals(prev)) {
-          final var baseLoc = translated ? loc.translate(-dx, -dy) : loc;
-          if (!comp.contains(baseLoc)) {
-            if (prev == null) {
-              avoid.remove(loc);
-            } else {
-              avoid.put(loc, prev);
-            }
-          }
-        }
+        if (getCode(loc) == BLOCK_BOTH) continue;
+        final var baseLoc = translated ? loc.translate(-dx, -dy) : loc;
+        if (comp.contains(baseLoc)) setCode(loc, BLOCK_BOTH);
       }
     }
   }
 
   public void markWire(Wire w, int dx, int dy) {
-    final var avoid = this.avoidanceMap;
     final var translated = dx != 0 || dy != 0;
     var loc0 = w.getEnd0();
     var loc1 = w.getEnd1();
@@ -93,52 +204,51 @@ public final class AvoidanceMap {
       loc0 = loc0.translate(dx, dy);
       loc1 = loc1.translate(dx, dy);
     }
-    avoid.put(loc0, Connector.ALLOW_NEITHER);
-    avoid.put(loc1, Connector.ALLOW_NEITHER);
+    setCode(loc0, BLOCK_BOTH);
+    setCode(loc1, BLOCK_BOTH);
     final var x0 = loc0.getX();
     final var y0 = loc0.getY();
     final var x1 = loc1.getX();
     final var y1 = loc1.getY();
+    final int block;
     if (x0 == x1) {
       // vertical wire
-      for (final var loc : Wire.create(loc0, loc1)) {
-        final var prev = avoid.put(loc, Connector.ALLOW_HORIZONTAL);
-        if (Connector.ALLOW_NEITHER.equals(prev) || Connector.ALLOW_VERTICAL.equals(prev)) {
-          avoid.put(loc, Connector.ALLOW_NEITHER);
-        }
-      }
+      block = BLOCK_VERTICAL;
     } else if (y0 == y1) {
       // horizontal wire
-      for (final var loc : Wire.create(loc0, loc1)) {
-        final var prev = avoid.put(loc, Connector.ALLOW_VERTICAL);
-        if (Connector.ALLOW_NEITHER.equals(prev) || Connector.ALLOW_HORIZONTAL.equals(prev)) {
-          avoid.put(loc, Connector.ALLOW_NEITHER);
-        }
-      }
+      block = BLOCK_HORIZONTAL;
     } else {
       // diagonal - shouldn't happen
       throw new RuntimeException("Diagonal wires are not supported.");
     }
+    for (final var loc : Wire.create(loc0, loc1)) {
+      setCode(loc, getCode(loc) | block);
+    }
   }
 
   public void print(PrintStream stream) {
-    ArrayList<Location> list = new ArrayList<>(avoidanceMap.keySet());
+    final var list = new ArrayList<Location>(offGrid.keySet());
+    for (var y = 0; y < height; y++) {
+      for (var x = 0; x < width; x++) {
+        final var loc = Location.create((x + originX) * GRID, (y + originY) * GRID, false);
+        if (getCode(loc) != 0) list.add(loc);
+      }
+    }
     Collections.sort(list);
-    for (Location location : list) {
-      stream.println(location + ": " + avoidanceMap.get(location));
+    for (final var location : list) {
+      stream.println(location + ": " + get(location));
     }
   }
 
   public void unmarkLocation(Location loc) {
-    avoidanceMap.remove(loc);
+    setCode(loc, 0);
   }
 
   public void unmarkWire(Wire w, Location deletedEnd, Set<Location> unmarkable) {
     final var loc0 = w.getEnd0();
     final var loc1 = w.getEnd1();
-    if (unmarkable == null || unmarkable.contains(deletedEnd)) {
-      avoidanceMap.remove(deletedEnd);
-    }
+    if (unmarkable != null && !unmarkable.contains(deletedEnd)) return;
+    setCode(deletedEnd, 0);
     final var x0 = loc0.getX();
     final var y0 = loc0.getY();
     final var x1 = loc1.getX();
@@ -146,22 +256,12 @@ public final class AvoidanceMap {
     if (x0 == x1) {
       // vertical wire
       for (final var loc : w) {
-        if (unmarkable == null || unmarkable.contains(deletedEnd)) {
-          final var prev = avoidanceMap.remove(loc);
-          if (Connector.ALLOW_HORIZONTAL.equals(prev)) {
-            avoidanceMap.put(loc, Connector.ALLOW_VERTICAL);
-          }
-        }
+        setCode(loc, getCode(loc) == BLOCK_VERTICAL ? BLOCK_HORIZONTAL : 0);
       }
     } else if (y0 == y1) {
       // horizontal wire
       for (final var loc : w) {
-        if (unmarkable == null || unmarkable.contains(deletedEnd)) {
-          final var prev = avoidanceMap.remove(loc);
-          if (!Connector.ALLOW_VERTICAL.equals(prev)) {
-            avoidanceMap.put(loc, Connector.ALLOW_HORIZONTAL);
-          }
-        }
+        setCode(loc, getCode(loc) != BLOCK_HORIZONTAL ? BLOCK_VERTICAL : 0);
       }
     } else {
       // diagonal - shouldn't happen
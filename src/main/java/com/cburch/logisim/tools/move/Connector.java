@@ -22,6 +22,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 class Connector {
 
@@ -33,6 +35,11 @@ class Connector {
   static final String ALLOW_VERTICAL = "vert";
   static final String ALLOW_HORIZONTAL = "horz";
 
+  // The orderings are routed concurrently, each on a copy of the avoidance map. One processor is
+  // left for the event thread, which keeps painting while the wires are computed.
+  private static final ForkJoinPool ROUTER_POOL =
+      new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
   private Connector() {}
 
   static MoveResult computeWires(MoveRequest req) {
@@ -53,7 +60,6 @@ class Connector {
       initNodes.put(conn, connNodes);
     }
 
-    MoveResult bestResult = null;
     final var tries = switch (baseConnects.size()) {
       case 0 -> 0;
       case 1 -> 1;
@@ -61,9 +67,8 @@ class Connector {
       case 3 -> 8;
       default -> MAX_ORDERING_TRIES;
     };
-    final var stopTime = System.currentTimeMillis() + MAX_SECONDS * 1000;
-    for (var tryNum = 0; tryNum < tries && stopTime - System.currentTimeMillis() > 0; tryNum++) {
-      if (ConnectorThread.isOverrideRequested()) return null;
+    final var orderings = new ArrayList<List<ConnectionData>>();
+    for (var tryNum = 0; tryNum < tries; tryNum++) {
       final var connects = new ArrayList<>(baseConnects);
       if (tryNum < 2) {
         sortConnects(connects, dx, dy);
@@ -71,9 +76,23 @@ class Connector {
       } else {
         Collections.shuffle(connects);
       }
+      orderings.add(connects);
+    }
 
-      final var candidate = tryList(req, gesture, connects, dx, dy, pathLocs, initNodes, stopTime);
+    // each ordering gives up on its remaining connections once the time is over
+    final var stopTime = System.currentTimeMillis() + MAX_SECONDS * 1000;
+    final var candidates = new ArrayList<ForkJoinTask<MoveResult>>();
+    for (final var connects : orderings) {
+      candidates.add(
+          ROUTER_POOL.submit(
+              () -> tryList(req, gesture, connects, dx, dy, pathLocs, initNodes, stopTime)));
+    }
+    MoveResult bestResult = null;
+    // the orderings are compared in their original order, such that ties are broken as before
+    for (final var task : candidates) {
+      final var candidate = task.join();
       if (candidate == null) {
+        for (final var other : candidates) other.cancel(false);
         return null;
       } else if (bestResult == null) {
         bestResult = candidate;
@@ -17,7 +17,7 @@ public final class ConnectorThread extends UniquelyNamedThread {
   private static final ConnectorThread INSTANCE = new ConnectorThread();
 
   private final Object lock;
-  private transient boolean overrideRequest;
+  private volatile boolean overrideRequest;
   private MoveRequest nextRequest;
   private MoveRequest processingRequest;
 
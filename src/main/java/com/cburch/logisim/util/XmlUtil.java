@@ -9,8 +9,10 @@
 
 package com.cburch.logisim.util;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
 
 public final class XmlUtil {
 
@@ -70,4 +72,23 @@ public final class XmlUtil {
 
     return dbf;
   }
+
+  /**
+   * Returns instance of XMLInputFactory (StAX) configured with the same XXE mitigations as {@link
+   * #getHardenedBuilderFactory()}: no DTDs and no external entities. Text is coalesced, so every
+   * text node is reported as a single event.
+   */
+  public static XMLInputFactory getHardenedInputFactory() {
+    final var xif = XMLInputFactory.newInstance();
+    xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    xif.setProperty(XMLInputFactory.IS_COALESCING, true);
+    try {
+      xif.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+      xif.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+    } catch (IllegalArgumentException ignored) {
+      // Not all implementations know these properties; the ones above are mandatory.
+    }
+    return xif;
+  }
 }
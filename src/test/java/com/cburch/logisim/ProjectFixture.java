@@ -0,0 +1,91 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim;
+
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitState;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.file.Loader;
+import com.cburch.logisim.file.LogisimFile;
+import com.cburch.logisim.proj.Project;
+import com.cburch.logisim.std.wiring.Pin;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads the small projects that tests write inline, and drives their pins. The circuits are
+ * given without the surrounding project element, whose libraries are always "0" for Wiring, "1"
+ * for Gates and "2" for Memory, and whose main circuit is the one named "main".
+ */
+public final class ProjectFixture {
+
+  private static final String PROJECT =
+      """
+      <?xml version="1.0" encoding="UTF-8" standalone="no"?>
+      <project source="3.9.0dev" version="1.0">
+        <lib desc="#Wiring" name="0"/>
+        <lib desc="#Gates" name="1"/>
+        <lib desc="#Memory" name="2"/>
+        <main name="main"/>
+      %s</project>
+      """;
+
+  private ProjectFixture() {
+    throw new IllegalStateException("Utility class. No instantiation allowed.");
+  }
+
+  /** Returns the project file holding the given circuit elements. */
+  public static String xml(String circuits) {
+    return PROJECT.formatted(circuits);
+  }
+
+  /** Loads the project file holding the given circuit elements. */
+  public static LogisimFile load(String circuits) throws Exception {
+    return load(circuits, new Loader(null));
+  }
+
+  public static LogisimFile load(String circuits, Loader loader) throws Exception {
+    final var in = new ByteArrayInputStream(xml(circuits).getBytes(StandardCharsets.UTF_8));
+    return LogisimFile.load(in, loader);
+  }
+
+  /** Loads the project file holding the given circuit elements, ready to be simulated. */
+  public static Project open(String circuits) throws Exception {
+    final var file = load(circuits);
+    final var proj = new Project(file);
+    for (final var circ : file.getCircuits()) circ.setProject(proj);
+    return proj;
+  }
+
+  /** Returns the state of the main circuit of the project. */
+  public static CircuitState getMainState(Project proj) {
+    return proj.getCircuitState(proj.getLogisimFile().getMainCircuit());
+  }
+
+  public static Component pinAt(Circuit circ, int x, int y) {
+    for (final var comp : circ.getNonWires(Location.create(x, y, true))) {
+      if (comp.getFactory() instanceof Pin) return comp;
+    }
+    return null;
+  }
+
+  /** Sets the value of an input pin, which the next propagation passes on. */
+  public static void setInput(CircuitState state, Component pin, Value value) {
+    final var pinState = state.getInstanceState(pin);
+    Pin.FACTORY.setValue(pinState, value);
+    pinState.fireInvalidated();
+  }
+
+  public static Value getOutput(CircuitState state, Component pin) {
+    return Pin.FACTORY.getValue(state.getInstanceState(pin));
+  }
+}
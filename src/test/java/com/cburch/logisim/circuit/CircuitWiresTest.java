@@ -0,0 +1,346 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static com.cburch.logisim.ProjectFixture.pinAt;
+import static com.cburch.logisim.ProjectFixture.setInput;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.Main;
+import com.cburch.logisim.ProjectFixture;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.BitWidth;
+import com.cburch.logisim.data.Direction;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.std.wiring.Pin;
+import com.cburch.logisim.std.wiring.PullResistor;
+import com.cburch.logisim.std.wiring.Tunnel;
+import java.awt.EventQueue;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+public class CircuitWiresTest {
+
+  private static final String EMPTY =
+      """
+      <circuit name="main">
+      </circuit>
+      """;
+
+  // two 4-bit input pins driving one bus, which a pull resistor pulls up
+  private static final String BUS =
+      """
+      <circuit name="main">
+        <comp lib="0" loc="(100,100)" name="Pin">
+          <a name="width" val="4"/>
+        </comp>
+        <comp lib="0" loc="(200,100)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="width" val="4"/>
+        </comp>
+        <comp lib="0" loc="(150,100)" name="Pull Resistor">
+          <a name="pull" val="1"/>
+        </comp>
+        <wire from="(100,100)" to="(150,100)"/>
+        <wire from="(150,100)" to="(200,100)"/>
+      </circuit>
+      """;
+
+  private static final int GRID = 20;
+  private static final String[] LABELS = {"", "a", "b", "c"};
+
+  private static Location randomLocation(Random rnd) {
+    return Location.create(10 * rnd.nextInt(GRID), 10 * rnd.nextInt(GRID), true);
+  }
+
+  /** Adds, removes or changes one wire or component at random. */
+  private static void mutate(Random rnd, CircuitMutation m, Circuit circ, List<Component> others) {
+    final var r = rnd.nextInt(100);
+    if (r < 40) {
+      final var p = randomLocation(rnd);
+      final var len = 10 * (1 + rnd.nextInt(3));
+      m.add(Wire.create(p, rnd.nextBoolean() ? p.translate(len, 0) : p.translate(0, len)));
+    } else if (r < 55) {
+      final var wires = new ArrayList<>(circ.getWires());
+      if (!wires.isEmpty()) m.remove(wires.get(rnd.nextInt(wires.size())));
+    } else if (r < 88) {
+      final Component comp;
+      if (r < 62) {
+        final var attrs = SplitterFactory.instance.createAttributeSet();
+        attrs.setValue(SplitterAttributes.ATTR_FANOUT, 1 + rnd.nextInt(3));
+        attrs.setValue(SplitterAttributes.ATTR_WIDTH, BitWidth.create(1 + rnd.nextInt(4)));
+        attrs.setValue(StdAttr.FACING, Direction.cardinals[rnd.nextInt(4)]);
+        comp = SplitterFactory.instance.createComponent(randomLocation(rnd), attrs);
+      } else if (r < 70) {
+        final var attrs = Tunnel.FACTORY.createAttributeSet();
+        attrs.setValue(StdAttr.LABEL, LABELS[rnd.nextInt(LABELS.length)]);
+        attrs.setValue(StdAttr.WIDTH, BitWidth.create(1 + rnd.nextInt(2)));
+        comp = Tunnel.FACTORY.createComponent(randomLocation(rnd), attrs);
+      } else if (r < 75) {
+        comp =
+            PullResistor.FACTORY.createComponent(
+                randomLocation(rnd), PullResistor.FACTORY.createAttributeSet());
+      } else if (r < 82) {
+        final var attrs = Pin.FACTORY.createAttributeSet();
+        attrs.setValue(StdAttr.WIDTH, BitWidth.create(1 + rnd.nextInt(4)));
+        comp = Pin.FACTORY.createComponent(randomLocation(rnd), attrs);
+      } else {
+        if (!others.isEmpty()) m.remove(others.remove(rnd.nextInt(others.size())));
+        return;
+      }
+      m.add(comp);
+      others.add(comp);
+    } else if (!others.isEmpty()) {
+      final var comp = others.get(rnd.nextInt(others.size()));
+      if (!circ.contains(comp)) return;
+      final var attrs = comp.getAttributeSet();
+      if (comp instanceof Splitter) {
+        final var which = rnd.nextInt(3);
+        if (which == 0) {
+          m.set(comp, SplitterAttributes.ATTR_FANOUT, 1 + rnd.nextInt(3));
+        } else if (which == 1) {
+          m.set(comp, StdAttr.FACING, Direction.cardinals[rnd.nextInt(4)]);
+        } else {
+          final var bits =
+              attrs.getAttributes().stream()
+                  .filter(attr -> attr instanceof SplitterAttributes.BitOutAttribute)
+                  .toList();
+          final int fanout = attrs.getValue(SplitterAttributes.ATTR_FANOUT);
+          m.set(comp, bits.get(rnd.nextInt(bits.size())), rnd.nextInt(fanout + 1));
+        }
+      } else if (comp.getFactory() instanceof Tunnel) {
+        m.set(comp, StdAttr.LABEL, LABELS[rnd.nextInt(LABELS.length)]);
+      } else if (comp.getFactory() instanceof PullResistor) {
+        m.set(
+            comp,
+            PullResistor.ATTR_PULL_TYPE,
+            PullResistor.ATTR_PULL_TYPE.parse(new String[] {"0", "1", "X"}[rnd.nextInt(3)]));
+      } else if (comp.getFactory() instanceof Pin) {
+        m.set(comp, StdAttr.WIDTH, BitWidth.create(1 + rnd.nextInt(4)));
+      }
+    }
+  }
+
+  /** Checks the nets of the circuit against those of a full rebuild of its bundle map. */
+  private static void assertSameNets(Circuit circ, String where) throws Exception {
+    final var incremental = circ.wires;
+    // the full rebuild reads the same points, since their width at a conflict depends on the
+    // order in which the components were added
+    final var full = new CircuitWires.BundleMap();
+    final var compute =
+        CircuitWires.class.getDeclaredMethod("computeBundleMap", CircuitWires.BundleMap.class);
+    compute.setAccessible(true);
+    compute.invoke(incremental, full);
+
+    final var locs = incremental.points.getSplitLocations();
+    final var bundles = new HashMap<WireBundle, WireBundle>();
+    final var threads = new HashMap<WireThread, WireThread>();
+    for (final var loc : locs) {
+      final var b1 = incremental.getWireBundle(loc);
+      final var b2 = full.getBundleAt(loc);
+      if (b2 == null) {
+        assertNull(b1, where + " " + loc);
+        continue;
+      }
+      assertNotNull(b1, where + " " + loc);
+      // both must split the points into the same nets
+      assertSame(b2, bundles.computeIfAbsent(b1, k -> b2), where + " " + loc);
+      assertEquals(b2.points, b1.points, where + " " + loc);
+      assertEquals(b2.isValid(), b1.isValid(), where + " " + loc);
+      assertEquals(b2.getPullValue(), b1.getPullValue(), where + " " + loc);
+      if (!b2.isValid()) continue;
+      assertEquals(b2.getWidth(), b1.getWidth(), where + " " + loc);
+      assertEquals(b2.unsplit, b1.unsplit, where + " " + loc);
+      assertEquals(b2.threads == null, b1.threads == null, where + " " + loc);
+      if (b2.threads == null) continue;
+      for (var i = 0; i < b2.threads.length; i++) {
+        final var t2 = b2.threads[i];
+        assertSame(t2, threads.computeIfAbsent(b1.threads[i], k -> t2), where + " " + loc);
+        assertEquals(t2.getBundles().size(), b1.threads[i].getBundles().size(), where);
+      }
+    }
+    final var e1 = incremental.getWidthIncompatibilityData();
+    final var e2 = full.getWidthIncompatibilityData();
+    assertEquals(e2 == null || e2.isEmpty(), e1 == null || e1.isEmpty(), where);
+  }
+
+  /**
+   * Extends the first of the given number of separate nets by a wire each, and returns how many
+   * points the nets rebuilt for it span.
+   */
+  private static int rebuiltPoints(int nets, int extended) throws Exception {
+    final var proj = ProjectFixture.open(EMPTY);
+    final var circ = proj.getLogisimFile().getMainCircuit();
+    final var state = proj.getCircuitState(circ);
+    final var m = new CircuitMutation(circ);
+    for (var i = 0; i < nets; i++) {
+      m.add(Wire.create(Location.create(100, 10 * i, true), Location.create(200, 10 * i, true)));
+    }
+    m.execute();
+    state.getPropagator().propagate();
+    final var map = state.getWireData().bundleMap;
+    final var revision = map.revision;
+    final var last = Location.create(100, 10 * (nets - 1), true);
+    final var untouched = circ.wires.getWireBundle(last);
+
+    final var edit = new CircuitMutation(circ);
+    for (var i = 0; i < extended; i++) {
+      edit.add(Wire.create(Location.create(200, 10 * i, true), Location.create(250, 10 * i, true)));
+    }
+    edit.execute();
+    state.getPropagator().propagate();
+    // the nets are rebuilt in place, and the others are kept as they were
+    assertSame(map, state.getWireData().bundleMap);
+    assertEquals(map.revision, state.getWireData().revision);
+    assertSame(untouched, circ.wires.getWireBundle(last));
+    return map.getChangesSince(revision).points().size();
+  }
+
+  @Test
+  public void testEditWorkGrowsWithEditSize() throws Exception {
+    assertEquals(3, rebuiltPoints(100, 1));
+    assertEquals(3 * 8, rebuiltPoints(100, 8));
+    // and not with the size of the circuit
+    assertEquals(3 * 8, rebuiltPoints(2000, 8));
+  }
+
+  private static Value bits(String bits) {
+    final var values = new Value[bits.length()];
+    for (var i = 0; i < values.length; i++) {
+      values[i] =
+          switch (bits.charAt(bits.length() - 1 - i)) {
+            case '0' -> Value.FALSE;
+            case '1' -> Value.TRUE;
+            case 'E' -> Value.ERROR;
+            default -> Value.UNKNOWN;
+          };
+    }
+    return Value.create(values);
+  }
+
+  @Test
+  public void testUnsplitBundleIsResolvedAsWhole() throws Exception {
+    final var proj = ProjectFixture.open(BUS);
+    final var circ = proj.getLogisimFile().getMainCircuit();
+    final var state = proj.getCircuitState(circ);
+    final var left = pinAt(circ, 100, 100);
+    final var right = pinAt(circ, 200, 100);
+    final var middle = Location.create(150, 100, true);
+    assertTrue(circ.wires.getWireBundle(middle).unsplit);
+
+    // each row: left input, right input, value of the bus
+    final String[][] cases = {
+      {"0101", "0101", "0101"},
+      {"0101", "xxxx", "0101"},
+      {"xxxx", "xxxx", "1111"},
+      {"x0x1", "1xxx", "1011"},
+      {"0011", "0101", "0EE1"},
+      {"E0x1", "x0x0", "E01E"},
+    };
+    for (final var row : cases) {
+      setInput(state, left, bits(row[0]));
+      setInput(state, right, bits(row[1]));
+      state.getPropagator().propagate();
+      assertEquals(bits(row[2]), state.getValue(middle), String.join(" ", row));
+    }
+  }
+
+  @Test
+  public void testHeadlessSimulationDoesNotNeedTheEventThread() throws Exception {
+    final var wasHeadless = Main.headless;
+    final var held = new CountDownLatch(1);
+    final var release = new CountDownLatch(1);
+    // the event thread is kept busy, so any call waiting for it never returns
+    EventQueue.invokeLater(
+        () -> {
+          held.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    held.await();
+    final var pool = Executors.newFixedThreadPool(4);
+    try {
+      Main.headless = true;
+      assertTimeoutPreemptively(
+          Duration.ofSeconds(30),
+          () -> {
+            final var proj = ProjectFixture.open(BUS);
+            final var circ = proj.getLogisimFile().getMainCircuit();
+            final var state = proj.getCircuitState(circ);
+            final var middle = Location.create(150, 100, true);
+            setInput(state, pinAt(circ, 100, 100), bits("x0x1"));
+            setInput(state, pinAt(circ, 200, 100), bits("1xxx"));
+            state.getPropagator().propagate();
+            assertEquals(bits("1011"), state.getValue(middle));
+
+            // after an edit, the threads asking at once share the one map computed again
+            final var m = new CircuitMutation(circ);
+            m.add(Wire.create(middle, Location.create(150, 140, true)));
+            m.execute();
+            final var bundles = new ArrayList<Future<WireBundle>>();
+            for (var i = 0; i < 8; i++) {
+              bundles.add(pool.submit(() -> circ.wires.getWireBundle(middle)));
+            }
+            final var bundle = bundles.get(0).get();
+            assertNotNull(bundle);
+            for (final var other : bundles) assertSame(bundle, other.get());
+            assertSame(bundle, circ.wires.getWireBundle(Location.create(150, 140, true)));
+          });
+    } finally {
+      Main.headless = wasHeadless;
+      pool.shutdownNow();
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void testIncrementalNetsMatchFullRebuild() throws Exception {
+    for (var seed = 0L; seed < 5; seed++) {
+      final var rnd = new Random(seed);
+      final var proj = ProjectFixture.open(EMPTY);
+      final var circ = proj.getLogisimFile().getMainCircuit();
+      final var state = proj.getCircuitState(circ);
+      final var others = new ArrayList<Component>();
+      for (var step = 0; step < 120; step++) {
+        final var m = new CircuitMutation(circ);
+        mutate(rnd, m, circ, others);
+        m.execute();
+        // sometimes several edits come between propagations
+        if (rnd.nextInt(3) == 0) continue;
+        state.getPropagator().propagate();
+        final var where = "seed " + seed + " step " + step;
+        assertSameNets(circ, where);
+
+        final var fresh = new CircuitState(proj, circ);
+        fresh.getPropagator().propagate();
+        for (final var loc : circ.wires.points.getSplitLocations()) {
+          assertEquals(fresh.getValue(loc), state.getValue(loc), where + " " + loc);
+        }
+      }
+    }
+  }
+}
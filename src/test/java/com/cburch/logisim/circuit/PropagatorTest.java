@@ -0,0 +1,277 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static com.cburch.logisim.ProjectFixture.pinAt;
+import static com.cburch.logisim.ProjectFixture.setInput;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.ProjectFixture;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.prefs.AppPreferences;
+import com.cburch.logisim.std.wiring.Pin;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PropagatorTest {
+
+  // an AND gate with a pin on each port
+  private static final String CIRCUITS =
+      """
+      <circuit name="main">
+        <comp lib="0" loc="(150,80)" name="Pin"/>
+        <comp lib="0" loc="(150,120)" name="Pin"/>
+        <comp lib="0" loc="(200,100)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+        </comp>
+        <comp lib="1" loc="(200,100)" name="AND Gate"/>
+      </circuit>
+      """;
+
+  // a clock, and an instance of a circuit with another clock
+  private static final String CLOCKS =
+      """
+      <circuit name="main">
+        <comp lib="0" loc="(100,100)" name="Clock"/>
+        <comp loc="(300,200)" name="sub"/>
+      </circuit>
+      <circuit name="sub">
+        <comp lib="0" loc="(100,100)" name="Clock"/>
+      </circuit>
+      """;
+
+  // three instances of an AND gate with a pin on each port, the first two of which also drive an
+  // AND gate in "main"
+  private static final String SUBSTATES =
+      """
+      <circuit name="main">
+        <comp loc="(300,200)" name="sub"/>
+        <comp loc="(300,300)" name="sub"/>
+        <comp loc="(300,400)" name="sub"/>
+        <comp lib="0" loc="(270,200)" name="Pin"/>
+        <comp lib="0" loc="(270,210)" name="Pin"/>
+        <comp lib="0" loc="(270,300)" name="Pin"/>
+        <comp lib="0" loc="(270,310)" name="Pin"/>
+        <comp lib="0" loc="(270,400)" name="Pin"/>
+        <comp lib="0" loc="(270,410)" name="Pin"/>
+        <comp lib="1" loc="(400,260)" name="AND Gate"/>
+        <wire from="(300,200)" to="(350,200)"/>
+        <wire from="(350,200)" to="(350,240)"/>
+        <wire from="(300,300)" to="(350,300)"/>
+        <wire from="(350,280)" to="(350,300)"/>
+      </circuit>
+      <circuit name="sub">
+        <comp lib="0" loc="(150,80)" name="Pin"/>
+        <comp lib="0" loc="(150,120)" name="Pin"/>
+        <comp lib="0" loc="(200,100)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+        </comp>
+        <comp lib="1" loc="(200,100)" name="AND Gate"/>
+      </circuit>
+      """;
+
+  private static final Location OUTPUT = Location.create(200, 100, true);
+  // nothing reacts to the values set here, so they stay as the propagator left them
+  private static final Location LOOSE = Location.create(500, 500, true);
+
+  private Circuit circ;
+  private CircuitState state;
+  private Component gate;
+  private Component pin;
+
+  private Component find(boolean isPin) {
+    return circ.getNonWires(OUTPUT).stream()
+        .filter(comp -> (comp.getFactory() instanceof Pin) == isPin)
+        .findFirst()
+        .orElseThrow();
+  }
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    final var proj = ProjectFixture.open(CIRCUITS);
+    circ = proj.getLogisimFile().getMainCircuit();
+    state = proj.getCircuitState(circ);
+    state.getPropagator().propagate();
+    gate = find(false);
+    pin = find(true);
+  }
+
+  @Test
+  public void testOnlyFirstChangeOfDriverInStepCounts() {
+    state.setValue(LOOSE, Value.TRUE, gate, 1);
+    state.setValue(LOOSE, Value.FALSE, gate, 1);
+    state.getPropagator().propagate();
+    assertEquals(Value.TRUE, state.getValue(LOOSE));
+
+    // the stamp of the previous step does not hold back a change in a later one
+    state.setValue(LOOSE, Value.FALSE, gate, 1);
+    state.getPropagator().propagate();
+    assertEquals(Value.FALSE, state.getValue(LOOSE));
+  }
+
+  @Test
+  public void testChangesOfOtherDriversInStepCount() {
+    state.setValue(LOOSE, Value.TRUE, gate, 1);
+    state.setValue(LOOSE, Value.FALSE, pin, 1);
+    state.getPropagator().propagate();
+    assertEquals(Value.ERROR, state.getValue(LOOSE));
+  }
+
+  @Test
+  public void testRemovedDriverLosesItsStamp() {
+    state.setValue(OUTPUT, Value.TRUE, gate, 1);
+    state.getPropagator().propagate();
+    final var m = new CircuitMutation(circ);
+    m.remove(gate);
+    m.execute();
+    state.getPropagator().propagate();
+    for (var n = state.driverStamps.get(OUTPUT); n != null; n = n.next) {
+      assertNotEquals(gate, n.cause);
+    }
+  }
+
+  private static CircuitState getSubstate(CircuitState state, int x, int y) {
+    final var loc = Location.create(x, y, true);
+    return (CircuitState)
+        state.getData(
+            state.getCircuit().getNonWires().stream()
+                .filter(comp -> comp.getLocation().equals(loc))
+                .findFirst()
+                .orElseThrow());
+  }
+
+  /** Sets the preference for parallel simulation, and waits until it takes effect. */
+  private static void setParallelSimulation(boolean value) throws InterruptedException {
+    AppPreferences.PARALLEL_SIMULATION.set(value);
+    for (var wait = 0; AppPreferences.PARALLEL_SIMULATION.getBoolean() != value; wait++) {
+      assertTrue(wait < 1000, "preference not applied");
+      Thread.sleep(5);
+    }
+  }
+
+  /** Returns the values at the ends of the components of the given states. */
+  private static String getValues(CircuitState... states) {
+    final var ret = new StringBuilder();
+    for (final var state : states) {
+      for (final var comp : state.getCircuit().getNonWires()) {
+        for (final var end : comp.getEnds()) {
+          ret.append(end.getLocation()).append('=').append(state.getValue(end.getLocation()));
+          ret.append(' ');
+        }
+      }
+      ret.append('\n');
+    }
+    return ret.toString();
+  }
+
+  /** Returns the values after each step of a propagation, for a series of random inputs. */
+  private static List<String> traceSubstates() throws Exception {
+    final var proj = ProjectFixture.open(SUBSTATES);
+    final var main = proj.getLogisimFile().getMainCircuit();
+    final var state = proj.getCircuitState(main);
+    final var prop = state.getPropagator();
+    prop.propagate();
+    final CircuitState[] states = {
+      state, getSubstate(state, 300, 200), getSubstate(state, 300, 300), getSubstate(state, 300, 400)
+    };
+    final var inputs = new ArrayList<Component>();
+    for (var y = 200; y <= 400; y += 100) {
+      inputs.add(pinAt(main, 270, y));
+      inputs.add(pinAt(main, 270, y + 10));
+    }
+
+    final var trace = new ArrayList<String>();
+    final var rnd = new Random(1);
+    for (var round = 0; round < 30; round++) {
+      for (final var input : inputs) setInput(state, input, Value.createKnown(1, rnd.nextInt(2)));
+      while (prop.step(null)) trace.add(getValues(states));
+      trace.add(getValues(states));
+    }
+    return trace;
+  }
+
+  @Test
+  public void testParallelSubstatesFollowSequentialTrace() throws Exception {
+    final var old = AppPreferences.PARALLEL_SIMULATION.getBoolean();
+    try {
+      setParallelSimulation(false);
+      final var sequential = traceSubstates();
+      setParallelSimulation(true);
+      final var parallel = traceSubstates();
+      assertEquals(sequential.size(), parallel.size());
+      for (var i = 0; i < sequential.size(); i++) {
+        assertEquals(sequential.get(i), parallel.get(i), "step " + i);
+      }
+    } finally {
+      setParallelSimulation(old);
+    }
+  }
+
+  @Test
+  public void testTicksReachTheClocksOfAddedSubstates() throws Exception {
+    final var proj = ProjectFixture.open(CLOCKS);
+    final var main = proj.getLogisimFile().getCircuit("main");
+    final var sub = proj.getLogisimFile().getCircuit("sub");
+    final var mainState = proj.getCircuitState(main);
+    final var prop = mainState.getPropagator();
+    prop.propagate();
+    final var clock = Location.create(100, 100, true);
+    final var first = getSubstate(mainState, 300, 200);
+    final var low = mainState.getValue(clock);
+    assertEquals(low, first.getValue(clock));
+
+    // a second instance, added between ticks, toggles along with the others
+    final var m = new CircuitMutation(main);
+    m.add(sub.getSubcircuitFactory().createComponent(
+        Location.create(300, 400, true), sub.getSubcircuitFactory().createAttributeSet()));
+    m.execute();
+    prop.propagate();
+    final var second = getSubstate(mainState, 300, 400);
+    for (var tick = 0; tick < 4; tick++) {
+      prop.toggleClocks();
+      prop.propagate();
+      final var value = mainState.getValue(clock);
+      assertEquals(tick % 2 == 0 ? low.not() : low, value);
+      assertEquals(value, first.getValue(clock));
+      assertEquals(value, second.getValue(clock));
+    }
+  }
+
+  @Test
+  public void testClockTicksAreShownOnlyByTheirSimulator() throws Exception {
+    final var proj = ProjectFixture.open(CLOCKS);
+    final var main = proj.getLogisimFile().getMainCircuit();
+    final var simulator = proj.getSimulator();
+    final var shown = proj.getCircuitState(main);
+    simulator.setAutoPropagation(false);
+    simulator.setCircuitState(shown);
+
+    // a state of the same circuit that another propagator runs
+    final var other = new CircuitState(proj, main);
+    other.getPropagator().propagate();
+    final var before = simulator.getSingleStepMessage();
+    other.getPropagator().toggleClocks();
+    assertEquals(before, simulator.getSingleStepMessage());
+
+    shown.getPropagator().propagate();
+    shown.getPropagator().toggleClocks();
+    assertNotEquals(before, simulator.getSingleStepMessage());
+    simulator.shutDown();
+  }
+}
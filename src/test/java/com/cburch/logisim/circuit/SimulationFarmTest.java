@@ -0,0 +1,90 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static com.cburch.logisim.ProjectFixture.getOutput;
+import static com.cburch.logisim.ProjectFixture.pinAt;
+import static com.cburch.logisim.ProjectFixture.setInput;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.cburch.logisim.ProjectFixture;
+import com.cburch.logisim.data.Value;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+public class SimulationFarmTest {
+
+  // a 4-bit AND gate with a pin on each port
+  private static final String CIRCUITS =
+      """
+      <circuit name="main">
+        <comp lib="0" loc="(150,80)" name="Pin">
+          <a name="width" val="4"/>
+        </comp>
+        <comp lib="0" loc="(150,120)" name="Pin">
+          <a name="width" val="4"/>
+        </comp>
+        <comp lib="0" loc="(200,100)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+          <a name="width" val="4"/>
+        </comp>
+        <comp lib="1" loc="(200,100)" name="AND Gate">
+          <a name="width" val="4"/>
+        </comp>
+      </circuit>
+      """;
+
+  @Test
+  public void testFarmMatchesSequentialRuns() throws Exception {
+    final var proj = ProjectFixture.open(CIRCUITS);
+    final var circ = proj.getLogisimFile().getMainCircuit();
+    final var inA = pinAt(circ, 150, 80);
+    final var inB = pinAt(circ, 150, 120);
+    final var out = pinAt(circ, 200, 100);
+
+    final var jobs = new ArrayList<SimulationFarm.Job<Value>>();
+    for (var i = 0; i < 256; i++) {
+      final var a = Value.createKnown(4, i >> 4);
+      final var b = Value.createKnown(4, i & 15);
+      jobs.add(
+          state -> {
+            setInput(state, inA, a);
+            setInput(state, inB, b);
+            state.getPropagator().propagate();
+            return getOutput(state, out);
+          });
+    }
+
+    final var expected = new Value[jobs.size()];
+    final var sequential = new CircuitState(proj, circ);
+    for (var i = 0; i < jobs.size(); i++) {
+      sequential.reset();
+      expected[i] = jobs.get(i).run(sequential);
+      assertEquals(Value.createKnown(4, (i >> 4) & i & 15), expected[i]);
+    }
+
+    final var farm = new SimulationFarm(proj, circ, 4);
+    assertEquals(4, farm.getWorkers());
+    final var results = new Value[jobs.size()];
+    final var calls = new int[jobs.size()];
+    farm.run(
+        jobs,
+        (index, result, failure) -> {
+          assertNull(failure);
+          results[index] = result;
+          calls[index]++;
+        });
+    assertArrayEquals(expected, results);
+    for (final var count : calls) assertEquals(1, count);
+  }
+}
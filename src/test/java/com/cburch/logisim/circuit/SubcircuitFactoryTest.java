@@ -0,0 +1,304 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static com.cburch.logisim.ProjectFixture.getOutput;
+import static com.cburch.logisim.ProjectFixture.pinAt;
+import static com.cburch.logisim.ProjectFixture.setInput;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.ProjectFixture;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Direction;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.data.Value;
+import com.cburch.logisim.file.Options;
+import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.std.gates.GatesLibrary;
+import com.cburch.logisim.std.wiring.Pin;
+import com.cburch.logisim.std.wiring.Probe;
+import com.cburch.logisim.tools.AddTool;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SubcircuitFactoryTest {
+
+  // "main" holds an instance of "sub", an AND gate declared combinational, with a pin on each port
+  private static final String CIRCUITS =
+      """
+      <circuit name="main">
+        <comp loc="(300,200)" name="sub"/>
+        <comp lib="0" loc="(270,200)" name="Pin"/>
+        <comp lib="0" loc="(270,210)" name="Pin"/>
+        <comp lib="0" loc="(300,200)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+        </comp>
+      </circuit>
+      <circuit name="sub">
+        <a name="combinational" val="true"/>
+        <comp lib="0" loc="(150,80)" name="Pin"/>
+        <comp lib="0" loc="(150,120)" name="Pin"/>
+        <comp lib="0" loc="(200,100)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+        </comp>
+        <comp lib="1" loc="(200,100)" name="AND Gate"/>
+      </circuit>
+      """;
+
+  // the same, with two NOT gates after the AND gate, so that the output takes three steps
+  private static final String DEEP =
+      """
+      <circuit name="main">
+        <comp loc="(300,200)" name="sub"/>
+        <comp lib="0" loc="(270,200)" name="Pin"/>
+        <comp lib="0" loc="(270,210)" name="Pin"/>
+        <comp lib="0" loc="(300,200)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+        </comp>
+      </circuit>
+      <circuit name="sub">
+        <a name="combinational" val="true"/>
+        <comp lib="0" loc="(150,80)" name="Pin"/>
+        <comp lib="0" loc="(150,120)" name="Pin"/>
+        <comp lib="0" loc="(260,100)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+        </comp>
+        <comp lib="1" loc="(200,100)" name="AND Gate"/>
+        <comp lib="1" loc="(230,100)" name="NOT Gate"/>
+        <comp lib="1" loc="(260,100)" name="NOT Gate"/>
+      </circuit>
+      """;
+
+  // the same, not declared combinational, so that its ports are always passed across
+  private static final String SEQUENTIAL =
+      CIRCUITS.replace("<a name=\"combinational\" val=\"true\"/>", "");
+
+  private Circuit main;
+  private Circuit sub;
+  private CircuitState state;
+  private Component[] inputs;
+  private Component output;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    open(CIRCUITS);
+  }
+
+  private void open(String circuits) throws Exception {
+    final var proj = ProjectFixture.open(circuits);
+    main = proj.getLogisimFile().getCircuit("main");
+    sub = proj.getLogisimFile().getCircuit("sub");
+    state = proj.getCircuitState(main);
+    inputs = new Component[] {pinAt(main, 270, 200), pinAt(main, 270, 210)};
+    output = pinAt(main, 300, 200);
+    assertNotNull(inputs[0]);
+    assertNotNull(inputs[1]);
+    assertNotNull(output);
+  }
+
+  private Value apply(Value... in) {
+    for (var i = 0; i < inputs.length; i++) setInput(state, inputs[i], in[i]);
+    state.getPropagator().propagate();
+    return getOutput(state, output);
+  }
+
+  /** Sets the inputs, and returns how long after that the output last changed. */
+  private int timeToOutput(Value... in) {
+    for (var i = 0; i < inputs.length; i++) setInput(state, inputs[i], in[i]);
+    final var prop = state.getPropagator();
+    final var start = prop.getTime();
+    final var loc = output.getLocation();
+    var value = state.getValue(loc);
+    var last = 0;
+    while (prop.step(null)) {
+      if (!state.getValue(loc).equals(value)) {
+        value = state.getValue(loc);
+        last = prop.getTime() - start;
+      }
+    }
+    // let the propagator cache the outputs of the settled circuit
+    prop.propagate();
+    return last;
+  }
+
+  private CircuitState getSubstate() {
+    final var subComp = main.getNonWires(Location.create(300, 200, true)).stream()
+        .filter(comp -> comp.getFactory() instanceof SubcircuitFactory)
+        .findFirst()
+        .orElseThrow();
+    return (CircuitState) state.getData(subComp);
+  }
+
+  private Value getSubOutput(int x, int y) {
+    return Pin.FACTORY.getValue(getSubstate().getInstanceState(pinAt(sub, x, y)));
+  }
+
+  @Test
+  public void testCachedOutputsTakeAsLongAsTheSubcircuit() throws Exception {
+    open(DEEP);
+    timeToOutput(Value.FALSE, Value.FALSE);
+    final var missed = timeToOutput(Value.TRUE, Value.TRUE);
+    timeToOutput(Value.FALSE, Value.FALSE);
+    final var gateUndefined =
+        main.getProject().getOptions().getAttributeSet().getValue(Options.ATTR_GATE_UNDEFINED);
+    assertNotNull(
+        sub.getOutputCache().get(Arrays.asList(Value.TRUE, Value.TRUE, null), gateUndefined));
+    final var hit = timeToOutput(Value.TRUE, Value.TRUE);
+    assertEquals(Value.TRUE, getOutput(state, output));
+    assertTrue(missed > 3, "time " + missed);
+    assertEquals(missed, hit);
+  }
+
+  @Test
+  public void testProbesDisableTheCache() throws Exception {
+    final var m = new CircuitMutation(sub);
+    m.add(
+        Probe.FACTORY.createComponent(
+            Location.create(200, 100, true), Probe.FACTORY.createAttributeSet()));
+    m.execute();
+    apply(Value.TRUE, Value.TRUE);
+    apply(Value.FALSE, Value.FALSE);
+    assertEquals(Value.TRUE, apply(Value.TRUE, Value.TRUE));
+    // the substate follows the inputs, as shown by the probe
+    assertEquals(Value.TRUE, getSubOutput(200, 100));
+    assertEquals(Value.TRUE, getSubstate().getValue(Location.create(200, 100, true)));
+  }
+
+  @Test
+  public void testLoggedSignalsDisableTheCache() throws Exception {
+    final var logger = new Object();
+    sub.setLogged(logger, true);
+    apply(Value.TRUE, Value.TRUE);
+    apply(Value.FALSE, Value.FALSE);
+    assertEquals(Value.TRUE, apply(Value.TRUE, Value.TRUE));
+    assertEquals(Value.TRUE, getSubOutput(200, 100));
+
+    // once nothing is logged, the cache is used again
+    sub.setLogged(logger, false);
+    apply(Value.TRUE, Value.FALSE);
+    apply(Value.TRUE, Value.TRUE);
+    apply(Value.FALSE, Value.FALSE);
+    assertEquals(Value.TRUE, apply(Value.TRUE, Value.TRUE));
+    assertEquals(Value.FALSE, getSubOutput(200, 100));
+  }
+
+  @Test
+  public void testCachedOutputsAreReplacedOnNextMiss() throws Exception {
+    // fill the cache for both (1, 1) and (0, 0)
+    assertEquals(Value.TRUE, apply(Value.TRUE, Value.TRUE));
+    assertEquals(Value.FALSE, apply(Value.FALSE, Value.FALSE));
+    // a hit, which leaves the output of the subcircuit at 0
+    assertEquals(Value.TRUE, apply(Value.TRUE, Value.TRUE));
+    assertEquals(Value.FALSE, getSubOutput(200, 100));
+    // a miss whose output is that of the subcircuit before the hit, so its output pin keeps its value
+    assertEquals(Value.FALSE, apply(Value.FALSE, Value.TRUE));
+    assertEquals(Value.FALSE, apply(Value.TRUE, Value.FALSE));
+  }
+
+  @Test
+  public void testOutputsAreCachedPerInputs() throws Exception {
+    apply(Value.TRUE, Value.FALSE);
+    apply(Value.TRUE, Value.TRUE);
+    final var cache = sub.getOutputCache();
+    final var gateUndefined =
+        main.getProject().getOptions().getAttributeSet().getValue(Options.ATTR_GATE_UNDEFINED);
+    assertArrayEquals(
+        new Value[] {null, null, Value.FALSE},
+        cache.get(Arrays.asList(Value.TRUE, Value.FALSE, null), gateUndefined).outputs());
+    assertArrayEquals(
+        new Value[] {null, null, Value.TRUE},
+        cache.get(Arrays.asList(Value.TRUE, Value.TRUE, null), gateUndefined).outputs());
+    assertNull(cache.get(Arrays.asList(Value.FALSE, Value.FALSE, null), gateUndefined));
+  }
+
+  @Test
+  public void testEditingTheSubcircuitDropsCachedOutputs() throws Exception {
+    assertEquals(Value.FALSE, apply(Value.FALSE, Value.TRUE));
+    assertEquals(Value.FALSE, apply(Value.FALSE, Value.FALSE));
+    // turn the AND gate into an OR gate
+    final var gates = new GatesLibrary();
+    final var and = sub.getNonWires(Location.create(200, 100, true)).stream()
+        .filter(comp -> !(comp.getFactory() instanceof Pin))
+        .findFirst()
+        .orElseThrow();
+    final var or = ((AddTool) gates.getTool("OR Gate")).getFactory();
+    final var m = new CircuitMutation(sub);
+    m.remove(and);
+    m.add(or.createComponent(and.getLocation(), or.createAttributeSet()));
+    m.execute();
+    assertEquals(Value.TRUE, apply(Value.FALSE, Value.TRUE));
+  }
+
+  /** Checks that the pins of the subcircuit agree with those of its instance. */
+  private void assertSubstateFollows() {
+    assertEquals(getOutput(state, inputs[0]), getSubOutput(150, 80));
+    assertEquals(getOutput(state, inputs[1]), getSubOutput(150, 120));
+    assertEquals(getSubOutput(200, 100), getOutput(state, output));
+  }
+
+  @Test
+  public void testChangedPortsArePassedAcross() throws Exception {
+    open(SEQUENTIAL);
+    final Value[] values = {Value.FALSE, Value.TRUE};
+    // go from each pair of inputs to each other one, changing one or both inputs at once
+    for (final var a0 : values) {
+      for (final var b0 : values) {
+        for (final var a1 : values) {
+          for (final var b1 : values) {
+            apply(a0, b0);
+            assertSubstateFollows();
+            assertEquals(a1.and(b1), apply(a1, b1));
+            assertSubstateFollows();
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testResetPassesAllPortsAcross() throws Exception {
+    open(SEQUENTIAL);
+    assertEquals(Value.TRUE, apply(Value.TRUE, Value.TRUE));
+    final var prop = state.getPropagator();
+    prop.reset();
+    prop.propagate();
+    assertSubstateFollows();
+    assertEquals(Value.TRUE, apply(Value.TRUE, Value.TRUE));
+    assertSubstateFollows();
+  }
+
+  @Test
+  public void testNewPortsArePassedAcross() throws Exception {
+    open(SEQUENTIAL);
+    assertEquals(Value.TRUE, apply(Value.TRUE, Value.TRUE));
+    // a second output, showing the second input, becomes a fourth port below the first output
+    final var attrs = Pin.FACTORY.createAttributeSet();
+    attrs.setValue(StdAttr.FACING, Direction.WEST);
+    attrs.setValue(Pin.ATTR_TYPE, true);
+    final var m = new CircuitMutation(sub);
+    m.add(Pin.FACTORY.createComponent(Location.create(150, 120, true), attrs));
+    m.execute();
+    final var port = Location.create(300, 210, true);
+    state.getPropagator().propagate();
+    assertEquals(Value.TRUE, state.getValue(port));
+    assertEquals(Value.FALSE, apply(Value.TRUE, Value.FALSE));
+    assertEquals(Value.FALSE, state.getValue(port));
+    assertSubstateFollows();
+  }
+}
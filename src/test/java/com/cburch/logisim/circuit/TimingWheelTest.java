@@ -0,0 +1,132 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.circuit.Propagator.SetData;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+
+  private int serialNumber = 0;
+
+  private SetData add(TimingWheel wheel, int time) {
+    final var data = new SetData(time, serialNumber++, null, null, null, null);
+    wheel.add(data);
+    return data;
+  }
+
+  /** Returns the pending changes in the order in which the propagator would process them. */
+  private static List<SetData> drain(TimingWheel wheel) {
+    final var ret = new ArrayList<SetData>();
+    while (!wheel.isEmpty()) {
+      final var time = wheel.advance();
+      for (var data = wheel.poll(); data != null; data = wheel.poll()) {
+        assertEquals(time, data.time);
+        ret.add(data);
+      }
+    }
+    return ret;
+  }
+
+  @Test
+  public void testChangesOfOneTickKeepTheirOrder() {
+    final var wheel = new TimingWheel(0);
+    final var first = add(wheel, 3);
+    final var second = add(wheel, 3);
+    final var third = add(wheel, 3);
+    assertEquals(3, wheel.advance());
+    assertEquals(first, wheel.poll());
+    // a change scheduled while the tick is processed waits for the next one
+    final var fourth = add(wheel, 4);
+    assertEquals(second, wheel.poll());
+    assertEquals(third, wheel.poll());
+    assertNull(wheel.poll());
+    assertEquals(List.of(fourth), drain(wheel));
+  }
+
+  @Test
+  public void testChangesAreOrderedByTimeThenSerialNumber() {
+    final var wheel = new TimingWheel(0);
+    final var a = add(wheel, 5);
+    final var b = add(wheel, 2);
+    final var c = add(wheel, 5);
+    final var d = add(wheel, 2);
+    final var e = add(wheel, 1);
+    assertEquals(List.of(e, b, d, a, c), drain(wheel));
+  }
+
+  @Test
+  public void testSameDelayFromSuccessiveTicks() {
+    final var wheel = new TimingWheel(0);
+    add(wheel, 1);
+    var processed = 0;
+    while (!wheel.isEmpty()) {
+      final var time = wheel.advance();
+      var last = -1;
+      var count = 0;
+      for (var data = wheel.poll(); data != null; data = wheel.poll()) {
+        assertEquals(time, data.time);
+        assertTrue(data.serialNumber > last);
+        last = data.serialNumber;
+        count++;
+      }
+      // each tick schedules two changes with a delay longer than the ring, and one on the next tick
+      assertEquals(time <= 70 ? 1 : time <= 230 ? 3 : 2, count, "tick " + time);
+      processed += count;
+      if (time < 230) {
+        add(wheel, time + 70);
+        add(wheel, time + 70);
+        add(wheel, time + 1);
+      }
+    }
+    assertEquals(229 * 3 + 1, processed);
+  }
+
+  @Test
+  public void testRingGrowsWithoutLosingChanges() {
+    final var wheel = new TimingWheel(0);
+    final var expected = new ArrayList<SetData>();
+    for (var time = 1; time <= 1000; time += 37) expected.add(add(wheel, time));
+    // much later than the ring holds, and then earlier changes again
+    expected.add(add(wheel, 5000));
+    expected.add(5, add(wheel, 150));
+    assertEquals(expected, drain(wheel));
+  }
+
+  @Test
+  public void testClockWrapsAround() {
+    final var start = Integer.MAX_VALUE - 10;
+    final var wheel = new TimingWheel(start);
+    final var a = add(wheel, Integer.MAX_VALUE);
+    final var b = add(wheel, Integer.MIN_VALUE + 5);
+    final var c = add(wheel, start + 1);
+    final var d = add(wheel, Integer.MIN_VALUE + 5);
+    // far enough ahead to make the ring grow across the wrap-around
+    final var e = add(wheel, Integer.MIN_VALUE + 500);
+    assertEquals(List.of(c, a, b, d, e), drain(wheel));
+  }
+
+  @Test
+  public void testClear() {
+    final var wheel = new TimingWheel(0);
+    add(wheel, 1);
+    add(wheel, 2);
+    wheel.clear();
+    assertTrue(wheel.isEmpty());
+    final var data = add(wheel, 3);
+    assertEquals(List.of(data), drain(wheel));
+  }
+}
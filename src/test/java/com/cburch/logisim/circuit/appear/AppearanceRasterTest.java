@@ -0,0 +1,143 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.circuit.appear;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import com.cburch.draw.model.AttributeMapKey;
+import com.cburch.draw.model.CanvasObject;
+import com.cburch.draw.shapes.DrawAttr;
+import com.cburch.draw.shapes.Oval;
+import com.cburch.logisim.ProjectFixture;
+import com.cburch.logisim.circuit.CircuitAttributes;
+import com.cburch.logisim.comp.ComponentDrawContext;
+import com.cburch.logisim.data.Direction;
+import com.cburch.logisim.data.Location;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AppearanceRasterTest {
+
+  private static final int SIZE = 120;
+
+  private CircuitAppearance appearance;
+  private Oval oval;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    final var circ = ProjectFixture.load("<circuit name=\"main\"/>\n").getCircuit("main");
+    circ.getStaticAttributes()
+        .setValue(CircuitAttributes.APPEARANCE_ATTR, CircuitAttributes.APPEAR_CUSTOM);
+    appearance = circ.getAppearance();
+    oval = new Oval(20, 30, 60, 40);
+    appearance.setObjectsForce(List.of(oval, new AppearanceAnchor(Location.create(80, 50, true))));
+  }
+
+  /** Returns graphics drawing into the image, which pretend to draw on screen. */
+  private static Graphics2D onScreen(BufferedImage image) {
+    final var device = mock(GraphicsDevice.class);
+    when(device.getType()).thenReturn(GraphicsDevice.TYPE_RASTER_SCREEN);
+    final var config = mock(GraphicsConfiguration.class);
+    when(config.getDevice()).thenReturn(device);
+    when(config.createCompatibleImage(anyInt(), anyInt(), anyInt()))
+        .thenAnswer(
+            call ->
+                new BufferedImage(
+                    call.getArgument(0), call.getArgument(1), BufferedImage.TYPE_INT_ARGB));
+    final var g = spy(image.createGraphics());
+    doReturn(config).when(g).getDeviceConfiguration();
+    return g;
+  }
+
+  /** Paints the appearance as an instance does, either from its images or by drawing its shapes. */
+  private int[] paint(boolean onScreen, double zoom) {
+    final var image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+    final var g = onScreen ? onScreen(image) : image.createGraphics();
+    g.scale(zoom, zoom);
+    g.translate(90, 60);
+    g.setColor(Color.BLACK);
+    final var context = new ComponentDrawContext(null, null, null, g, g);
+    context.setShowState(false);
+    appearance.paintSubcircuit(context.getInstancePainter(), g, Direction.EAST);
+    g.dispose();
+    return image.getRGB(0, 0, SIZE, SIZE, null, 0, SIZE);
+  }
+
+  private void assertPaintedLikeTheShapes() {
+    for (final var zoom : new double[] {1.0, 1.5}) {
+      assertArrayEquals(paint(false, zoom), paint(true, zoom), "zoom " + zoom);
+    }
+  }
+
+  @Test
+  public void testImagesMatchTheShapes() {
+    final var shapes = paint(false, 1.0);
+    assertFalse(Arrays.stream(shapes).allMatch(rgb -> rgb == 0));
+    assertPaintedLikeTheShapes();
+  }
+
+  @Test
+  public void testImagesFollowTheChangesOfTheShapes() {
+    assertPaintedLikeTheShapes();
+    // the images of the previous shapes must not be painted any more
+    appearance.setAttributeValues(
+        Map.of(new AttributeMapKey(DrawAttr.STROKE_COLOR, oval), Color.RED));
+    assertPaintedLikeTheShapes();
+    appearance.translateObjects(List.of(oval), 10, -10);
+    assertPaintedLikeTheShapes();
+    appearance.removeObjects(List.of(oval));
+    assertPaintedLikeTheShapes();
+    appearance.addObjects(0, List.of(new Oval(0, 0, 50, 50)));
+    assertPaintedLikeTheShapes();
+  }
+
+  @Test
+  public void testImagesAreKeptPerTransform() {
+    final var raster = new AppearanceRaster();
+    final List<CanvasObject> shapes = List.of(oval);
+    final var image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+    final var g = onScreen(image);
+    final var layers = raster.getLayers(g, shapes);
+    assertNotNull(layers);
+    // a whole pixel further is the same image, a different zoom is not
+    g.translate(7, 3);
+    assertSame(layers, raster.getLayers(g, shapes));
+    g.scale(2, 2);
+    final var zoomed = raster.getLayers(g, shapes);
+    assertNotSame(layers, zoomed);
+    assertSame(zoomed, raster.getLayers(g, shapes));
+    raster.invalidate();
+    assertNotSame(zoomed, raster.getLayers(g, shapes));
+  }
+
+  @Test
+  public void testNotOnScreenTheShapesAreDrawn() {
+    final var image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+    assertNull(new AppearanceRaster().getLayers(image.createGraphics(), List.of(oval)));
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.ProjectFixture;
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitAttributes;
+import com.cburch.logisim.circuit.CircuitMutation;
+import com.cburch.logisim.circuit.Wire;
+import com.cburch.logisim.data.Location;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class AutosaveJournalTest {
+
+  private static final String CIRCUITS =
+      """
+      <circuit name="main">
+        <comp lib="0" loc="(100,100)" name="Pin"/>
+        <wire from="(100,100)" to="(200,100)"/>
+      </circuit>
+      <circuit name="other">
+        <comp lib="0" loc="(100,100)" name="Pin"/>
+      </circuit>
+      """;
+
+  @TempDir Path dir;
+
+  private static LogisimFile load() throws Exception {
+    return ProjectFixture.open(CIRCUITS).getLogisimFile();
+  }
+
+  private static String write(LogisimFile file) {
+    final var out = new ByteArrayOutputStream();
+    file.write(out, file.getLoader());
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  private static void addWire(Circuit circ, int x0, int y0, int x1, int y1) {
+    final var m = new CircuitMutation(circ);
+    m.add(Wire.create(Location.create(x0, y0, true), Location.create(x1, y1, true)));
+    m.execute();
+  }
+
+  /** Writes a full autosave of the file and starts its journal. */
+  private AutosaveJournal autosave(LogisimFile file, File autosaveFile) throws Exception {
+    try (final var out = new FileOutputStream(autosaveFile)) {
+      file.write(out, file.getLoader());
+    }
+    file.takeAutosaveChanges();
+    return new AutosaveJournal(file.getLoader(), autosaveFile, file);
+  }
+
+  private static String recover(File autosaveFile) throws Exception {
+    try (final var in = AutosaveJournal.openRecovered(autosaveFile)) {
+      return write(LogisimFile.load(in, new Loader(null)));
+    }
+  }
+
+  @Test
+  public void testRecoveryReplaysTheJournal() throws Exception {
+    final var file = load();
+    final var autosaveFile = dir.resolve("project.circ.bak").toFile();
+    final var journal = autosave(file, autosaveFile);
+
+    addWire(file.getCircuit("other"), 100, 100, 100, 200);
+    final var changed = file.takeAutosaveChanges();
+    assertEquals(Set.of(file.getCircuit("other")), changed);
+    assertTrue(journal.append(file, changed));
+    addWire(file.getCircuit("main"), 200, 100, 200, 300);
+    assertTrue(journal.append(file, file.takeAutosaveChanges()));
+    final var expected = write(file);
+    assertEquals(expected, recover(autosaveFile));
+
+    // the first entry only holds the circuit that changed
+    final var journalFile = AutosaveJournal.getJournalFile(autosaveFile);
+    try (final var in = new DataInputStream(new FileInputStream(journalFile))) {
+      final var entry = new byte[in.readInt()];
+      in.readFully(entry);
+      final var circuits =
+          BinaryProjectFormat.read(new ByteArrayInputStream(entry)).getElementsByTagName("circuit");
+      assertEquals(1, circuits.getLength());
+    }
+
+    // an entry cut short by a crash is ignored
+    addWire(file.getCircuit("other"), 100, 200, 300, 200);
+    final var before = journalFile.length();
+    assertTrue(journal.append(file, file.takeAutosaveChanges()));
+    final var bytes = Files.readAllBytes(journalFile.toPath());
+    Files.write(journalFile.toPath(), Arrays.copyOf(bytes, (int) before + 10));
+    assertEquals(expected, recover(autosaveFile));
+  }
+
+  @Test
+  public void testRenamedCircuitNeedsFullAutosave() throws Exception {
+    final var file = load();
+    final var autosaveFile = dir.resolve("project.circ.bak").toFile();
+    final var journal = autosave(file, autosaveFile);
+    final var other = file.getCircuit("other");
+    other.getStaticAttributes().setValue(CircuitAttributes.NAME_ATTR, "renamed");
+    assertFalse(journal.append(file, file.takeAutosaveChanges()));
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.ProjectFixture;
+import com.cburch.logisim.std.memory.MemContents;
+import com.cburch.logisim.std.memory.Rom;
+import com.cburch.logisim.util.XmlUtil;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+public class BinaryProjectFormatTest {
+
+  private static Document createProject() throws Exception {
+    final var doc = XmlUtil.getHardenedBuilderFactory().newDocumentBuilder().newDocument();
+    final var project = doc.createElement("project");
+    project.setAttribute("source", "3.7.2");
+    project.setAttribute("version", "1.0");
+    project.appendChild(doc.createTextNode("\nThis file is intended to be loaded by Logisim.\n"));
+    doc.appendChild(project);
+    final var circuit = doc.createElement("circuit");
+    circuit.setAttribute("name", "main");
+    project.appendChild(circuit);
+
+    final var contents = MemContents.create(12, 8, false);
+    contents.set(3, 0xA5);
+    contents.set(2000, 0x7F);
+    final var rom = doc.createElement("comp");
+    rom.setAttribute("lib", "4");
+    rom.setAttribute("loc", "(100,60)");
+    rom.setAttribute("name", "ROM");
+    rom.appendChild(attribute(doc, "contents", null, Rom.CONTENTS_ATTR.toStandardString(contents)));
+    rom.appendChild(attribute(doc, "label", "rom", null));
+    circuit.appendChild(rom);
+
+    circuit.appendChild(wire(doc, "(60,40)", "(60,-20)"));
+    circuit.appendChild(wire(doc, "(-30,40)", "(60,40)"));
+    // not canonical, so it must be kept as is
+    circuit.appendChild(wire(doc, "( 70,40)", "(90,40)"));
+    return doc;
+  }
+
+  private static Element attribute(Document doc, String name, String value, String text) {
+    final var attr = doc.createElement("a");
+    attr.setAttribute("name", name);
+    if (value != null) attr.setAttribute("val", value);
+    if (text != null) attr.appendChild(doc.createTextNode(text));
+    return attr;
+  }
+
+  private static Element wire(Document doc, String from, String to) {
+    final var wire = doc.createElement("wire");
+    wire.setAttribute("from", from);
+    wire.setAttribute("to", to);
+    return wire;
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    final var doc = createProject();
+    final var out = new ByteArrayOutputStream();
+    BinaryProjectFormat.write(doc, out);
+    final var in = new BufferedInputStream(new ByteArrayInputStream(out.toByteArray()));
+    assertTrue(BinaryProjectFormat.isBinary(in));
+    final var read = BinaryProjectFormat.read(in);
+    assertTrue(doc.getDocumentElement().isEqualNode(read.getDocumentElement()));
+  }
+
+  @Test
+  public void testLoadMemoryContents() throws Exception {
+    final var doc = createProject();
+    final var project = doc.getDocumentElement();
+    final var lib = doc.createElement("lib");
+    lib.setAttribute("desc", "#Memory");
+    lib.setAttribute("name", "4");
+    project.insertBefore(lib, project.getFirstChild());
+    final var rom = (Element) doc.getElementsByTagName("comp").item(0);
+    // a label equal to a component name would be cleared with a dialog when loading
+    rom.removeChild(rom.getLastChild());
+    rom.appendChild(attribute(doc, "addrWidth", "12", null));
+    rom.appendChild(attribute(doc, "dataWidth", "8", null));
+    final var out = new ByteArrayOutputStream();
+    BinaryProjectFormat.write(doc, out);
+
+    // the contents are handed over as they are, not as hex text
+    final var read = BinaryProjectFormat.read(new ByteArrayInputStream(out.toByteArray()), false);
+    final var attr = (Element) read.getElementsByTagName("a").item(0);
+    assertEquals("contents", attr.getAttribute("name"));
+    assertFalse(attr.hasChildNodes());
+    assertEquals(0xA5, BinaryProjectFormat.getMemoryContents(attr).get(3));
+
+    final var file =
+        LogisimFile.load(new ByteArrayInputStream(out.toByteArray()), new Loader(null));
+    final var comp = file.getCircuit("main").getNonWires().stream()
+        .filter(c -> c.getFactory() instanceof Rom)
+        .findFirst()
+        .orElseThrow();
+    final var contents = comp.getAttributeSet().getValue(Rom.CONTENTS_ATTR);
+    assertEquals(12, contents.getLogLength());
+    assertEquals(8, contents.getWidth());
+    assertEquals(0xA5, contents.get(3));
+    assertEquals(0x7F, contents.get(2000));
+    assertEquals(0, contents.get(4));
+  }
+
+  @Test
+  public void testSaveMemoryContentsWithoutText() throws Exception {
+    final var contents = MemContents.create(12, 8, false);
+    contents.set(3, 0xA5);
+    contents.set(2000, 0x7F);
+    final var file =
+        ProjectFixture.load(
+            """
+            <circuit name="main">
+              <comp lib="2" loc="(100,60)" name="ROM">
+                <a name="addrWidth" val="12"/>
+                <a name="contents">%s</a>
+                <a name="dataWidth" val="8"/>
+              </comp>
+              <comp lib="2" loc="(300,60)" name="ROM"/>
+            </circuit>
+            """
+                .formatted(Rom.CONTENTS_ATTR.toStandardString(contents)));
+    final var roms = file.getMainCircuit().getNonWires().stream()
+        .filter(c -> c.getFactory() instanceof Rom)
+        .sorted((a, b) -> a.getLocation().compareTo(b.getLocation()))
+        .toList();
+    final var saved = roms.get(0).getAttributeSet().getValue(Rom.CONTENTS_ATTR);
+
+    // the contents of the component are handed over as they are, and the empty ones not at all
+    final var doc = XmlWriter.toDocument(file, file.getLoader(), null, null, null, false);
+    final var attrs = new ArrayList<Element>();
+    for (final var attr : XmlIterator.forDescendantElements(doc.getDocumentElement(), "a")) {
+      if ("contents".equals(attr.getAttribute("name"))) attrs.add(attr);
+    }
+    assertEquals(1, attrs.size());
+    assertFalse(attrs.get(0).hasChildNodes());
+    assertSame(saved, BinaryProjectFormat.getMemoryContents(attrs.get(0)));
+
+    final var out = new ByteArrayOutputStream();
+    BinaryProjectFormat.write(doc, out);
+    final var read = BinaryProjectFormat.read(new ByteArrayInputStream(out.toByteArray()));
+    final var text = new ArrayList<String>();
+    for (final var attr : XmlIterator.forDescendantElements(read.getDocumentElement(), "a")) {
+      if ("contents".equals(attr.getAttribute("name"))) text.add(attr.getTextContent());
+    }
+    assertEquals(List.of(Rom.CONTENTS_ATTR.toStandardString(contents)), text);
+  }
+
+  @Test
+  public void testXmlIsNotBinary() throws Exception {
+    final var xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><project/>";
+    final var in =
+        new BufferedInputStream(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    assertFalse(BinaryProjectFormat.isBinary(in));
+    // the stream must be left untouched
+    assertEquals('<', in.read());
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.cburch.logisim.ProjectFixture;
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.SubcircuitFactory;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.std.memory.MemContents;
+import com.cburch.logisim.std.memory.Rom;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class LogisimFileClonerTest {
+
+  private static final String CIRCUITS =
+      """
+      <circuit name="main">
+        <comp loc="(300,200)" name="sub"/>
+        <comp lib="0" loc="(100,100)" name="Splitter">
+          <a name="fanout" val="4"/>
+          <a name="incoming" val="4"/>
+        </comp>
+        <comp lib="0" loc="(60,100)" name="Tunnel">
+          <a name="label" val="bus"/>
+          <a name="width" val="4"/>
+        </comp>
+        <comp lib="2" loc="(400,300)" name="ROM">
+          <a name="addrWidth" val="4"/>
+          <a name="contents">%s</a>
+          <a name="dataWidth" val="4"/>
+          <a name="label" val="table"/>
+        </comp>
+        <wire from="(60,100)" to="(100,100)"/>
+      </circuit>
+      <circuit name="sub">
+        <comp lib="0" loc="(150,80)" name="Pin"/>
+        <comp lib="0" loc="(150,120)" name="Pin"/>
+        <comp lib="0" loc="(200,100)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+        </comp>
+        <comp lib="1" loc="(200,100)" name="AND Gate"/>
+      </circuit>
+      """;
+
+  private static LogisimFile load() throws Exception {
+    final var contents = MemContents.create(4, 4, false);
+    contents.set(3, 0xA);
+    contents.set(15, 0x5);
+    return ProjectFixture.load(CIRCUITS.formatted(Rom.CONTENTS_ATTR.toStandardString(contents)));
+  }
+
+  private static String write(LogisimFile file) {
+    final var out = new ByteArrayOutputStream();
+    file.write(out, file.getLoader());
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  private static Component find(Circuit circ, Class<?> factory) {
+    return circ.getNonWires().stream()
+        .filter(comp -> factory.isInstance(comp.getFactory()))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  @Test
+  public void testCloneIsSavedLikeTheOriginal() throws Exception {
+    final var file = load();
+    final var clone = file.cloneLogisimFile(new Loader(null));
+    assertEquals(write(file), write(clone));
+  }
+
+  @Test
+  public void testCloneIsIndependent() throws Exception {
+    final var file = load();
+    final var clone = file.cloneLogisimFile(new Loader(null));
+
+    final var main = clone.getCircuit("main");
+    final var sub = clone.getCircuit("sub");
+    assertNotSame(file.getCircuit("main"), main);
+    assertSame(main, clone.getMainCircuit());
+    // the subcircuit instance refers to the copied circuit
+    final var instance = find(main, SubcircuitFactory.class);
+    assertSame(sub, ((SubcircuitFactory) instance.getFactory()).getSubcircuit());
+
+    // memory contents are copied, not shared
+    final var original = find(file.getCircuit("main"), Rom.class);
+    final var copy = find(main, Rom.class);
+    final var contents = copy.getAttributeSet().getValue(Rom.CONTENTS_ATTR);
+    assertNotSame(original.getAttributeSet().getValue(Rom.CONTENTS_ATTR), contents);
+    assertEquals(0xA, contents.get(3));
+    contents.set(3, 0x1);
+    assertEquals(0xA, original.getAttributeSet().getValue(Rom.CONTENTS_ATTR).get(3));
+  }
+}
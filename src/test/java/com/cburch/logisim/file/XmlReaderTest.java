@@ -13,10 +13,95 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.cburch.logisim.ProjectFixture;
+import com.cburch.logisim.circuit.SubcircuitFactory;
+import com.cburch.logisim.util.XmlUtil;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 public class XmlReaderTest {
 
+  // "my circ" has to be renamed, and is used both before and after its definition; "no such thing"
+  // is neither a circuit nor a library component, so it must be reported under its own name
+  private static final String CIRCUITS =
+      """
+      <circuit name="main">
+        <comp loc="(200,100)" name="my circ"/>
+        <comp loc="(200,200)" name="no such thing"/>
+        <comp lib="0" loc="(100,100)" name="Pin">
+          <a name="label" val="in 1"/>
+        </comp>
+        <wire from="(100,100)" to="(170,100)"/>
+      </circuit>
+      <circuit name="my circ">
+        <comp lib="0" loc="(100,100)" name="Pin"/>
+      </circuit>
+      <circuit name="other">
+        <comp loc="(200,100)" name="my circ"/>
+      </circuit>
+      """;
+
+  private static class RecordingLoader extends Loader {
+    final List<String> errors = new ArrayList<>();
+
+    RecordingLoader() {
+      super(null);
+    }
+
+    @Override
+    public void showError(String description) {
+      errors.addAll(List.of(description.split("\n")));
+    }
+  }
+
+  /** Describes the circuits of the file, leaving out the random suffixes of repaired names. */
+  private static List<String> describe(LogisimFile file) {
+    final var circuits = file.getCircuits();
+    final var ret = new ArrayList<String>();
+    for (final var circ : circuits) {
+      final var comps = new ArrayList<String>();
+      for (final var comp : circ.getNonWires()) {
+        final var name =
+            comp.getFactory() instanceof SubcircuitFactory sub
+                ? "circuit " + circuits.indexOf(sub.getSubcircuit())
+                : comp.getFactory().getName();
+        comps.add(name + comp.getLocation());
+      }
+      Collections.sort(comps);
+      ret.add(XmlReader.labelVHDLInvalid(circ.getName()) + " " + comps + " " + circ.getWires());
+    }
+    return ret;
+  }
+
+  /** Test that the streaming and the DOM reader load the same file in the same way. */
+  @Test
+  public final void testStreamingAndDomReadersAgree() throws Exception {
+    final var streamLoader = new RecordingLoader();
+    final var streamed = ProjectFixture.load(CIRCUITS, streamLoader);
+
+    // the binary format is always read through the DOM
+    final var xml = ProjectFixture.xml(CIRCUITS).getBytes(StandardCharsets.UTF_8);
+    final var doc =
+        XmlUtil.getHardenedBuilderFactory().newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+    final var binary = new ByteArrayOutputStream();
+    BinaryProjectFormat.write(doc, binary);
+    final var domLoader = new RecordingLoader();
+    final var dom = LogisimFile.load(new ByteArrayInputStream(binary.toByteArray()), domLoader);
+
+    assertEquals(describe(dom), describe(streamed));
+    assertEquals(3, streamed.getCircuits().size());
+    Collections.sort(domLoader.errors);
+    Collections.sort(streamLoader.errors);
+    assertEquals(domLoader.errors, streamLoader.errors);
+    assertEquals(1, streamLoader.errors.size());
+    assertTrue(streamLoader.errors.get(0).contains("no such thing"));
+  }
+
   /**
    * Test method for {@link
    * com.cburch.logisim.file.XmlReader#generateValidVHDLLabel(java.lang.String)} We use here the
@@ -0,0 +1,220 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.fpga.designrulecheck;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.cburch.logisim.ProjectFixture;
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.CircuitMutation;
+import com.cburch.logisim.circuit.Wire;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.instance.StdAttr;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class NetlistTest {
+
+  /*
+   * A 4 bit input bus split in two: its low bits reach two output pins through three tunnels,
+   * its high bits reach a third output pin through a wire. Another input reaches the last output
+   * pin through a tunnel only.
+   */
+  private static final String CIRCUITS =
+      """
+      <circuit name="main">
+        <wire from="(100,100)" to="(120,100)"/>
+        <wire from="(140,80)" to="(180,80)"/>
+        <wire from="(140,90)" to="(220,90)"/>
+        <wire from="(180,140)" to="(220,140)"/>
+        <wire from="(180,180)" to="(220,180)"/>
+        <wire from="(100,240)" to="(140,240)"/>
+        <wire from="(180,240)" to="(220,240)"/>
+        <comp lib="0" loc="(100,100)" name="Pin">
+          <a name="width" val="4"/>
+          <a name="label" val="A"/>
+        </comp>
+        <comp lib="0" loc="(120,100)" name="Splitter">
+          <a name="incoming" val="4"/>
+          <a name="bit1" val="0"/>
+          <a name="bit2" val="1"/>
+          <a name="bit3" val="1"/>
+        </comp>
+        <comp lib="0" loc="(180,80)" name="Tunnel">
+          <a name="width" val="2"/>
+          <a name="label" val="low"/>
+        </comp>
+        <comp lib="0" loc="(180,140)" name="Tunnel">
+          <a name="facing" val="east"/>
+          <a name="width" val="2"/>
+          <a name="label" val="low"/>
+        </comp>
+        <comp lib="0" loc="(180,180)" name="Tunnel">
+          <a name="facing" val="east"/>
+          <a name="width" val="2"/>
+          <a name="label" val="low"/>
+        </comp>
+        <comp lib="0" loc="(220,90)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+          <a name="width" val="2"/>
+          <a name="label" val="H"/>
+        </comp>
+        <comp lib="0" loc="(220,140)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+          <a name="width" val="2"/>
+          <a name="label" val="L"/>
+        </comp>
+        <comp lib="0" loc="(220,180)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+          <a name="width" val="2"/>
+          <a name="label" val="M"/>
+        </comp>
+        <comp lib="0" loc="(100,240)" name="Pin">
+          <a name="label" val="B"/>
+        </comp>
+        <comp lib="0" loc="(140,240)" name="Tunnel">
+          <a name="label" val="b"/>
+        </comp>
+        <comp lib="0" loc="(180,240)" name="Tunnel">
+          <a name="facing" val="east"/>
+          <a name="label" val="b"/>
+        </comp>
+        <comp lib="0" loc="(220,240)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+          <a name="label" val="C"/>
+        </comp>
+      </circuit>
+      """;
+
+  // an AND gate in a subcircuit, with a pin on each port of its instance
+  private static final String HIERARCHY =
+      """
+      <circuit name="main">
+        <comp loc="(300,200)" name="sub">
+          <a name="label" val="s"/>
+        </comp>
+        <comp lib="0" loc="(270,200)" name="Pin">
+          <a name="label" val="a"/>
+        </comp>
+        <comp lib="0" loc="(270,210)" name="Pin">
+          <a name="label" val="b"/>
+        </comp>
+        <comp lib="0" loc="(300,200)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+          <a name="label" val="y"/>
+        </comp>
+      </circuit>
+      <circuit name="sub">
+        <comp lib="0" loc="(150,80)" name="Pin">
+          <a name="label" val="a"/>
+        </comp>
+        <comp lib="0" loc="(150,120)" name="Pin">
+          <a name="label" val="b"/>
+        </comp>
+        <comp lib="0" loc="(200,100)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+          <a name="label" val="y"/>
+        </comp>
+        <comp lib="1" loc="(200,100)" name="AND Gate"/>
+      </circuit>
+      """;
+
+  private static netlistComponent getPin(Netlist netlist, String label) {
+    for (var i = 0; i < netlist.getNumberOfInputPorts(); i++) {
+      final var pin = netlist.getInputPin(i);
+      if (label.equals(pin.getComponent().getAttributeSet().getValue(StdAttr.LABEL))) return pin;
+    }
+    for (var i = 0; i < netlist.numberOfOutputPorts(); i++) {
+      final var pin = netlist.getOutputPin(i);
+      if (label.equals(pin.getComponent().getAttributeSet().getValue(StdAttr.LABEL))) return pin;
+    }
+    return null;
+  }
+
+  /** Checks that the given bits of the pin connect to the bits of the bus from the given one on. */
+  private static void assertConnected(netlistComponent pin, Net bus, int firstBit) {
+    final var end = pin.getEnd(0);
+    for (var bit = 0; bit < end.getNrOfBits(); bit++) {
+      final var point = end.get((byte) bit);
+      assertSame(bus, point.getParentNet());
+      assertEquals(firstBit + bit, (int) point.getParentNetBitIndex());
+    }
+  }
+
+  @Test
+  public void testBussesSplittersAndTunnels() throws Exception {
+    final var circ = ProjectFixture.open(CIRCUITS).getLogisimFile().getCircuit("main");
+    final var netlist = circ.getNetList();
+    assertEquals(Netlist.DRC_PASSED, netlist.designRuleCheckResult(true, new HashSet<>()));
+
+    // the three tunnels and the splitter join everything but the last input in one bus
+    assertEquals(1, netlist.numberOfBusses());
+    assertEquals(1, netlist.numberOfNets());
+    final var bus = getPin(netlist, "A").getEnd(0).get((byte) 0).getParentNet();
+    assertEquals(4, bus.getBitWidth());
+    assertConnected(getPin(netlist, "A"), bus, 0);
+    assertConnected(getPin(netlist, "L"), bus, 0);
+    assertConnected(getPin(netlist, "M"), bus, 0);
+    assertConnected(getPin(netlist, "H"), bus, 2);
+
+    final var net = getPin(netlist, "B").getEnd(0).get((byte) 0).getParentNet();
+    assertEquals(1, net.getBitWidth());
+    assertConnected(getPin(netlist, "C"), net, 0);
+    assertNotEquals(netlist.getNetId(bus), netlist.getNetId(net));
+  }
+
+  private static void addWire(Circuit circ, int x0, int y0, int x1, int y1) {
+    final var m = new CircuitMutation(circ);
+    m.add(Wire.create(Location.create(x0, y0, true), Location.create(x1, y1, true)));
+    m.execute();
+  }
+
+  @Test
+  public void testUnchangedCircuitsKeepTheirNetlist() throws Exception {
+    final var file = ProjectFixture.open(HIERARCHY).getLogisimFile();
+    final var main = file.getCircuit("main").getNetList();
+    final var sub = file.getCircuit("sub").getNetList();
+    assertEquals(Netlist.DRC_PASSED, main.designRuleCheckResult(true, new HashSet<>()));
+    var mainNets = List.copyOf(main.getAllNets());
+    var subNets = List.copyOf(sub.getAllNets());
+    assertFalse(mainNets.isEmpty());
+    assertFalse(subNets.isEmpty());
+
+    // nothing changed, so nothing is generated again
+    assertEquals(Netlist.DRC_PASSED, main.designRuleCheckResult(true, new HashSet<>()));
+    assertEquals(mainNets, main.getAllNets());
+    assertEquals(subNets, sub.getAllNets());
+
+    // an edit of the subcircuit changes the circuits using it as well
+    addWire(file.getCircuit("sub"), 200, 100, 200, 140);
+    assertEquals(Netlist.DRC_PASSED, main.designRuleCheckResult(true, new HashSet<>()));
+    assertNotSame(mainNets.get(0), main.getAllNets().get(0));
+    assertNotSame(subNets.get(0), sub.getAllNets().get(0));
+    mainNets = List.copyOf(main.getAllNets());
+    subNets = List.copyOf(sub.getAllNets());
+
+    // but not the other way round
+    addWire(file.getCircuit("main"), 300, 200, 320, 200);
+    assertEquals(Netlist.DRC_PASSED, main.designRuleCheckResult(true, new HashSet<>()));
+    assertNotSame(mainNets.get(0), main.getAllNets().get(0));
+    assertEquals(subNets, sub.getAllNets());
+  }
+}
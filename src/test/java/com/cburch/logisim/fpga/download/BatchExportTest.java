@@ -0,0 +1,46 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.fpga.download;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.cburch.logisim.ProjectFixture;
+import org.junit.jupiter.api.Test;
+
+public class BatchExportTest {
+
+  // an AND gate with a pin on each port
+  private static final String CIRCUITS =
+      """
+      <circuit name="main">
+        <comp lib="0" loc="(150,80)" name="Pin"/>
+        <comp lib="0" loc="(150,120)" name="Pin"/>
+        <comp lib="0" loc="(200,100)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+        </comp>
+        <comp lib="1" loc="(200,100)" name="AND Gate"/>
+      </circuit>
+      """;
+
+  @Test
+  public void testUnknownCircuitFails() throws Exception {
+    final var export = new BatchExport(ProjectFixture.open(CIRCUITS), "no such circuit", 1, true);
+    export.addTarget("BASYS3", null);
+    assertFalse(export.run());
+  }
+
+  @Test
+  public void testUnknownBoardFailsWithoutExport() throws Exception {
+    final var export = new BatchExport(ProjectFixture.open(CIRCUITS), "main", 1, true);
+    export.addTarget("no such board", null);
+    assertFalse(export.run());
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.fpga.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileWriterTest {
+
+  // well before any of the files the tests write
+  private static final long OLD_TIME = 1_000_000_000_000L;
+
+  @TempDir File dir;
+
+  /** Writes the given entity file during the export, returning it. */
+  private File write(String name, String contents) {
+    final var file = FileWriter.getFilePointer(dir.getPath(), name, true);
+    assertNotNull(file, name);
+    assertTrue(FileWriter.writeContentsIfChanged(file, List.of(contents)));
+    return file;
+  }
+
+  private void export(String... names) {
+    try (final var export = FileWriter.startIncrementalExport(List.of(dir.getPath()))) {
+      for (final var name : names) write(name, name);
+      assertTrue(export.finish());
+    }
+  }
+
+  @Test
+  public void testUnchangedFilesKeepTheirTimeStamps() throws Exception {
+    export("first", "second");
+    final var first = FileWriter.getFilePointer(dir.getPath(), "first", true);
+    assertNull(first); // it exists and no export is running
+    final var files = dir.listFiles();
+    assertEquals(2, files.length);
+    for (final var file : files) assertTrue(file.setLastModified(OLD_TIME));
+
+    try (final var export = FileWriter.startIncrementalExport(List.of(dir.getPath()))) {
+      final var same = write("first", "first");
+      final var changed = write("second", "changed");
+      assertTrue(export.finish());
+      assertEquals(OLD_TIME, same.lastModified());
+      assertNotEquals(OLD_TIME, changed.lastModified());
+      assertEquals("changed\n", Files.readString(changed.toPath()));
+    }
+  }
+
+  @Test
+  public void testFinishRemovesTheFilesNoLongerExported() {
+    export("first", "second");
+    assertEquals(2, dir.listFiles().length);
+    export("first");
+    final var files = dir.listFiles();
+    assertEquals(1, files.length);
+    assertTrue(files[0].getName().startsWith("first"));
+  }
+
+  @Test
+  public void testFailedExportKeepsThePreviousFiles() {
+    export("first", "second");
+    try (final var export = FileWriter.startIncrementalExport(List.of(dir.getPath()))) {
+      write("first", "first");
+      // the export fails here, so it is closed without being finished
+    }
+    assertEquals(2, dir.listFiles().length);
+    // and the next export starts afresh
+    export("second");
+    assertEquals(1, dir.listFiles().length);
+  }
+
+  @Test
+  public void testFileWrittenTwiceInOneExport() {
+    try (final var export = FileWriter.startIncrementalExport(List.of(dir.getPath()))) {
+      write("first", "first");
+      assertNull(FileWriter.getFilePointer(dir.getPath(), "first", true));
+      assertTrue(export.finish());
+    }
+  }
+
+  @Test
+  public void testFilesOutsideTheExportAreNotTracked(@TempDir File other) {
+    try (final var export = FileWriter.startIncrementalExport(List.of(dir.getPath()))) {
+      final var file = FileWriter.getFilePointer(other.getPath(), "first", true);
+      assertNotNull(file);
+      assertTrue(FileWriter.writeContentsIfChanged(file, List.of("first")));
+      assertNull(FileWriter.getFilePointer(other.getPath(), "first", true));
+      assertTrue(export.finish());
+    }
+    assertEquals(1, other.listFiles().length);
+    assertEquals(0, dir.listFiles().length);
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.gui.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.cburch.logisim.data.BitWidth;
+import com.cburch.logisim.data.Value;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class SignalSummaryTest {
+
+  @Test
+  public void testKindOf() {
+    final var four = BitWidth.create(4);
+    assertEquals(SignalSummary.LOW, SignalSummary.kindOf(Value.FALSE));
+    assertEquals(SignalSummary.HIGH, SignalSummary.kindOf(Value.TRUE));
+    assertEquals(SignalSummary.UNKNOWN, SignalSummary.kindOf(Value.UNKNOWN));
+    assertEquals(SignalSummary.ERROR, SignalSummary.kindOf(Value.ERROR));
+    assertEquals(SignalSummary.LOW, SignalSummary.kindOf(Value.createKnown(four, 0)));
+    assertEquals(SignalSummary.HIGH, SignalSummary.kindOf(Value.createKnown(four, 15)));
+    assertEquals(SignalSummary.OTHER, SignalSummary.kindOf(Value.createKnown(four, 14)));
+    assertEquals(SignalSummary.HIGH, SignalSummary.kindOf(Value.createKnown(BitWidth.create(64), -1)));
+  }
+
+  /** Compares the union of every range of slots with a direct computation, while the tree grows. */
+  @Test
+  public void testGetKinds() {
+    final var values = new Value[] {Value.FALSE, Value.TRUE, Value.UNKNOWN, Value.ERROR};
+    final var random = new Random(42);
+    final var summary = new SignalSummary();
+    final var kinds = new int[100];
+    for (var slot = 0; slot < kinds.length; slot++) {
+      final var v = values[random.nextInt(values.length)];
+      summary.set(slot, 10L * slot, v);
+      kinds[slot] = SignalSummary.kindOf(v);
+      for (var from = 0; from <= slot + 1; from++) {
+        var expected = 0;
+        for (var to = from; to <= slot + 1; to++) {
+          assertEquals(expected, summary.getKinds(from, to));
+          if (to <= slot) expected |= kinds[to];
+        }
+      }
+    }
+    for (var slot = 0; slot < kinds.length; slot++) assertEquals(10L * slot, summary.getStart(slot));
+  }
+}
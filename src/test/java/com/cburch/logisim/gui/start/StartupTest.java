@@ -0,0 +1,67 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.gui.start;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.prefs.AppPreferences;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class StartupTest {
+
+  private static Startup.ExportFpgaArgs parse(String... args) {
+    return Startup.parseExportFpgaArgs(args);
+  }
+
+  @Test
+  public void testExportFpgaArguments() {
+    final var names = AppPreferences.Boards.getBoardNames();
+    final var first = names.get(0);
+    final var second = names.get(1);
+
+    final var args =
+        parse("file.circ", "main", "board=" + first, "map=first.xml", "board=" + second);
+    assertEquals("file.circ", args.circFile());
+    assertEquals("main", args.circuitName());
+    final var expected = new LinkedHashMap<String, String>();
+    expected.put(first, "first.xml");
+    expected.put(second, null);
+    assertEquals(expected, args.boards());
+    assertEquals(List.copyOf(expected.keySet()), new ArrayList<>(args.boards().keySet()));
+    assertEquals(-1, args.tickFrequency());
+    assertFalse(args.hdlOnly());
+
+    // the options may come in any order after the boards they refer to
+    final var more = parse("file.circ", "main", "freq=50", "HDLONLY", "board=" + first);
+    assertEquals(50, more.tickFrequency());
+    assertTrue(more.hdlOnly());
+    assertEquals(Arrays.asList(first), new ArrayList<>(more.boards().keySet()));
+  }
+
+  @Test
+  public void testInvalidExportFpgaArguments() {
+    final var board = "board=" + AppPreferences.Boards.getBoardNames().get(0);
+    // a bare number is neither a board nor a frequency
+    assertNull(parse("file.circ", "main", board, "50"));
+    assertNull(parse("file.circ", "main", board, "freq=fast"));
+    // a map file needs a board before it
+    assertNull(parse("file.circ", "main", "map=first.xml", board));
+    assertNull(parse("file.circ", "main", "freq=50"));
+    assertNull(parse("file.circ", "main", board, "board=no such board"));
+    assertNull(parse("file.circ", "main", board, "board=1234"));
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.proj;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.cburch.logisim.ProjectFixture;
+import com.cburch.logisim.circuit.Simulator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProjectTest {
+
+  private static final String CIRCUITS =
+      """
+      <circuit name="main">
+      </circuit>
+      <circuit name="other">
+      </circuit>
+      """;
+
+  private Project proj;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    proj = ProjectFixture.open(CIRCUITS);
+    proj.setCurrentCircuit(proj.getLogisimFile().getCircuit("main"));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    proj.getSimulator().shutDown();
+  }
+
+  @Test
+  public void testSwitchingCircuitsTakesTheirTickFrequency() {
+    final var simulator = proj.getSimulator();
+    final var other = proj.getLogisimFile().getCircuit("other");
+    simulator.setTickFrequency(2.0);
+    other.setTickFrequency(8.0);
+    proj.setCurrentCircuit(other);
+    assertEquals(8.0, simulator.getTickFrequency());
+  }
+
+  @Test
+  public void testSwitchingCircuitsKeepsUnlimitedTickFrequency() {
+    final var simulator = proj.getSimulator();
+    final var main = proj.getLogisimFile().getCircuit("main");
+    final var other = proj.getLogisimFile().getCircuit("other");
+    other.setTickFrequency(8.0);
+    simulator.setTickFrequency(Simulator.UNLIMITED_TICK_FREQUENCY);
+    proj.setCurrentCircuit(other);
+    assertEquals(Simulator.UNLIMITED_TICK_FREQUENCY, simulator.getTickFrequency());
+    proj.setCurrentCircuit(main);
+    assertEquals(Simulator.UNLIMITED_TICK_FREQUENCY, simulator.getTickFrequency());
+    // and it is not stored in the circuits either
+    assertEquals(8.0, other.getTickFrequency());
+    assertFalse(Double.isInfinite(main.getTickFrequency()));
+  }
+}
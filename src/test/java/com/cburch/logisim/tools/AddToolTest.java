@@ -0,0 +1,74 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.cburch.logisim.file.Loader;
+import com.cburch.logisim.instance.StdAttr;
+import com.cburch.logisim.prefs.AppPreferences;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+public class AddToolTest {
+
+  /** Tells the preference listeners that the default appearance changed. */
+  private static void fireDefaultAppearanceChanged() throws Exception {
+    final var fire =
+        AppPreferences.class.getDeclaredMethod(
+            "firePropertyChange", String.class, Object.class, Object.class);
+    fire.setAccessible(true);
+    fire.invoke(
+        null,
+        AppPreferences.DefaultAppearance.getIdentifier(),
+        StdAttr.APPEAR_CLASSIC.getValue(),
+        StdAttr.APPEAR_EVOLUTION.getValue());
+  }
+
+  @Test
+  public void testBuiltinLibrariesDoNotLoadTheirFactories() throws Exception {
+    final var lazy = new ArrayList<AddTool>();
+    for (final var lib : new Loader(null).getBuiltin().getLibraries()) {
+      for (final var tool : lib.getTools()) {
+        if (tool instanceof AddTool addTool && addTool.getFactory(false) == null) {
+          final var attrs = (FactoryAttributes) addTool.getAttributeSet();
+          assertFalse(attrs.isFactoryInstantiated(), addTool.getName());
+          lazy.add(addTool);
+        }
+      }
+    }
+    assertFalse(lazy.isEmpty());
+
+    // a change of preference must not load them either
+    fireDefaultAppearanceChanged();
+    for (final var tool : lazy) {
+      assertFalse(
+          ((FactoryAttributes) tool.getAttributeSet()).isFactoryInstantiated(), tool.getName());
+      assertNull(tool.getFactory(false), tool.getName());
+    }
+  }
+
+  @Test
+  public void testLoadedToolFollowsDefaultAppearance() throws Exception {
+    final var memory = new Loader(null).getBuiltin().getLibrary("Memory");
+    final var tool = (AddTool) memory.getTool("Register");
+    final var attrs = tool.getAttributeSet();
+    final var other =
+        AppPreferences.getDefaultAppearance() == StdAttr.APPEAR_CLASSIC
+            ? StdAttr.APPEAR_EVOLUTION
+            : StdAttr.APPEAR_CLASSIC;
+    // loading the factory registers the tool for the preference
+    attrs.setValue(StdAttr.APPEARANCE, other);
+    fireDefaultAppearanceChanged();
+    assertEquals(AppPreferences.getDefaultAppearance(), attrs.getValue(StdAttr.APPEARANCE));
+  }
+}
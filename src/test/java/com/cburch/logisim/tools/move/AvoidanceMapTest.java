@@ -0,0 +1,195 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.tools.move;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.cburch.logisim.circuit.Wire;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.std.wiring.Pin;
+import com.cburch.logisim.std.wiring.Probe;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class AvoidanceMapTest {
+
+  private static final int MIN = -100;
+  private static final int MAX = 500;
+
+  /** The rules of the avoidance map, kept in a map of locations as they were before the grid. */
+  private static class Reference {
+    private final HashMap<Location, String> map = new HashMap<>();
+
+    Reference copy() {
+      final var ret = new Reference();
+      ret.map.putAll(map);
+      return ret;
+    }
+
+    void markComponent(Component comp, int dx, int dy) {
+      final var bds = comp.getBounds();
+      var x0 = bds.getX() + dx;
+      var y0 = bds.getY() + dy;
+      final var x1 = x0 + bds.getWidth();
+      final var y1 = y0 + bds.getHeight();
+      x0 += 9 - (x0 + 9) % 10;
+      y0 += 9 - (y0 + 9) % 10;
+      for (var x = x0; x <= x1; x += 10) {
+        for (var y = y0; y <= y1; y += 10) {
+          final var loc = Location.create(x, y, false);
+          if (comp.contains(loc.translate(-dx, -dy))) map.put(loc, Connector.ALLOW_NEITHER);
+        }
+      }
+    }
+
+    void markWire(Wire w, int dx, int dy) {
+      final var loc0 = w.getEnd0().translate(dx, dy);
+      final var loc1 = w.getEnd1().translate(dx, dy);
+      map.put(loc0, Connector.ALLOW_NEITHER);
+      map.put(loc1, Connector.ALLOW_NEITHER);
+      final var vertical = loc0.getX() == loc1.getX();
+      final var allow = vertical ? Connector.ALLOW_HORIZONTAL : Connector.ALLOW_VERTICAL;
+      for (final var loc : Wire.create(loc0, loc1)) {
+        final var prev = map.put(loc, allow);
+        if (prev != null && !prev.equals(allow)) map.put(loc, Connector.ALLOW_NEITHER);
+      }
+    }
+
+    void unmarkWire(Wire w, Location deletedEnd, Set<Location> unmarkable) {
+      if (unmarkable != null && !unmarkable.contains(deletedEnd)) return;
+      map.remove(deletedEnd);
+      final var vertical = w.getEnd0().getX() == w.getEnd1().getX();
+      for (final var loc : w) {
+        final var prev = map.remove(loc);
+        if (vertical && Connector.ALLOW_HORIZONTAL.equals(prev)) {
+          map.put(loc, Connector.ALLOW_VERTICAL);
+        } else if (!vertical && !Connector.ALLOW_VERTICAL.equals(prev)) {
+          map.put(loc, Connector.ALLOW_HORIZONTAL);
+        }
+      }
+    }
+  }
+
+  private static void assertSameMap(Reference expected, AvoidanceMap actual) {
+    for (var x = MIN - 20; x <= MAX + 20; x += 5) {
+      for (var y = MIN - 20; y <= MAX + 20; y += 5) {
+        final var loc = Location.create(x, y, false);
+        assertEquals(expected.map.get(loc), actual.get(loc), loc.toString());
+      }
+    }
+  }
+
+  private static int randomCoordinate(Random rnd) {
+    return MIN + 10 * rnd.nextInt((MAX - MIN) / 10);
+  }
+
+  private static Wire randomWire(Random rnd) {
+    final var x = randomCoordinate(rnd);
+    final var y = randomCoordinate(rnd);
+    final var length = 10 * (1 + rnd.nextInt(20));
+    return rnd.nextBoolean()
+        ? Wire.create(Location.create(x, y, true), Location.create(x + length, y, true))
+        : Wire.create(Location.create(x, y, true), Location.create(x, y + length, true));
+  }
+
+  private static Component randomComponent(Random rnd) {
+    final var factory = rnd.nextBoolean() ? Pin.FACTORY : Probe.FACTORY;
+    final var loc = Location.create(randomCoordinate(rnd), randomCoordinate(rnd), true);
+    return factory.createComponent(loc, factory.createAttributeSet());
+  }
+
+  // moves are snapped to the grid, unless the user asks otherwise
+  private static int randomDelta(Random rnd) {
+    return rnd.nextInt(4) == 0 ? 5 * (rnd.nextInt(9) - 4) : 10 * (rnd.nextInt(9) - 4);
+  }
+
+  @Test
+  public void testFollowsTheRulesOfTheLocationMap() {
+    final var rnd = new Random(42);
+    for (var round = 0; round < 10; round++) {
+      final var elements = new ArrayList<Component>();
+      for (var i = 0; i < 20; i++) {
+        elements.add(rnd.nextBoolean() ? randomWire(rnd) : randomComponent(rnd));
+      }
+      final var dx = randomDelta(rnd);
+      final var dy = randomDelta(rnd);
+      final var map = AvoidanceMap.create(elements, dx, dy);
+      final var expected = new Reference();
+      for (final var element : elements) {
+        if (element instanceof Wire wire) expected.markWire(wire, dx, dy);
+        else expected.markComponent(element, dx, dy);
+      }
+      assertSameMap(expected, map);
+
+      // a clone changes on its own, as it does for each ordering of the connections
+      final var clone = map.cloneMap();
+      final var original = expected.copy();
+      final var wires = new ArrayList<Wire>();
+      for (var i = 0; i < 30; i++) {
+        switch (rnd.nextInt(4)) {
+          case 0 -> {
+            final var wire = randomWire(rnd);
+            wires.add(wire);
+            clone.markWire(wire, 0, 0);
+            expected.markWire(wire, 0, 0);
+          }
+          case 1 -> {
+            final var comp = randomComponent(rnd);
+            final var ddx = randomDelta(rnd);
+            final var ddy = randomDelta(rnd);
+            clone.markComponent(comp, ddx, ddy);
+            expected.markComponent(comp, ddx, ddy);
+          }
+          case 2 -> {
+            if (wires.isEmpty()) continue;
+            final var wire = wires.get(rnd.nextInt(wires.size()));
+            final var end = rnd.nextBoolean() ? wire.getEnd0() : wire.getEnd1();
+            final var unmarkable =
+                switch (rnd.nextInt(3)) {
+                  case 0 -> null;
+                  case 1 -> Set.of(end);
+                  default -> Set.of(wire.getOtherEnd(end));
+                };
+            clone.unmarkWire(wire, end, unmarkable);
+            expected.unmarkWire(wire, end, unmarkable);
+          }
+          default -> {
+            final var loc = Location.create(randomCoordinate(rnd), randomCoordinate(rnd), true);
+            clone.unmarkLocation(loc);
+            expected.map.remove(loc);
+          }
+        }
+      }
+      assertSameMap(expected, clone);
+      assertSameMap(original, map);
+    }
+  }
+
+  @Test
+  public void testPointsFarOffTheMarkedOnes() {
+    final var map = AvoidanceMap.create(List.of(), 0, 0);
+    final var far = Location.create(100_000, -100_000, true);
+    assertNull(map.get(far));
+    map.markWire(Wire.create(far, far.translate(20, 0)), 0, 0);
+    assertEquals(Connector.ALLOW_NEITHER, map.get(far));
+    assertEquals(Connector.ALLOW_VERTICAL, map.get(far.translate(10, 0)));
+    assertNull(map.get(Location.create(0, 0, true)));
+    map.markWire(Wire.create(Location.create(-50, 0, true), Location.create(-50, 10, true)), 5, 0);
+    assertEquals(Connector.ALLOW_NEITHER, map.get(Location.create(-45, 0, false)));
+    assertNull(map.get(Location.create(-50, 0, false)));
+    assertEquals(Connector.ALLOW_VERTICAL, map.get(far.translate(10, 0)));
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Logisim-evolution - digital logic design tool and simulator
+ * Copyright by the Logisim-evolution developers
+ *
+ * https://github.com/logisim-evolution/
+ *
+ * This is free software released under GNU GPLv3 license
+ */
+
+package com.cburch.logisim.tools.move;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cburch.logisim.ProjectFixture;
+import com.cburch.logisim.circuit.Circuit;
+import com.cburch.logisim.circuit.Wire;
+import com.cburch.logisim.comp.Component;
+import com.cburch.logisim.data.Location;
+import com.cburch.logisim.std.wiring.Pin;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class ConnectorTest {
+
+  // a NOT gate and an AND gate, with a wired pin on each of their ports
+  private static final String CIRCUITS =
+      """
+      <circuit name="main">
+        <wire from="(100,100)" to="(170,100)"/>
+        <wire from="(200,100)" to="(300,100)"/>
+        <wire from="(100,200)" to="(150,200)"/>
+        <wire from="(100,240)" to="(150,240)"/>
+        <wire from="(200,220)" to="(300,220)"/>
+        <comp lib="0" loc="(100,100)" name="Pin"/>
+        <comp lib="0" loc="(300,100)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+        </comp>
+        <comp lib="0" loc="(100,200)" name="Pin"/>
+        <comp lib="0" loc="(100,240)" name="Pin"/>
+        <comp lib="0" loc="(300,220)" name="Pin">
+          <a name="facing" val="west"/>
+          <a name="output" val="true"/>
+        </comp>
+        <comp lib="1" loc="(200,100)" name="NOT Gate"/>
+        <comp lib="1" loc="(200,220)" name="AND Gate"/>
+      </circuit>
+      """;
+
+  private static Component gateAt(Circuit circ, int x, int y) {
+    for (final var comp : circ.getNonWires(Location.create(x, y, true))) {
+      if (!(comp.getFactory() instanceof Pin)) return comp;
+    }
+    return null;
+  }
+
+  private static MoveResult move(Circuit circ, Component comp, int dx, int dy) {
+    final var gesture = new MoveGesture(null, circ, List.of(comp));
+    final var result = Connector.computeWires(new MoveRequest(gesture, dx, dy));
+    assertNotNull(result);
+    return result;
+  }
+
+  /** Returns the wires of the circuit once the move is done. */
+  private static Set<Wire> getWiresAfter(Circuit circ, MoveResult result) {
+    final var replacements = result.getReplacementMap();
+    final var wires = new HashSet<>(circ.getWires());
+    wires.removeAll(replacements.getRemovals());
+    for (final var comp : replacements.getAdditions()) {
+      if (comp instanceof Wire wire) wires.add(wire);
+    }
+    return wires;
+  }
+
+  /** Checks that the wires connect the given points. */
+  private static void assertConnected(Set<Wire> wires, Location from, Location to) {
+    final var reached = new HashSet<Location>();
+    reached.add(from);
+    var grown = true;
+    while (grown) {
+      grown = false;
+      for (final var wire : wires) {
+        if (reached.contains(wire.getEnd0()) != reached.contains(wire.getEnd1())) {
+          reached.add(wire.getEnd0());
+          reached.add(wire.getEnd1());
+          grown = true;
+        }
+      }
+    }
+    assertTrue(reached.contains(to), from + " to " + to + " through " + wires);
+  }
+
+  @Test
+  public void testRoutesAllConnectionsOfTheMovedComponent() throws Exception {
+    final var circ = ProjectFixture.load(CIRCUITS).getCircuit("main");
+    final var and = gateAt(circ, 200, 220);
+    // three connections are routed under several orderings at once
+    final var result = move(circ, and, 40, 30);
+    assertTrue(result.getUnsatisifiedConnections().isEmpty());
+    assertTrue(result.getUnconnectedLocations().isEmpty());
+    final var wires = getWiresAfter(circ, result);
+    assertConnected(wires, Location.create(100, 200, true), Location.create(190, 230, true));
+    assertConnected(wires, Location.create(100, 240, true), Location.create(190, 270, true));
+    assertConnected(wires, Location.create(240, 250, true), Location.create(300, 220, true));
+  }
+
+  @Test
+  public void testSortedOrderingsGiveTheSameWires() throws Exception {
+    final var circ = ProjectFixture.load(CIRCUITS).getCircuit("main");
+    final var not = gateAt(circ, 200, 100);
+    // with two connections only the sorted orderings are tried, so the result does not depend on
+    // which of them finishes first
+    final var first = move(circ, not, 0, 40);
+    assertTrue(first.getUnsatisifiedConnections().isEmpty());
+    final var wires = getWiresAfter(circ, first);
+    assertConnected(wires, Location.create(100, 100, true), Location.create(170, 140, true));
+    assertConnected(wires, Location.create(200, 140, true), Location.create(300, 100, true));
+    for (var i = 0; i < 20; i++) {
+      final var again = move(circ, not, 0, 40);
+      assertEquals(wires, getWiresAfter(circ, again));
+      assertEquals(first.getTotalDistance(), again.getTotalDistance());
+    }
+  }
+}
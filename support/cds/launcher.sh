@@ -0,0 +1,27 @@
+#!/bin/sh
+#
+# Logisim-evolution - digital logic design tool and simulator
+# Copyright by the Logisim-evolution developers
+#
+# https://github.com/logisim-evolution/
+#
+# This is free software released under GNU GPLv3 license
+#
+
+# Runs logisim-evolution without a display, i.e. with --tty or --test-vector, mapping the classes
+# it needs from the archive made by `./gradlew createCdsArchive` instead of loading them one by one.
+# The archive only fits the jar next to it and the Java version it was made with. With any other,
+# the JVM says so on stderr and starts as usual.
+
+dir=$(cd "$(dirname "$0")" && pwd)
+java=java
+if [ -n "$JAVA_HOME" ]; then
+  java="$JAVA_HOME/bin/java"
+fi
+
+# JVM warnings go to stderr, so that they do not end up in the simulation output
+exec "$java" \
+  -XX:SharedArchiveFile="$dir/@ARCHIVE@" \
+  -Xlog:disable -Xlog:all=warning:stderr \
+  -Djava.awt.headless=true \
+  -jar "$dir/@JAR@" "$@"